@@ -0,0 +1,121 @@
+package org.ekstep.cassandra.connector.util;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+import org.ekstep.common.Platform;
+
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.ResultSetFuture;
+import com.datastax.driver.core.Session;
+import com.datastax.driver.core.Statement;
+
+/**
+ * Executes statements with <code>executeAsync</code> and exposes the result as
+ * a {@link CompletableFuture}.
+ *
+ * At most <code>cassandra.async.max_in_flight</code> statements are sent to the
+ * cluster at a time, statements submitted beyond that are queued and sent as
+ * earlier ones complete, so the caller never waits for a permit. At most
+ * <code>cassandra.async.max_queued</code> statements are queued, further
+ * statements are rejected: their future fails with a
+ * {@link RejectedExecutionException} without being sent. The futures are
+ * completed on the common fork-join pool rather than on the driver I/O
+ * threads, so that callbacks can not stall the connections.
+ */
+public class AsyncQueryExecutor {
+
+	private static final int MAX_IN_FLIGHT = Platform.config.hasPath("cassandra.async.max_in_flight")
+			? Platform.config.getInt("cassandra.async.max_in_flight") : 512;
+	private static final int MAX_QUEUED = Platform.config.hasPath("cassandra.async.max_queued")
+			? Platform.config.getInt("cassandra.async.max_queued") : 10000;
+
+	private static final AsyncQueryExecutor executor = new AsyncQueryExecutor(MAX_IN_FLIGHT, MAX_QUEUED,
+			ForkJoinPool.commonPool());
+
+	private final int maxInFlight;
+	private final int maxQueued;
+	private final Semaphore permits;
+	private final BlockingQueue<Runnable> pending;
+	private final Executor callbackExecutor;
+
+	AsyncQueryExecutor(int maxInFlight, int maxQueued, Executor callbackExecutor) {
+		this.maxInFlight = maxInFlight;
+		this.maxQueued = maxQueued;
+		this.permits = new Semaphore(maxInFlight);
+		this.pending = new LinkedBlockingQueue<>(maxQueued);
+		this.callbackExecutor = callbackExecutor;
+	}
+
+	public static CompletableFuture<ResultSet> execute(Session session, Statement statement) {
+		return executor.submit(session, statement);
+	}
+
+	/**
+	 * @return the number of statements sent and not yet completed
+	 */
+	public static int getInFlight() {
+		return executor.inFlight();
+	}
+
+	public static int getQueued() {
+		return executor.queued();
+	}
+
+	CompletableFuture<ResultSet> submit(Session session, Statement statement) {
+		CompletableFuture<ResultSet> future = new CompletableFuture<>();
+		if (!pending.offer(() -> send(session, statement, future)))
+			future.completeExceptionally(
+					new RejectedExecutionException("Cassandra statement rejected, queue limit reached: " + maxQueued));
+		drain();
+		return future;
+	}
+
+	int inFlight() {
+		return maxInFlight - permits.availablePermits();
+	}
+
+	int queued() {
+		return pending.size();
+	}
+
+	private void drain() {
+		while (!pending.isEmpty() && permits.tryAcquire()) {
+			Runnable task = pending.poll();
+			if (null == task)
+				permits.release();
+			else
+				task.run();
+		}
+	}
+
+	private void send(Session session, Statement statement, CompletableFuture<ResultSet> future) {
+		try {
+			ResultSetFuture resultSetFuture = session.executeAsync(statement);
+			resultSetFuture.addListener(() -> {
+				permits.release();
+				complete(resultSetFuture, future);
+				drain();
+			}, callbackExecutor);
+		} catch (Throwable e) {
+			permits.release();
+			future.completeExceptionally(e);
+		}
+	}
+
+	private static void complete(ResultSetFuture resultSetFuture, CompletableFuture<ResultSet> future) {
+		try {
+			future.complete(resultSetFuture.get());
+		} catch (ExecutionException e) {
+			future.completeExceptionally(null == e.getCause() ? e : e.getCause());
+		} catch (Throwable e) {
+			future.completeExceptionally(e);
+		}
+	}
+}
@@ -0,0 +1,86 @@
+package org.ekstep.cassandra.connector.util;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.ekstep.common.Platform;
+
+import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.Session;
+
+/**
+ * Prepared statements of a session, keyed by their CQL text.
+ *
+ * Preparing a statement is a round trip to the cluster and the driver warns
+ * about statements prepared more than once, so statements are prepared once
+ * per session and reused afterwards. Queries built from a dynamic column set
+ * should list the columns in a stable order to share a statement. The number
+ * of statements kept per session is bounded by
+ * <code>cassandra.prepared_statement.cache.size</code>, the least recently
+ * used statement being evicted first.
+ */
+public class PreparedStatementCache {
+
+	private static final int MAX_SIZE = Platform.config.hasPath("cassandra.prepared_statement.cache.size")
+			? Platform.config.getInt("cassandra.prepared_statement.cache.size") : 1000;
+
+	private static final Map<Session, Map<String, PreparedStatement>> statements = new ConcurrentHashMap<>();
+	private static final AtomicLong hits = new AtomicLong();
+	private static final AtomicLong misses = new AtomicLong();
+
+	/**
+	 * Returns the prepared statement of the query, preparing it on the given
+	 * session if it is not cached yet.
+	 */
+	public static PreparedStatement get(Session session, String query) {
+		Map<String, PreparedStatement> sessionStatements = getStatements(session);
+		PreparedStatement statement = sessionStatements.get(query);
+		if (null == statement) {
+			misses.incrementAndGet();
+			statement = session.prepare(query);
+			sessionStatements.put(query, statement);
+		} else {
+			hits.incrementAndGet();
+		}
+		return statement;
+	}
+
+	public static Map<String, Object> getStats() {
+		Map<String, Object> stats = new HashMap<>();
+		int size = 0;
+		for (Map<String, PreparedStatement> sessionStatements : statements.values())
+			size += sessionStatements.size();
+		stats.put("size", size);
+		stats.put("hits", hits.get());
+		stats.put("misses", misses.get());
+		return stats;
+	}
+
+	public static void clear() {
+		statements.clear();
+		hits.set(0);
+		misses.set(0);
+	}
+
+	private static Map<String, PreparedStatement> getStatements(Session session) {
+		Map<String, PreparedStatement> sessionStatements = statements.get(session);
+		if (null == sessionStatements) {
+			// statements of a closed session can not be executed any more.
+			statements.keySet().removeIf(Session::isClosed);
+			sessionStatements = statements.computeIfAbsent(session,
+					key -> Collections.synchronizedMap(new LinkedHashMap<String, PreparedStatement>(16, 0.75f, true) {
+						private static final long serialVersionUID = 1L;
+
+						@Override
+						protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+							return size() > MAX_SIZE;
+						}
+					}));
+		}
+		return sessionStatements;
+	}
+}
@@ -11,8 +11,10 @@ import com.datastax.driver.core.querybuilder.Select;
 import com.datastax.driver.core.querybuilder.Select.Where;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.commons.lang3.StringUtils;
+import org.ekstep.cassandra.connector.util.AsyncQueryExecutor;
 import org.ekstep.cassandra.connector.util.CassandraConnector;
 import org.ekstep.cassandra.connector.util.CassandraConnectorStoreParam;
+import org.ekstep.cassandra.connector.util.PreparedStatementCache;
 import org.ekstep.common.Platform;
 import org.ekstep.common.dto.ExecutionContext;
 import org.ekstep.common.dto.HeaderParam;
@@ -24,6 +26,7 @@ import org.ekstep.telemetry.util.LogAsyncGraphEvent;
 
 import java.util.*;
 import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
 
 import static com.datastax.driver.core.querybuilder.QueryBuilder.eq;
 
@@ -60,9 +63,10 @@ public abstract class CassandraStore {
 				throw new ServerException(CassandraConnectorStoreParam.ERR_SERVER_ERROR.name(),
 						"Invalid record to Insert.");
 			}
-			Set<String> keySet = request.keySet();
-			String query = getPreparedStatement(keySet);
-			Object[] objects = getBindObjects(request);
+			// columns in a stable order, so that the statement is shared.
+			Map<String, Object> columns = new TreeMap<String, Object>(request);
+			String query = getPreparedStatement(columns.keySet());
+			Object[] objects = getBindObjects(columns);
 			executeQuery(query, objects);
 			logTransactionEvent(CassandraStoreParams.CREATE.name(), idValue, request);
 		} catch (Exception e) {
@@ -78,14 +82,15 @@ public abstract class CassandraStore {
 				throw new ServerException(CassandraConnectorStoreParam.ERR_SERVER_ERROR.name(),
 						"Invalid record to Update.");
 			}
-			Set<String> keySet = request.keySet();
+			Map<String, Object> columns = new TreeMap<String, Object>(request);
+			Set<String> keySet = columns.keySet();
 			String query = getUpdateQueryStatement(identifier, keySet);
 			String updateQuery = query + Constants.IF_EXISTS;
-			Object[] objects = new Object[request.size() + 1];
+			Object[] objects = new Object[columns.size() + 1];
 			Iterator<String> iterator = keySet.iterator();
 			int i = 0;
 			while (iterator.hasNext()) {
-				objects[i++] = request.get(iterator.next());
+				objects[i++] = columns.get(iterator.next());
 			}
 			objects[i] = idValue;
 			executeQuery(updateQuery, objects);
@@ -182,7 +187,7 @@ public abstract class CassandraStore {
 						"Invalid Identifier to read");
 			}
 			String selectQuery = getSelectStatement(identifier, properties);
-			PreparedStatement statement = CassandraConnector.getSession().prepare(selectQuery);
+			PreparedStatement statement = PreparedStatementCache.get(CassandraConnector.getSession(), selectQuery);
 			BoundStatement boundStatement = new BoundStatement(statement);
 			ResultSet results = CassandraConnector.getSession().execute(boundStatement.bind(identifier));
 			return results.all();
@@ -210,10 +215,11 @@ public abstract class CassandraStore {
 						"Invalid Identifier to read");
 			}
 			Session session = CassandraConnector.getSession();
-			String query = getPreparedStatementFrUpsert(request);
-			PreparedStatement statement = session.prepare(query);
+			Map<String, Object> columns = new TreeMap<String, Object>(request);
+			String query = getPreparedStatementFrUpsert(columns);
+			PreparedStatement statement = PreparedStatementCache.get(session, query);
 			BoundStatement boundStatement = new BoundStatement(statement);
-			Object[] objects = getBindObjects(request);
+			Object[] objects = getBindObjects(columns);
 			session.execute(boundStatement.bind(objects));
 
 		} catch (Exception e) {
@@ -222,6 +228,54 @@ public abstract class CassandraStore {
 		}
 	}
 
+	protected CompletableFuture<List<Row>> readAsync(String key, Object value) {
+		if (StringUtils.isBlank(key))
+			return getFailedFuture(new ServerException(CassandraConnectorStoreParam.ERR_SERVER_ERROR.name(),
+					"Invalid Identifier to read"));
+		Select selectQuery = QueryBuilder.select().all().from(keyspace, table);
+		selectQuery.where().and(QueryBuilder.eq(key, value));
+		return AsyncQueryExecutor.execute(CassandraConnector.getSession(), selectQuery).handle((results, e) -> {
+			if (null != e)
+				throw new ServerException(CassandraConnectorStoreParam.ERR_SERVER_ERROR.name(),
+						"Error while fetching record for ID : " + value, e);
+			return results.all();
+		});
+	}
+
+	protected CompletableFuture<Void> upsertRecordAsync(Map<String, Object> request) {
+		if (null == request || request.isEmpty())
+			return getFailedFuture(new ServerException(CassandraConnectorStoreParam.ERR_SERVER_ERROR.name(),
+					"Invalid Identifier to read"));
+		Map<String, Object> columns = new TreeMap<String, Object>(request);
+		return executeQueryAsync(getPreparedStatementFrUpsert(columns), getBindObjects(columns))
+				.handle((results, e) -> {
+					if (null != e)
+						throw new ServerException(CassandraConnectorStoreParam.ERR_SERVER_ERROR.name(),
+								"Error while upsert record", e);
+					return null;
+				});
+	}
+
+	/**
+	 * Executes the query with <code>executeAsync</code>, the number of
+	 * statements in flight is bounded by {@link AsyncQueryExecutor}.
+	 */
+	protected CompletableFuture<ResultSet> executeQueryAsync(String query, Object... objects) {
+		try {
+			Session session = CassandraConnector.getSession();
+			PreparedStatement statement = PreparedStatementCache.get(session, query);
+			return AsyncQueryExecutor.execute(session, statement.bind(objects));
+		} catch (Exception e) {
+			return getFailedFuture(e);
+		}
+	}
+
+	protected <T> CompletableFuture<T> getFailedFuture(Throwable e) {
+		CompletableFuture<T> future = new CompletableFuture<T>();
+		future.completeExceptionally(e);
+		return future;
+	}
+
 	/**
 	 * @return the objectType
 	 */
@@ -332,7 +386,7 @@ public abstract class CassandraStore {
 	 */
 	private ResultSet executeQuery(String query, Object... objects) {
 		Session session = CassandraConnector.getSession();
-		PreparedStatement statement = session.prepare(query);
+		PreparedStatement statement = PreparedStatementCache.get(session, query);
 		BoundStatement boundStatement = new BoundStatement(statement);
 		return session.execute(boundStatement.bind(objects));
 	}
@@ -0,0 +1,149 @@
+package org.ekstep.cassandra.connector.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.ResultSetFuture;
+import com.datastax.driver.core.Session;
+import com.datastax.driver.core.SimpleStatement;
+import com.datastax.driver.core.Statement;
+import com.google.common.util.concurrent.AbstractFuture;
+
+public class AsyncQueryExecutorTest {
+
+	private Session session = Mockito.mock(Session.class);
+	private Statement statement = new SimpleStatement("SELECT * FROM test.data");
+	private List<TestResultSetFuture> sent = new ArrayList<TestResultSetFuture>();
+
+	@Before
+	public void init() {
+		Mockito.when(session.executeAsync(Matchers.any(Statement.class))).thenAnswer(invocation -> {
+			TestResultSetFuture future = new TestResultSetFuture();
+			sent.add(future);
+			return future;
+		});
+	}
+
+	@Test
+	public void testStatementsBeyondPermitsAreQueued() {
+		AsyncQueryExecutor executor = getExecutor(2, 10);
+		for (int i = 0; i < 3; i++)
+			executor.submit(session, statement);
+		Assert.assertEquals(2, sent.size());
+		Assert.assertEquals(2, executor.inFlight());
+		Assert.assertEquals(1, executor.queued());
+	}
+
+	@Test
+	public void testQueuedStatementIsSentOnCompletion() throws Exception {
+		AsyncQueryExecutor executor = getExecutor(1, 10);
+		CompletableFuture<ResultSet> first = executor.submit(session, statement);
+		CompletableFuture<ResultSet> second = executor.submit(session, statement);
+		Assert.assertEquals(1, sent.size());
+
+		ResultSet resultSet = Mockito.mock(ResultSet.class);
+		sent.get(0).set(resultSet);
+		Assert.assertSame(resultSet, first.get());
+		Assert.assertEquals(2, sent.size());
+		Assert.assertEquals(1, executor.inFlight());
+		Assert.assertEquals(0, executor.queued());
+
+		sent.get(1).set(resultSet);
+		Assert.assertSame(resultSet, second.get());
+		Assert.assertEquals(0, executor.inFlight());
+	}
+
+	@Test
+	public void testFailureIsPropagatedAndReleasesThePermit() throws Exception {
+		AsyncQueryExecutor executor = getExecutor(1, 10);
+		CompletableFuture<ResultSet> first = executor.submit(session, statement);
+		executor.submit(session, statement);
+
+		RuntimeException error = new RuntimeException("read timeout");
+		sent.get(0).setException(error);
+		Assert.assertSame(error, getCause(first));
+		// the failed statement gave its permit to the queued one.
+		Assert.assertEquals(2, sent.size());
+		Assert.assertEquals(1, executor.inFlight());
+	}
+
+	@Test
+	public void testSendFailureIsPropagatedAndReleasesThePermit() throws Exception {
+		RuntimeException error = new IllegalStateException("session closed");
+		Mockito.doThrow(error).when(session).executeAsync(Matchers.any(Statement.class));
+		AsyncQueryExecutor executor = getExecutor(1, 10);
+		CompletableFuture<ResultSet> first = executor.submit(session, statement);
+		CompletableFuture<ResultSet> second = executor.submit(session, statement);
+
+		Assert.assertSame(error, getCause(first));
+		Assert.assertSame(error, getCause(second));
+		Assert.assertEquals(0, executor.inFlight());
+		Assert.assertEquals(0, executor.queued());
+	}
+
+	@Test
+	public void testStatementBeyondQueueLimitIsRejected() throws Exception {
+		AsyncQueryExecutor executor = getExecutor(1, 1);
+		executor.submit(session, statement);
+		executor.submit(session, statement);
+		CompletableFuture<ResultSet> rejected = executor.submit(session, statement);
+
+		Assert.assertTrue(getCause(rejected) instanceof RejectedExecutionException);
+		Assert.assertEquals(1, sent.size());
+		Assert.assertEquals(1, executor.queued());
+
+		// the queue accepts statements again once it drains.
+		sent.get(0).set(null);
+		Assert.assertFalse(executor.submit(session, statement).isCompletedExceptionally());
+		Assert.assertEquals(1, executor.queued());
+	}
+
+	private AsyncQueryExecutor getExecutor(int maxInFlight, int maxQueued) {
+		// callbacks run on the completing thread so that the test is sequential.
+		return new AsyncQueryExecutor(maxInFlight, maxQueued, Runnable::run);
+	}
+
+	private Throwable getCause(CompletableFuture<ResultSet> future) throws Exception {
+		try {
+			future.get(5, TimeUnit.SECONDS);
+		} catch (ExecutionException e) {
+			return e.getCause();
+		}
+		Assert.fail("Future completed without error");
+		return null;
+	}
+
+	private static class TestResultSetFuture extends AbstractFuture<ResultSet> implements ResultSetFuture {
+
+		@Override
+		public boolean set(ResultSet value) {
+			return super.set(value);
+		}
+
+		@Override
+		public boolean setException(Throwable throwable) {
+			return super.setException(throwable);
+		}
+
+		@Override
+		public ResultSet getUninterruptibly() {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public ResultSet getUninterruptibly(long timeout, TimeUnit unit) {
+			throw new UnsupportedOperationException();
+		}
+	}
+}
@@ -0,0 +1,93 @@
+package org.ekstep.graph.cache.engine;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hit/miss/eviction counters of a {@link TieredCache}.
+ */
+public class CacheStats {
+
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong l2Hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	private final AtomicLong evictions = new AtomicLong();
+	private final AtomicLong expirations = new AtomicLong();
+	private final AtomicLong loads = new AtomicLong();
+	private final AtomicLong loadFailures = new AtomicLong();
+
+	void recordHit() {
+		hits.incrementAndGet();
+	}
+
+	void recordL2Hit() {
+		l2Hits.incrementAndGet();
+	}
+
+	void recordMiss() {
+		misses.incrementAndGet();
+	}
+
+	void recordEviction() {
+		evictions.incrementAndGet();
+	}
+
+	void recordExpiration() {
+		expirations.incrementAndGet();
+	}
+
+	void recordLoad() {
+		loads.incrementAndGet();
+	}
+
+	void recordLoadFailure() {
+		loadFailures.incrementAndGet();
+	}
+
+	public long getHits() {
+		return hits.get();
+	}
+
+	public long getL2Hits() {
+		return l2Hits.get();
+	}
+
+	public long getMisses() {
+		return misses.get();
+	}
+
+	public long getEvictions() {
+		return evictions.get();
+	}
+
+	public long getExpirations() {
+		return expirations.get();
+	}
+
+	public long getLoads() {
+		return loads.get();
+	}
+
+	public long getLoadFailures() {
+		return loadFailures.get();
+	}
+
+	public double getHitRatio() {
+		long total = hits.get() + l2Hits.get() + misses.get();
+		return (total == 0) ? 0.0 : (double) (hits.get() + l2Hits.get()) / total;
+	}
+
+	public Map<String, Object> toMap() {
+		Map<String, Object> map = new HashMap<>();
+		map.put("hits", getHits());
+		map.put("l2Hits", getL2Hits());
+		map.put("misses", getMisses());
+		map.put("evictions", getEvictions());
+		map.put("expirations", getExpirations());
+		map.put("loads", getLoads());
+		map.put("loadFailures", getLoadFailures());
+		map.put("hitRatio", getHitRatio());
+		return map;
+	}
+}
@@ -0,0 +1,283 @@
+package org.ekstep.graph.cache.engine;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.ekstep.common.Platform;
+import org.ekstep.graph.cache.util.RedisStoreUtil;
+import org.ekstep.telemetry.logger.TelemetryManager;
+
+/**
+ * Two-tier cache used by the in-process node caches.
+ *
+ * L1 is a bounded, thread-safe LRU map split into independently locked
+ * segments, with a per-entry TTL. L2 is an optional Redis store (values are
+ * java-serialized) which is consulted on an L1 miss and populated on every put.
+ * Loads through {@link #get(String, Supplier)} are single-flight: concurrent
+ * misses for the same key wait for the one in-flight load instead of repeating
+ * it.
+ *
+ * Configuration (all optional) is read from <code>node.cache.&lt;name&gt;.*</code>:
+ * <code>max_size</code>, <code>ttl</code> (seconds, 0 = no expiry),
+ * <code>l2.enabled</code> and <code>l2.ttl</code> (seconds).
+ */
+public class TieredCache {
+
+	private static final int SEGMENTS = 16;
+	private static final String CONFIG_PREFIX = "node.cache.";
+
+	private final String name;
+	private final long ttlMillis;
+	private final boolean l2Enabled;
+	private final int l2Ttl;
+	private final Segment[] segments = new Segment[SEGMENTS];
+	private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+	private final CacheStats stats = new CacheStats();
+
+	public TieredCache(String name, int defaultMaxSize, int defaultTtl) {
+		this.name = name;
+		int maxSize = getConfig(name, "max_size", defaultMaxSize);
+		this.ttlMillis = getConfig(name, "ttl", defaultTtl) * 1000L;
+		this.l2Enabled = Platform.config.hasPath(CONFIG_PREFIX + name + ".l2.enabled")
+				&& Platform.config.getBoolean(CONFIG_PREFIX + name + ".l2.enabled");
+		this.l2Ttl = getConfig(name, "l2.ttl", defaultTtl);
+		int segmentSize = Math.max(1, (maxSize + SEGMENTS - 1) / SEGMENTS);
+		for (int i = 0; i < SEGMENTS; i++)
+			segments[i] = new Segment(segmentSize);
+	}
+
+	public Object get(String key) {
+		Segment segment = segmentFor(key);
+		synchronized (segment) {
+			CacheEntry entry = segment.get(key);
+			if (null != entry) {
+				if (!entry.isExpired()) {
+					stats.recordHit();
+					return entry.value;
+				}
+				segment.remove(key);
+				stats.recordExpiration();
+			}
+		}
+		if (l2Enabled) {
+			Object value = getFromL2(key);
+			if (null != value) {
+				stats.recordL2Hit();
+				putL1(key, value);
+				return value;
+			}
+		}
+		stats.recordMiss();
+		return null;
+	}
+
+	/**
+	 * Returns the cached value for the key, loading it with the given loader on a
+	 * miss. Only one load per key runs at a time; other callers block on its
+	 * result. A <code>null</code> result is returned but not cached.
+	 */
+	public Object get(String key, Supplier<Object> loader) {
+		Object value = get(key);
+		if (null != value)
+			return value;
+		CompletableFuture<Object> future = new CompletableFuture<>();
+		CompletableFuture<Object> existing = inFlight.putIfAbsent(key, future);
+		if (null != existing)
+			return await(existing);
+		try {
+			value = loader.get();
+			stats.recordLoad();
+			if (null != value)
+				put(key, value);
+			future.complete(value);
+			return value;
+		} catch (RuntimeException e) {
+			stats.recordLoadFailure();
+			future.completeExceptionally(e);
+			throw e;
+		} finally {
+			inFlight.remove(key, future);
+		}
+	}
+
+	/**
+	 * Reloads the value for the key with the given loader and replaces the
+	 * cached value, which keeps being served until the load completes. Misses
+	 * for the key during the reload wait for its result instead of starting
+	 * their own load. A <code>null</code> result removes the key.
+	 */
+	public Object refresh(String key, Supplier<Object> loader) {
+		CompletableFuture<Object> future = new CompletableFuture<>();
+		inFlight.put(key, future);
+		try {
+			Object value = loader.get();
+			stats.recordLoad();
+			if (null != value)
+				put(key, value);
+			else
+				remove(key);
+			future.complete(value);
+			return value;
+		} catch (RuntimeException e) {
+			stats.recordLoadFailure();
+			future.completeExceptionally(e);
+			throw e;
+		} finally {
+			inFlight.remove(key, future);
+		}
+	}
+
+	public void put(String key, Object value) {
+		putL1(key, value);
+		if (l2Enabled)
+			putToL2(key, value);
+	}
+
+	public Object remove(String key) {
+		Segment segment = segmentFor(key);
+		CacheEntry entry;
+		synchronized (segment) {
+			entry = segment.remove(key);
+		}
+		if (l2Enabled)
+			removeFromL2(key);
+		return (null == entry) ? null : entry.value;
+	}
+
+	public void clear() {
+		for (Segment segment : segments) {
+			synchronized (segment) {
+				segment.clear();
+			}
+		}
+	}
+
+	public long size() {
+		long size = 0;
+		for (Segment segment : segments) {
+			synchronized (segment) {
+				size += segment.size();
+			}
+		}
+		return size;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public CacheStats getStats() {
+		return stats;
+	}
+
+	private void putL1(String key, Object value) {
+		Segment segment = segmentFor(key);
+		long expiresAt = (ttlMillis > 0) ? System.currentTimeMillis() + ttlMillis : 0;
+		synchronized (segment) {
+			segment.put(key, new CacheEntry(value, expiresAt));
+		}
+	}
+
+	private Segment segmentFor(String key) {
+		int h = key.hashCode();
+		h ^= (h >>> 16);
+		return segments[h & (SEGMENTS - 1)];
+	}
+
+	private Object await(CompletableFuture<Object> future) {
+		try {
+			return future.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException)
+				throw (RuntimeException) e.getCause();
+			throw e;
+		}
+	}
+
+	private String getL2Key(String key) {
+		return CONFIG_PREFIX + name + ":" + key;
+	}
+
+	private Object getFromL2(String key) {
+		try {
+			byte[] bytes = RedisStoreUtil.getBytes(getL2Key(key));
+			if (null == bytes)
+				return null;
+			try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+				return in.readObject();
+			}
+		} catch (Exception e) {
+			TelemetryManager.error("Error while reading " + name + " cache entry from redis for key: " + key, e);
+			return null;
+		}
+	}
+
+	private void putToL2(String key, Object value) {
+		if (!(value instanceof Serializable))
+			return;
+		try {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+				out.writeObject(value);
+			}
+			RedisStoreUtil.saveBytes(getL2Key(key), bytes.toByteArray(), l2Ttl);
+		} catch (Exception e) {
+			TelemetryManager.error("Error while writing " + name + " cache entry to redis for key: " + key, e);
+		}
+	}
+
+	private void removeFromL2(String key) {
+		try {
+			RedisStoreUtil.delete(getL2Key(key));
+		} catch (Exception e) {
+			TelemetryManager.error("Error while deleting " + name + " cache entry from redis for key: " + key, e);
+		}
+	}
+
+	private static int getConfig(String name, String property, int defaultValue) {
+		String path = CONFIG_PREFIX + name + "." + property;
+		return Platform.config.hasPath(path) ? Platform.config.getInt(path) : defaultValue;
+	}
+
+	private static class CacheEntry {
+		private final Object value;
+		private final long expiresAt;
+
+		CacheEntry(Object value, long expiresAt) {
+			this.value = value;
+			this.expiresAt = expiresAt;
+		}
+
+		boolean isExpired() {
+			return expiresAt > 0 && System.currentTimeMillis() > expiresAt;
+		}
+	}
+
+	private class Segment extends LinkedHashMap<String, CacheEntry> {
+		private static final long serialVersionUID = 3962812473187614829L;
+		private final int capacity;
+
+		Segment(int capacity) {
+			super(16, 0.75f, true);
+			this.capacity = capacity;
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, CacheEntry> eldest) {
+			if (size() > capacity) {
+				stats.recordEviction();
+				return true;
+			}
+			return false;
+		}
+	}
+}
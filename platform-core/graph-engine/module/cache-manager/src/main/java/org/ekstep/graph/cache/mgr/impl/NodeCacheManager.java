@@ -2,9 +2,11 @@ package org.ekstep.graph.cache.mgr.impl;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.Supplier;
 
 import org.apache.commons.lang3.StringUtils;
 import org.ekstep.common.exception.ClientException;
+import org.ekstep.graph.cache.engine.TieredCache;
 import org.ekstep.graph.cache.exception.GraphCacheErrorCodes;
 import org.ekstep.graph.cache.util.CacheKeyGenerator;
 import org.ekstep.graph.cache.util.RedisKeysEnum;
@@ -18,27 +20,48 @@ import org.ekstep.telemetry.logger.TelemetryManager;
 
 public class NodeCacheManager {
 
-	private static Map<String, Object> definitionNodeCache = new HashMap<>();
-	private static Map<String, Object> dataNodeCache = new HashMap<>();
+	private static TieredCache definitionNodeCache = new TieredCache("definition", 1000, 0);
+	private static TieredCache dataNodeCache = new TieredCache("data", 10000, 0);
 
 	public static void saveDefinitionNode(String graphId, String objectType, Object node) {
 		validateRequired(graphId, objectType, node, GraphCacheErrorCodes.ERR_CACHE_SAVE_DEF_NODE_ERROR.name());
 		String key = CacheKeyGenerator.getKey(graphId, objectType, RedisKeysEnum.DEF_NODE.name());
 		definitionNodeCache.put(key, node);
-		TelemetryManager.log("Saved definition node into cache having objectType: " + objectType + " into graph: "+ graphId);
+		TelemetryManager.log(() -> "Saved definition node into cache having objectType: " + objectType + " into graph: "+ graphId);
 	}
 
 	public static Object getDefinitionNode(String graphId, String objectType) {
 		validateRequired(graphId, objectType, GraphCacheErrorCodes.ERR_CACHE_GET_DEF_NODE_ERROR.name());
 		String key = CacheKeyGenerator.getKey(graphId, objectType, RedisKeysEnum.DEF_NODE.name());
-		TelemetryManager.log("Fetching definition node from cache having objectType: " + objectType + " in graph: "+ graphId);
+		TelemetryManager.log(() -> "Fetching definition node from cache having objectType: " + objectType + " in graph: "+ graphId);
 		return definitionNodeCache.get(key);
 	}
+
+	/**
+	 * Returns the cached definition node, loading it with the given loader on a
+	 * miss. Concurrent misses for the same objectType share a single load.
+	 */
+	public static Object getDefinitionNode(String graphId, String objectType, Supplier<Object> loader) {
+		validateRequired(graphId, objectType, GraphCacheErrorCodes.ERR_CACHE_GET_DEF_NODE_ERROR.name());
+		String key = CacheKeyGenerator.getKey(graphId, objectType, RedisKeysEnum.DEF_NODE.name());
+		return definitionNodeCache.get(key, loader);
+	}
+	
+	/**
+	 * Reloads the definition node with the given loader, see
+	 * {@link TieredCache#refresh(String, Supplier)}.
+	 */
+	public static Object refreshDefinitionNode(String graphId, String objectType, Supplier<Object> loader) {
+		validateRequired(graphId, objectType, GraphCacheErrorCodes.ERR_CACHE_SAVE_DEF_NODE_ERROR.name());
+		String key = CacheKeyGenerator.getKey(graphId, objectType, RedisKeysEnum.DEF_NODE.name());
+		TelemetryManager.log(() -> "Refreshing definition node in cache having objectType: " + objectType + " in graph: "+ graphId);
+		return definitionNodeCache.refresh(key, loader);
+	}
 	
 	public static Object deleteDefinitionNode(String graphId, String objectType) {
 		validateRequired(graphId, objectType, GraphCacheErrorCodes.ERR_CACHE_GET_DEF_NODE_ERROR.name());
 		String key = CacheKeyGenerator.getKey(graphId, objectType, RedisKeysEnum.DEF_NODE.name());
-		TelemetryManager.log("Deleting definition node from cache having objectType: " + objectType + " in graph: "+ graphId);
+		TelemetryManager.log(() -> "Deleting definition node from cache having objectType: " + objectType + " in graph: "+ graphId);
 		return definitionNodeCache.remove(key);
 	}
 
@@ -46,23 +69,36 @@ public class NodeCacheManager {
 		validateRequired(graphId, id, node, GraphCacheErrorCodes.ERR_CACHE_SAVE_DEF_NODE_ERROR.name());
 		String key = CacheKeyGenerator.getKey(graphId, id, RedisKeysEnum.DATA_NODE.name());
 		dataNodeCache.put(key, node);
-		TelemetryManager.log("Saved data node into cache having identifier: " + id + " into graph: "+ graphId);
+		TelemetryManager.log(() -> "Saved data node into cache having identifier: " + id + " into graph: "+ graphId);
 	}
 
 	public static Object getDataNode(String graphId, String id) {
 		validateRequired(graphId, id, GraphCacheErrorCodes.ERR_CACHE_SAVE_DEF_NODE_ERROR.name());
 		String key = CacheKeyGenerator.getKey(graphId, id, RedisKeysEnum.DATA_NODE.name());
-		TelemetryManager.log("Fetching data node from cache having identifier: " + id + " in graph: "+ graphId);
+		TelemetryManager.log(() -> "Fetching data node from cache having identifier: " + id + " in graph: "+ graphId);
 		return dataNodeCache.get(key);
 	}
 	
 	public static Object deleteDataNode(String graphId, String id) {
 		validateRequired(graphId, id, GraphCacheErrorCodes.ERR_CACHE_SAVE_DEF_NODE_ERROR.name());
 		String key = CacheKeyGenerator.getKey(graphId, id, RedisKeysEnum.DATA_NODE.name());
-		TelemetryManager.log("Deleting data node from cache having identifier: " + id + " in graph: "+ graphId);
+		TelemetryManager.log(() -> "Deleting data node from cache having identifier: " + id + " in graph: "+ graphId);
 		return dataNodeCache.remove(key);
 	}
 
+	public static Map<String, Object> getStats() {
+		Map<String, Object> stats = new HashMap<>();
+		stats.put("definitionNodeCache", getStats(definitionNodeCache));
+		stats.put("dataNodeCache", getStats(dataNodeCache));
+		return stats;
+	}
+
+	private static Map<String, Object> getStats(TieredCache cache) {
+		Map<String, Object> stats = cache.getStats().toMap();
+		stats.put("size", cache.size());
+		return stats;
+	}
+
 	private static void validateRequired(String graphId, String id, Object members, String errCode) {
 		validateRequired(graphId, id, errCode);
 		if (null == members)
@@ -0,0 +1,111 @@
+package org.ekstep.graph.cache.util;
+
+import java.util.function.Consumer;
+
+import org.ekstep.telemetry.logger.TelemetryManager;
+
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPubSub;
+
+import static org.ekstep.graph.cache.factory.JedisFactory.getRedisConncetion;
+import static org.ekstep.graph.cache.factory.JedisFactory.returnConnection;
+
+/**
+ * Listens on a redis pub/sub channel on a dedicated daemon thread and hands
+ * every message to the given handler. The subscription is re-established with
+ * a back-off when the connection is lost; <code>onSubscribe</code> is invoked
+ * on every (re)subscription so that callers can drop state which may have
+ * missed messages in the meantime.
+ */
+public class RedisChannelSubscriber implements Runnable {
+
+	private static final long MAX_BACKOFF_MILLIS = 30000;
+
+	private final String channel;
+	private final Consumer<String> onMessage;
+	private final Runnable onSubscribe;
+	private volatile boolean running = true;
+
+	private RedisChannelSubscriber(String channel, Consumer<String> onMessage, Runnable onSubscribe) {
+		this.channel = channel;
+		this.onMessage = onMessage;
+		this.onSubscribe = onSubscribe;
+	}
+
+	public static RedisChannelSubscriber start(String channel, Consumer<String> onMessage, Runnable onSubscribe) {
+		RedisChannelSubscriber subscriber = new RedisChannelSubscriber(channel, onMessage, onSubscribe);
+		Thread thread = new Thread(subscriber, "redis-subscriber-" + channel);
+		thread.setDaemon(true);
+		thread.start();
+		return subscriber;
+	}
+
+	@Override
+	public void run() {
+		long backoff = 1000;
+		while (running) {
+			Jedis jedis = null;
+			try {
+				jedis = getRedisConncetion();
+				jedis.subscribe(new Listener(), channel);
+			} catch (Exception e) {
+				TelemetryManager.error("Redis subscription to channel " + channel + " failed, retrying in " + backoff
+						+ "ms.", e);
+				sleep(backoff);
+				backoff = Math.min(backoff * 2, MAX_BACKOFF_MILLIS);
+				continue;
+			} finally {
+				try {
+					returnConnection(jedis);
+				} catch (Exception e) {
+					// connection is broken, pool will discard it.
+				}
+			}
+			backoff = 1000;
+		}
+	}
+
+	private void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			running = false;
+		}
+	}
+
+	private class Listener extends JedisPubSub {
+
+		@Override
+		public void onMessage(String channel, String message) {
+			try {
+				onMessage.accept(message);
+			} catch (Exception e) {
+				TelemetryManager.error("Error while handling message on redis channel " + channel, e);
+			}
+		}
+
+		@Override
+		public void onSubscribe(String channel, int subscribedChannels) {
+			TelemetryManager.info("Subscribed to redis channel: " + channel);
+			if (null != onSubscribe)
+				onSubscribe.run();
+		}
+
+		@Override
+		public void onPMessage(String pattern, String channel, String message) {
+		}
+
+		@Override
+		public void onUnsubscribe(String channel, int subscribedChannels) {
+		}
+
+		@Override
+		public void onPUnsubscribe(String pattern, int subscribedChannels) {
+		}
+
+		@Override
+		public void onPSubscribe(String pattern, int subscribedChannels) {
+		}
+	}
+}
@@ -7,9 +7,15 @@ import org.ekstep.graph.cache.exception.GraphCacheErrorCodes;
 import org.ekstep.graph.dac.enums.GraphDACParams;
 import org.ekstep.telemetry.logger.TelemetryManager;
 import redis.clients.jedis.Jedis;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.ScanParams;
+import redis.clients.jedis.ScanResult;
+import redis.clients.jedis.Transaction;
+import redis.clients.util.SafeEncoder;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -21,6 +27,8 @@ import static org.ekstep.graph.cache.factory.JedisFactory.returnConnection;
 public class RedisStoreUtil {
 
 	private static ObjectMapper mapper = new ObjectMapper();
+	private static final String SCAN_START = "0";
+	private static final int SCAN_BATCH_SIZE = 1000;
 
 	public static void saveNodeProperty(String graphId, String objectId, String nodeProperty, String propValue) {
 
@@ -61,6 +69,31 @@ public class RedisStoreUtil {
 		}
 	}
 
+	public static void saveBytes(String key, byte[] value, int ttl) {
+		Jedis jedis = getRedisConncetion();
+		try {
+			byte[] redisKey = SafeEncoder.encode(key);
+			jedis.set(redisKey, value);
+			if (ttl > 0)
+				jedis.expire(redisKey, ttl);
+		} catch (Exception e) {
+			throw new ServerException(GraphCacheErrorCodes.ERR_CACHE_SAVE_PROPERTY_ERROR.name(), e.getMessage());
+		} finally {
+			returnConnection(jedis);
+		}
+	}
+
+	public static byte[] getBytes(String key) {
+		Jedis jedis = getRedisConncetion();
+		try {
+			return jedis.get(SafeEncoder.encode(key));
+		} catch (Exception e) {
+			throw new ServerException(GraphCacheErrorCodes.ERR_CACHE_GET_PROPERTY_ERROR.name(), e.getMessage());
+		} finally {
+			returnConnection(jedis);
+		}
+	}
+
 	public static String getNodeProperty(String graphId, String objectId, String nodeProperty) {
 
 		Jedis jedis = getRedisConncetion();
@@ -78,16 +111,17 @@ public class RedisStoreUtil {
 	}
 
 	public static void saveNodeProperties(String graphId, String objectId, Map<String, Object> metadata) {
+		if (null == metadata || metadata.isEmpty())
+			return;
 		Jedis jedis = getRedisConncetion();
 		try {
+			String[] keysValues = new String[metadata.size() * 2];
+			int i = 0;
 			for (Entry<String, Object> entry : metadata.entrySet()) {
-				String propertyName = entry.getKey();
-				String propertyValue = entry.getValue().toString();
-
-				String redisKey = CacheKeyGenerator.getNodePropertyKey(graphId, objectId, propertyName);
-				jedis.set(redisKey, propertyValue);
+				keysValues[i++] = CacheKeyGenerator.getNodePropertyKey(graphId, objectId, entry.getKey());
+				keysValues[i++] = entry.getValue().toString();
 			}
-
+			jedis.mset(keysValues);
 		} catch (Exception e) {
 			throw new ServerException(GraphCacheErrorCodes.ERR_CACHE_SAVE_PROPERTY_ERROR.name(), e.getMessage());
 		} finally {
@@ -95,6 +129,29 @@ public class RedisStoreUtil {
 		}
 	}
 
+	/**
+	 * Fetches the given properties of a node with a single MGET.
+	 *
+	 * @param graphId
+	 * @param objectId
+	 * @param nodeProperties
+	 * @return map of property name to value, properties not in cache are skipped
+	 */
+	public static Map<String, String> getNodeProperties(String graphId, String objectId, List<String> nodeProperties) {
+		Map<String, String> properties = new HashMap<>();
+		if (null == nodeProperties || nodeProperties.isEmpty())
+			return properties;
+		String[] keys = new String[nodeProperties.size()];
+		for (int i = 0; i < keys.length; i++)
+			keys[i] = CacheKeyGenerator.getNodePropertyKey(graphId, objectId, nodeProperties.get(i));
+		List<String> values = mget(keys);
+		for (int i = 0; i < keys.length; i++) {
+			if (null != values.get(i))
+				properties.put(nodeProperties.get(i), values.get(i));
+		}
+		return properties;
+	}
+
 	public static void deleteNodeProperties(String graphId, String objectId) {
 		Jedis jedis = getRedisConncetion();
 		try {
@@ -138,10 +195,11 @@ public class RedisStoreUtil {
 	public static void saveList(String key, List<Object> values) {
 		Jedis jedis = getRedisConncetion();
 		try {
-			jedis.del(key);
-			for (Object val : values) {
-				jedis.sadd(key, (String) val);
-			}
+			Transaction transaction = jedis.multi();
+			transaction.del(key);
+			if (null != values && !values.isEmpty())
+				transaction.sadd(key, values.toArray(new String[values.size()]));
+			transaction.exec();
 		} catch (Exception e) {
 			e.printStackTrace();
 		} finally {
@@ -162,6 +220,91 @@ public class RedisStoreUtil {
 		}
 	}
 
+	/**
+	 * Saves all the given key-value pairs in one pipelined round trip.
+	 *
+	 * @param data
+	 * @param ttl expiry in seconds, ignored if not positive
+	 */
+	public static void saveMultiple(Map<String, String> data, int ttl) {
+		if (null == data || data.isEmpty())
+			return;
+		Jedis jedis = getRedisConncetion();
+		try {
+			Pipeline pipeline = jedis.pipelined();
+			for (Entry<String, String> entry : data.entrySet()) {
+				if (ttl > 0)
+					pipeline.setex(entry.getKey(), ttl, entry.getValue());
+				else
+					pipeline.set(entry.getKey(), entry.getValue());
+			}
+			pipeline.sync();
+		} catch (Exception e) {
+			throw new ServerException(GraphCacheErrorCodes.ERR_CACHE_SAVE_PROPERTY_ERROR.name(), e.getMessage());
+		} finally {
+			returnConnection(jedis);
+		}
+	}
+
+	/**
+	 * Fetches the values of all the given keys with a single MGET.
+	 *
+	 * @param keys
+	 * @return values in the order of the keys, null for missing keys
+	 */
+	public static List<String> mget(String... keys) {
+		if (null == keys || keys.length == 0)
+			return new ArrayList<>();
+		Jedis jedis = getRedisConncetion();
+		try {
+			return jedis.mget(keys);
+		} catch (Exception e) {
+			throw new ServerException(GraphCacheErrorCodes.ERR_CACHE_GET_PROPERTY_ERROR.name(), e.getMessage());
+		} finally {
+			returnConnection(jedis);
+		}
+	}
+
+	/**
+	 * Adds members to multiple sets in one pipelined round trip.
+	 *
+	 * @param members map of set key to the members to add
+	 */
+	public static void saddMultiple(Map<String, List<String>> members) {
+		if (null == members || members.isEmpty())
+			return;
+		Jedis jedis = getRedisConncetion();
+		try {
+			Pipeline pipeline = jedis.pipelined();
+			for (Entry<String, List<String>> entry : members.entrySet()) {
+				if (null != entry.getValue() && !entry.getValue().isEmpty())
+					pipeline.sadd(entry.getKey(), entry.getValue().toArray(new String[entry.getValue().size()]));
+			}
+			pipeline.sync();
+		} catch (Exception e) {
+			throw new ServerException(GraphCacheErrorCodes.ERR_CACHE_SAVE_PROPERTY_ERROR.name(), e.getMessage());
+		} finally {
+			returnConnection(jedis);
+		}
+	}
+
+	/**
+	 * Publishes the message on the given redis pub/sub channel.
+	 *
+	 * @param channel
+	 * @param message
+	 */
+	public static void publish(String channel, String message) {
+		Jedis jedis = getRedisConncetion();
+		try {
+			jedis.publish(channel, message);
+		} catch (Exception e) {
+			throw new ServerException(GraphCacheErrorCodes.ERR_CACHE_SAVE_PROPERTY_ERROR.name(), e.getMessage());
+		} finally {
+			returnConnection(jedis);
+		}
+	}
+
 	/**
 	 * This Method Save Data to Redis Cache With ttl.
 	 *
@@ -198,11 +341,15 @@ public class RedisStoreUtil {
 		if(StringUtils.isNotBlank(pattern) && !StringUtils.equalsIgnoreCase(pattern, "*")){
 			Jedis jedis = getRedisConncetion();
 			try {
-				Set<String> keys = jedis.keys(pattern);
-				if (keys != null && keys.size() > 0) {
-					List<String> keyList = new ArrayList<>(keys);
-					jedis.del(keyList.toArray(new String[keyList.size()]));
-				}
+				ScanParams params = new ScanParams().match(pattern).count(SCAN_BATCH_SIZE);
+				String cursor = SCAN_START;
+				do {
+					ScanResult<String> result = jedis.scan(cursor, params);
+					List<String> keys = result.getResult();
+					if (null != keys && !keys.isEmpty())
+						jedis.del(keys.toArray(new String[keys.size()]));
+					cursor = result.getStringCursor();
+				} while (!SCAN_START.equals(cursor));
 			} catch (Exception e) {
 				throw new ServerException(GraphCacheErrorCodes.ERR_CACHE_SAVE_PROPERTY_ERROR.name(), e.getMessage());
 			} finally {
@@ -0,0 +1,101 @@
+package org.ekstep.graph.cache.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TieredCacheTest {
+
+	@Test
+	public void testPutAndGet() {
+		TieredCache cache = new TieredCache("test_put", 100, 0);
+		cache.put("key_1", "value_1");
+		Assert.assertEquals("value_1", cache.get("key_1"));
+		Assert.assertEquals(1, cache.getStats().getHits());
+	}
+
+	@Test
+	public void testMissAndRemove() {
+		TieredCache cache = new TieredCache("test_remove", 100, 0);
+		Assert.assertNull(cache.get("key_1"));
+		cache.put("key_1", "value_1");
+		Assert.assertEquals("value_1", cache.remove("key_1"));
+		Assert.assertNull(cache.get("key_1"));
+		Assert.assertEquals(2, cache.getStats().getMisses());
+	}
+
+	@Test
+	public void testSizeIsBounded() {
+		TieredCache cache = new TieredCache("test_bounded", 32, 0);
+		for (int i = 0; i < 1000; i++)
+			cache.put("key_" + i, i);
+		Assert.assertTrue(cache.size() <= 32);
+		Assert.assertTrue(cache.getStats().getEvictions() >= 1000 - 32);
+	}
+
+	@Test
+	public void testEntryExpires() throws Exception {
+		TieredCache cache = new TieredCache("test_ttl", 100, 1);
+		cache.put("key_1", "value_1");
+		Assert.assertEquals("value_1", cache.get("key_1"));
+		Thread.sleep(1100);
+		Assert.assertNull(cache.get("key_1"));
+		Assert.assertEquals(1, cache.getStats().getExpirations());
+	}
+
+	@Test
+	public void testNullLoadIsNotCached() {
+		TieredCache cache = new TieredCache("test_null_load", 100, 0);
+		Assert.assertNull(cache.get("key_1", () -> null));
+		Assert.assertEquals(0, cache.size());
+	}
+
+	@Test
+	public void testRefreshReplacesValue() {
+		TieredCache cache = new TieredCache("test_refresh", 100, 0);
+		cache.put("key_1", "value_1");
+		Assert.assertEquals("value_2", cache.refresh("key_1", () -> "value_2"));
+		Assert.assertEquals("value_2", cache.get("key_1"));
+		cache.refresh("key_1", () -> null);
+		Assert.assertNull(cache.get("key_1"));
+	}
+
+	@Test
+	public void testConcurrentMissesLoadOnce() throws Exception {
+		TieredCache cache = new TieredCache("test_single_flight", 100, 0);
+		AtomicInteger loads = new AtomicInteger();
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<Object>> results = new ArrayList<>();
+			for (int i = 0; i < 8; i++) {
+				results.add(executor.submit(() -> {
+					start.await();
+					return cache.get("key_1", () -> {
+						loads.incrementAndGet();
+						try {
+							Thread.sleep(200);
+						} catch (InterruptedException e) {
+							Thread.currentThread().interrupt();
+						}
+						return "value_1";
+					});
+				}));
+			}
+			start.countDown();
+			for (Future<Object> result : results)
+				Assert.assertEquals("value_1", result.get(5, TimeUnit.SECONDS));
+			Assert.assertEquals(1, loads.get());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+}
@@ -0,0 +1,89 @@
+package org.ekstep.graph.cache.util;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.ekstep.graph.cache.factory.JedisFactory;
+import org.junit.Assert;
+import org.junit.Test;
+
+import redis.clients.jedis.Jedis;
+
+public class RedisStoreUtilTest {
+
+	@Test
+	public void testSaveAndGetNodeProperties() {
+		Map<String, Object> metadata = new HashMap<>();
+		metadata.put("versionKey", "1234567890");
+		metadata.put("consumerId", "consumer_1");
+		RedisStoreUtil.saveNodeProperties("domain", "do_redis_test_1", metadata);
+		Map<String, String> properties = RedisStoreUtil.getNodeProperties("domain", "do_redis_test_1",
+				Arrays.asList("versionKey", "consumerId", "status"));
+		Assert.assertEquals(2, properties.size());
+		Assert.assertEquals("1234567890", properties.get("versionKey"));
+		Assert.assertEquals("consumer_1", properties.get("consumerId"));
+	}
+
+	@Test
+	public void testSaveNodePropertiesInOneCommand() {
+		Map<String, Object> metadata = new HashMap<>();
+		for (int i = 0; i < 1000; i++)
+			metadata.put("property_" + i, "value_" + i);
+		long sets = getCalls("set");
+		long msets = getCalls("mset");
+		RedisStoreUtil.saveNodeProperties("domain", "do_redis_test_2", metadata);
+		Assert.assertEquals(sets, getCalls("set"));
+		Assert.assertEquals(msets + 1, getCalls("mset"));
+		Assert.assertEquals("value_999", RedisStoreUtil.getNodeProperty("domain", "do_redis_test_2", "property_999"));
+		RedisStoreUtil.deleteByPattern("domain:do_redis_test_2:*");
+	}
+
+	@Test
+	public void testSaveListReplacesMembers() {
+		RedisStoreUtil.saveList("redis_test_list", Arrays.asList((Object) "term_1", "term_2"));
+		RedisStoreUtil.saveList("redis_test_list", Arrays.asList((Object) "term_3"));
+		List<Object> terms = RedisStoreUtil.getList("redis_test_list");
+		Assert.assertEquals(Arrays.asList((Object) "term_3"), terms);
+	}
+
+	@Test
+	public void testSaveMultipleAndMget() {
+		Map<String, String> data = new HashMap<>();
+		data.put("redis_test_multi_1", "value_1");
+		data.put("redis_test_multi_2", "value_2");
+		RedisStoreUtil.saveMultiple(data, 60);
+		List<String> values = RedisStoreUtil.mget("redis_test_multi_1", "redis_test_multi_2", "redis_test_multi_3");
+		Assert.assertEquals(Arrays.asList("value_1", "value_2", null), values);
+	}
+
+	@Test
+	public void testDeleteByPattern() {
+		Map<String, String> data = new HashMap<>();
+		for (int i = 0; i < 2500; i++)
+			data.put("redis_test_pattern_" + i, "value_" + i);
+		RedisStoreUtil.saveMultiple(data, 60);
+		RedisStoreUtil.save("redis_test_other", "value", 60);
+		RedisStoreUtil.deleteByPattern("redis_test_pattern_*");
+		Assert.assertNull(RedisStoreUtil.get("redis_test_pattern_0"));
+		Assert.assertNull(RedisStoreUtil.get("redis_test_pattern_2499"));
+		Assert.assertEquals("value", RedisStoreUtil.get("redis_test_other"));
+	}
+
+	/**
+	 * @return the number of calls of the command processed by redis
+	 */
+	private long getCalls(String command) {
+		Jedis jedis = JedisFactory.getRedisConncetion();
+		try {
+			for (String line : jedis.info("commandstats").split("\r?\n")) {
+				if (line.startsWith("cmdstat_" + command + ":calls="))
+					return Long.parseLong(line.substring(line.indexOf('=') + 1, line.indexOf(',')));
+			}
+			return 0;
+		} finally {
+			JedisFactory.returnConnection(jedis);
+		}
+	}
+}
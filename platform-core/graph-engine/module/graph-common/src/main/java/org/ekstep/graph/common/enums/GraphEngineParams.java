@@ -1,5 +1,5 @@
 package org.ekstep.graph.common.enums;
 
 public enum GraphEngineParams {
-    format, input_stream, output_stream, objectType, metadata, search_criteria, task_id, status, Pending, Completed;
+    format, input_stream, output_stream, objectType, metadata, search_criteria, task_id, status, Pending, Completed, export_file, export_streaming, export_actor, export_offset, export_chunk, export_complete;
 }
@@ -1,10 +1,17 @@
 package org.ekstep.graph.model;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -16,6 +23,7 @@ import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.BooleanUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.codehaus.jackson.map.ObjectMapper;
+import org.ekstep.common.Platform;
 import org.ekstep.common.dto.Property;
 import org.ekstep.common.dto.Request;
 import org.ekstep.common.dto.Response;
@@ -48,11 +56,13 @@ import org.ekstep.graph.model.node.DefinitionDTO;
 import org.ekstep.graph.model.node.DefinitionNode;
 import org.ekstep.graph.model.node.MetadataDefinition;
 import org.ekstep.graph.model.relation.RelationHandler;
+import org.ekstep.graph.reader.CSVGraphStreamReader;
 import org.ekstep.graph.reader.CSVImportMessageHandler;
 import org.ekstep.graph.reader.GraphReader;
 import org.ekstep.graph.reader.GraphReaderFactory;
 import org.ekstep.graph.reader.JsonGraphReader;
 import org.ekstep.graph.writer.GraphWriterFactory;
+import org.ekstep.graph.writer.PagedCursor;
 import org.ekstep.graph.writer.RDFGraphWriter;
 import org.ekstep.telemetry.logger.TelemetryManager;
 
@@ -65,6 +75,18 @@ public class Graph extends AbstractDomainObject {
 
 	public static final String ERROR_MESSAGES = "ERROR_MESSAGES";
 	public static Timeout WAIT_TIMEOUT = new Timeout(Duration.create(30, TimeUnit.SECONDS));
+	private static final boolean EXPORT_STREAMING = Platform.config.hasPath("graph.export.streaming")
+			? Platform.config.getBoolean("graph.export.streaming") : true;
+	private static final int EXPORT_PAGE_SIZE = Platform.config.hasPath("graph.export.page_size")
+			? Platform.config.getInt("graph.export.page_size") : 1000;
+	private static final String EXPORT_FILE_PREFIX = "graph_export_";
+	private static final long EXPORT_FILE_MAX_AGE = TimeUnit.HOURS.toMillis(1);
+	private static final int EXPORT_CHUNK_SIZE = Platform.config.hasPath("graph.export.chunk_size")
+			? Platform.config.getInt("graph.export.chunk_size") : 1048576;
+	private static final boolean IMPORT_STREAMING = Platform.config.hasPath("graph.import.streaming")
+			? Platform.config.getBoolean("graph.import.streaming") : true;
+	private static final int IMPORT_BATCH_SIZE = Platform.config.hasPath("graph.import.batch_size")
+			? Platform.config.getInt("graph.import.batch_size") : 1000;
 
 	public Graph(BaseGraphManager manager, String graphId) {
 		super(manager, graphId);
@@ -323,13 +345,7 @@ public class Graph extends AbstractDomainObject {
 				throw new ClientException(GraphEngineErrorCodes.ERR_GRAPH_IMPORT_INVALID_INPUTSTREAM.name(),
 						"Import stream is missing");
 			} else {
-				// Get byte array.
-				try (ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
-					IOUtils.copy(inputStream.getInputStream(), baos);
-					byte[] bytes = baos.toByteArray();
-					inputStream.setInputStream(new ByteArrayInputStream(bytes));
-					final ByteArrayInputStream byteInputStream = new ByteArrayInputStream(bytes);
-
+				try {
 					// Fetch Definition Nodes
 					final Request defNodesReq = new Request(request);
 					Property defNodeProperty = new Property(SystemProperties.IL_SYS_NODE_TYPE.name(),
@@ -343,6 +359,7 @@ public class Graph extends AbstractDomainObject {
 								manager.getErrorMessage(res), res.getResponseCode(), getParent());
 					} else {
 						Map<String, Map<String, MetadataDefinition>> propertyDataMap = new HashMap<String, Map<String, MetadataDefinition>>();
+						Map<String, DefinitionDTO> definitions = new HashMap<String, DefinitionDTO>();
 						List<Node> defNodes = (List<Node>) res.get(GraphDACParams.node_list.name());
 						List<DefinitionNode> defNodesList = new ArrayList<DefinitionNode>();
 						for (Node defNode : defNodes) {
@@ -367,8 +384,21 @@ public class Graph extends AbstractDomainObject {
 								}
 							}
 							propertyDataMap.put(objectType, propMap);
+							definitions.put(objectType, node.getValueObject());
+						}
+
+						if (IMPORT_STREAMING && StringUtils.equalsIgnoreCase(ImportType.CSV.name(), format)) {
+							importCSVStream(request, graphId, taskId, inputStream, propertyDataMap, definitions);
+							return;
 						}
 
+						// Get byte array.
+						ByteArrayOutputStream baos = new ByteArrayOutputStream();
+						IOUtils.copy(inputStream.getInputStream(), baos);
+						byte[] bytes = baos.toByteArray();
+						inputStream.setInputStream(new ByteArrayInputStream(bytes));
+						final ByteArrayInputStream byteInputStream = new ByteArrayInputStream(bytes);
+
 						final ImportData importData = GraphReaderFactory.getObject(getManager(), format, graphId,
 								inputStream.getInputStream(), propertyDataMap);
 						request.put(GraphDACParams.import_input_object.name(), importData);
@@ -401,6 +431,86 @@ public class Graph extends AbstractDomainObject {
 		}
 	}
 
+	/**
+	 * Imports a CSV file batch by batch: the input is spooled to a temporary
+	 * file which is parsed lazily, every batch of
+	 * <code>graph.import.batch_size</code> valid rows is imported as soon as it
+	 * is read, updating the progress of the task. Rows referring to nodes
+	 * defined further down in the file are imported once more after the whole
+	 * file is read, so that those relations are created as well.
+	 */
+	private void importCSVStream(Request request, String graphId, String taskId, InputStreamValue inputStream,
+			Map<String, Map<String, MetadataDefinition>> propertyDataMap,
+			Map<String, DefinitionDTO> definitions) throws Exception {
+		File file = File.createTempFile("import_" + graphId + "_", ".csv");
+		try {
+			try (InputStream input = inputStream.getInputStream()) {
+				Files.copy(input, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+			final CSVGraphStreamReader reader = new CSVGraphStreamReader(getManager(), new ObjectMapper(), graphId,
+					propertyDataMap, definitions, IMPORT_BATCH_SIZE);
+			final Map<String, List<String>> importMsgMap = new HashMap<String, List<String>>();
+			try (InputStream input = new BufferedInputStream(new FileInputStream(file))) {
+				reader.scan(input);
+			}
+			try (InputStream input = new BufferedInputStream(new FileInputStream(file))) {
+				reader.read(input, nodes -> importMsgMap.putAll(importNodes(request, nodes, null, taskId, true)));
+			}
+			try (InputStream input = new BufferedInputStream(new FileInputStream(file))) {
+				reader.readDeferred(input, nodes -> {
+					for (Node node : nodes)
+						importMsgMap.remove(node.getIdentifier());
+					importMsgMap.putAll(importNodes(request, nodes, null, taskId, true));
+				});
+			}
+			// marks the task as completed.
+			importNodes(request, new ArrayList<Node>(), reader.getTagMembersMap(), taskId, false);
+			importMsgMap.putAll(reader.getMessages());
+			TelemetryManager.info("CSV import finished | [Graph Id: " + graphId + "]",
+					getImportSummary(reader.getRowCount(), importMsgMap.size()));
+
+			try (InputStream input = new BufferedInputStream(new FileInputStream(file))) {
+				CSVImportMessageHandler msgHandler = new CSVImportMessageHandler(input);
+				OutputStream outputStream = msgHandler.getOutputStream(importMsgMap);
+				Map<String, Object> outputMap = new HashMap<String, Object>();
+				outputMap.put(GraphEngineParams.output_stream.name(), new OutputStreamValue(outputStream));
+				outputMap.put(GraphEngineParams.task_id.name(), taskId);
+				manager.OK(outputMap, getParent());
+			}
+		} finally {
+			Files.deleteIfExists(file.toPath());
+		}
+	}
+
+	/**
+	 * @param partial
+	 *            true for a chunk of the import, which does not complete the
+	 *            task
+	 */
+	@SuppressWarnings("unchecked")
+	private Map<String, List<String>> importNodes(Request request, List<Node> nodes,
+			Map<String, List<String>> tagMembersMap, String taskId, boolean partial) {
+		Request importReq = new Request(request);
+		importReq.put(GraphDACParams.import_input_object.name(), new ImportData(new ArrayList<Node>(), nodes,
+				new ArrayList<Relation>(), tagMembersMap));
+		importReq.put(GraphDACParams.task_id.name(), taskId);
+		importReq.put(GraphDACParams.import_partial.name(), partial);
+		Response importResponse = graphMgr.importGraph(importReq);
+		if (manager.checkError(importResponse))
+			throw new ServerException(GraphEngineErrorCodes.ERR_GRAPH_IMPORT_UNKNOWN_ERROR.name(),
+					manager.getErrorMessage(importResponse));
+		Map<String, List<String>> messages = (Map<String, List<String>>) importResponse
+				.get(GraphDACParams.messages.name());
+		return null == messages ? new HashMap<String, List<String>>() : messages;
+	}
+
+	private Map<String, Object> getImportSummary(int rows, int rowsWithMessages) {
+		Map<String, Object> summary = new HashMap<String, Object>();
+		summary.put("rows", rows);
+		summary.put("rowsWithMessages", rowsWithMessages);
+		return summary;
+	}
+
 	public void searchNodes(Request req) {
 		try {
 			Request request = new Request(req);
@@ -757,6 +867,12 @@ public class Graph extends AbstractDomainObject {
 			if (null != request.get(GraphEngineParams.search_criteria.name()))
 				sc = (SearchCriteria) request.get(GraphEngineParams.search_criteria.name());
 
+			if (null == sc && EXPORT_STREAMING
+					&& !BooleanUtils.isFalse((Boolean) request.get(GraphEngineParams.export_streaming.name()))) {
+				exportGraphToFile(request, format);
+				return;
+			}
+
 			Response nodesResponse = null;
 			if (null == sc) {
 				Request nodesReq = new Request(request);
@@ -817,6 +933,145 @@ public class Graph extends AbstractDomainObject {
 		}
 	}
 
+	/**
+	 * Streams the whole graph into a temporary file: nodes and relations are
+	 * read page by page (by internal id) and written as they are read, so the
+	 * memory needed does not depend on the size of the graph. The path of the
+	 * file is returned as <code>export_file</code> and the actor which wrote it
+	 * as <code>export_actor</code>. A caller on the same host reads and deletes
+	 * the file, a caller on another host reads it from that actor in chunks
+	 * with {@link #readExportChunk(Request)}, the last chunk deleting it. Files
+	 * left over by failed callers are deleted after an hour.
+	 *
+	 * Every page is a scan of the graph label sorted by id, so an export reads
+	 * about nodes * nodes / <code>graph.export.page_size</code> nodes in all;
+	 * the CSV export scans the nodes twice (the header row needs all the
+	 * metadata keys and relation types first) and the JSON and RDF exports
+	 * scan the nodes and then the relations once.
+	 */
+	@SuppressWarnings("unchecked")
+	private void exportGraphToFile(final Request request, String format) throws Exception {
+		PagedCursor<Node> nodes = new PagedCursor<Node>((afterId, pageSize) -> {
+			Response nodesResponse = searchMgr.getNodesPage(getPageRequest(request, afterId, pageSize));
+			if (manager.checkError(nodesResponse))
+				throw new ServerException(GraphEngineErrorCodes.ERR_GRAPH_EXPORT_UNKNOWN_ERROR.name(),
+						manager.getErrorMessage(nodesResponse));
+			return (List<Node>) nodesResponse.get(GraphDACParams.node_list.name());
+		}, Node::getId, EXPORT_PAGE_SIZE);
+
+		Iterable<Relation> relations = new ArrayList<Relation>();
+		if (!StringUtils.equalsIgnoreCase(ImportType.CSV.name(), format)) {
+			relations = new PagedCursor<Relation>((afterId, pageSize) -> {
+				Response relationsResponse = searchMgr.getRelationsPage(getPageRequest(request, afterId, pageSize));
+				if (manager.checkError(relationsResponse))
+					throw new ServerException(GraphEngineErrorCodes.ERR_GRAPH_EXPORT_UNKNOWN_ERROR.name(),
+							manager.getErrorMessage(relationsResponse));
+				return (List<Relation>) relationsResponse.get(GraphDACParams.relations.name());
+			}, Relation::getId, EXPORT_PAGE_SIZE);
+		}
+
+		File file = File.createTempFile(EXPORT_FILE_PREFIX + graphId + "_", "." + format.toLowerCase());
+		deleteStaleExportFiles(file.getParentFile());
+		try (OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(file))) {
+			GraphWriterFactory.write(format, nodes, relations, outputStream);
+		} catch (Exception e) {
+			file.delete();
+			throw e;
+		}
+		TelemetryManager.log("Graph exported to file: " + file.getAbsolutePath() + " | [Graph Id: " + graphId + "]");
+		Response response = new Response();
+		ResponseParams params = new ResponseParams();
+		params.setErr("0");
+		params.setStatus(StatusType.successful.name());
+		params.setErrmsg("Operation successful");
+		response.setParams(params);
+		response.put(GraphEngineParams.export_file.name(), file.getAbsolutePath());
+		response.put(GraphEngineParams.export_actor.name(), manager.getSelf());
+		manager.returnResponse(Futures.successful(response), getParent());
+	}
+
+	/**
+	 * Returns up to <code>graph.export.chunk_size</code> bytes of an export
+	 * file from <code>export_offset</code> as <code>export_chunk</code>. The
+	 * file is deleted with its last chunk, <code>export_complete</code> is then
+	 * true.
+	 */
+	public void readExportChunk(final Request request) {
+		try {
+			File file = getExportFile(request);
+			long offset = ((Number) request.get(GraphEngineParams.export_offset.name())).longValue();
+			byte[] chunk;
+			boolean complete;
+			try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+				long length = raf.length();
+				chunk = new byte[(int) Math.max(0, Math.min(EXPORT_CHUNK_SIZE, length - offset))];
+				raf.seek(offset);
+				raf.readFully(chunk);
+				complete = offset + chunk.length >= length;
+			}
+			if (complete)
+				file.delete();
+			else
+				file.setLastModified(System.currentTimeMillis());
+			Map<String, Object> result = new HashMap<String, Object>();
+			result.put(GraphEngineParams.export_chunk.name(), chunk);
+			result.put(GraphEngineParams.export_complete.name(), complete);
+			manager.OK(result, getParent());
+		} catch (IOException e) {
+			throw new ServerException(GraphEngineErrorCodes.ERR_GRAPH_EXPORT_UNKNOWN_ERROR.name(), e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Deletes an export file which will not be read to the end.
+	 */
+	public void deleteExportFile(final Request request) {
+		try {
+			getExportFile(request).delete();
+			manager.OK(getParent());
+		} catch (IOException e) {
+			throw new ServerException(GraphEngineErrorCodes.ERR_GRAPH_EXPORT_UNKNOWN_ERROR.name(), e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * @return the export file of the request, which must be an export file of
+	 *         this graph in the temporary directory
+	 */
+	private File getExportFile(Request request) throws IOException {
+		String path = (String) request.get(GraphEngineParams.export_file.name());
+		if (StringUtils.isBlank(path))
+			throw new ClientException(GraphEngineErrorCodes.ERR_GRAPH_EXPORT_UNKNOWN_ERROR.name(),
+					"Export file is missing.");
+		File file = new File(path).getCanonicalFile();
+		File tempDir = new File(System.getProperty("java.io.tmpdir")).getCanonicalFile();
+		if (!tempDir.equals(file.getParentFile()) || !file.getName().startsWith(EXPORT_FILE_PREFIX + graphId + "_"))
+			throw new ClientException(GraphEngineErrorCodes.ERR_GRAPH_EXPORT_UNKNOWN_ERROR.name(),
+					"Invalid export file: " + path);
+		if (!file.isFile())
+			throw new ResourceNotFoundException(GraphEngineErrorCodes.ERR_GRAPH_EXPORT_UNKNOWN_ERROR.name(),
+					"Export file not found: " + path);
+		return file;
+	}
+
+	private void deleteStaleExportFiles(File dir) {
+		File[] files = dir.listFiles((d, name) -> name.startsWith(EXPORT_FILE_PREFIX));
+		if (null == files)
+			return;
+		long now = System.currentTimeMillis();
+		for (File file : files) {
+			if (now - file.lastModified() > EXPORT_FILE_MAX_AGE)
+				file.delete();
+		}
+	}
+
+	private Request getPageRequest(Request request, long afterId, int pageSize) {
+		Request pageReq = new Request(request);
+		pageReq.put(GraphDACParams.after_id.name(), afterId);
+		pageReq.put(GraphDACParams.page_size.name(), pageSize);
+		return pageReq;
+	}
+
 	@SuppressWarnings("unchecked")
 	private Map<String, List<String>> getNodesValidationsFuture(Response defNodesResponse, final Response nodesResponse,
 			final Request request) {
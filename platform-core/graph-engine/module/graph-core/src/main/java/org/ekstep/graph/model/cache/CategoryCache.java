@@ -1,24 +1,54 @@
 package org.ekstep.graph.model.cache;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.commons.lang3.StringUtils;
+import org.ekstep.common.Platform;
+import org.ekstep.graph.cache.util.RedisChannelSubscriber;
 import org.ekstep.graph.cache.util.RedisStoreUtil;
 import org.ekstep.telemetry.logger.TelemetryManager;
 
 /**
- * 
+ * Framework category terms are stored in redis and mirrored in an in-process
+ * near-cache. The near-cache is invalidated through a redis pub/sub channel
+ * whenever a framework is (re)published with {@link #setFramework}, so term
+ * validation is served from memory in steady state. A cached entry records the
+ * generation of its framework when it was read from redis, an invalidation
+ * moves the framework to the next generation so an entry read before the
+ * invalidation is never served after it.
+ *
  * @author mahesh
  *
  */
 
 public class CategoryCache {
 
+	private static final String KEY_SEPARATOR = "|";
+	private static final String INVALIDATION_CHANNEL = Platform.config.hasPath("framework.category.cache.channel")
+			? Platform.config.getString("framework.category.cache.channel") : "framework_category_cache";
+
+	private static final Map<String, CategoryTerms> termsCache = new ConcurrentHashMap<>();
+	private static final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+	private static volatile RedisChannelSubscriber subscriber = null;
+
 	public static List<Object> getTerms(String framework, String category) {
-		String key = getKey(framework, category);
-		return RedisStoreUtil.getList(key);
+		return getCategoryTerms(framework, category).terms;
+	}
+
+	/**
+	 * Checks (case-insensitively) whether the value is one of the terms of the
+	 * given framework category.
+	 */
+	public static boolean isValidTerm(String framework, String category, Object value) {
+		return (value instanceof String)
+				&& getCategoryTerms(framework, category).lowerCaseTerms.contains(((String) value).toLowerCase());
 	}
 
 	@SuppressWarnings("unchecked")
@@ -37,6 +67,19 @@ public class CategoryCache {
 		return "cat_" + framework + category;
 	}
 
+	private static CategoryTerms getCategoryTerms(String framework, String category) {
+		startSubscriber();
+		String cacheKey = framework + KEY_SEPARATOR + category;
+		long generation = generations.computeIfAbsent(framework, k -> new AtomicLong()).get();
+		CategoryTerms categoryTerms = termsCache.get(cacheKey);
+		if (null == categoryTerms || categoryTerms.generation != generation) {
+			categoryTerms = new CategoryTerms(RedisStoreUtil.getList(getKey(framework, category)), generation);
+			if (!categoryTerms.terms.isEmpty())
+				termsCache.put(cacheKey, categoryTerms);
+		}
+		return categoryTerms;
+	}
+
 	private static void setFramework(String framework, List<Map<String, Object>> categories) {
 		if (null != categories && !categories.isEmpty()) {
 			for (Map<String, Object> category : categories) {
@@ -48,6 +91,34 @@ public class CategoryCache {
 					RedisStoreUtil.saveList(key, terms);
 				}
 			}
+			invalidate(framework);
+			try {
+				RedisStoreUtil.publish(INVALIDATION_CHANNEL, framework);
+			} catch (Exception e) {
+				TelemetryManager.error("Error while publishing category cache invalidation for framework: " + framework, e);
+			}
+		}
+	}
+
+	private static void invalidate(String framework) {
+		generations.computeIfAbsent(framework, k -> new AtomicLong()).incrementAndGet();
+		String prefix = framework + KEY_SEPARATOR;
+		termsCache.keySet().removeIf(key -> key.startsWith(prefix));
+	}
+
+	private static void invalidateAll() {
+		for (AtomicLong generation : generations.values())
+			generation.incrementAndGet();
+		termsCache.clear();
+	}
+
+	private static void startSubscriber() {
+		if (null == subscriber) {
+			synchronized (CategoryCache.class) {
+				if (null == subscriber)
+					subscriber = RedisChannelSubscriber.start(INVALIDATION_CHANNEL, CategoryCache::invalidate,
+							CategoryCache::invalidateAll);
+			}
 		}
 	}
 
@@ -69,4 +140,21 @@ public class CategoryCache {
 		}
 		return returnTerms;
 	}
-}
\ No newline at end of file
+
+	private static class CategoryTerms {
+		private final List<Object> terms;
+		private final Set<String> lowerCaseTerms;
+		private final long generation;
+
+		CategoryTerms(List<Object> terms, long generation) {
+			Set<String> lowerCaseTerms = new HashSet<>();
+			for (Object term : terms) {
+				if (term instanceof String)
+					lowerCaseTerms.add(((String) term).toLowerCase());
+			}
+			this.terms = Collections.unmodifiableList(terms);
+			this.lowerCaseTerms = Collections.unmodifiableSet(lowerCaseTerms);
+			this.generation = generation;
+		}
+	}
+}
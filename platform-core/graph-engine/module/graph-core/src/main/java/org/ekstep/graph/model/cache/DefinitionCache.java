@@ -16,6 +16,7 @@ import org.ekstep.graph.dac.model.Node;
 import org.ekstep.graph.dac.model.SearchCriteria;
 import org.ekstep.graph.model.node.DefinitionDTO;
 import org.ekstep.graph.model.node.RelationDefinition;
+import org.ekstep.graph.service.util.LocalCache;
 
 import akka.actor.ActorRef;
 
@@ -67,12 +68,8 @@ public class DefinitionCache extends BaseGraphManager {
 	}
 	
 	private static DefinitionDTO getDefinitionFromCache(String graphId, String objectType) {
-		DefinitionDTO dto = (DefinitionDTO) NodeCacheManager.getDefinitionNode(graphId, objectType);
-		if (null == dto) {
-			dto = getDefinitionNodeFromGraph(graphId, objectType);
-			NodeCacheManager.saveDefinitionNode(graphId, objectType, dto);
-		}
-		return dto;
+		return (DefinitionDTO) NodeCacheManager.getDefinitionNode(graphId, objectType,
+				() -> getDefinitionNodeFromGraph(graphId, objectType));
 	}
 
 	@SuppressWarnings("unchecked")
@@ -107,7 +104,8 @@ public class DefinitionCache extends BaseGraphManager {
 	}
 
 	public static void updateDefinitionCache(String graphId, String objectType){
-		DefinitionDTO dto = getDefinitionNodeFromGraph(graphId, objectType);
-			NodeCacheManager.saveDefinitionNode(graphId, objectType, dto);
+		NodeCacheManager.refreshDefinitionNode(graphId, objectType,
+				() -> getDefinitionNodeFromGraph(graphId, objectType));
+		LocalCache.deleteDefNodeProperties(graphId, objectType);
 	}
 }
@@ -540,6 +540,7 @@ public class DataNode extends AbstractNode {
 			String propName = def.getPropertyName();
 			String dataType = def.getDataType();
 			List<Object> range = def.getRange();
+			String termFramework = null;
 
 			// TODO: the below if condition is to allow term and termlist as
 			// datatypes.
@@ -559,6 +560,7 @@ public class DataNode extends AbstractNode {
 						List<Object> terms = CategoryCache.getTerms(framework, propName);
 						if (null != terms && !terms.isEmpty()) {
 							range = terms;
+							termFramework = framework;
 							TelemetryManager.log("Setting range from terms for data validation. framework: " + framework
 									+ ", category: " + propName);
 						} else {
@@ -589,7 +591,7 @@ public class DataNode extends AbstractNode {
 				if (null == range || range.isEmpty())
 					messages.add("Metadata " + propName + " should be one of: " + range);
 				else {
-					if (!checkRangeValue(range, value))
+					if (!checkRangeValue(range, termFramework, propName, value))
 						messages.add("Metadata " + propName + " should be one of: " + range);
 				}
 			} else if (StringUtils.equalsIgnoreCase("multi-select", dataType)) {
@@ -602,7 +604,7 @@ public class DataNode extends AbstractNode {
 						if (value instanceof Object[]) {
 							int length = Array.getLength(value);
 							for (int i = 0; i < length; i++) {
-								if (!checkRangeValue(range, Array.get(value, i))) {
+								if (!checkRangeValue(range, termFramework, propName, Array.get(value, i))) {
 									messages.add("Metadata " + propName + " should be one of: " + range);
 									break;
 								}
@@ -610,7 +612,7 @@ public class DataNode extends AbstractNode {
 						} else if (value instanceof List) {
 							List list = (List) value;
 							for (Object object : list) {
-								if (!checkRangeValue(range, object)) {
+								if (!checkRangeValue(range, termFramework, propName, object)) {
 									messages.add("Metadata " + propName + " should be one of: " + range);
 									break;
 								}
@@ -646,6 +648,12 @@ public class DataNode extends AbstractNode {
 		}
 	}
 
+	private boolean checkRangeValue(List<Object> range, String framework, String category, Object value) {
+		if (null != framework)
+			return CategoryCache.isValidTerm(framework, category, value);
+		return checkRangeValue(range, value);
+	}
+
 	private boolean checkRangeValue(List<Object> range, Object value) {
 		boolean found = false;
 		for (Object rangeVal : range) {
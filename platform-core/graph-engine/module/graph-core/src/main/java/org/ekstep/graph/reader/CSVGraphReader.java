@@ -7,6 +7,7 @@ import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
@@ -32,8 +33,16 @@ public class CSVGraphReader implements GraphReader {
 	private List<String> validations;
 	private BaseGraphManager manager;
 	private ObjectMapper mapper;
+	private String graphId;
 	Map<String, Map<String, MetadataDefinition>> propertyDataMap;
 
+	private List<String> allHeaders;
+	private Map<String, Integer> relHeaders;
+	private List<Integer> skipIndexes;
+	private int uniqueIdIndex;
+	private int objectTypeIndex;
+	private int tagsIndex;
+
 	public static final String PROPERTY_ID = "identifier";
 	public static final String PROPERTY_NODE_TYPE = "nodeType";
 	public static final String PROPERTY_OBJECT_TYPE = "objectType";
@@ -43,104 +52,127 @@ public class CSVGraphReader implements GraphReader {
 
 	CSVFormat csvFileFormat = CSVFormat.DEFAULT;
 
-	@SuppressWarnings("resource")
 	public CSVGraphReader(BaseGraphManager manager, ObjectMapper mapper, String graphId, InputStream inputStream,
 			Map<String, Map<String, MetadataDefinition>> propertyDataMap) throws Exception {
+		this(manager, mapper, graphId, propertyDataMap);
+		try (InputStreamReader isReader = new InputStreamReader(inputStream, StandardCharsets.UTF_8);
+				CSVParser csvReader = new CSVParser(isReader, csvFileFormat)) {
+			Iterator<CSVRecord> records = csvReader.iterator();
+			if (records.hasNext())
+				readHeader(records.next());
+			int rowNumber = 1;
+			while (records.hasNext()) {
+				rowNumber += 1;
+				dataNodes.add(getNode(records.next(), rowNumber));
+			}
+		}
+	}
+
+	CSVGraphReader(BaseGraphManager manager, ObjectMapper mapper, String graphId,
+			Map<String, Map<String, MetadataDefinition>> propertyDataMap) {
 		this.manager = manager;
 		this.mapper = mapper;
+		this.graphId = graphId;
 		this.propertyDataMap = propertyDataMap;
 		definitionNodes = new ArrayList<Node>();
 		dataNodes = new ArrayList<Node>();
 		tagMembersMap = new HashMap<String, List<String>>();
 		relations = new ArrayList<Relation>();
 		validations = new ArrayList<String>();
-		try (InputStreamReader isReader = new InputStreamReader(inputStream, StandardCharsets.UTF_8);
-				CSVParser csvReader = new CSVParser(isReader, csvFileFormat)) {
-			List<CSVRecord> recordsList = csvReader.getRecords();
-			CSVRecord headerRecord = recordsList.get(0);
-			List<String> allHeaders = new ArrayList<String>();
-			Map<String, Integer> relHeaders = new HashMap<String, Integer>();
-			for (int i = 0; i < headerRecord.size(); i++) {
-				allHeaders.add(headerRecord.get(i));
-				if (headerRecord.get(i).startsWith(REL_HEADER_START_WITH)) {
-					relHeaders.put(headerRecord.get(i), i);
-				}
-			}
-			int uniqueIdIndex = allHeaders.indexOf(PROPERTY_ID);
-			int nodeTypeIndex = allHeaders.indexOf(PROPERTY_NODE_TYPE);
-			int objectTypeIndex = allHeaders.indexOf(PROPERTY_OBJECT_TYPE);
-			int tagsIndex = allHeaders.indexOf(PROPERTY_TAGS);
-			List<Integer> skipIndexes = Arrays.asList(uniqueIdIndex, nodeTypeIndex, objectTypeIndex, tagsIndex);
-			if (!hasValidIndexes(uniqueIdIndex, objectTypeIndex)) {
-				throw new ClientException(GraphEngineErrorCodes.ERR_GRAPH_IMPORT_MISSING_REQ_COLUMNS.name(),
-						"Required columns are missing.");
+	}
+
+	void readHeader(CSVRecord headerRecord) {
+		allHeaders = new ArrayList<String>();
+		relHeaders = new HashMap<String, Integer>();
+		for (int i = 0; i < headerRecord.size(); i++) {
+			allHeaders.add(headerRecord.get(i));
+			if (headerRecord.get(i).startsWith(REL_HEADER_START_WITH)) {
+				relHeaders.put(headerRecord.get(i), i);
 			}
+		}
+		uniqueIdIndex = allHeaders.indexOf(PROPERTY_ID);
+		objectTypeIndex = allHeaders.indexOf(PROPERTY_OBJECT_TYPE);
+		tagsIndex = allHeaders.indexOf(PROPERTY_TAGS);
+		skipIndexes = Arrays.asList(uniqueIdIndex, allHeaders.indexOf(PROPERTY_NODE_TYPE), objectTypeIndex, tagsIndex);
+		if (!hasValidIndexes(uniqueIdIndex, objectTypeIndex)) {
+			throw new ClientException(GraphEngineErrorCodes.ERR_GRAPH_IMPORT_MISSING_REQ_COLUMNS.name(),
+					"Required columns are missing.");
+		}
+	}
 
-			for (int i = 1; i < recordsList.size(); i++) {
-				CSVRecord record = recordsList.get(i);
-				String uniqueId = record.get(uniqueIdIndex);
-				String nodeType = SystemNodeTypes.DATA_NODE.name();
-				String objectType = record.get(objectTypeIndex);
-				if (StringUtils.isBlank(uniqueId) || StringUtils.isBlank(objectType)) {
-					throw new ClientException(GraphEngineErrorCodes.ERR_GRAPH_IMPORT_MISSING_REQ_COLUMN_DATA.name(),
-							"Required data(uniqueId, objectType) is missing for the row[" + (i + 1) + "]: " + record);
-				}
-				Map<String, Object> metadata = new HashMap<String, Object>();
-				for (int j = 0; j < allHeaders.size(); j++) {
-					if (!skipIndexes.contains(j) && !relHeaders.values().contains(j)) {
-						String metadataKey = getMetadataKey(objectType, allHeaders.get(j));
-						String val = record.get(j);
-						if (isListProperty(objectType, allHeaders.get(j))) {
-							String[] valList = getListFromString(val);
-							metadata.put(metadataKey, valList);
-						} else {
-							if (StringUtils.isNotBlank(val))
-								val = val.replaceAll("&lt;", "<").replaceAll("&gt;", ">");
-							else
-								val = null;
-							Object value = getMetadataValue(objectType, metadataKey, val);
-							metadata.put(metadataKey, value);
-						}
-					}
-				}
-				Node node = new Node(graphId, metadata);
-				node.setIdentifier(uniqueId);
-				node.setNodeType(nodeType);
-				node.setObjectType(objectType);
-				List<Relation> relations = new ArrayList<Relation>();
-				for (String relHeader : relHeaders.keySet()) {
-					String relName = relHeader.replaceAll(REL_HEADER_START_WITH, "");
-					String[] endNodeIds = record.get(relHeaders.get(relHeader)).toString().split(",");
-					for (String endNodeId : endNodeIds) {
-						endNodeId = endNodeId.trim();
-						if (StringUtils.isNotBlank(endNodeId)) {
-							Relation relation = new Relation(uniqueId, relName, endNodeId);
-							relations.add(relation);
-						}
-					}
+	/**
+	 * @return the identifier of a data row, without converting the row
+	 */
+	String getIdentifier(CSVRecord record) {
+		return record.get(uniqueIdIndex);
+	}
+
+	/**
+	 * Converts a data row into a data node, the row number is the 1-based
+	 * position of the record in the file (the header being row 1).
+	 */
+	Node getNode(CSVRecord record, int rowNumber) {
+		String uniqueId = record.get(uniqueIdIndex);
+		String nodeType = SystemNodeTypes.DATA_NODE.name();
+		String objectType = record.get(objectTypeIndex);
+		if (StringUtils.isBlank(uniqueId) || StringUtils.isBlank(objectType)) {
+			throw new ClientException(GraphEngineErrorCodes.ERR_GRAPH_IMPORT_MISSING_REQ_COLUMN_DATA.name(),
+					"Required data(uniqueId, objectType) is missing for the row[" + rowNumber + "]: " + record);
+		}
+		Map<String, Object> metadata = new HashMap<String, Object>();
+		for (int j = 0; j < allHeaders.size(); j++) {
+			if (!skipIndexes.contains(j) && !relHeaders.values().contains(j)) {
+				String metadataKey = getMetadataKey(objectType, allHeaders.get(j));
+				String val = record.get(j);
+				if (isListProperty(objectType, allHeaders.get(j))) {
+					String[] valList = getListFromString(val);
+					metadata.put(metadataKey, valList);
+				} else {
+					if (StringUtils.isNotBlank(val))
+						val = val.replaceAll("&lt;", "<").replaceAll("&gt;", ">");
+					else
+						val = null;
+					Object value = getMetadataValue(objectType, metadataKey, val);
+					metadata.put(metadataKey, value);
 				}
-				if(null != relHeaders.keySet()&& !relHeaders.keySet().isEmpty()){
-					node.setOutRelations(relations);
+			}
+		}
+		Node node = new Node(graphId, metadata);
+		node.setIdentifier(uniqueId);
+		node.setNodeType(nodeType);
+		node.setObjectType(objectType);
+		List<Relation> relations = new ArrayList<Relation>();
+		for (String relHeader : relHeaders.keySet()) {
+			String relName = relHeader.replaceAll(REL_HEADER_START_WITH, "");
+			String[] endNodeIds = record.get(relHeaders.get(relHeader)).toString().split(",");
+			for (String endNodeId : endNodeIds) {
+				endNodeId = endNodeId.trim();
+				if (StringUtils.isNotBlank(endNodeId)) {
+					Relation relation = new Relation(uniqueId, relName, endNodeId);
+					relations.add(relation);
 				}
-				dataNodes.add(node);
-				if (tagsIndex != -1) {
-					String tagsData = record.get(tagsIndex);
-					if (StringUtils.isNotBlank(tagsData)) {
-						String[] recordTags = tagsData.split(LIST_STR_DELIMITER);
-						for (String tagName : recordTags) {
-							tagName = tagName.trim();
-							if (tagMembersMap.containsKey(tagName)) {
-								tagMembersMap.get(tagName).add(uniqueId);
-							} else {
-								List<String> members = new ArrayList<String>();
-								members.add(uniqueId);
-								tagMembersMap.put(tagName, members);
-							}
-						}
+			}
+		}
+		if(null != relHeaders.keySet()&& !relHeaders.keySet().isEmpty()){
+			node.setOutRelations(relations);
+		}
+		if (tagsIndex != -1) {
+			String tagsData = record.get(tagsIndex);
+			if (StringUtils.isNotBlank(tagsData)) {
+				String[] recordTags = tagsData.split(LIST_STR_DELIMITER);
+				for (String tagName : recordTags) {
+					tagName = tagName.trim();
+					if (tagMembersMap.containsKey(tagName)) {
+						tagMembersMap.get(tagName).add(uniqueId);
+					} else {
+						List<String> members = new ArrayList<String>();
+						members.add(uniqueId);
+						tagMembersMap.put(tagName, members);
 					}
 				}
 			}
 		}
+		return node;
 	}
 
 	private String[] getListFromString(String valStr) {
@@ -0,0 +1,219 @@
+package org.ekstep.graph.reader;
+
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.apache.commons.lang3.StringUtils;
+import org.codehaus.jackson.map.ObjectMapper;
+import org.ekstep.graph.common.mgr.BaseGraphManager;
+import org.ekstep.graph.dac.model.Node;
+import org.ekstep.graph.dac.model.Relation;
+import org.ekstep.graph.model.node.DataNode;
+import org.ekstep.graph.model.node.DefinitionDTO;
+import org.ekstep.graph.model.node.MetadataDefinition;
+
+/**
+ * Streaming mode of the {@link CSVGraphReader}.
+ *
+ * Records are parsed lazily and handed over to a {@link BatchHandler} in
+ * batches of at most <code>batchSize</code> nodes, so only one batch of nodes
+ * is held in memory at a time. Every row is validated with
+ * {@link DataNode#validateNode(DefinitionDTO)} against the definition of its
+ * object type while it is read: rows failing the validation are not handed
+ * over and their messages are available from {@link #getMessages()}, keyed by
+ * the row identifier. Only the first row of an identifier is read, later rows
+ * with the same identifier are ignored.
+ *
+ * The file is read three times: {@link #scan(InputStream)} collects the row
+ * of every identifier, {@link #read(InputStream, BatchHandler)} hands over
+ * the rows and {@link #readDeferred(InputStream, BatchHandler)} hands over
+ * again the rows referring to a node defined further down in the file, which
+ * did not exist yet when the batch of the row was imported.
+ */
+public class CSVGraphStreamReader {
+
+	/**
+	 * Receives the batches of nodes read from the file.
+	 */
+	public interface BatchHandler {
+		void handle(List<Node> nodes) throws Exception;
+	}
+
+	private BaseGraphManager manager;
+	private String graphId;
+	private CSVGraphReader rowReader;
+	private Map<String, DefinitionDTO> definitions;
+	private int batchSize;
+	private Map<String, List<String>> messages = new HashMap<String, List<String>>();
+	private Map<String, Integer> firstRows = new HashMap<String, Integer>();
+	private BitSet deferredRows = new BitSet();
+	private int rowCount = 0;
+
+	CSVFormat csvFileFormat = CSVFormat.DEFAULT;
+
+	/**
+	 * @param propertyDataMap
+	 *            metadata definitions by object type, keyed by title and
+	 *            property name
+	 * @param definitions
+	 *            definitions by object type
+	 */
+	public CSVGraphStreamReader(BaseGraphManager manager, ObjectMapper mapper, String graphId,
+			Map<String, Map<String, MetadataDefinition>> propertyDataMap, Map<String, DefinitionDTO> definitions,
+			int batchSize) {
+		this.manager = manager;
+		this.graphId = graphId;
+		this.rowReader = new CSVGraphReader(manager, mapper, graphId, propertyDataMap);
+		this.definitions = definitions;
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * Records the row of the first occurrence of every identifier, to be called
+	 * before {@link #read(InputStream, BatchHandler)}.
+	 */
+	public void scan(InputStream inputStream) throws Exception {
+		try (InputStreamReader isReader = new InputStreamReader(inputStream, StandardCharsets.UTF_8);
+				CSVParser csvReader = new CSVParser(isReader, csvFileFormat)) {
+			Iterator<CSVRecord> records = csvReader.iterator();
+			if (!records.hasNext())
+				return;
+			rowReader.readHeader(records.next());
+			int rowNumber = 1;
+			while (records.hasNext()) {
+				String identifier = rowReader.getIdentifier(records.next());
+				rowNumber += 1;
+				if (StringUtils.isNotBlank(identifier))
+					firstRows.putIfAbsent(identifier, rowNumber);
+			}
+		}
+	}
+
+	/**
+	 * Reads the whole file and hands over the valid rows in batches.
+	 */
+	public void read(InputStream inputStream, BatchHandler handler) throws Exception {
+		try (InputStreamReader isReader = new InputStreamReader(inputStream, StandardCharsets.UTF_8);
+				CSVParser csvReader = new CSVParser(isReader, csvFileFormat)) {
+			Iterator<CSVRecord> records = csvReader.iterator();
+			if (!records.hasNext())
+				return;
+			rowReader.readHeader(records.next());
+			List<Node> batch = new ArrayList<Node>();
+			int rowNumber = 1;
+			while (records.hasNext()) {
+				CSVRecord record = records.next();
+				rowNumber += 1;
+				Node node = rowReader.getNode(record, rowNumber);
+				if (!isFirstRow(node.getIdentifier(), rowNumber))
+					continue;
+				rowCount += 1;
+				List<String> rowMessages = validate(node);
+				if (!rowMessages.isEmpty()) {
+					messages.put(node.getIdentifier(), rowMessages);
+					continue;
+				}
+				if (hasForwardReference(node, rowNumber))
+					deferredRows.set(rowNumber);
+				batch.add(node);
+				if (batch.size() >= batchSize) {
+					handler.handle(batch);
+					batch = new ArrayList<Node>();
+				}
+			}
+			if (!batch.isEmpty())
+				handler.handle(batch);
+		}
+	}
+
+	/**
+	 * Reads the file again and hands over the rows referring to nodes that
+	 * were defined after them.
+	 */
+	public void readDeferred(InputStream inputStream, BatchHandler handler) throws Exception {
+		if (deferredRows.isEmpty())
+			return;
+		try (InputStreamReader isReader = new InputStreamReader(inputStream, StandardCharsets.UTF_8);
+				CSVParser csvReader = new CSVParser(isReader, csvFileFormat)) {
+			Iterator<CSVRecord> records = csvReader.iterator();
+			if (!records.hasNext())
+				return;
+			rowReader.readHeader(records.next());
+			List<Node> batch = new ArrayList<Node>();
+			int rowNumber = 1;
+			while (records.hasNext()) {
+				CSVRecord record = records.next();
+				rowNumber += 1;
+				if (!deferredRows.get(rowNumber))
+					continue;
+				batch.add(rowReader.getNode(record, rowNumber));
+				if (batch.size() >= batchSize) {
+					handler.handle(batch);
+					batch = new ArrayList<Node>();
+				}
+			}
+			if (!batch.isEmpty())
+				handler.handle(batch);
+		}
+	}
+
+	/**
+	 * @return the validation messages of the rows that were not handed over,
+	 *         keyed by the row identifier
+	 */
+	public Map<String, List<String>> getMessages() {
+		return messages;
+	}
+
+	public Map<String, List<String>> getTagMembersMap() {
+		return rowReader.getTagMembersMap();
+	}
+
+	/**
+	 * @return the number of distinct rows read
+	 */
+	public int getRowCount() {
+		return rowCount;
+	}
+
+	private boolean isFirstRow(String identifier, int rowNumber) {
+		Integer firstRow = firstRows.get(identifier);
+		return null == firstRow || firstRow == rowNumber;
+	}
+
+	/**
+	 * @return true if the row has a relation to a node defined further down in
+	 *         the file. Relations to nodes which are not in the file refer to
+	 *         existing nodes and do not need a second pass.
+	 */
+	private boolean hasForwardReference(Node node, int rowNumber) {
+		if (null != node.getOutRelations()) {
+			for (Relation relation : node.getOutRelations()) {
+				Integer endNodeRow = firstRows.get(relation.getEndNodeId());
+				if (null != endNodeRow && endNodeRow > rowNumber)
+					return true;
+			}
+		}
+		return false;
+	}
+
+	private List<String> validate(Node node) {
+		DefinitionDTO definition = null == definitions ? null : definitions.get(node.getObjectType());
+		if (null == definition) {
+			List<String> rowMessages = new ArrayList<String>();
+			rowMessages.add("Definition node not found for Object Type: " + node.getObjectType());
+			return rowMessages;
+		}
+		return new DataNode(manager, graphId, node, true).validateNode(definition);
+	}
+}
@@ -7,9 +7,11 @@ import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.LinkedHashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVParser;
@@ -17,64 +19,60 @@ import org.apache.commons.csv.CSVPrinter;
 import org.apache.commons.csv.CSVRecord;
 import org.codehaus.jackson.map.ObjectMapper;
 
+/**
+ * Appends the import messages of every row as an additional column to the
+ * imported file. The input is read record by record while the output is
+ * written, it is not held in memory as a whole.
+ */
 public class CSVImportMessageHandler {
-	private ObjectMapper mapper;
+	private ObjectMapper mapper = new ObjectMapper();
 	private static final String PROPERTY_ID = "identifier";
 	CSVFormat csvFileFormat = CSVFormat.DEFAULT;
-	List<String> allHeaders;
-	Map<String, List<String>> dataRows;
-	CSVParser csvReader = null;
-	CSVPrinter writer = null;
+	InputStream inputStream;
 
 	public CSVImportMessageHandler(InputStream inputStream) throws Exception {
-		// StringWriter writer = new StringWriter();
-		// IOUtils.copy(inputStream, writer, "UTF-8");
-
-		try (InputStreamReader isReader = new InputStreamReader(inputStream, StandardCharsets.UTF_8)) {
-			csvReader = new CSVParser(isReader, csvFileFormat);
-			List<CSVRecord> recordsList = csvReader.getRecords();
-			CSVRecord headerRecord = recordsList.get(0);
-			allHeaders = new ArrayList<String>();
-			for (int i = 0; i < headerRecord.size(); i++) {
-				allHeaders.add(headerRecord.get(i));
-			}
-
-			int uniqueIdIndex = allHeaders.indexOf(PROPERTY_ID);
-			dataRows = new LinkedHashMap<String, List<String>>();
-			for (int i = 1; i < recordsList.size(); i++) {
-				CSVRecord record = recordsList.get(i);
-				String uniqueId = record.get(uniqueIdIndex);
-				List<String> row = new ArrayList<String>();
-				for (int j = 0; j < record.size(); j++) {
-					row.add(record.get(j));
-				}
-				dataRows.put(uniqueId, row);
-			}
-			mapper = new ObjectMapper();
-		}
+		this.inputStream = inputStream;
 	}
 
 	public OutputStream getOutputStream(Map<String, List<String>> messages) throws Exception {
 		try (OutputStream outputStream = new ByteArrayOutputStream()) {
-			if (messages == null || dataRows == null) {
+			if (messages == null) {
 				return outputStream;
-			} else {
+			}
+			try (InputStreamReader isReader = new InputStreamReader(inputStream, StandardCharsets.UTF_8);
+					CSVParser csvReader = new CSVParser(isReader, csvFileFormat);
+					OutputStreamWriter osWriter = new OutputStreamWriter(outputStream);
+					CSVPrinter writer = new CSVPrinter(osWriter, csvFileFormat)) {
+				Iterator<CSVRecord> records = csvReader.iterator();
+				if (!records.hasNext())
+					return outputStream;
+				List<String> allHeaders = getValues(records.next());
+				int uniqueIdIndex = allHeaders.indexOf(PROPERTY_ID);
 				allHeaders.add("Validation Messages");
-				for (String rowIdentifier : dataRows.keySet()) {
-					if (messages.containsKey(rowIdentifier)) {
-						dataRows.get(rowIdentifier).add(mapper.writeValueAsString(messages.get(rowIdentifier)));
-					}
-				}
-				OutputStreamWriter osWriter = new OutputStreamWriter(outputStream);
-				writer = new CSVPrinter(osWriter, csvFileFormat);
 				writer.printRecord(allHeaders);
-				writer.printRecords(dataRows.values());
+				Set<String> rowIdentifiers = new HashSet<String>();
+				while (records.hasNext()) {
+					CSVRecord record = records.next();
+					String uniqueId = record.get(uniqueIdIndex);
+					if (!rowIdentifiers.add(uniqueId))
+						continue;
+					List<String> row = getValues(record);
+					if (messages.containsKey(uniqueId))
+						row.add(mapper.writeValueAsString(messages.get(uniqueId)));
+					writer.printRecord(row);
+				}
 				writer.flush();
-				osWriter.close();
-				writer.close();
-				return outputStream;
 			}
+			return outputStream;
+		}
+	}
+
+	private List<String> getValues(CSVRecord record) {
+		List<String> values = new ArrayList<String>();
+		for (int i = 0; i < record.size(); i++) {
+			values.add(record.get(i));
 		}
+		return values;
 	}
 
 }
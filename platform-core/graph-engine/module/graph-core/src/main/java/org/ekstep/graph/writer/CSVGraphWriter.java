@@ -6,9 +6,11 @@ import java.io.OutputStreamWriter;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVPrinter;
@@ -21,50 +23,70 @@ import org.ekstep.graph.reader.CSVGraphReader;
 public class CSVGraphWriter implements GraphWriter {
 
 	private static final String NEW_LINE_SEPARATOR = "\n";
-	private List<Node> nodes;
+	private Iterable<Node> nodes;
 
-	public CSVGraphWriter(List<Node> nodes, List<Relation> relations) {
+	public CSVGraphWriter(Iterable<Node> nodes, Iterable<Relation> relations) {
 		this.nodes = nodes;
 	}
 
 	@Override
 	public OutputStream getData() throws Exception {
-		List<String> headers = new ArrayList<String>();
-		headers.add(CSVGraphReader.PROPERTY_ID);
-		headers.add(CSVGraphReader.PROPERTY_OBJECT_TYPE);
-		headers.add(CSVGraphReader.PROPERTY_TAGS);
-		List<String[]> dataRows = new ArrayList<String[]>();
-		List<Map<String, String>> nodeMaps = new ArrayList<Map<String, String>>();
+		try (OutputStream outputStream = new ByteArrayOutputStream()) {
+			write(outputStream);
+			return outputStream;
+		}
+	}
+
+	/**
+	 * Writes the data nodes as CSV, one row at a time. The header row depends
+	 * on the metadata of all nodes, so the nodes are iterated twice: once to
+	 * collect the headers and once to write the rows.
+	 */
+	@Override
+	public void write(OutputStream outputStream) throws Exception {
+		List<String> headers = getHeaders();
+		CSVFormat csvFileFormat = CSVFormat.DEFAULT.withRecordSeparator(NEW_LINE_SEPARATOR);
+		OutputStreamWriter osWriter = new OutputStreamWriter(outputStream);
+		CSVPrinter writer = new CSVPrinter(osWriter, csvFileFormat);
+		writer.printRecord(headers);
 		if (null != nodes) {
 			for (Node node : nodes) {
 				if (SystemNodeTypes.DATA_NODE.name().equalsIgnoreCase(node.getNodeType())) {
 					Map<String, String> nodeMap = getNode(node, headers);
-					nodeMaps.add(nodeMap);
+					List<String> nodeData = new ArrayList<String>();
+					for (String header : headers) {
+						if (StringUtils.isNotBlank(nodeMap.get(header))) {
+							nodeData.add(nodeMap.get(header).replaceAll("<", "&lt;").replaceAll(">", "&gt;")
+									.replaceAll("\n", "").replaceAll("\r", ""));
+						} else {
+							nodeData.add("");
+						}
+					}
+					writer.printRecord(nodeData);
 				}
 			}
 		}
-		for (Map<String, String> nodeMap : nodeMaps) {
-			List<String> nodeData = new ArrayList<String>();
-			for (String header : headers) {
-				if (StringUtils.isNotBlank(nodeMap.get(header))) {
-					nodeData.add(nodeMap.get(header).replaceAll("<", "&lt;").replaceAll(">", "&gt;")
-							.replaceAll("\n", "").replaceAll("\r", ""));
-				} else {
-					nodeData.add("");
+		writer.flush();
+	}
+
+	private List<String> getHeaders() {
+		Set<String> headers = new LinkedHashSet<String>();
+		headers.add(CSVGraphReader.PROPERTY_ID);
+		headers.add(CSVGraphReader.PROPERTY_OBJECT_TYPE);
+		headers.add(CSVGraphReader.PROPERTY_TAGS);
+		if (null != nodes) {
+			for (Node node : nodes) {
+				if (SystemNodeTypes.DATA_NODE.name().equalsIgnoreCase(node.getNodeType())) {
+					if (null != node.getMetadata())
+						headers.addAll(node.getMetadata().keySet());
+					if (null != node.getOutRelations()) {
+						for (Relation rel : node.getOutRelations())
+							headers.add(CSVGraphReader.REL_HEADER_START_WITH + rel.getRelationType());
+					}
 				}
 			}
-			dataRows.add(nodeData.toArray(new String[nodeData.size()]));
-		}
-		List<String[]> allRows = new ArrayList<String[]>();
-		allRows.add(headers.toArray(new String[headers.size()]));
-		allRows.addAll(dataRows);
-		CSVFormat csvFileFormat = CSVFormat.DEFAULT.withRecordSeparator(NEW_LINE_SEPARATOR);
-		try (OutputStream outputStream = new ByteArrayOutputStream();
-				OutputStreamWriter osWriter = new OutputStreamWriter(outputStream);
-				CSVPrinter writer = new CSVPrinter(osWriter, csvFileFormat)) {
-			writer.printRecords(allRows);
-			return outputStream;
 		}
+		return new ArrayList<String>(headers);
 	}
 
 	public Map<String, String> getNode(Node node, List<String> headers) {
@@ -6,4 +6,10 @@ public interface GraphWriter {
 
     OutputStream getData() throws Exception;
 
+    /**
+     * Writes the graph to the given stream incrementally, without buffering
+     * the rendered output. The stream is flushed but not closed.
+     */
+    void write(OutputStream outputStream) throws Exception;
+
 }
@@ -12,6 +12,15 @@ import org.ekstep.graph.exception.GraphEngineErrorCodes;
 public class GraphWriterFactory {
 
     public static OutputStream getData(String format, List<Node> nodes, List<Relation> relations) throws Exception {
+        return getWriter(format, nodes, relations).getData();
+    }
+
+    public static void write(String format, Iterable<Node> nodes, Iterable<Relation> relations,
+            OutputStream outputStream) throws Exception {
+        getWriter(format, nodes, relations).write(outputStream);
+    }
+
+    private static GraphWriter getWriter(String format, Iterable<Node> nodes, Iterable<Relation> relations) {
         GraphWriter graphWriter = null;
         if (ImportType.JSON.name().equals(format.toUpperCase())) {
             graphWriter = new JsonGraphWriter(nodes, relations);
@@ -22,6 +31,6 @@ public class GraphWriterFactory {
         } else {
             throw new ClientException(GraphEngineErrorCodes.ERR_GRAPH_EXPORT_INVALID_FORMAT.name(), "Format:" + format + " is invalid.");
         }
-        return graphWriter.getData();
+        return graphWriter;
     }
 }
@@ -8,6 +8,8 @@ import java.util.List;
 import java.util.Map;
 
 import org.apache.commons.lang3.StringUtils;
+import org.codehaus.jackson.JsonEncoding;
+import org.codehaus.jackson.JsonGenerator;
 import org.codehaus.jackson.map.ObjectMapper;
 import org.ekstep.graph.dac.enums.SystemNodeTypes;
 import org.ekstep.graph.dac.model.Node;
@@ -18,123 +20,108 @@ import org.ekstep.graph.model.node.RelationDefinition;
 
 public class JsonGraphWriter implements GraphWriter {
 
-	String exportedData = "";
-	private List<Node> nodes;
-	private List<Relation> relations;
+	private Iterable<Node> nodes;
+	private Iterable<Relation> relations;
 	private ObjectMapper mapper;
 
-	public JsonGraphWriter(List<Node> nodes, List<Relation> relations) {
+	public JsonGraphWriter(Iterable<Node> nodes, Iterable<Relation> relations) {
 		mapper = new ObjectMapper();
-		this.nodes = nodes;
+		this.nodes = null == nodes ? new ArrayList<Node>() : nodes;
 		this.relations = null == relations ? new ArrayList<Relation>() : relations;
 	}
 
-	@SuppressWarnings("unchecked")
 	@Override
 	public OutputStream getData() throws Exception {
-		StringBuilder sb = new StringBuilder();
-		List<Map<String, Object>> definitionNodesList = new ArrayList<Map<String, Object>>();
-		List<Map<String, Object>> dataNodesList = new ArrayList<Map<String, Object>>();
-		List<Map<String, Object>> relationsList = new ArrayList<Map<String, Object>>();
-		if (nodes != null) {
-			for (Node node : nodes) {
-				Map<String, Object> map = new HashMap<String, Object>();
-				map.put("uniqueId", node.getIdentifier());
-				map.put("nodeType", node.getNodeType());
-				map.put("objectType", node.getObjectType());
-				if (StringUtils.isNotBlank(node.getNodeType())
-						&& node.getNodeType().equals(SystemNodeTypes.DEFINITION_NODE.name())) {
-					Map<String, Object> metadata = mapper.convertValue(node.getMetadata(), Map.class);
-					List<MetadataDefinition> indexedMetadata = new ArrayList<MetadataDefinition>();
-					if (StringUtils.isNotBlank((String) metadata.get(DefinitionNode.INDEXABLE_METADATA_KEY))) {
-						String metaList = (String) metadata.get(DefinitionNode.INDEXABLE_METADATA_KEY);
-						try {
-							List<Map<String, Object>> listMap = (List<Map<String, Object>>) mapper.readValue(metaList,
-									List.class);
-							for (Map<String, Object> metaMap : listMap) {
-								indexedMetadata.add(
-										(MetadataDefinition) mapper.convertValue(metaMap, MetadataDefinition.class));
-							}
-						} catch (Exception e) {
-						}
-					}
-					map.put("indexedMetadata", indexedMetadata);
-
-					List<MetadataDefinition> nonIndexedMetadata = new ArrayList<MetadataDefinition>();
-					if (StringUtils.isNotBlank((String) metadata.get(DefinitionNode.NON_INDEXABLE_METADATA_KEY))) {
-						String metaList = (String) metadata.get(DefinitionNode.NON_INDEXABLE_METADATA_KEY);
-						try {
-							List<Map<String, Object>> listMap = (List<Map<String, Object>>) mapper.readValue(metaList,
-									List.class);
-							for (Map<String, Object> metaMap : listMap) {
-								nonIndexedMetadata.add(
-										(MetadataDefinition) mapper.convertValue(metaMap, MetadataDefinition.class));
-							}
-						} catch (Exception e) {
-						}
-					}
-					map.put("nonIndexedMetadata", nonIndexedMetadata);
+		try (OutputStream outputStream = new ByteArrayOutputStream()) {
+			write(outputStream);
+			return outputStream;
+		}
+	}
 
-					List<RelationDefinition> inRelationMetadata = new ArrayList<RelationDefinition>();
-					if (StringUtils.isNotBlank((String) metadata.get(DefinitionNode.IN_RELATIONS_KEY))) {
-						String inRelList = (String) metadata.get(DefinitionNode.IN_RELATIONS_KEY);
-						try {
-							List<Map<String, Object>> listMap = (List<Map<String, Object>>) mapper.readValue(inRelList,
-									List.class);
-							for (Map<String, Object> metaMap : listMap) {
-								inRelationMetadata.add(
-										(RelationDefinition) mapper.convertValue(metaMap, RelationDefinition.class));
-							}
-						} catch (Exception e) {
-						}
-					}
-					map.put("inRelations", inRelationMetadata);
+	/**
+	 * Writes the export document with a streaming generator: data nodes and
+	 * relations are serialised as they are iterated. Only the (few) definition
+	 * nodes are held back and written after the data nodes, followed by the
+	 * counts.
+	 */
+	@Override
+	public void write(OutputStream outputStream) throws Exception {
+		JsonGenerator generator = mapper.getJsonFactory().createJsonGenerator(outputStream, JsonEncoding.UTF8);
+		generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+		generator.writeStartObject();
 
-					List<RelationDefinition> outRelationMetadata = new ArrayList<RelationDefinition>();
-					if (StringUtils.isNotBlank((String) metadata.get(DefinitionNode.OUT_RELATIONS_KEY))) {
-						String outRelList = (String) metadata.get(DefinitionNode.OUT_RELATIONS_KEY);
-						try {
-							List<Map<String, Object>> listMap = (List<Map<String, Object>>) mapper.readValue(outRelList,
-									List.class);
-							for (Map<String, Object> metaMap : listMap) {
-								outRelationMetadata.add(
-										(RelationDefinition) mapper.convertValue(metaMap, RelationDefinition.class));
-							}
-						} catch (Exception e) {
-						}
-					}
-					map.put("outRelations", outRelationMetadata);
-					definitionNodesList.add(map);
-				} else if (StringUtils.isNotBlank(node.getNodeType())
-						&& (node.getNodeType().equals(SystemNodeTypes.DATA_NODE.name())
-								|| node.getNodeType().equals(SystemNodeTypes.SEQUENCE.name()))) {
-					map.put("metadata", node.getMetadata());
-					dataNodesList.add(map);
-				}
+		List<Map<String, Object>> definitionNodesList = new ArrayList<Map<String, Object>>();
+		int numberOfNodes = 0;
+		generator.writeArrayFieldStart("nodes");
+		for (Node node : nodes) {
+			if (SystemNodeTypes.DEFINITION_NODE.name().equals(node.getNodeType())) {
+				definitionNodesList.add(getDefinitionNode(node));
+			} else if (SystemNodeTypes.DATA_NODE.name().equals(node.getNodeType())
+					|| SystemNodeTypes.SEQUENCE.name().equals(node.getNodeType())) {
+				Map<String, Object> map = getNodeMap(node);
+				map.put("metadata", node.getMetadata());
+				generator.writeObject(map);
+				numberOfNodes++;
 			}
 		}
-		if (relations != null) {
-			for (Relation relation : relations) {
-				Map<String, Object> map = new HashMap<String, Object>();
-				map.put("startNode", relation.getStartNodeId());
-				map.put("endNode", relation.getEndNodeId());
-				map.put("type", relation.getRelationType());
-				map.put("metadata", relation.getMetadata());
-				relationsList.add(map);
-			}
+		generator.writeEndArray();
+		generator.writeObjectField("definitionNodes", definitionNodesList);
+
+		int numberOfRelations = 0;
+		generator.writeArrayFieldStart("relations");
+		for (Relation relation : relations) {
+			Map<String, Object> map = new HashMap<String, Object>();
+			map.put("startNode", relation.getStartNodeId());
+			map.put("endNode", relation.getEndNodeId());
+			map.put("type", relation.getRelationType());
+			map.put("metadata", relation.getMetadata());
+			generator.writeObject(map);
+			numberOfRelations++;
 		}
-		Map<String, Object> exportMap = new HashMap<String, Object>();
-		exportMap.put("definitionNodes", definitionNodesList);
-		exportMap.put("numberOfNodes", dataNodesList.size());
-		exportMap.put("numberOfRelations", relationsList.size());
-		exportMap.put("nodes", dataNodesList);
-		exportMap.put("relations", relationsList);
-		sb.append(mapper.writeValueAsString(exportMap));
-		exportedData = sb.toString();
-		try (OutputStream outputStream = new ByteArrayOutputStream()) {
-			outputStream.write(exportedData.getBytes());
-			return outputStream;
+		generator.writeEndArray();
+
+		generator.writeNumberField("numberOfNodes", numberOfNodes);
+		generator.writeNumberField("numberOfRelations", numberOfRelations);
+		generator.writeEndObject();
+		generator.flush();
+		generator.close();
+	}
+
+	private Map<String, Object> getNodeMap(Node node) {
+		Map<String, Object> map = new HashMap<String, Object>();
+		map.put("uniqueId", node.getIdentifier());
+		map.put("nodeType", node.getNodeType());
+		map.put("objectType", node.getObjectType());
+		return map;
+	}
+
+	@SuppressWarnings("unchecked")
+	private Map<String, Object> getDefinitionNode(Node node) {
+		Map<String, Object> map = getNodeMap(node);
+		Map<String, Object> metadata = mapper.convertValue(node.getMetadata(), Map.class);
+		map.put("indexedMetadata", getDefinitions((String) metadata.get(DefinitionNode.INDEXABLE_METADATA_KEY),
+				MetadataDefinition.class));
+		map.put("nonIndexedMetadata", getDefinitions(
+				(String) metadata.get(DefinitionNode.NON_INDEXABLE_METADATA_KEY), MetadataDefinition.class));
+		map.put("inRelations",
+				getDefinitions((String) metadata.get(DefinitionNode.IN_RELATIONS_KEY), RelationDefinition.class));
+		map.put("outRelations",
+				getDefinitions((String) metadata.get(DefinitionNode.OUT_RELATIONS_KEY), RelationDefinition.class));
+		return map;
+	}
+
+	@SuppressWarnings("unchecked")
+	private <T> List<T> getDefinitions(String json, Class<T> type) {
+		List<T> definitions = new ArrayList<T>();
+		if (StringUtils.isNotBlank(json)) {
+			try {
+				List<Map<String, Object>> listMap = (List<Map<String, Object>>) mapper.readValue(json, List.class);
+				for (Map<String, Object> metaMap : listMap)
+					definitions.add(mapper.convertValue(metaMap, type));
+			} catch (Exception e) {
+			}
 		}
+		return definitions;
 	}
 
 }
@@ -0,0 +1,69 @@
+package org.ekstep.graph.writer;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.BiFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Iterates over a result that is fetched in pages keyed by an increasing id:
+ * every page holds the (at most <code>pageSize</code>) elements following the
+ * id of the last element of the previous page. Only one page is held in memory
+ * at a time, and every call to {@link #iterator()} starts a new scan from the
+ * beginning.
+ */
+public class PagedCursor<T> implements Iterable<T> {
+
+	private final BiFunction<Long, Integer, List<T>> pageLoader;
+	private final ToLongFunction<T> idFunction;
+	private final int pageSize;
+
+	/**
+	 * @param pageLoader
+	 *            loads the page after the given id with the given page size
+	 * @param idFunction
+	 *            the id of an element, ids are increasing within and across
+	 *            pages
+	 * @param pageSize
+	 *            the page size
+	 */
+	public PagedCursor(BiFunction<Long, Integer, List<T>> pageLoader, ToLongFunction<T> idFunction, int pageSize) {
+		this.pageLoader = pageLoader;
+		this.idFunction = idFunction;
+		this.pageSize = pageSize;
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+		return new Iterator<T>() {
+
+			private Iterator<T> page = Collections.emptyIterator();
+			private long lastId = -1;
+			private boolean lastPage = false;
+
+			@Override
+			public boolean hasNext() {
+				while (!page.hasNext() && !lastPage) {
+					List<T> elements = pageLoader.apply(lastId, pageSize);
+					if (null == elements || elements.isEmpty()) {
+						lastPage = true;
+					} else {
+						lastPage = elements.size() < pageSize;
+						lastId = idFunction.applyAsLong(elements.get(elements.size() - 1));
+						page = elements.iterator();
+					}
+				}
+				return page.hasNext();
+			}
+
+			@Override
+			public T next() {
+				if (!hasNext())
+					throw new NoSuchElementException();
+				return page.next();
+			}
+		};
+	}
+}
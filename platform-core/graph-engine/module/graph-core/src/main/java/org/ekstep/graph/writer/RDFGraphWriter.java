@@ -4,7 +4,10 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -29,8 +32,11 @@ import org.openrdf.rio.Rio;
 
 public class RDFGraphWriter implements GraphWriter {
 
-	private List<Node> nodes;
-	private List<Relation> relations;
+	/** Number of cached URIs after which the URI cache of a write is reset. */
+	private static final int MAX_URI_CACHE_SIZE = 10000;
+
+	private Iterable<Node> nodes;
+	private Iterable<Relation> relations;
 
 	public static final String PROPERTY_ID = "id";
 	public static final String PROPERTY_NAME = "name";
@@ -55,8 +61,8 @@ public class RDFGraphWriter implements GraphWriter {
 	protected Map<String, String> namespaceMap;
 	protected Map<String, String> propertyNamespaceMap;
 
-	public RDFGraphWriter(List<Node> nodes, List<Relation> relations) {
-		this.nodes = nodes;
+	public RDFGraphWriter(Iterable<Node> nodes, Iterable<Relation> relations) {
+		this.nodes = null == nodes ? new ArrayList<Node>() : nodes;
 		this.relations = null == relations ? new ArrayList<Relation>() : relations;
 
 		namespaceMap = new HashMap<String, String>();
@@ -182,8 +188,22 @@ public class RDFGraphWriter implements GraphWriter {
 
 	@Override
 	public OutputStream getData() throws Exception {
+		try (OutputStream outputStream = new ByteArrayOutputStream()) {
+			write(outputStream);
+			return outputStream;
+		}
+	}
+
+	/**
+	 * Writes the nodes and relations as RDF/XML statements as they are
+	 * iterated. The URI cache is reset whenever it grows beyond
+	 * {@link #MAX_URI_CACHE_SIZE} entries so that memory does not grow with
+	 * the size of the graph.
+	 */
+	@Override
+	public void write(OutputStream outputStream) throws Exception {
 		RDFFormat format = Rio.getWriterFormatForMIMEType(MIME_RDFXML, RDFFormat.RDFXML);
-		StringWriter out = new StringWriter();
+		Writer out = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8);
 		RDFWriter writer = Rio.createWriter(format, out);
 		Map<Object, URI> uriCache = new HashMap<Object, URI>();
 
@@ -195,6 +215,8 @@ public class RDFGraphWriter implements GraphWriter {
 		}
 
 		for (Node node : nodes) {
+			if (uriCache.size() > MAX_URI_CACHE_SIZE)
+				uriCache.clear();
 			URI subject = getUri(node, uriCache);
 
 			String idval = node.getIdentifier();
@@ -254,6 +276,8 @@ public class RDFGraphWriter implements GraphWriter {
 		}
 
 		for (Relation relation : relations) {
+			if (uriCache.size() > MAX_URI_CACHE_SIZE)
+				uriCache.clear();
 			URI subject = getUri(relation, uriCache);
 
 			if (null != relation.getMetadata()) {
@@ -278,11 +302,7 @@ public class RDFGraphWriter implements GraphWriter {
 		}
 
 		writer.endRDF();
-
-		try (OutputStream outputStream = new ByteArrayOutputStream()) {
-			outputStream.write(out.toString().getBytes());
-			return outputStream;
-		}
+		out.flush();
 	}
 
 	/**
@@ -19,6 +19,10 @@ public interface IGraphDACSearchMgr {
 
 	Response getAllNodes(Request request);
 
+	Response getNodesPage(Request request);
+
+	Response getRelationsPage(Request request);
+
 	Response getRelation(Request request);
 
 	Response getRelationProperty(Request request);
@@ -6,6 +6,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 
+import org.apache.commons.lang3.BooleanUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.ekstep.common.dto.Request;
 import org.ekstep.common.exception.ResourceNotFoundException;
@@ -18,7 +19,6 @@ import org.ekstep.graph.dac.enums.GraphDACParams;
 import org.ekstep.graph.dac.enums.SystemNodeTypes;
 import org.ekstep.graph.dac.enums.SystemProperties;
 import org.ekstep.graph.dac.model.Node;
-import org.ekstep.graph.dac.model.Relation;
 import org.ekstep.graph.importer.ImportData;
 import org.ekstep.graph.service.common.DACErrorCodeConstants;
 import org.ekstep.graph.service.common.DACErrorMessageConstants;
@@ -85,7 +85,7 @@ public class Neo4JBoltGraphOperations {
 					StatementResult result = tx.run(GraphQueryGenerationUtil.generateCreateUniqueConstraintCypherQuery(parameterMap));
 					tx.success();
 					for (Record record : result.list()) {
-						TelemetryManager.log("'Create Unique' Constraint Operation Finished.", record.asMap());
+						TelemetryManager.log(() -> "'Create Unique' Constraint Operation Finished.", record::asMap);
 					}
 				}
 			}
@@ -130,7 +130,7 @@ public class Neo4JBoltGraphOperations {
 					StatementResult result = tx.run(GraphQueryGenerationUtil.generateCreateIndexCypherQuery(parameterMap));
 					tx.success();
 					for (Record record : result.list()) {
-						TelemetryManager.log("'Create Index' Operation Finished.", record.asMap());
+						TelemetryManager.log(() -> "'Create Index' Operation Finished.", record::asMap);
 					}
 				}
 			}
@@ -165,7 +165,7 @@ public class Neo4JBoltGraphOperations {
 				StatementResult result = tx.run(GraphQueryGenerationUtil.generateDeleteGraphCypherQuery(parameterMap));
 				tx.success();
 				for (Record record : result.list()) {
-					TelemetryManager.log("'Delete Graph' Operation Finished.", record.asMap());
+					TelemetryManager.log(() -> "'Delete Graph' Operation Finished.", record::asMap);
 				}
 			}
 		} catch (Exception e) {
@@ -232,7 +232,7 @@ public class Neo4JBoltGraphOperations {
 						result = tx.run(query);
 					tx.success();
 					for (Record record : result.list())
-						TelemetryManager.log("'Create Relation' Operation Finished.", record.asMap());
+						TelemetryManager.log(() -> "'Create Relation' Operation Finished.", record::asMap);
 				}
 				NodeCacheManager.deleteDataNode(graphId, startNodeId);
 				NodeCacheManager.deleteDataNode(graphId, endNodeId);
@@ -304,7 +304,7 @@ public class Neo4JBoltGraphOperations {
 							result = tx.run(query);
 						tx.success();
 						for (Record record : result.list()) {
-							TelemetryManager.log("'Update Relation' Operation Finished.", record.asMap());
+							TelemetryManager.log(() -> "'Update Relation' Operation Finished.", record::asMap);
 						}
 					}
 					NodeCacheManager.deleteDataNode(graphId, startNodeId);
@@ -361,10 +361,11 @@ public class Neo4JBoltGraphOperations {
 			parameterMap.put(GraphDACParams.request.name(), request);
 
 			try ( Transaction tx = session.beginTransaction() ) {
-				StatementResult result = tx.run(GraphQueryGenerationUtil.generateDeleteRelationCypherQuery(parameterMap));
+				StatementResult result = tx.run(GraphQueryGenerationUtil.generateDeleteRelationCypherQuery(parameterMap),
+						getRelationParams(startNodeId, endNodeId));
 				tx.success();
 				for (Record record : result.list()) {
-					TelemetryManager.log("'Delete Relation' Operation Finished.", record.asMap());
+					TelemetryManager.log(() -> "'Delete Relation' Operation Finished.", record::asMap);
 				}
 			}
 			NodeCacheManager.deleteDataNode(graphId, startNodeId);
@@ -597,10 +598,11 @@ public class Neo4JBoltGraphOperations {
 			parameterMap.put(GraphDACParams.key.name(), key);
 			parameterMap.put(GraphDACParams.request.name(), request);
 
-			StatementResult result = session
-					.run(GraphQueryGenerationUtil.generateRemoveRelationMetadataCypherQuery(parameterMap));
+			StatementResult result = session.run(
+					GraphQueryGenerationUtil.generateRemoveRelationMetadataCypherQuery(parameterMap),
+					getRelationParams(startNodeId, endNodeId));
 			for (Record record : result.list()) {
-				TelemetryManager.log("'Remove Relation Metadata' Operation Finished.", record.asMap());
+				TelemetryManager.log(() -> "'Remove Relation Metadata' Operation Finished.", record::asMap);
 			}
 			NodeCacheManager.deleteDataNode(graphId, startNodeId);
 			NodeCacheManager.deleteDataNode(graphId, endNodeId);
@@ -699,19 +701,11 @@ public class Neo4JBoltGraphOperations {
 		if (null == input)
 			throw new ClientException(DACErrorCodeConstants.INVALID_DATA.name(),
 					DACErrorMessageConstants.INVALID_IMPORT_DATA + " | ['Import Graph' Operation Failed.]");
-		Map<String, List<String>> messages = new HashMap<String, List<String>>();
-		// CHECK - write driver, session and transaction created for this - START
-		Map<String, org.ekstep.graph.dac.model.Node> existingNodes = new HashMap<String, org.ekstep.graph.dac.model.Node>();
-		Map<String, Map<String, List<Relation>>> existingRelations = new HashMap<String, Map<String, List<Relation>>>();
-		List<org.ekstep.graph.dac.model.Node> importedNodes = new ArrayList<org.ekstep.graph.dac.model.Node>(
-				input.getDataNodes());
-		int nodesCount = createNodes(graphId, request, existingNodes, existingRelations, importedNodes);
-		int relationsCount = createRelations(graphId, request, existingRelations, existingNodes, importedNodes,
-				messages);
-		upsertRootNode(graphId, nodesCount, relationsCount, request);
-		if (StringUtils.isNotBlank(taskId))
+		Map<String, List<String>> messages = Neo4JBoltImportOperations.importGraph(graphId, taskId,
+				input.getDataNodes(), request);
+		// a chunk of a larger import only updates the progress of the task.
+		if (StringUtils.isNotBlank(taskId) && !BooleanUtils.isTrue((Boolean) request.get(GraphDACParams.import_partial.name())))
 			updateTaskStatus(graphId, taskId, request);
-		// CHECK - write driver and session created for this - END
 		return messages;
 	}
 
@@ -724,211 +718,7 @@ public class Neo4JBoltGraphOperations {
 		Neo4JBoltNodeOperations.upsertNode(graphId, taskNode, request);
 	}
 
-	private static int createNodes(String graphId, Request request, Map<String, Node> existingNodes,
-			Map<String, Map<String, List<Relation>>> existingRelations, List<Node> nodes) {
-		int nodesCount = 0;
-		for (Node node : nodes) {
-			if (null == node || StringUtils.isBlank(node.getIdentifier()) || StringUtils.isBlank(node.getNodeType())) {
-				// ERROR(GraphDACErrorCodes.ERR_CREATE_NODE_MISSING_REQ_PARAMS.name(),
-				// "Invalid input node", request, getSender());
-			} else {
-				Node neo4jNode = null;
-				if (existingNodes.containsKey(node.getIdentifier())) {
-					neo4jNode = existingNodes.get(node.getIdentifier());
-				} else {
-					neo4jNode = Neo4JBoltNodeOperations.upsertNode(graphId, node, request);
-					nodesCount++;
-				}
-				neo4jNode = Neo4JBoltSearchOperations.getNodeByUniqueId(graphId, node.getIdentifier(), true, request);
-				existingNodes.put(node.getIdentifier(), neo4jNode);
-				List<Relation> relations = new ArrayList<Relation>();
-				if (null != neo4jNode.getOutRelations())
-					relations.addAll(neo4jNode.getOutRelations());
-				if (null != neo4jNode.getInRelations())
-					relations.addAll(neo4jNode.getInRelations());
-				getExistingRelations(relations, existingRelations);
-			}
-		}
-		return nodesCount;
-	}
-
-	private static Map<String, Map<String, List<Relation>>> getExistingRelations(List<Relation> dbRelations,
-			Map<String, Map<String, List<Relation>>> existingRelations) {
-		if (null != dbRelations && null != dbRelations.iterator()) {
-			for (Relation relationship : dbRelations) {
-				String startNodeId = relationship.getStartNodeId();
-				String relationType = relationship.getRelationType();
-				if (existingRelations.containsKey(startNodeId)) {
-					Map<String, List<Relation>> relationMap = existingRelations.get(startNodeId);
-					if (relationMap.containsKey(relationType)) {
-						List<Relation> relationList = relationMap.get(relationType);
-						relationList.add(relationship);
-					} else {
-						List<Relation> relationList = new ArrayList<Relation>();
-						relationList.add(relationship);
-						relationMap.put(relationType, relationList);
-					}
-				} else {
-					Map<String, List<Relation>> relationMap = new HashMap<String, List<Relation>>();
-					List<Relation> relationList = new ArrayList<Relation>();
-					relationList.add(relationship);
-					relationMap.put(relationType, relationList);
-					existingRelations.put(startNodeId, relationMap);
-				}
-			}
-		}
-		return existingRelations;
-	}
-
-	private static int createRelations(String graphId, Request request,
-			Map<String, Map<String, List<Relation>>> existingRelations,
-			Map<String, Node> existingNodes, List<Node> nodes,
-			Map<String, List<String>> messages) {
-		int relationsCount = 0;
-		for (Node node : nodes) {
-			List<Relation> nodeRelations = node.getOutRelations();
-			if (nodeRelations != null) {
-				Map<String, List<String>> nodeRelMap = new HashMap<String, List<String>>();
-				Map<String, Map<String, Relation>> nodeRelation = new HashMap<String, Map<String, Relation>>();
-				for (Relation rel : nodeRelations) {
-					String relType = rel.getRelationType();
-					Map<String, Relation> relMap = nodeRelation.get(relType);
-					if (null == relMap) {
-						relMap = new HashMap<String, Relation>();
-						nodeRelation.put(relType, relMap);
-					}
-					if (nodeRelMap.containsKey(relType)) {
-						List<String> endNodeIds = nodeRelMap.get(relType);
-						if (endNodeIds == null) {
-							endNodeIds = new ArrayList<String>();
-							nodeRelMap.put(relType, endNodeIds);
-						}
-						if (StringUtils.isNotBlank(rel.getEndNodeId())) {
-							endNodeIds.add(rel.getEndNodeId().trim());
-							relMap.put(rel.getEndNodeId().trim(), rel);
-						}
-					} else {
-						List<String> endNodeIds = new ArrayList<String>();
-						if (StringUtils.isNotBlank(rel.getEndNodeId())) {
-							endNodeIds.add(rel.getEndNodeId().trim());
-							relMap.put(rel.getEndNodeId().trim(), rel);
-						}
-						nodeRelMap.put(relType, endNodeIds);
-					}
-				}
-				String uniqueId = node.getIdentifier();
-				Node neo4jNode = existingNodes.get(uniqueId);
-				if (existingRelations.containsKey(uniqueId)) {
-					Map<String, List<Relation>> relationMap = existingRelations.get(uniqueId);
-					for (String relType : relationMap.keySet()) {
-						if (nodeRelMap.containsKey(relType)) {
-							List<String> relEndNodeIds = nodeRelMap.get(relType);
-							Map<String, Relation> relMap = nodeRelation.get(relType);
-							for (Relation rel : relationMap.get(relType)) {
-								String endNodeId = rel.getEndNodeId();
-								if (relEndNodeIds.contains(endNodeId)) {
-									relEndNodeIds.remove(endNodeId);
-									Relation relation = relMap.get(endNodeId);
-									request.put(GraphDACParams.metadata.name(), relation.getMetadata());
-									updateRelation(graphId, rel.getStartNodeId(), rel.getEndNodeId(),
-											rel.getRelationType(), request);
-								} else {
-									deleteRelation(graphId, rel.getStartNodeId(), rel.getEndNodeId(),
-											rel.getRelationType(), request);
-									relationsCount--;
-								}
-							}
-							for (String endNodeId : relEndNodeIds) {
-								Node otherNode = existingNodes.get(endNodeId);
-								if (otherNode != null) {
-									Relation relation = relMap.get(endNodeId);
-									request.put(GraphDACParams.metadata.name(), relation.getMetadata());
-									createRelation(graphId, neo4jNode.getIdentifier(), otherNode.getIdentifier(),
-											relType, request);
-									relationsCount++;
-								} else {
-									otherNode = Neo4JBoltSearchOperations.getNodeByUniqueId(graphId, endNodeId, true,
-											request);
-									if (null == otherNode) {
-										List<String> rowMsgs = messages.get(uniqueId);
-										if (rowMsgs == null) {
-											rowMsgs = new ArrayList<String>();
-											messages.put(uniqueId, rowMsgs);
-										}
-										rowMsgs.add("Node with id: " + endNodeId + " not found to create relation:"
-												+ relType);
-									} else {
-										existingNodes.put(endNodeId, otherNode);
-										Relation relation = relMap.get(endNodeId);
-										request.put(GraphDACParams.metadata.name(), relation.getMetadata());
-										createRelation(graphId, neo4jNode.getIdentifier(), otherNode.getIdentifier(),
-												relType, request);
-										relationsCount++;
-									}
-								}
-
-							}
-						} else {
-							for (Relation rel : relationMap.get(relType)) {
-								deleteRelation(graphId, rel.getStartNodeId(), rel.getEndNodeId(), rel.getRelationType(),
-										request);
-								relationsCount--;
-							}
-						}
-					}
-					for (String relType : nodeRelMap.keySet()) {
-						if (!relationMap.containsKey(relType)) {
-							relationsCount += createNewRelations(neo4jNode, nodeRelMap, relType, nodeRelation, uniqueId,
-									existingNodes, messages, graphId, request);
-						}
-					}
-				} else {
-					for (String relType : nodeRelMap.keySet()) {
-						relationsCount += createNewRelations(neo4jNode, nodeRelMap, relType, nodeRelation, uniqueId,
-								existingNodes, messages, graphId, request);
-					}
-				}
-			}
-		}
-		return relationsCount;
-	}
-
-	private static int createNewRelations(Node neo4jNode, Map<String, List<String>> nodeRelMap,
-			String relType, Map<String, Map<String, Relation>> nodeRelation, String uniqueId,
-			Map<String, Node> existingNodes, Map<String, List<String>> messages,
-			String graphId, Request request) {
-		int relationsCount = 0;
-		List<String> relEndNodeIds = nodeRelMap.get(relType);
-		Map<String, Relation> relMap = nodeRelation.get(relType);
-		for (String endNodeId : relEndNodeIds) {
-			Node otherNode = existingNodes.get(endNodeId);
-			if (null == otherNode) {
-				otherNode = Neo4JBoltSearchOperations.getNodeByUniqueId(graphId, endNodeId, true, request);
-				if (null == otherNode) {
-					List<String> rowMsgs = messages.get(uniqueId);
-					if (rowMsgs == null) {
-						rowMsgs = new ArrayList<String>();
-						messages.put(uniqueId, rowMsgs);
-					}
-					rowMsgs.add("Node with id: " + endNodeId + " not found to create relation:" + relType);
-				} else {
-					existingNodes.put(endNodeId, otherNode);
-					Relation relation = relMap.get(endNodeId);
-					request.put(GraphDACParams.metadata.name(), relation.getMetadata());
-					createRelation(graphId, neo4jNode.getIdentifier(), otherNode.getIdentifier(), relType, request);
-					relationsCount++;
-				}
-			} else {
-				Relation relation = relMap.get(endNodeId);
-				request.put(GraphDACParams.metadata.name(), relation.getMetadata());
-				createRelation(graphId, neo4jNode.getIdentifier(), otherNode.getIdentifier(), relType, request);
-				relationsCount++;
-			}
-		}
-		return relationsCount;
-	}
-
-	private static void upsertRootNode(String graphId, Integer nodesCount, Integer relationsCount, Request request) {
+	static void upsertRootNode(String graphId, Integer nodesCount, Integer relationsCount, Request request) {
 		String rootNodeUniqueId = Identifier.getIdentifier(graphId, SystemNodeTypes.ROOT_NODE.name());
 		Node node = null;
 		try {
@@ -1080,7 +870,7 @@ public class Neo4JBoltGraphOperations {
 		}
 		return relationTypeMap;
 	}
-	private static void updateRedisCache(String graphId, List<Record> listNode) {
+	static void updateRedisCache(String graphId, List<Record> listNode) {
 		if (!graphId.equalsIgnoreCase("domain"))
 			return;
 		if(!listNode.isEmpty())
@@ -1095,6 +885,13 @@ public class Neo4JBoltGraphOperations {
 			}
 	}
 	
+	private static Map<String, Object> getRelationParams(String startNodeId, String endNodeId) {
+		Map<String, Object> params = new HashMap<String, Object>();
+		params.put("startNodeId", startNodeId);
+		params.put("endNodeId", endNodeId);
+		return params;
+	}
+
 	private static void updateRedisCache(String graphId, org.neo4j.driver.v1.types.Node neo4JNode){
 		String nodeId = (String) neo4JNode.get(SystemProperties.IL_UNIQUE_ID.name()).asString();
 		String nodeType = (String) neo4JNode.get(SystemProperties.IL_SYS_NODE_TYPE.name()).asString();
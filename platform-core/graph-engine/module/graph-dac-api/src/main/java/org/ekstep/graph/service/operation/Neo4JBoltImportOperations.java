@@ -0,0 +1,471 @@
+package org.ekstep.graph.service.operation;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import org.apache.commons.lang3.StringUtils;
+import org.ekstep.common.Platform;
+import org.ekstep.common.dto.Request;
+import org.ekstep.common.exception.MiddlewareException;
+import org.ekstep.common.exception.ServerException;
+import org.ekstep.graph.cache.mgr.impl.NodeCacheManager;
+import org.ekstep.graph.common.DateUtils;
+import org.ekstep.graph.common.enums.GraphEngineParams;
+import org.ekstep.graph.dac.enums.AuditProperties;
+import org.ekstep.graph.dac.enums.GraphDACParams;
+import org.ekstep.graph.dac.enums.RelationTypes;
+import org.ekstep.graph.dac.enums.SystemProperties;
+import org.ekstep.graph.dac.model.Node;
+import org.ekstep.graph.dac.model.Relation;
+import org.ekstep.graph.service.common.DACErrorCodeConstants;
+import org.ekstep.graph.service.common.DACErrorMessageConstants;
+import org.ekstep.graph.service.common.GraphOperation;
+import org.ekstep.graph.service.request.validator.Neo4jBoltValidator;
+import org.ekstep.graph.service.util.DriverUtil;
+import org.ekstep.telemetry.logger.TelemetryManager;
+import org.neo4j.driver.v1.Driver;
+import org.neo4j.driver.v1.Record;
+import org.neo4j.driver.v1.Session;
+import org.neo4j.driver.v1.StatementResult;
+import org.neo4j.driver.v1.Transaction;
+
+/**
+ * Batched implementation of the graph import.
+ *
+ * Nodes and relations are written in chunks of
+ * <code>graph.import.batch_size</code> rows, each chunk being a single
+ * parameterised <code>UNWIND</code> statement in its own transaction. Existing
+ * relations of the imported nodes and the existence of referenced end nodes
+ * are fetched in bulk up front, so the relation diff is computed in memory
+ * instead of issuing one lookup per node.
+ */
+public class Neo4JBoltImportOperations {
+
+	private static final int BATCH_SIZE = Platform.config.hasPath("graph.import.batch_size")
+			? Platform.config.getInt("graph.import.batch_size") : 1000;
+
+	private static final String START_NODE_ID = "startNodeId";
+	private static final String END_NODE_ID = "endNodeId";
+	private static final String RELATION_TYPE = "relationType";
+	private static final String METADATA = "metadata";
+
+	private static Neo4jBoltValidator versionValidator = new Neo4jBoltValidator();
+
+	/**
+	 * Upserts the given nodes and synchronises their out relations with the
+	 * graph. Returns the validation messages keyed by the identifier of the node
+	 * they belong to.
+	 */
+	public static Map<String, List<String>> importGraph(String graphId, String taskId, List<Node> nodes,
+			Request request) {
+		Map<String, List<String>> messages = new HashMap<String, List<String>>();
+		Map<String, Node> importedNodes = getValidNodes(nodes);
+		ImportProgress progress = new ImportProgress(taskId, importedNodes.size());
+		Set<String> touchedNodeIds = new HashSet<String>();
+		Driver driver = DriverUtil.getDriver(graphId, GraphOperation.WRITE);
+		try (Session session = driver.session()) {
+			int nodesCount = upsertNodes(session, graphId, importedNodes, request, progress);
+			int relationsCount = syncRelations(session, graphId, importedNodes, request, messages, touchedNodeIds,
+					progress);
+			for (String nodeId : touchedNodeIds)
+				NodeCacheManager.deleteDataNode(graphId, nodeId);
+			Neo4JBoltGraphOperations.upsertRootNode(graphId, nodesCount, relationsCount, request);
+		} catch (Exception e) {
+			if (e instanceof MiddlewareException)
+				throw e;
+			throw new ServerException(DACErrorCodeConstants.CONNECTION_PROBLEM.name(),
+					DACErrorMessageConstants.CONNECTION_PROBLEM + " | " + e.getMessage());
+		}
+		TelemetryManager.info("Graph import finished | [Graph Id: " + graphId + "]", progress.toMap());
+		return messages;
+	}
+
+	private static Map<String, Node> getValidNodes(List<Node> nodes) {
+		Map<String, Node> validNodes = new LinkedHashMap<String, Node>();
+		if (null != nodes) {
+			for (Node node : nodes) {
+				if (null != node && StringUtils.isNotBlank(node.getIdentifier())
+						&& StringUtils.isNotBlank(node.getNodeType()) && !validNodes.containsKey(node.getIdentifier()))
+					validNodes.put(node.getIdentifier(), node);
+			}
+		}
+		return validNodes;
+	}
+
+	private static int upsertNodes(Session session, String graphId, Map<String, Node> nodes, Request request,
+			ImportProgress progress) {
+		String query = "UNWIND {batch} AS row MERGE (n:" + graphId + " {" + SystemProperties.IL_UNIQUE_ID.name()
+				+ ": row.identifier}) ON CREATE SET n += row.metadata, n." + SystemProperties.IL_SYS_NODE_TYPE.name()
+				+ " = row.nodeType, n." + SystemProperties.IL_FUNC_OBJECT_TYPE.name() + " = row.objectType, n."
+				+ AuditProperties.createdOn.name() + " = {date}, n." + GraphDACParams.versionKey.name()
+				+ " = {versionKey} ON MATCH SET n += row.metadata, n." + GraphDACParams.versionKey.name()
+				+ " = {versionKey} FOREACH (ignore IN CASE WHEN row.touch THEN [1] ELSE [] END | SET n."
+				+ AuditProperties.lastUpdatedOn.name() + " = {date}) RETURN n";
+		List<Map<String, Object>> batch = new ArrayList<Map<String, Object>>();
+		int count = 0;
+		for (Node node : nodes.values()) {
+			batch.add(getNodeRow(graphId, node, request));
+			if (batch.size() >= BATCH_SIZE) {
+				count += writeNodes(session, graphId, query, batch, progress);
+				batch = new ArrayList<Map<String, Object>>();
+			}
+		}
+		if (!batch.isEmpty())
+			count += writeNodes(session, graphId, query, batch, progress);
+		return count;
+	}
+
+	private static Map<String, Object> getNodeRow(String graphId, Node node, Request request) {
+		node.setGraphId(graphId);
+		if (null == node.getMetadata())
+			node.setMetadata(new HashMap<String, Object>());
+		Neo4JBoltNodeOperations.setRequestContextToNode(node, request);
+		versionValidator.validateUpdateOperation(graphId, node);
+		node.getMetadata().remove(GraphDACParams.versionKey.name());
+
+		Map<String, Object> row = new HashMap<String, Object>();
+		row.put("identifier", node.getIdentifier());
+		row.put("nodeType", node.getNodeType());
+		row.put("objectType", StringUtils.isNotBlank(node.getObjectType()) ? node.getObjectType() : null);
+		row.put(METADATA, node.getMetadata());
+		row.put("touch", null == node.getMetadata().get(GraphDACParams.SYS_INTERNAL_LAST_UPDATED_ON.name()));
+		return row;
+	}
+
+	private static int writeNodes(Session session, String graphId, String query, List<Map<String, Object>> batch,
+			ImportProgress progress) {
+		String date = DateUtils.formatCurrentDate();
+		Map<String, Object> params = new HashMap<String, Object>();
+		params.put("batch", batch);
+		params.put("date", date);
+		params.put("versionKey", Long.toString(DateUtils.parse(date).getTime()));
+		List<Record> records;
+		try (Transaction tx = session.beginTransaction()) {
+			records = tx.run(query, params).list();
+			progress.nodesImported += batch.size();
+			progress.update(tx, graphId);
+			tx.success();
+		}
+		Neo4JBoltGraphOperations.updateRedisCache(graphId, records);
+		TelemetryManager.log("Graph import | Upserted nodes: " + progress.nodesImported + "/" + progress.totalNodes);
+		return batch.size();
+	}
+
+	private static int syncRelations(Session session, String graphId, Map<String, Node> importedNodes,
+			Request request, Map<String, List<String>> messages, Set<String> touchedNodeIds,
+			ImportProgress progress) {
+		Map<String, Map<String, Set<String>>> existingRelations = getExistingRelations(session, graphId,
+				getStartNodeIds(importedNodes));
+		RelationDiff diff = diffRelations(importedNodes, existingRelations);
+		Map<String, List<Map<String, Object>>> createRows = diff.createRows;
+		Map<String, List<Map<String, Object>>> updateRows = diff.updateRows;
+		Map<String, List<Map<String, Object>>> deleteRows = diff.deleteRows;
+		int relationsCount = -countRows(deleteRows);
+
+		Set<String> missingIds = getUnknownEndNodeIds(importedNodes, createRows);
+		missingIds.removeAll(getExistingNodeIds(session, graphId, new ArrayList<String>(missingIds)));
+		removeMissingEndNodes(createRows, missingIds, messages);
+		progress.totalRelations = countRows(deleteRows) + countRows(updateRows) + countRows(createRows);
+		// the deletes go first, so that the sequence indexes are computed
+		// without the relations which are removed.
+		writeRelations(session, graphId, deleteRows, "MATCH (a:" + graphId + " {" + SystemProperties.IL_UNIQUE_ID.name()
+				+ ": row.startNodeId})-[r:%s]->(b:" + graphId + " {" + SystemProperties.IL_UNIQUE_ID.name()
+				+ ": row.endNodeId}) DELETE r", touchedNodeIds, progress);
+		int sequenceRelations = createSequenceRelations(graphId, createRows, request);
+		relationsCount += sequenceRelations;
+		progress.totalRelations -= sequenceRelations;
+		writeRelations(session, graphId, updateRows, "MATCH (a:" + graphId + " {" + SystemProperties.IL_UNIQUE_ID.name()
+				+ ": row.startNodeId})-[r:%s]->(b:" + graphId + " {" + SystemProperties.IL_UNIQUE_ID.name()
+				+ ": row.endNodeId}) SET r += row.metadata", touchedNodeIds, progress);
+		writeRelations(session, graphId, createRows, "MATCH (a:" + graphId + " {" + SystemProperties.IL_UNIQUE_ID.name()
+				+ ": row.startNodeId}), (b:" + graphId + " {" + SystemProperties.IL_UNIQUE_ID.name()
+				+ ": row.endNodeId}) MERGE (a)-[r:%s]->(b) SET r += row.metadata", touchedNodeIds, progress);
+		return relationsCount + countRows(createRows);
+	}
+
+	/**
+	 * @return the ids of the nodes whose out relations are synchronised, i.e.
+	 *         which have an out relations list, even an empty one
+	 */
+	static List<String> getStartNodeIds(Map<String, Node> importedNodes) {
+		List<String> startNodeIds = new ArrayList<String>();
+		for (Node node : importedNodes.values()) {
+			if (null != node.getOutRelations())
+				startNodeIds.add(node.getIdentifier());
+		}
+		return startNodeIds;
+	}
+
+	/**
+	 * Compares the out relations of the imported nodes with their relations in
+	 * the graph, keyed by start node id, relation type and end node ids.
+	 * Relations only in the graph are deleted, relations in both are updated
+	 * if the imported relation has metadata and the others are created.
+	 */
+	static RelationDiff diffRelations(Map<String, Node> importedNodes,
+			Map<String, Map<String, Set<String>>> existingRelations) {
+		RelationDiff diff = new RelationDiff();
+		for (String startNodeId : getStartNodeIds(importedNodes)) {
+			Map<String, Map<String, Relation>> newRelations = getNewRelations(importedNodes.get(startNodeId));
+			Map<String, Set<String>> dbRelations = existingRelations.get(startNodeId);
+			if (null != dbRelations) {
+				for (Entry<String, Set<String>> entry : dbRelations.entrySet()) {
+					Map<String, Relation> relMap = newRelations.get(entry.getKey());
+					for (String endNodeId : entry.getValue()) {
+						if (null != relMap && relMap.containsKey(endNodeId)) {
+							Relation relation = relMap.remove(endNodeId);
+							if (null != relation.getMetadata() && !relation.getMetadata().isEmpty())
+								addRow(diff.updateRows, entry.getKey(), startNodeId, endNodeId, relation.getMetadata());
+						} else {
+							addRow(diff.deleteRows, entry.getKey(), startNodeId, endNodeId, null);
+						}
+					}
+				}
+			}
+			for (Entry<String, Map<String, Relation>> entry : newRelations.entrySet()) {
+				for (Entry<String, Relation> rel : entry.getValue().entrySet())
+					addRow(diff.createRows, entry.getKey(), startNodeId, rel.getKey(), rel.getValue().getMetadata());
+			}
+		}
+		return diff;
+	}
+
+	/**
+	 * @return the end nodes of the relations to create which are not imported,
+	 *         to be looked up in the graph
+	 */
+	static Set<String> getUnknownEndNodeIds(Map<String, Node> importedNodes,
+			Map<String, List<Map<String, Object>>> createRows) {
+		Set<String> ids = new HashSet<String>();
+		for (List<Map<String, Object>> rows : createRows.values()) {
+			for (Map<String, Object> row : rows) {
+				String endNodeId = (String) row.get(END_NODE_ID);
+				if (!importedNodes.containsKey(endNodeId))
+					ids.add(endNodeId);
+			}
+		}
+		return ids;
+	}
+
+	/**
+	 * Removes the relations to nodes which exist neither in the import nor in
+	 * the graph and adds a message to their start node.
+	 */
+	static void removeMissingEndNodes(Map<String, List<Map<String, Object>>> createRows, Set<String> missingIds,
+			Map<String, List<String>> messages) {
+		for (Entry<String, List<Map<String, Object>>> entry : createRows.entrySet()) {
+			List<Map<String, Object>> rows = entry.getValue();
+			for (int i = rows.size() - 1; i >= 0; i--) {
+				Map<String, Object> row = rows.get(i);
+				if (missingIds.contains(row.get(END_NODE_ID))) {
+					rows.remove(i);
+					addMessage(messages, (String) row.get(START_NODE_ID),
+							"Node with id: " + row.get(END_NODE_ID) + " not found to create relation:" + entry.getKey());
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the out relations of the node grouped by relation type and end
+	 * node id. Later relations to the same end node replace earlier ones.
+	 */
+	private static Map<String, Map<String, Relation>> getNewRelations(Node node) {
+		Map<String, Map<String, Relation>> relations = new LinkedHashMap<String, Map<String, Relation>>();
+		for (Relation rel : node.getOutRelations()) {
+			Map<String, Relation> relMap = relations.get(rel.getRelationType());
+			if (null == relMap) {
+				relMap = new LinkedHashMap<String, Relation>();
+				relations.put(rel.getRelationType(), relMap);
+			}
+			if (StringUtils.isNotBlank(rel.getEndNodeId()))
+				relMap.put(rel.getEndNodeId().trim(), rel);
+		}
+		return relations;
+	}
+
+	/**
+	 * Sequence membership relations without an explicit index get the next
+	 * free index of the start node, which needs a lookup per relation. These
+	 * are created one by one through
+	 * {@link Neo4JBoltGraphOperations#createRelation} and taken out of the
+	 * batch; they still count as created relations.
+	 */
+	@SuppressWarnings("unchecked")
+	private static int createSequenceRelations(String graphId, Map<String, List<Map<String, Object>>> createRows,
+			Request request) {
+		int count = 0;
+		for (Entry<String, List<Map<String, Object>>> entry : takeSequenceRows(createRows).entrySet()) {
+			for (Map<String, Object> row : entry.getValue()) {
+				request.put(GraphDACParams.metadata.name(), (Map<String, Object>) row.get(METADATA));
+				Neo4JBoltGraphOperations.createRelation(graphId, (String) row.get(START_NODE_ID),
+						(String) row.get(END_NODE_ID), entry.getKey(), request);
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Removes the sequence membership rows without an index from the rows to
+	 * create and returns them, keyed by relation type.
+	 */
+	static Map<String, List<Map<String, Object>>> takeSequenceRows(Map<String, List<Map<String, Object>>> createRows) {
+		Map<String, List<Map<String, Object>>> sequenceRows = new LinkedHashMap<String, List<Map<String, Object>>>();
+		for (Entry<String, List<Map<String, Object>>> entry : createRows.entrySet()) {
+			if (!StringUtils.equalsIgnoreCase(RelationTypes.SEQUENCE_MEMBERSHIP.relationName(), entry.getKey()))
+				continue;
+			Iterator<Map<String, Object>> rows = entry.getValue().iterator();
+			while (rows.hasNext()) {
+				Map<String, Object> row = rows.next();
+				@SuppressWarnings("unchecked")
+				Map<String, Object> metadata = (Map<String, Object>) row.get(METADATA);
+				if (!metadata.containsKey(SystemProperties.IL_SEQUENCE_INDEX.name())) {
+					sequenceRows.computeIfAbsent(entry.getKey(), k -> new ArrayList<Map<String, Object>>()).add(row);
+					rows.remove();
+				}
+			}
+		}
+		return sequenceRows;
+	}
+
+	private static void writeRelations(Session session, String graphId, Map<String, List<Map<String, Object>>> rows,
+			String queryTemplate, Set<String> touchedNodeIds, ImportProgress progress) {
+		for (Entry<String, List<Map<String, Object>>> entry : rows.entrySet()) {
+			String query = "UNWIND {batch} AS row " + String.format(queryTemplate, entry.getKey());
+			List<Map<String, Object>> relations = entry.getValue();
+			for (int from = 0; from < relations.size(); from += BATCH_SIZE) {
+				List<Map<String, Object>> batch = relations.subList(from, Math.min(from + BATCH_SIZE, relations.size()));
+				for (Map<String, Object> row : batch) {
+					touchedNodeIds.add((String) row.get(START_NODE_ID));
+					touchedNodeIds.add((String) row.get(END_NODE_ID));
+				}
+				Map<String, Object> params = new HashMap<String, Object>();
+				params.put("batch", batch);
+				try (Transaction tx = session.beginTransaction()) {
+					tx.run(query, params).consume();
+					progress.relationsImported += batch.size();
+					progress.update(tx, graphId);
+					tx.success();
+				}
+			}
+		}
+	}
+
+	private static Map<String, Map<String, Set<String>>> getExistingRelations(Session session, String graphId,
+			List<String> nodeIds) {
+		Map<String, Map<String, Set<String>>> relations = new HashMap<String, Map<String, Set<String>>>();
+		String query = "UNWIND {ids} AS id MATCH (n:" + graphId + " {" + SystemProperties.IL_UNIQUE_ID.name()
+				+ ": id})-[r]->(m) WHERE m." + SystemProperties.IL_UNIQUE_ID.name() + " IS NOT NULL RETURN n." + SystemProperties.IL_UNIQUE_ID.name() + " AS " + START_NODE_ID
+				+ ", type(r) AS " + RELATION_TYPE + ", m." + SystemProperties.IL_UNIQUE_ID.name() + " AS "
+				+ END_NODE_ID;
+		for (List<String> ids : partition(nodeIds)) {
+			Map<String, Object> params = new HashMap<String, Object>();
+			params.put("ids", ids);
+			StatementResult result = session.run(query, params);
+			while (result.hasNext()) {
+				Record record = result.next();
+				relations.computeIfAbsent(record.get(START_NODE_ID).asString(), k -> new HashMap<String, Set<String>>())
+						.computeIfAbsent(record.get(RELATION_TYPE).asString(), k -> new HashSet<String>())
+						.add(record.get(END_NODE_ID).asString());
+			}
+		}
+		return relations;
+	}
+
+	private static Set<String> getExistingNodeIds(Session session, String graphId, List<String> nodeIds) {
+		Set<String> existing = new HashSet<String>();
+		String query = "UNWIND {ids} AS id MATCH (n:" + graphId + " {" + SystemProperties.IL_UNIQUE_ID.name()
+				+ ": id}) RETURN n." + SystemProperties.IL_UNIQUE_ID.name() + " AS id";
+		for (List<String> ids : partition(nodeIds)) {
+			Map<String, Object> params = new HashMap<String, Object>();
+			params.put("ids", ids);
+			StatementResult result = session.run(query, params);
+			while (result.hasNext())
+				existing.add(result.next().get("id").asString());
+		}
+		return existing;
+	}
+
+	private static List<List<String>> partition(List<String> ids) {
+		List<List<String>> partitions = new ArrayList<List<String>>();
+		for (int from = 0; from < ids.size(); from += BATCH_SIZE)
+			partitions.add(ids.subList(from, Math.min(from + BATCH_SIZE, ids.size())));
+		return partitions;
+	}
+
+	private static void addRow(Map<String, List<Map<String, Object>>> rows, String relationType, String startNodeId,
+			String endNodeId, Map<String, Object> metadata) {
+		Map<String, Object> row = new HashMap<String, Object>();
+		row.put(START_NODE_ID, startNodeId);
+		row.put(END_NODE_ID, endNodeId);
+		row.put(METADATA, null == metadata ? new HashMap<String, Object>() : metadata);
+		rows.computeIfAbsent(relationType, k -> new ArrayList<Map<String, Object>>()).add(row);
+	}
+
+	private static void addMessage(Map<String, List<String>> messages, String nodeId, String message) {
+		messages.computeIfAbsent(nodeId, k -> new ArrayList<String>()).add(message);
+	}
+
+	static int countRows(Map<String, List<Map<String, Object>>> rows) {
+		int count = 0;
+		for (List<Map<String, Object>> list : rows.values())
+			count += list.size();
+		return count;
+	}
+
+	/**
+	 * Relation rows (start node id, end node id and metadata) to write, keyed
+	 * by relation type.
+	 */
+	static class RelationDiff {
+		final Map<String, List<Map<String, Object>>> createRows = new LinkedHashMap<String, List<Map<String, Object>>>();
+		final Map<String, List<Map<String, Object>>> updateRows = new LinkedHashMap<String, List<Map<String, Object>>>();
+		final Map<String, List<Map<String, Object>>> deleteRows = new LinkedHashMap<String, List<Map<String, Object>>>();
+	}
+
+	/**
+	 * Import counters, written to the task node (if any) in the same
+	 * transaction as every chunk so that the status of a long running import
+	 * can be followed.
+	 */
+	private static class ImportProgress {
+		private final String taskId;
+		private final int totalNodes;
+		private int nodesImported = 0;
+		private int totalRelations = 0;
+		private int relationsImported = 0;
+
+		ImportProgress(String taskId, int totalNodes) {
+			this.taskId = taskId;
+			this.totalNodes = totalNodes;
+		}
+
+		void update(Transaction tx, String graphId) {
+			if (StringUtils.isBlank(taskId))
+				return;
+			Map<String, Object> params = new HashMap<String, Object>();
+			params.put("taskId", taskId);
+			params.put("progress", toMap());
+			tx.run("MATCH (t:" + graphId + " {" + SystemProperties.IL_UNIQUE_ID.name() + ": {taskId}}) SET t += {progress}",
+					params).consume();
+		}
+
+		Map<String, Object> toMap() {
+			Map<String, Object> map = new HashMap<String, Object>();
+			map.put(GraphEngineParams.status.name(), GraphEngineParams.Pending.name());
+			map.put("totalNodes", totalNodes);
+			map.put("nodesImported", nodesImported);
+			map.put("totalRelations", totalRelations);
+			map.put("relationsImported", relationsImported);
+			return map;
+		}
+	}
+}
@@ -1,5 +1,6 @@
 package org.ekstep.graph.service.operation;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -389,7 +390,7 @@ public class Neo4JBoltNodeOperations {
 						.run(NodeQueryGenerationUtil.generateRemovePropertyValueCypherQuery(parameterMap));
 				tx.success();
 				for (Record record : result.list())
-					TelemetryManager.log("Remove Property Value Operation | ", record.asMap());
+					TelemetryManager.log(() -> "Remove Property Value Operation | ", record::asMap);
 			}
 
 			NodeCacheManager.deleteDataNode(graphId, nodeId);
@@ -428,7 +429,7 @@ public class Neo4JBoltNodeOperations {
 						.run(NodeQueryGenerationUtil.generateRemovePropertyValuesCypherQuery(parameterMap));
 				tx.success();
 				for (Record record : result.list())
-					TelemetryManager.log("Update Property Values Operation | ", record.asMap());
+					TelemetryManager.log(() -> "Update Property Values Operation | ", record::asMap);
 			}
 
 			NodeCacheManager.deleteDataNode(graphId, nodeId);
@@ -459,10 +460,11 @@ public class Neo4JBoltNodeOperations {
 			try (Transaction tx = session.beginTransaction()) {
 				// StatementResult result =
 				// session.run(QueryUtil.getQuery(Neo4JOperation.DELETE_NODE, parameterMap));
-				StatementResult result = tx.run(NodeQueryGenerationUtil.generateDeleteNodeCypherQuery(parameterMap));
+				StatementResult result = tx.run(NodeQueryGenerationUtil.generateDeleteNodeCypherQuery(parameterMap),
+						Collections.<String, Object>singletonMap("nodeId", nodeId));
 				tx.success();
 				for (Record record : result.list())
-					TelemetryManager.log("Delete Node Operation | ", record.asMap());
+					TelemetryManager.log(() -> "Delete Node Operation | ", record::asMap);
 			}
 
 			NodeCacheManager.deleteDataNode(graphId, nodeId);
@@ -513,7 +515,7 @@ public class Neo4JBoltNodeOperations {
 						.run(NodeQueryGenerationUtil.generateUpsertRootNodeCypherQuery(parameterMap));
 				tx.success();
 				for (Record record : result.list())
-					TelemetryManager.log("Upsert Root Node Operation | ", record.asMap());
+					TelemetryManager.log(() -> "Upsert Root Node Operation | ", record::asMap);
 			}
 		} catch (Exception e) {
 			throw new ServerException(DACErrorCodeConstants.CONNECTION_PROBLEM.name(),
@@ -551,7 +553,7 @@ public class Neo4JBoltNodeOperations {
 			}
 	}
 	
-	private static void setRequestContextToNode(Node node, Request request) {
+	static void setRequestContextToNode(Node node, Request request) {
 		if (null != request && null != request.getContext()) {
 			String channel = (String) request.getContext().get(GraphDACParams.CHANNEL_ID.name());
 			TelemetryManager.log("Channel from request: " + channel + " for content: " + node.getIdentifier());
@@ -1,6 +1,7 @@
 package org.ekstep.graph.service.operation;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -24,6 +25,7 @@ import org.ekstep.graph.service.common.DACErrorCodeConstants;
 import org.ekstep.graph.service.common.DACErrorMessageConstants;
 import org.ekstep.graph.service.common.GraphOperation;
 import org.ekstep.graph.service.util.DriverUtil;
+import org.ekstep.graph.service.util.QueryPlanStats;
 import org.ekstep.graph.service.util.SearchQueryGenerationUtil;
 import org.ekstep.telemetry.logger.TelemetryManager;
 import org.neo4j.driver.v1.Driver;
@@ -69,8 +71,9 @@ public class Neo4JBoltSearchOperations {
 			parameterMap.put(GraphDACParams.getTags.name(), getTags);
 			parameterMap.put(GraphDACParams.request.name(), request);
 
-			StatementResult result = session
-					.run(SearchQueryGenerationUtil.generateGetNodeByIdCypherQuery(parameterMap));
+			StatementResult result = run(session, SearchQueryGenerationUtil.GET_NODE_BY_ID.getName(),
+					SearchQueryGenerationUtil.generateGetNodeByIdCypherQuery(parameterMap),
+					Collections.<String, Object>singletonMap("nodeId", nodeId));
 			if (null == result || !result.hasNext())
 				throw new ResourceNotFoundException(DACErrorCodeConstants.NOT_FOUND.name(),
 						DACErrorMessageConstants.NODE_NOT_FOUND + " | [Invalid Node Id.]");
@@ -80,7 +83,7 @@ public class Neo4JBoltSearchOperations {
 			Map<Long, Object> startNodeMap = new HashMap<Long, Object>();
 			Map<Long, Object> endNodeMap = new HashMap<Long, Object>();
 			for (Record record : result.list()) {
-				TelemetryManager.log("'Get Node By Id' Operation Finished.", record.asMap());
+				TelemetryManager.log(() -> "'Get Node By Id' Operation Finished.", record::asMap);
 				if (null != record)
 					getRecordValues(record, nodeMap, relationMap, startNodeMap, endNodeMap);
 			}
@@ -134,8 +137,9 @@ public class Neo4JBoltSearchOperations {
 				parameterMap.put(GraphDACParams.getTags.name(), getTags);
 				parameterMap.put(GraphDACParams.request.name(), request);
 
-				StatementResult result = session
-						.run(SearchQueryGenerationUtil.generateGetNodeByUniqueIdCypherQuery(parameterMap));
+				StatementResult result = run(session, SearchQueryGenerationUtil.GET_NODE_BY_UNIQUE_ID.getName(),
+						SearchQueryGenerationUtil.generateGetNodeByUniqueIdCypherQuery(parameterMap),
+						Collections.<String, Object>singletonMap("nodeId", nodeId));
 				if (null == result || !result.hasNext())
 					throw new ResourceNotFoundException(DACErrorCodeConstants.NOT_FOUND.name(),
 							DACErrorMessageConstants.NODE_NOT_FOUND + " | [Invalid Node Id.]: " + nodeId, nodeId);
@@ -145,7 +149,7 @@ public class Neo4JBoltSearchOperations {
 				Map<Long, Object> startNodeMap = new HashMap<Long, Object>();
 				Map<Long, Object> endNodeMap = new HashMap<Long, Object>();
 				for (Record record : result.list()) {
-					TelemetryManager.log("'Get Node By Unique Id' Operation Finished.", record.asMap());
+					TelemetryManager.log(() -> "'Get Node By Unique Id' Operation Finished.", record::asMap);
 					if (null != record)
 						getRecordValues(record, nodeMap, relationMap, startNodeMap, endNodeMap);
 				}
@@ -194,15 +198,16 @@ public class Neo4JBoltSearchOperations {
 			parameterMap.put(GraphDACParams.getTags.name(), getTags);
 			parameterMap.put(GraphDACParams.request.name(), request);
 
-			StatementResult result = session
-					.run(SearchQueryGenerationUtil.generateGetNodesByPropertyCypherQuery(parameterMap));
+			StatementResult result = run(session, "getNodesByProperty",
+					SearchQueryGenerationUtil.generateGetNodesByPropertyCypherQuery(parameterMap),
+					Collections.<String, Object>singletonMap("value", String.valueOf(property.getPropertyValue())));
 			Map<Long, Object> nodeMap = new HashMap<Long, Object>();
 			Map<Long, Object> relationMap = new HashMap<Long, Object>();
 			Map<Long, Object> startNodeMap = new HashMap<Long, Object>();
 			Map<Long, Object> endNodeMap = new HashMap<Long, Object>();
 			if (null != result) {
 				for (Record record : result.list()) {
-					TelemetryManager.log("'Get Nodes By Property Id' Operation Finished.", record.asMap());
+					TelemetryManager.log(() -> "'Get Nodes By Property Id' Operation Finished.", record::asMap);
 					if (null != record)
 						getRecordValues(record, nodeMap, relationMap, startNodeMap, endNodeMap);
 				}
@@ -252,14 +257,14 @@ public class Neo4JBoltSearchOperations {
 
 			String query = SearchQueryGenerationUtil.generateGetNodeByUniqueIdsCypherQuery(parameterMap);
 			Map<String, Object> params = searchCriteria.getParams();
-			StatementResult result = session.run(query, params);
+			StatementResult result = run(session, "getNodesByUniqueIds", query, params);
 			Map<Long, Object> nodeMap = new HashMap<Long, Object>();
 			Map<Long, Object> relationMap = new HashMap<Long, Object>();
 			Map<Long, Object> startNodeMap = new HashMap<Long, Object>();
 			Map<Long, Object> endNodeMap = new HashMap<Long, Object>();
 			if (null != result) {
 				for (Record record : result.list()) {
-					TelemetryManager.log("'Get Nodes By Search Criteria' Operation Finished.", record.asMap());
+					TelemetryManager.log(() -> "'Get Nodes By Search Criteria' Operation Finished.", record::asMap);
 					if (null != record)
 						getRecordValues(record, nodeMap, relationMap, startNodeMap, endNodeMap);
 				}
@@ -276,6 +281,15 @@ public class Neo4JBoltSearchOperations {
 	}
 
 	public static List<Map<String, Object>> executeQueryForProps(String graphId, String query, List<String> propKeys) {
+		return executeQueryForProps(graphId, query, new HashMap<String, Object>(), propKeys);
+	}
+
+	/**
+	 * Executes the query with the given parameters and returns the requested
+	 * properties of each record.
+	 */
+	public static List<Map<String, Object>> executeQueryForProps(String graphId, String query,
+			Map<String, Object> params, List<String> propKeys) {
 		if (StringUtils.isBlank(graphId))
 			throw new ClientException(DACErrorCodeConstants.INVALID_GRAPH.name(), DACErrorMessageConstants.INVALID_GRAPH_ID + " | ['Execute Query For Nodes' Operation Failed.]");
 		List<Map<String, Object>> propsList = new ArrayList<Map<String, Object>>();
@@ -283,7 +297,7 @@ public class Neo4JBoltSearchOperations {
 		TelemetryManager.log("Driver Initialised. | [Graph Id: " + graphId + "]");
 		try (Session session = driver.session()) {
 
-			StatementResult result = session.run(query);
+			StatementResult result = run(session, QueryPlanStats.ADHOC_QUERY, query, params);
 			if (null != result) {
 				for (Record record : result.list()) {
 					if (null != record) {
@@ -342,11 +356,12 @@ public class Neo4JBoltSearchOperations {
 			parameterMap.put(GraphDACParams.key.name(), key);
 			parameterMap.put(GraphDACParams.request.name(), request);
 
-			StatementResult result = session
-					.run(SearchQueryGenerationUtil.generateGetNodePropertyCypherQuery(parameterMap));
+			StatementResult result = run(session, "getNodeProperty",
+					SearchQueryGenerationUtil.generateGetNodePropertyCypherQuery(parameterMap),
+					Collections.<String, Object>singletonMap("nodeId", nodeId));
 			if (null != result) {
 				for (Record record : result.list()) {
-					TelemetryManager.log("'Get Node Property' Operation Finished.", record.asMap());
+					TelemetryManager.log(() -> "'Get Node Property' Operation Finished.", record::asMap);
 					if (null != record && null != record.get(key)) {
 						property.setPropertyName(key);
 						property.setPropertyValue(record.get(key));
@@ -388,7 +403,7 @@ public class Neo4JBoltSearchOperations {
 			Map<Long, Object> endNodeMap = new HashMap<Long, Object>();
 			if (null != result) {
 				for (Record record : result.list()) {
-					TelemetryManager.log("'Get All Nodes' Operation Finished.", record.asMap());
+					TelemetryManager.log(() -> "'Get All Nodes' Operation Finished.", record::asMap);
 					if (null != record)
 						getRecordValues(record, nodeMap, relationMap, startNodeMap, endNodeMap);
 				}
@@ -434,7 +449,7 @@ public class Neo4JBoltSearchOperations {
 			Map<Long, Object> endNodeMap = new HashMap<Long, Object>();
 			if (null != result) {
 				for (Record record : result.list()) {
-					TelemetryManager.log("'Get All Relations' Operation Finished.", record.asMap());
+					TelemetryManager.log(() -> "'Get All Relations' Operation Finished.", record::asMap);
 					if (null != record)
 						getRecordValues(record, null, relationMap, startNodeMap, endNodeMap);
 				}
@@ -452,6 +467,107 @@ public class Neo4JBoltSearchOperations {
 		return relations;
 	}
 
+	/**
+	 * Gets the nodes of the graph with an internal id greater than
+	 * <code>afterId</code>, at most <code>limit</code> of them in the order of
+	 * their internal ids. Used to scan a whole graph in pages without loading
+	 * all of it at once.
+	 *
+	 * @param graphId
+	 *            the graph id
+	 * @param afterId
+	 *            the internal id of the last node of the previous page
+	 * @param limit
+	 *            the page size
+	 * @param request
+	 *            the request
+	 * @return the nodes of the page
+	 */
+	public static List<Node> getNodesPage(String graphId, long afterId, int limit, Request request) {
+
+		if (StringUtils.isBlank(graphId))
+			throw new ClientException(DACErrorCodeConstants.INVALID_GRAPH.name(),
+					DACErrorMessageConstants.INVALID_GRAPH_ID + " | ['Get Nodes Page' Operation Failed.]");
+
+		List<Node> nodes = new ArrayList<Node>();
+		Driver driver = DriverUtil.getDriver(graphId, GraphOperation.READ);
+		try (Session session = driver.session()) {
+			Map<String, Object> parameterMap = new HashMap<String, Object>();
+			parameterMap.put(GraphDACParams.graphId.name(), graphId);
+			parameterMap.put(GraphDACParams.request.name(), request);
+			Map<String, Object> params = new HashMap<String, Object>();
+			params.put("afterId", afterId);
+			params.put("limit", limit);
+
+			StatementResult result = session
+					.run(SearchQueryGenerationUtil.generateGetNodesPageCypherQuery(parameterMap), params);
+			Map<Long, Object> nodeMap = new LinkedHashMap<Long, Object>();
+			Map<Long, Object> relationMap = new HashMap<Long, Object>();
+			Map<Long, Object> startNodeMap = new HashMap<Long, Object>();
+			Map<Long, Object> endNodeMap = new HashMap<Long, Object>();
+			if (null != result) {
+				while (result.hasNext())
+					getRecordValues(result.next(), nodeMap, relationMap, startNodeMap, endNodeMap);
+			}
+			for (Entry<Long, Object> entry : nodeMap.entrySet())
+				nodes.add(new Node(graphId, (org.neo4j.driver.v1.types.Node) entry.getValue(), relationMap,
+						startNodeMap, endNodeMap));
+			nodes.sort((n1, n2) -> Long.compare(n1.getId(), n2.getId()));
+		}
+		TelemetryManager.log("Returning Nodes Page: " + nodes.size() + " | [Graph Id: " + graphId + ", After Id: "
+				+ afterId + "]");
+		return nodes;
+	}
+
+	/**
+	 * Gets the relations of the graph with an internal id greater than
+	 * <code>afterId</code>, at most <code>limit</code> of them in the order of
+	 * their internal ids.
+	 *
+	 * @param graphId
+	 *            the graph id
+	 * @param afterId
+	 *            the internal id of the last relation of the previous page
+	 * @param limit
+	 *            the page size
+	 * @param request
+	 *            the request
+	 * @return the relations of the page
+	 */
+	public static List<Relation> getRelationsPage(String graphId, long afterId, int limit, Request request) {
+
+		if (StringUtils.isBlank(graphId))
+			throw new ClientException(DACErrorCodeConstants.INVALID_GRAPH.name(),
+					DACErrorMessageConstants.INVALID_GRAPH_ID + " | ['Get Relations Page' Operation Failed.]");
+
+		List<Relation> relations = new ArrayList<Relation>();
+		Driver driver = DriverUtil.getDriver(graphId, GraphOperation.READ);
+		try (Session session = driver.session()) {
+			Map<String, Object> parameterMap = new HashMap<String, Object>();
+			parameterMap.put(GraphDACParams.graphId.name(), graphId);
+			parameterMap.put(GraphDACParams.request.name(), request);
+			Map<String, Object> params = new HashMap<String, Object>();
+			params.put("afterId", afterId);
+			params.put("limit", limit);
+
+			StatementResult result = session
+					.run(SearchQueryGenerationUtil.generateGetRelationsPageCypherQuery(parameterMap), params);
+			Map<Long, Object> relationMap = new LinkedHashMap<Long, Object>();
+			Map<Long, Object> startNodeMap = new HashMap<Long, Object>();
+			Map<Long, Object> endNodeMap = new HashMap<Long, Object>();
+			if (null != result) {
+				while (result.hasNext())
+					getRecordValues(result.next(), null, relationMap, startNodeMap, endNodeMap);
+			}
+			for (Entry<Long, Object> entry : relationMap.entrySet())
+				relations.add(new Relation(graphId, (org.neo4j.driver.v1.types.Relationship) entry.getValue(),
+						startNodeMap, endNodeMap));
+		}
+		TelemetryManager.log("Returning Relations Page: " + relations.size() + " | [Graph Id: " + graphId
+				+ ", After Id: " + afterId + "]");
+		return relations;
+	}
+
 	/**
 	 * Gets the relation property.
 	 *
@@ -512,7 +628,7 @@ public class Neo4JBoltSearchOperations {
 					.run(SearchQueryGenerationUtil.generateGetRelationPropertyCypherQuery(parameterMap));
 			if (null != result) {
 				for (Record record : result.list()) {
-					TelemetryManager.log("'Get Relation Property' Operation Finished.", record.asMap());
+					TelemetryManager.log(() -> "'Get Relation Property' Operation Finished.", record::asMap);
 					if (null != record && null != record.get(key)) {
 						property.setPropertyName(key);
 						property.setPropertyValue(record.get(key));
@@ -550,7 +666,7 @@ public class Neo4JBoltSearchOperations {
 			Map<Long, Object> endNodeMap = new HashMap<Long, Object>();
 			if (null != result) {
 				for (Record record : result.list()) {
-					TelemetryManager.log("'Get Relation' Operation Finished.", record.asMap());
+					TelemetryManager.log(() -> "'Get Relation' Operation Finished.", record::asMap);
 					if (null != record)
 						getRecordValues(record, null, relationMap, startNodeMap, endNodeMap);
 				}
@@ -622,7 +738,7 @@ public class Neo4JBoltSearchOperations {
 			Map<Long, Object> startNodeMap = new HashMap<Long, Object>();
 			Map<Long, Object> endNodeMap = new HashMap<Long, Object>();
 			for (Record record : result.list()) {
-				TelemetryManager.log("'Get Relation' Operation Finished.", record.asMap());
+				TelemetryManager.log(() -> "'Get Relation' Operation Finished.", record::asMap);
 				if (null != record)
 					getRecordValues(record, null, relationMap, startNodeMap, endNodeMap);
 			}
@@ -744,7 +860,7 @@ public class Neo4JBoltSearchOperations {
 			StatementResult result = session.run(SearchQueryGenerationUtil.generateExecuteQueryCypherQuery(parameterMap),
 					paramMap);
 			for (Record record : result.list()) {
-				TelemetryManager.log("'Execute Query' Operation Finished.", record.asMap());
+				TelemetryManager.log(() -> "'Execute Query' Operation Finished.", record::asMap);
 				Map<String, Object> recordMap = record.asMap();
 				Map<String, Object> map = new HashMap<String, Object>();
 				if (null != recordMap && !recordMap.isEmpty()) {
@@ -810,7 +926,7 @@ public class Neo4JBoltSearchOperations {
 			if (null != result) {
 				TelemetryManager.log("'Search Nodes' result: " + result);
 				for (Record record : result.list()) {
-					TelemetryManager.log("'Search Nodes' Operation Finished.", record.asMap());
+					TelemetryManager.log(() -> "'Search Nodes' Operation Finished.", record::asMap);
 					if (null != record) {
 						if (returnNode)
 							getRecordValues(record, nodeMap, relationMap, startNodeMap, endNodeMap);
@@ -872,7 +988,7 @@ public class Neo4JBoltSearchOperations {
 			StatementResult result = session.run(query, params);
 			if (null != result) {
 				for (Record record : result.list()) {
-					TelemetryManager.log("'Get Nodes Count' Operation Finished.", record.asMap());
+					TelemetryManager.log(() -> "'Get Nodes Count' Operation Finished.", record::asMap);
 					if (null != record && null != record.get(CypherQueryConfigurationConstants.DEFAULT_CYPHER_COUNT_OBJECT))
 						count = record.get(CypherQueryConfigurationConstants.DEFAULT_CYPHER_COUNT_OBJECT).asLong();
 				}
@@ -1003,4 +1119,9 @@ public class Neo4JBoltSearchOperations {
 		}
 	}
 
+	private static StatementResult run(Session session, String name, String query, Map<String, Object> params) {
+		QueryPlanStats.record(name, query);
+		return session.run(query, params);
+	}
+
 }
@@ -1,35 +1,76 @@
 package org.ekstep.graph.service.util;
 
 import java.io.File;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.lang3.BooleanUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.ekstep.common.Platform;
 import org.ekstep.graph.service.common.DACConfigurationConstants;
+import org.ekstep.graph.service.common.GraphOperation;
 import org.ekstep.telemetry.logger.TelemetryManager;
 import org.neo4j.driver.v1.Config;
 import org.neo4j.driver.v1.Config.ConfigBuilder;
-import org.neo4j.driver.v1.Config.EncryptionLevel;
 import org.neo4j.driver.v1.Config.TrustStrategy;
 
 public class ConfigUtil {
 
-	
+	private static final String POOL_PROP_PREFIX = "neo4j.pool.";
 
 	public static Config getConfig() {
+		return getConfigBuilder().toConfig();
+	}
+
+	/**
+	 * Returns the driver config with connection pool settings of the given graph
+	 * and operation. Each pool property is looked up as
+	 * <code>neo4j.pool.&lt;graphId&gt;.&lt;read|write&gt;.&lt;property&gt;</code>,
+	 * then <code>neo4j.pool.&lt;graphId&gt;.&lt;property&gt;</code> and finally
+	 * <code>neo4j.pool.&lt;property&gt;</code>.
+	 */
+	public static Config getConfig(String graphId, GraphOperation graphOperation) {
+		ConfigBuilder config = getConfigBuilder();
+		config.withMaxConnectionPoolSize(getMaxPoolSize(graphId, graphOperation));
+		config.withConnectionAcquisitionTimeout(
+				getPoolProperty(graphId, graphOperation, "acquisition_timeout", 60000), TimeUnit.MILLISECONDS);
+		long maxLifetime = getPoolProperty(graphId, graphOperation, "max_lifetime", 0);
+		if (maxLifetime > 0)
+			config.withMaxConnectionLifetime(maxLifetime, TimeUnit.MILLISECONDS);
+		return config.toConfig();
+	}
+
+	public static int getMaxPoolSize(String graphId, GraphOperation graphOperation) {
+		return (int) getPoolProperty(graphId, graphOperation, "max_size", 100);
+	}
+
+	private static long getPoolProperty(String graphId, GraphOperation graphOperation, String property,
+			long defaultValue) {
+		String[] paths = { POOL_PROP_PREFIX + graphId + DACConfigurationConstants.DOT
+				+ StringUtils.lowerCase(graphOperation.name()) + DACConfigurationConstants.DOT + property,
+				POOL_PROP_PREFIX + graphId + DACConfigurationConstants.DOT + property, POOL_PROP_PREFIX + property };
+		for (String path : paths) {
+			if (Platform.config.hasPath(path))
+				return Platform.config.getLong(path);
+		}
+		return defaultValue;
+	}
+
+	private static ConfigBuilder getConfigBuilder() {
 		ConfigBuilder config = Config.build();
 		
 		TelemetryManager.log("Fetching the Configuration for Neo4J Bolt.");
 
 		if (BooleanUtils.isTrue(DACConfigurationConstants.IS_NEO4J_SERVER_CONNECTION_ENCRYPTION_ALLOWED))
-			config.withEncryptionLevel(EncryptionLevel.NONE);
+			config.withoutEncryption();
 
 		if (BooleanUtils.isTrue(DACConfigurationConstants.IS_SETTING_NEO4J_SERVER_MAX_IDLE_SESSION_ENABLED))
-			config.withMaxIdleSessions(DACConfigurationConstants.NEO4J_SERVER_MAX_IDLE_SESSION);
+			config.withMaxIdleConnections(DACConfigurationConstants.NEO4J_SERVER_MAX_IDLE_SESSION);
 
 		if (BooleanUtils.isTrue(DACConfigurationConstants.IS_SETTING_NEO4J_SERVER_MAX_IDLE_SESSION_ENABLED))
 			config.withTrustStrategy(getTrustStrategy());
 		
 		TelemetryManager.log("Returning Database Config.");
-		return config.toConfig();
+		return config;
 	}
 
 	private static TrustStrategy getTrustStrategy() {
@@ -0,0 +1,50 @@
+package org.ekstep.graph.service.util;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.neo4j.driver.v1.Session;
+import org.neo4j.driver.v1.StatementResult;
+
+/**
+ * A Cypher query with a constant text per graph.
+ *
+ * Values are passed as <code>{name}</code> parameters instead of being spliced
+ * into the text, only the graph label (<code>${graphId}</code> in the
+ * template) varies, so every execution of the template on a graph reuses the
+ * plan cached by Neo4j for that text.
+ */
+public class CypherTemplate {
+
+	public static final String GRAPH_ID = "${graphId}";
+
+	private final String name;
+	private final String template;
+	private final Map<String, String> queries = new ConcurrentHashMap<String, String>();
+
+	public CypherTemplate(String name, String template) {
+		this.name = name;
+		this.template = template;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * @return the query text of the template for the given graph
+	 */
+	public String getQuery(String graphId) {
+		return queries.computeIfAbsent(graphId, key -> template.replace(GRAPH_ID, key));
+	}
+
+	/**
+	 * Runs the query of the template for the given graph, recording it in the
+	 * {@link QueryPlanStats}.
+	 */
+	public StatementResult run(Session session, String graphId, Map<String, Object> params) {
+		String query = getQuery(graphId);
+		QueryPlanStats.record(name, query);
+		return session.run(query, params);
+	}
+}
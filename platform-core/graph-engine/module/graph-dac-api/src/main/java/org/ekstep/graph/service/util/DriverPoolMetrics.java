@@ -0,0 +1,125 @@
+package org.ekstep.graph.service.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.neo4j.driver.v1.Driver;
+import org.neo4j.driver.v1.Session;
+
+/**
+ * Estimated pool metrics of a single bolt driver.
+ *
+ * The 1.x driver does not expose its connection pool, so the driver handed out
+ * by {@link DriverUtil} is wrapped to observe its sessions instead: a session
+ * is counted as active from its first <code>run</code> /
+ * <code>beginTransaction</code> until it is closed, and the duration of that
+ * first call (connection acquisition plus the first statement) is recorded in
+ * the first run latency histogram. These are estimates of the pool state, not
+ * the pool's own counters, and the metric names say so. Sessions and pooled
+ * connections are not one to one, so no idle count is derived from them.
+ */
+public class DriverPoolMetrics {
+
+	/** Upper bounds (ms, inclusive) of the first run latency histogram buckets. */
+	private static final long[] WAIT_BUCKETS = { 1, 5, 10, 50, 100, 500, 1000, 5000 };
+
+	private final int maxPoolSize;
+	private final AtomicInteger inUse = new AtomicInteger();
+	private final AtomicLong acquisitions = new AtomicLong();
+	private final AtomicLong failedAcquisitions = new AtomicLong();
+	private final AtomicLongArray waitHistogram = new AtomicLongArray(WAIT_BUCKETS.length + 1);
+
+	DriverPoolMetrics(int maxPoolSize) {
+		this.maxPoolSize = maxPoolSize;
+	}
+
+	public Map<String, Object> toMap() {
+		Map<String, Object> map = new HashMap<>();
+		map.put("estimated", true);
+		map.put("maxPoolSize", maxPoolSize);
+		map.put("activeSessions", inUse.get());
+		map.put("sessionsStarted", acquisitions.get());
+		map.put("failedFirstRuns", failedAcquisitions.get());
+		Map<String, Long> histogram = new LinkedHashMap<>();
+		for (int i = 0; i < WAIT_BUCKETS.length; i++)
+			histogram.put("le_" + WAIT_BUCKETS[i] + "ms", waitHistogram.get(i));
+		histogram.put("gt_" + WAIT_BUCKETS[WAIT_BUCKETS.length - 1] + "ms", waitHistogram.get(WAIT_BUCKETS.length));
+		map.put("firstRunLatency", histogram);
+		return map;
+	}
+
+	Driver wrap(Driver driver) {
+		return (Driver) Proxy.newProxyInstance(Driver.class.getClassLoader(), new Class<?>[] { Driver.class },
+				(proxy, method, args) -> {
+					Object result = invoke(driver, method, args);
+					if (result instanceof Session)
+						return wrap((Session) result);
+					return result;
+				});
+	}
+
+	private Session wrap(Session session) {
+		return (Session) Proxy.newProxyInstance(Session.class.getClassLoader(), new Class<?>[] { Session.class },
+				new SessionHandler(session));
+	}
+
+	private void recordWait(long millis) {
+		acquisitions.incrementAndGet();
+		int bucket = 0;
+		while (bucket < WAIT_BUCKETS.length && millis > WAIT_BUCKETS[bucket])
+			bucket++;
+		waitHistogram.incrementAndGet(bucket);
+	}
+
+	private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+		try {
+			return method.invoke(target, args);
+		} catch (InvocationTargetException e) {
+			throw e.getCause();
+		}
+	}
+
+	private class SessionHandler implements InvocationHandler {
+
+		private final Session session;
+		private final AtomicBoolean acquired = new AtomicBoolean();
+		private final AtomicBoolean closed = new AtomicBoolean();
+
+		SessionHandler(Session session) {
+			this.session = session;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			String name = method.getName();
+			if (name.startsWith("close")) {
+				if (acquired.get() && closed.compareAndSet(false, true))
+					inUse.decrementAndGet();
+				return DriverPoolMetrics.invoke(session, method, args);
+			}
+			if (("run".equals(name) || "beginTransaction".equals(name)) && acquired.compareAndSet(false, true)) {
+				long start = System.currentTimeMillis();
+				try {
+					Object result = DriverPoolMetrics.invoke(session, method, args);
+					recordWait(System.currentTimeMillis() - start);
+					inUse.incrementAndGet();
+					return result;
+				} catch (Throwable e) {
+					acquired.set(false);
+					failedAcquisitions.incrementAndGet();
+					throw e;
+				}
+			}
+			return DriverPoolMetrics.invoke(session, method, args);
+		}
+	}
+}
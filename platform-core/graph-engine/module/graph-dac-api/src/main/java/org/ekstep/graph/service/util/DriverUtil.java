@@ -3,6 +3,7 @@ package org.ekstep.graph.service.util;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.lang3.StringUtils;
 import org.ekstep.common.Platform;
@@ -14,22 +15,39 @@ import org.neo4j.driver.v1.GraphDatabase;
 
 public class DriverUtil {
 
-	private static Map<String, Driver> driverMap = new HashMap<String, Driver>();
+	private static Map<String, Driver> driverMap = new ConcurrentHashMap<String, Driver>();
+	private static Map<String, DriverPoolMetrics> metricsMap = new ConcurrentHashMap<String, DriverPoolMetrics>();
+
+	static {
+		registerShutdownHook();
+	}
 
 	public static Driver getDriver(String graphId, GraphOperation graphOperation) {
-		TelemetryManager.log("Get Driver for Graph Id: "+ graphId);
 		String driverKey = graphId + DACConfigurationConstants.UNDERSCORE
 				+ StringUtils.lowerCase(graphOperation.name());
-		TelemetryManager.log("Driver Configuration Key: " + driverKey);
-
 		Driver driver = driverMap.get(driverKey);
 		if (null == driver) {
-			driver = loadDriver(graphId, graphOperation);
-			driverMap.put(driverKey, driver);
+			driver = driverMap.computeIfAbsent(driverKey, key -> {
+				TelemetryManager.log("Driver Configuration Key: " + key);
+				DriverPoolMetrics metrics = new DriverPoolMetrics(ConfigUtil.getMaxPoolSize(graphId, graphOperation));
+				metricsMap.put(key, metrics);
+				return metrics.wrap(loadDriver(graphId, graphOperation));
+			});
 		}
 		return driver;
 	}
 
+	/**
+	 * Returns the live connection pool metrics of every loaded driver, keyed by
+	 * &lt;graphId&gt;_&lt;read|write&gt;.
+	 */
+	public static Map<String, Object> getPoolMetrics() {
+		Map<String, Object> metrics = new HashMap<String, Object>();
+		for (Map.Entry<String, DriverPoolMetrics> entry : metricsMap.entrySet())
+			metrics.put(entry.getKey(), entry.getValue().toMap());
+		return metrics;
+	}
+
 	public static Driver loadDriver(String graphId, GraphOperation graphOperation) {
 		TelemetryManager.log("Loading driver for Graph Id: "+ graphId);
 		String driverType = Platform.config.hasPath("neo4j.driver.type")
@@ -40,27 +58,26 @@ public class DriverUtil {
 		switch (driverType.toLowerCase()) {
 		case "simple":
 			TelemetryManager.log("Reading Simple Driver. | [Driver Initialization.]");
-			driver = GraphDatabase.driver(route, ConfigUtil.getConfig());
+			driver = GraphDatabase.driver(route, ConfigUtil.getConfig(graphId, graphOperation));
 			break;
 
 		case "medium":
 			TelemetryManager.log("Reading Medium Driver. | [Driver Initialization.]");
-			driver = GraphDatabase.driver(route, AuthTokenUtil.getAuthToken(), ConfigUtil.getConfig());
+			driver = GraphDatabase.driver(route, AuthTokenUtil.getAuthToken(),
+					ConfigUtil.getConfig(graphId, graphOperation));
 			break;
 
 		case "complex":
 			TelemetryManager.log("Reading Complex Driver. | [Driver Initialization.]");
 			driver = GraphDatabase.driver(route, AuthTokenUtil.getAuthToken(),
-					ConfigUtil.getConfig());
+					ConfigUtil.getConfig(graphId, graphOperation));
 			break;
 
 		default:
 			TelemetryManager.log("Invalid Database (Bolt) Driver Type: " + driverType + " | [Default Driver Type is ]");
-			driver = GraphDatabase.driver(RoutingUtil.getRoute(graphId, null));
+			driver = GraphDatabase.driver(route);
 			break;
 		}
-		if (null != driver)
-			registerShutdownHook(driver);
 		return driver;
 	}
 
@@ -70,16 +87,16 @@ public class DriverUtil {
 			Driver driver = entry.getValue();
 			driver.close();
 			it.remove();
+			metricsMap.remove(entry.getKey());
 		}
 	}
 
-	private static void registerShutdownHook(Driver driver) {
+	private static void registerShutdownHook() {
 		Runtime.getRuntime().addShutdownHook(new Thread() {
 			@Override
 			public void run() {
-				TelemetryManager.log("Closing Neo4j Graph Driver...");
-				if (null != driver)
-					driver.close();
+				TelemetryManager.log("Closing Neo4j Graph Drivers...");
+				closeDrivers();
 			}
 		});
 	}
@@ -239,9 +239,11 @@ public class GraphQueryGenerationUtil extends BaseQueryGenerationUtil {
 						DACErrorMessageConstants.INVALID_RELATION_TYPE
 								+ " | ['Delete Relation' Query Generation Failed.]");
 
-			query.append(getDeleteRelationCypherQuery(graphId, startNodeId, endNodeId, relationType,
-					CypherQueryConfigurationConstants.DEFAULT_CYPHER_NODE_OBJECT,
-					CypherQueryConfigurationConstants.DEFAULT_CYPHER_NODE_OBJECT_II, RelationshipDirection.OUTGOING));
+			// start and end node ids are passed as the startNodeId and endNodeId
+			// parameters
+			query.append("MATCH (a:" + graphId + " {" + SystemProperties.IL_UNIQUE_ID.name() + ": {startNodeId}})-[r:"
+					+ relationType + "]->(b:" + graphId + " {" + SystemProperties.IL_UNIQUE_ID.name()
+					+ ": {endNodeId}}) DELETE r").append(CypherQueryConfigurationConstants.BLANK_SPACE);
 		}
 
 		TelemetryManager.log("'Delete Relation' Cypher Query: " + query);
@@ -547,8 +549,8 @@ public class GraphQueryGenerationUtil extends BaseQueryGenerationUtil {
 						DACErrorMessageConstants.INVALID_COLLECTION_NODE_ID
 								+ " | ['Delete Collection' Query Generation Failed.]");
 
-			query.append("MATCH (a:" + graphId + " {" + SystemProperties.IL_UNIQUE_ID.name() + ": '" + collectionId
-					+ "'}) DETACH DELETE a");
+			query.append("MATCH (a:" + graphId + " {" + SystemProperties.IL_UNIQUE_ID.name()
+					+ ": {collectionId}}) DETACH DELETE a");
 		}
 
 		TelemetryManager.log("Returning 'Delete Collection' Cypher Query: " + query);
@@ -601,9 +603,10 @@ public class GraphQueryGenerationUtil extends BaseQueryGenerationUtil {
 				relationship = "-[r:" + relationType + "]-";
 
 			query.append("MATCH (" + startNodeObjectVariableName + ":" + graphId + " { "
-					+ SystemProperties.IL_UNIQUE_ID.name() + ": '" + startNodeId + "' }),(" + endNodeObjectVariableName
-					+ ":" + graphId + " { " + SystemProperties.IL_UNIQUE_ID.name() + ": '" + endNodeId + "' }) MERGE ("
+					+ SystemProperties.IL_UNIQUE_ID.name() + ": {startNodeId} }),(" + endNodeObjectVariableName + ":"
+					+ graphId + " { " + SystemProperties.IL_UNIQUE_ID.name() + ": {endNodeId} }) MERGE ("
 					+ startNodeObjectVariableName + ")" + relationship + "(" + endNodeObjectVariableName + ") ");
+			Map<String, Object> paramValuesMap = getRelationParamValuesMap(startNodeId, endNodeId);
 
 			if (null == metadata)
 				metadata = new HashMap<String, Object>();
@@ -618,9 +621,7 @@ public class GraphQueryGenerationUtil extends BaseQueryGenerationUtil {
 				query.append("ON CREATE SET ").append(metadataQueryMap.get(GraphDACParams.query.name()))
 						.append(CypherQueryConfigurationConstants.BLANK_SPACE);
 
-				parameterMap.put(GraphDACParams.paramValueMap.name(),
-						metadataQueryMap.get(GraphDACParams.paramValueMap.name()));
-
+				paramValuesMap.putAll((Map<String, Object>) metadataQueryMap.get(GraphDACParams.paramValueMap.name()));
 			}
 
 			// ON MATCH CLAUSE
@@ -629,12 +630,9 @@ public class GraphQueryGenerationUtil extends BaseQueryGenerationUtil {
 				query.append("ON MATCH SET ").append(metadataQueryMap.get(GraphDACParams.query.name()))
 						.append(CypherQueryConfigurationConstants.BLANK_SPACE);
 
-				Map<String, Object> mpm = (Map<String, Object>) metadataQueryMap
-						.get(GraphDACParams.paramValueMap.name());
-				if (parameterMap.get(GraphDACParams.paramValueMap.name()) != null)
-					mpm.putAll((Map<String, Object>) parameterMap.get(GraphDACParams.paramValueMap.name()));
-				parameterMap.put(GraphDACParams.paramValueMap.name(), mpm);
+				paramValuesMap.putAll((Map<String, Object>) metadataQueryMap.get(GraphDACParams.paramValueMap.name()));
 			}
+			parameterMap.put(GraphDACParams.paramValueMap.name(), paramValuesMap);
 			parameterMap.put(GraphDACParams.query.name(), query.toString());
 			TelemetryManager.log("Returning 'Create Relation' Cypher Query: " + query);
 		}
@@ -702,9 +700,10 @@ public class GraphQueryGenerationUtil extends BaseQueryGenerationUtil {
 				relationship = "-[r:" + relationType + "]-";
 
 			query.append("MATCH (" + startNodeObjectVariableName + ":" + graphId + " { "
-					+ SystemProperties.IL_UNIQUE_ID.name() + ": '" + startNodeId + "' })" + relationship + "("
-					+ endNodeObjectVariableName + ":" + graphId + " { " + SystemProperties.IL_UNIQUE_ID.name() + ": '"
-					+ endNodeId + "' }) ");
+					+ SystemProperties.IL_UNIQUE_ID.name() + ": {startNodeId} })" + relationship + "("
+					+ endNodeObjectVariableName + ":" + graphId + " { " + SystemProperties.IL_UNIQUE_ID.name()
+					+ ": {endNodeId} }) ");
+			Map<String, Object> paramValuesMap = getRelationParamValuesMap(startNodeId, endNodeId);
 
 			// SET CLAUSE
 			if (null != metadata && !metadata.isEmpty()) {
@@ -712,9 +711,9 @@ public class GraphQueryGenerationUtil extends BaseQueryGenerationUtil {
 				query.append("SET ").append(metadataQueryMap.get(GraphDACParams.query.name()))
 						.append(CypherQueryConfigurationConstants.BLANK_SPACE);
 
-				parameterMap.put(GraphDACParams.paramValueMap.name(),
-						metadataQueryMap.get(GraphDACParams.paramValueMap.name()));
+				paramValuesMap.putAll((Map<String, Object>) metadataQueryMap.get(GraphDACParams.paramValueMap.name()));
 			}
+			parameterMap.put(GraphDACParams.paramValueMap.name(), paramValuesMap);
 			parameterMap.put(GraphDACParams.query.name(), query.toString());
 			TelemetryManager.log("'Update Relation' Cypher Query: " + query);
 		}
@@ -763,13 +762,24 @@ public class GraphQueryGenerationUtil extends BaseQueryGenerationUtil {
 			else if (direction == RelationshipDirection.BIDIRECTIONAL)
 				relationship = "-[r:" + relationType + "]-";
 
-			query.append("MATCH (a:" + graphId + " {" + SystemProperties.IL_UNIQUE_ID.name() + ": '" + startNodeId
-					+ "'})" + relationship + "(b:" + graphId + " {" + SystemProperties.IL_UNIQUE_ID.name() + ": '"
-					+ endNodeId + "'}) REMOVE r." + key).append(CypherQueryConfigurationConstants.BLANK_SPACE);
+			query.append("MATCH (a:" + graphId + " {" + SystemProperties.IL_UNIQUE_ID.name() + ": {startNodeId}})"
+					+ relationship + "(b:" + graphId + " {" + SystemProperties.IL_UNIQUE_ID.name()
+					+ ": {endNodeId}}) REMOVE r." + key).append(CypherQueryConfigurationConstants.BLANK_SPACE);
 		}
 		return query.toString();
 	}
 
+	/**
+	 * @return the parameters of the start and end node of a relation query,
+	 *         the metadata parameters are added to it
+	 */
+	private static Map<String, Object> getRelationParamValuesMap(String startNodeId, String endNodeId) {
+		Map<String, Object> paramValuesMap = new HashMap<String, Object>();
+		paramValuesMap.put("startNodeId", startNodeId);
+		paramValuesMap.put("endNodeId", endNodeId);
+		return paramValuesMap;
+	}
+
 	private static List<Relationship> getAllRelationships(String graphId, String startNodeId,
 			RelationshipDirection direction) {
 		List<Relationship> relationships = new ArrayList<Relationship>();
@@ -779,8 +789,8 @@ public class GraphQueryGenerationUtil extends BaseQueryGenerationUtil {
 			try (Session session = driver.session()) {
 				TelemetryManager.log("Session Initialised. | [Graph Id: " + graphId + "]");
 
-				StatementResult result = session
-						.run(generateGetAllRelationsCypherQuery(graphId, startNodeId, direction));
+				StatementResult result = session.run(generateGetAllRelationsCypherQuery(graphId, startNodeId, direction),
+						Collections.<String, Object>singletonMap("startNodeId", startNodeId));
 				for (Record record : result.list()) {
 					relationships.add(record.get("r").asRelationship());
 				}
@@ -794,14 +804,14 @@ public class GraphQueryGenerationUtil extends BaseQueryGenerationUtil {
 		StringBuilder query = new StringBuilder();
 		if (StringUtils.isNotBlank(graphId) && StringUtils.isNotBlank(startNodeId)) {
 			if (direction == RelationshipDirection.INCOMING)
-				query.append("MATCH (ee:" + graphId + " {" + SystemProperties.IL_UNIQUE_ID.name() + ": '" + startNodeId
-						+ "'})<-[r]-() RETURN r");
+				query.append("MATCH (ee:" + graphId + " {" + SystemProperties.IL_UNIQUE_ID.name()
+						+ ": {startNodeId}})<-[r]-() RETURN r");
 			else if (direction == RelationshipDirection.OUTGOING)
-				query.append("MATCH (ee:" + graphId + " {" + SystemProperties.IL_UNIQUE_ID.name() + ": '" + startNodeId
-						+ "'})-[r]->() RETURN r");
+				query.append("MATCH (ee:" + graphId + " {" + SystemProperties.IL_UNIQUE_ID.name()
+						+ ": {startNodeId}})-[r]->() RETURN r");
 			else if (direction == RelationshipDirection.BIDIRECTIONAL)
-				query.append("MATCH (ee:" + graphId + " {" + SystemProperties.IL_UNIQUE_ID.name() + ": '" + startNodeId
-						+ "'})-[r]-() RETURN r");
+				query.append("MATCH (ee:" + graphId + " {" + SystemProperties.IL_UNIQUE_ID.name()
+						+ ": {startNodeId}})-[r]-() RETURN r");
 		}
 		return query.toString();
 	}
@@ -2,26 +2,60 @@ package org.ekstep.graph.service.util;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.ekstep.common.Platform;
-import org.ekstep.graph.cache.util.CacheKeyGenerator;
-import org.ekstep.telemetry.logger.TelemetryManager;
 
 /**
  * The Class LocalCache, is used to cache any object in current java instance
  * local heap until the cached object time to live(ttl) expired as per
- * configured ttl
+ * configured ttl.
+ *
+ * Reads are lock-free (backed by {@link ConcurrentHashMap}), expired entries
+ * are removed by a background sweeper and the number of entries is bounded by
+ * <code>platform.cache.max_size</code>. When the cache is full the least
+ * recently used entries are evicted, approximated with a clock (second chance)
+ * queue so that a write does not scan the cache. Definition node properties are kept in
+ * nested maps keyed by graphId, objectType and property so that a cache hit
+ * does not build a key.
  *
  * @author karthik
  */
 public class LocalCache {
 
 	/** The cache map. */
-	private static Map<String, CacheObject> cacheMap = null;
+	private static final Map<String, CacheObject> cacheMap = new ConcurrentHashMap<>();
+
+	/** The definition node property map, graphId -> objectType -> property. */
+	private static final Map<String, Map<String, Map<String, CacheObject>>> defNodePropertyMap = new ConcurrentHashMap<>();
+
+	/** The entries in the order they are considered for eviction. */
+	private static final Queue<EvictionEntry> evictionQueue = new ConcurrentLinkedQueue<>();
 
 	/** The ttl. */
 	private static long ttl = 36000000; // default 10 hour
 
+	/** The max number of cached entries. */
+	private static int maxSize = 10000;
+
+	/** The sweeper interval in seconds. */
+	private static long sweepInterval = 60;
+
+	private static final AtomicInteger size = new AtomicInteger();
+	private static final LongAdder hits = new LongAdder();
+	private static final LongAdder misses = new LongAdder();
+	private static final LongAdder evictions = new LongAdder();
+	private static final LongAdder expirations = new LongAdder();
+
+	private static ScheduledExecutorService sweeper = null;
+
 	/**
 	 * The Class CacheObject.
 	 *
@@ -30,10 +64,13 @@ public class LocalCache {
 	protected static class CacheObject {
 
 		/** The create on. */
-		public long createOn = System.currentTimeMillis();
+		public final long createOn = System.currentTimeMillis();
 
 		/** The value. */
-		public Object value;
+		public final Object value;
+
+		/** Set when the object is read, cleared when it gets a second chance. */
+		private volatile boolean accessed;
 
 		/**
 		 * Instantiates a new cache object.
@@ -43,7 +80,29 @@ public class LocalCache {
 		 */
 		protected CacheObject(Object value) {
 			this.value = value;
-			TelemetryManager.log("Local cache object value=" + value.toString() + "createOn=" + createOn);
+		}
+
+		private boolean isExpired(long now) {
+			return now - createOn > ttl;
+		}
+	}
+
+	private static class EvictionEntry {
+		final Map<String, CacheObject> map;
+		final String key;
+		final CacheObject object;
+
+		EvictionEntry(Map<String, CacheObject> map, String key, CacheObject object) {
+			this.map = map;
+			this.key = key;
+			this.object = object;
+		}
+
+		/**
+		 * @return false if the object was replaced or removed since it was queued
+		 */
+		boolean isCurrent() {
+			return map.get(key) == object;
 		}
 	}
 
@@ -54,9 +113,20 @@ public class LocalCache {
 	/**
 	 * Inits the.
 	 */
-	public static void init() {
-		cacheMap = new HashMap<String, CacheObject>();
-		setTTL();
+	public static synchronized void init() {
+		cacheMap.clear();
+		defNodePropertyMap.clear();
+		evictionQueue.clear();
+		size.set(0);
+		setConfig();
+		if (null == sweeper) {
+			sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+				Thread thread = new Thread(runnable, "local-cache-sweeper");
+				thread.setDaemon(true);
+				return thread;
+			});
+			sweeper.scheduleWithFixedDelay(LocalCache::sweep, sweepInterval, sweepInterval, TimeUnit.SECONDS);
+		}
 	}
 
 	/**
@@ -67,20 +137,7 @@ public class LocalCache {
 	 * @return the object
 	 */
 	public static Object get(String key) {
-		CacheObject c = (CacheObject) cacheMap.get(key);
-
-		if (c == null)
-			return null;
-		else {
-			long now = System.currentTimeMillis();
-			if (now - c.createOn > ttl) {
-				TelemetryManager.log("Local cache object value=" + c.value.toString() + "createOn=" + c.createOn
-						+ " is expired now");
-				cacheMap.remove(key);
-				return null;
-			}
-			return c.value;
-		}
+		return get(cacheMap, key);
 	}
 
 	/**
@@ -92,21 +149,7 @@ public class LocalCache {
 	 *            the value
 	 */
 	public static void set(String key, Object value) {
-
-		CacheObject cacheObj = new CacheObject(value);
-		cacheMap.put(key, cacheObj);
-		TelemetryManager.log("Local cache object value=" + cacheObj.value.toString() + "cacheObj.createOn="
-				+ cacheObj.createOn + " is set now");
-	}
-
-	/**
-	 * sets the ttl.
-	 *
-	 * @return the ttl
-	 */
-	private static void setTTL() {
-		if(Platform.config.hasPath("platform.cache.ttl"))
-			ttl = Long.parseLong(Platform.config.getString("platform.cache.ttl"));
+		set(cacheMap, key, value);
 	}
 
 	/**
@@ -121,7 +164,13 @@ public class LocalCache {
 	 * @return the def node property
 	 */
 	public static String getDefNodeProperty(String graphId, String objectType, String nodeProperty) {
-		Object value = get(getDefNodePropertyKey(graphId, objectType, nodeProperty));
+		Map<String, Map<String, CacheObject>> graphMap = defNodePropertyMap.get(graphId);
+		Map<String, CacheObject> properties = (null == graphMap) ? null : graphMap.get(objectType);
+		if (null == properties) {
+			misses.increment();
+			return null;
+		}
+		Object value = get(properties, nodeProperty);
 		return value == null ? null : value.toString();
 	}
 
@@ -138,22 +187,128 @@ public class LocalCache {
 	 *            the prop value
 	 */
 	public static void setDefNodeProperty(String graphId, String objectType, String nodeProperty, String propValue) {
-		set(getDefNodePropertyKey(graphId, objectType, nodeProperty), propValue);
+		Map<String, CacheObject> properties = defNodePropertyMap
+				.computeIfAbsent(graphId, k -> new ConcurrentHashMap<>())
+				.computeIfAbsent(objectType, k -> new ConcurrentHashMap<>());
+		set(properties, nodeProperty, propValue);
 	}
 
 	/**
-	 * Gets the def node property key.
+	 * Deletes the cached properties of the definition node, to be called when
+	 * the definition is updated.
 	 *
 	 * @param graphId
 	 *            the graph id
 	 * @param objectType
 	 *            the object type
-	 * @param nodeProperty
-	 *            the node property
-	 * @return the def node property key
 	 */
-	private static String getDefNodePropertyKey(String graphId, String objectType, String nodeProperty) {
-		String key = CacheKeyGenerator.getNodePropertyKey(graphId, objectType, nodeProperty);
-		return key;
+	public static void deleteDefNodeProperties(String graphId, String objectType) {
+		Map<String, Map<String, CacheObject>> graphMap = defNodePropertyMap.get(graphId);
+		Map<String, CacheObject> properties = (null == graphMap) ? null : graphMap.remove(objectType);
+		if (null != properties) {
+			size.addAndGet(-properties.size());
+			// the queued entries of the removed map are no longer current.
+			properties.clear();
+		}
+	}
+
+	/**
+	 * Gets the cache counters.
+	 *
+	 * @return the stats
+	 */
+	public static Map<String, Object> getStats() {
+		Map<String, Object> stats = new HashMap<>();
+		stats.put("size", size.get());
+		stats.put("maxSize", maxSize);
+		stats.put("hits", hits.sum());
+		stats.put("misses", misses.sum());
+		stats.put("evictions", evictions.sum());
+		stats.put("expirations", expirations.sum());
+		return stats;
+	}
+
+	private static Object get(Map<String, CacheObject> map, String key) {
+		CacheObject c = map.get(key);
+		if (null == c) {
+			misses.increment();
+			return null;
+		}
+		if (c.isExpired(System.currentTimeMillis())) {
+			if (map.remove(key, c)) {
+				size.decrementAndGet();
+				expirations.increment();
+			}
+			misses.increment();
+			return null;
+		}
+		hits.increment();
+		if (!c.accessed)
+			c.accessed = true;
+		return c.value;
+	}
+
+	private static void set(Map<String, CacheObject> map, String key, Object value) {
+		CacheObject object = new CacheObject(value);
+		CacheObject previous = map.put(key, object);
+		evictionQueue.offer(new EvictionEntry(map, key, object));
+		if (null == previous && size.incrementAndGet() > maxSize)
+			evict();
+	}
+
+	/**
+	 * Evicts the first queued entry which was not read since it was queued or
+	 * last given a second chance. Expired entries are left to the sweeper.
+	 */
+	private static void evict() {
+		EvictionEntry entry;
+		while (null != (entry = evictionQueue.poll())) {
+			if (!entry.isCurrent())
+				continue;
+			if (entry.object.accessed) {
+				entry.object.accessed = false;
+				evictionQueue.offer(entry);
+				continue;
+			}
+			if (entry.map.remove(entry.key, entry.object)) {
+				size.decrementAndGet();
+				evictions.increment();
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Removes the expired entries and the queued entries of the objects which
+	 * were replaced or removed.
+	 */
+	private static void sweep() {
+		long now = System.currentTimeMillis();
+		removeExpired(cacheMap, now);
+		for (Map<String, Map<String, CacheObject>> graphMap : defNodePropertyMap.values())
+			for (Map<String, CacheObject> properties : graphMap.values())
+				removeExpired(properties, now);
+		evictionQueue.removeIf(entry -> !entry.isCurrent());
+	}
+
+	private static void removeExpired(Map<String, CacheObject> map, long now) {
+		for (Map.Entry<String, CacheObject> entry : map.entrySet()) {
+			if (entry.getValue().isExpired(now) && map.remove(entry.getKey(), entry.getValue())) {
+				size.decrementAndGet();
+				expirations.increment();
+			}
+		}
+	}
+
+	/**
+	 * sets the ttl, max size and sweeper interval.
+	 */
+	private static void setConfig() {
+		if(Platform.config.hasPath("platform.cache.ttl"))
+			ttl = Long.parseLong(Platform.config.getString("platform.cache.ttl"));
+		if (Platform.config.hasPath("platform.cache.max_size"))
+			maxSize = Platform.config.getInt("platform.cache.max_size");
+		if (Platform.config.hasPath("platform.cache.sweep_interval"))
+			sweepInterval = Platform.config.getLong("platform.cache.sweep_interval");
 	}
 }
@@ -491,8 +491,8 @@ public class NodeQueryGenerationUtil extends BaseQueryGenerationUtil {
 						DACErrorMessageConstants.INVALID_IDENTIFIER
 								+ " | [Remove Property Values Query Generation Failed.]");
 
-			query.append("MATCH (a:" + graphId + " {" + SystemProperties.IL_UNIQUE_ID.name() + ": '" + nodeId
-					+ "'}) DETACH DELETE a");
+			query.append("MATCH (a:" + graphId + " {" + SystemProperties.IL_UNIQUE_ID.name()
+					+ ": {nodeId}}) DETACH DELETE a");
 		}
 
 		TelemetryManager.log("Returning Create Node Cypher Query: " + query);
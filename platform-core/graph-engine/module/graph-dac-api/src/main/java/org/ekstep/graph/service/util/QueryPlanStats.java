@@ -0,0 +1,91 @@
+package org.ekstep.graph.service.util;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.ekstep.common.Platform;
+
+/**
+ * Estimated plan cache statistics of the Cypher queries sent to Neo4j.
+ *
+ * The bolt protocol does not report whether a query was planned or served
+ * from the plan cache, so the hit ratio is estimated on this side: the query
+ * texts are kept in an LRU of <code>graph.query.plan_cache.size</code>
+ * entries, mirroring the server side <code>dbms.query_cache_size</code>, and a
+ * text found there counts as a hit. The server may still evict or replan a
+ * query (e.g. after the statistics of a label change), so the figures are
+ * client side estimates and are reported as such.
+ */
+public class QueryPlanStats {
+
+	public static final String ADHOC_QUERY = "adhoc";
+
+	static final int PLAN_CACHE_SIZE = Platform.config.hasPath("graph.query.plan_cache.size")
+			? Platform.config.getInt("graph.query.plan_cache.size") : 1000;
+
+	private static final Map<String, Boolean> queries = Collections
+			.synchronizedMap(new LinkedHashMap<String, Boolean>(16, 0.75f, true) {
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+					return size() > PLAN_CACHE_SIZE;
+				}
+			});
+	private static final Map<String, AtomicLong[]> counters = new ConcurrentHashMap<String, AtomicLong[]>();
+	private static final AtomicLong executions = new AtomicLong();
+	private static final AtomicLong hits = new AtomicLong();
+
+	/**
+	 * Records the execution of a query.
+	 *
+	 * @param name
+	 *            the name of the template of the query, {@link #ADHOC_QUERY}
+	 *            for the queries built by the callers
+	 */
+	public static void record(String name, String query) {
+		executions.incrementAndGet();
+		boolean hit = null != queries.put(query, Boolean.TRUE);
+		if (hit)
+			hits.incrementAndGet();
+		AtomicLong[] counter = counters.computeIfAbsent(name, key -> new AtomicLong[] { new AtomicLong(), new AtomicLong() });
+		counter[0].incrementAndGet();
+		if (!hit)
+			counter[1].incrementAndGet();
+	}
+
+	public static Map<String, Object> getStats() {
+		Map<String, Object> stats = new HashMap<String, Object>();
+		long total = executions.get();
+		long hitCount = hits.get();
+		stats.put("estimated", true);
+		stats.put("executions", total);
+		stats.put("estimatedPlanCacheHits", hitCount);
+		stats.put("estimatedPlanCacheMisses", total - hitCount);
+		stats.put("estimatedPlanCacheHitRatio", total == 0 ? 0.0 : (double) hitCount / total);
+		Map<String, Object> templates = new HashMap<String, Object>();
+		for (Map.Entry<String, AtomicLong[]> entry : counters.entrySet()) {
+			Map<String, Object> template = new HashMap<String, Object>();
+			long templateExecutions = entry.getValue()[0].get();
+			long misses = entry.getValue()[1].get();
+			template.put("executions", templateExecutions);
+			template.put("estimatedPlanCacheMisses", misses);
+			template.put("estimatedPlanCacheHitRatio",
+					templateExecutions == 0 ? 0.0 : (double) (templateExecutions - misses) / templateExecutions);
+			templates.put(entry.getKey(), template);
+		}
+		stats.put("queries", templates);
+		return stats;
+	}
+
+	public static void reset() {
+		queries.clear();
+		counters.clear();
+		executions.set(0);
+		hits.set(0);
+	}
+}
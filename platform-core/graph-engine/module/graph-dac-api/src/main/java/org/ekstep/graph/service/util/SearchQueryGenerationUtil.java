@@ -15,6 +15,13 @@ import org.neo4j.driver.v1.exceptions.ClientException;
 
 public class SearchQueryGenerationUtil {
 
+	public static final CypherTemplate GET_NODE_BY_ID = new CypherTemplate("getNodeById",
+			"MATCH (ee:" + CypherTemplate.GRAPH_ID + ") WHERE id(ee) = {nodeId}"
+					+ " OPTIONAL MATCH (ee)-[r]-() RETURN ee, r, startNode(r) as __startNode, endNode(r) as __endNode");
+	public static final CypherTemplate GET_NODE_BY_UNIQUE_ID = new CypherTemplate("getNodeByUniqueId",
+			"MATCH (ee:" + CypherTemplate.GRAPH_ID + " {" + SystemProperties.IL_UNIQUE_ID.name() + ": {nodeId}})"
+					+ " OPTIONAL MATCH (ee)-[r]-() RETURN ee, r, startNode(r) as __startNode, endNode(r) as __endNode");
+
 	public static String generateGetNodeByIdCypherQuery(Map<String, Object> parameterMap) {
 		StringBuilder query = new StringBuilder();
 		if (null != parameterMap) {
@@ -28,8 +35,7 @@ public class SearchQueryGenerationUtil {
 				throw new ClientException(DACErrorCodeConstants.INVALID_IDENTIFIER.name(),
 						DACErrorMessageConstants.INVALID_NODE_ID + " | ['Get Node By Id' Query Generation Failed.]");
 
-			query.append("MATCH (ee:" + graphId + ") WHERE id(ee) = " + nodeId
-					+ " OPTIONAL MATCH (ee)-[r]-() RETURN ee, r, startNode(r) as __startNode, endNode(r) as __endNode");
+			query.append(GET_NODE_BY_ID.getQuery(graphId));
 
 		}
 
@@ -52,8 +58,7 @@ public class SearchQueryGenerationUtil {
 						DACErrorMessageConstants.INVALID_IDENTIFIER
 								+ " | ['Get Node By Unique Id' Query Generation Failed.]");
 
-			query.append("MATCH (ee:" + graphId + " {" + SystemProperties.IL_UNIQUE_ID.name() + ": '" + nodeId
-					+ "'}) OPTIONAL MATCH (ee)-[r]-() RETURN ee, r, startNode(r) as __startNode, endNode(r) as __endNode");
+			query.append(GET_NODE_BY_UNIQUE_ID.getQuery(graphId));
 
 		}
 
@@ -76,9 +81,8 @@ public class SearchQueryGenerationUtil {
 						DACErrorMessageConstants.INVALID_PROPERTY
 								+ " | ['Get Nodes By Property' Query Generation Failed.]");
 
-			query.append("MATCH (ee:" + graphId + " {" + property.getPropertyName() + ": '"
-					+ property.getPropertyValue()
-					+ "'}) OPTIONAL MATCH (ee)-[r]-() RETURN ee, r, startNode(r) as __startNode, endNode(r) as __endNode");
+			query.append("MATCH (ee:" + graphId + " {" + property.getPropertyName()
+					+ ": {value}}) OPTIONAL MATCH (ee)-[r]-() RETURN ee, r, startNode(r) as __startNode, endNode(r) as __endNode");
 		}
 
 		TelemetryManager.log("Returning Get Nodes By Property Cypher Query: " + query);
@@ -129,8 +133,8 @@ public class SearchQueryGenerationUtil {
 						DACErrorMessageConstants.INVALID_PROPERTY_KEY
 								+ " | ['Get Node Property' Query Generation Failed.]");
 
-			query.append("MATCH (ee:" + graphId + " {" + SystemProperties.IL_UNIQUE_ID.name() + ": '" + nodeId
-					+ "'}) OPTIONAL MATCH (ee)-[r]-() RETURN ee." + key + " as " + key + "");
+			query.append("MATCH (ee:" + graphId + " {" + SystemProperties.IL_UNIQUE_ID.name()
+					+ ": {nodeId}}) OPTIONAL MATCH (ee)-[r]-() RETURN ee." + key + " as " + key + "");
 		}
 
 		TelemetryManager.log("Returning Get Node Property Cypher Query: " + query);
@@ -170,6 +174,48 @@ public class SearchQueryGenerationUtil {
 		return query.toString();
 	}
 
+	/**
+	 * Page of the nodes after an internal id with their relations. There is no
+	 * index on the internal id, every page scans the graph label and keeps the
+	 * top <code>limit</code> ids.
+	 */
+	public static String generateGetNodesPageCypherQuery(Map<String, Object> parameterMap) {
+		StringBuilder query = new StringBuilder();
+		if (null != parameterMap) {
+			String graphId = (String) parameterMap.get(GraphDACParams.graphId.name());
+			if (StringUtils.isBlank(graphId))
+				throw new ClientException(DACErrorCodeConstants.INVALID_GRAPH.name(),
+						DACErrorMessageConstants.INVALID_GRAPH_ID + " | ['Get Nodes Page' Query Generation Failed.]");
+
+			query.append("MATCH (ee:" + graphId + ") WHERE id(ee) > {afterId} WITH ee ORDER BY id(ee) LIMIT {limit}"
+					+ " OPTIONAL MATCH (ee)-[r]-() RETURN ee, r, startNode(r) as __startNode, endNode(r) as __endNode");
+		}
+
+		TelemetryManager.log("Returning Get Nodes Page Cypher Query: " + query);
+		return query.toString();
+	}
+
+	/**
+	 * Page of the relations after an internal id, every page scans the
+	 * relations of the graph label and keeps the top <code>limit</code> ids.
+	 */
+	public static String generateGetRelationsPageCypherQuery(Map<String, Object> parameterMap) {
+		StringBuilder query = new StringBuilder();
+		if (null != parameterMap) {
+			String graphId = (String) parameterMap.get(GraphDACParams.graphId.name());
+			if (StringUtils.isBlank(graphId))
+				throw new ClientException(DACErrorCodeConstants.INVALID_GRAPH.name(),
+						DACErrorMessageConstants.INVALID_GRAPH_ID
+								+ " | ['Get Relations Page' Query Generation Failed.]");
+
+			query.append("MATCH (ee:" + graphId + ")-[r]->(aa:" + graphId + ") WHERE id(r) > {afterId}"
+					+ " RETURN r, startNode(r) as __startNode, endNode(r) as __endNode ORDER BY id(r) LIMIT {limit}");
+		}
+
+		TelemetryManager.log("Returning Get Relations Page Cypher Query: " + query);
+		return query.toString();
+	}
+
 	public static String generateGetRelationPropertyCypherQuery(Map<String, Object> parameterMap) {
 		StringBuilder query = new StringBuilder();
 		if (null != parameterMap) {
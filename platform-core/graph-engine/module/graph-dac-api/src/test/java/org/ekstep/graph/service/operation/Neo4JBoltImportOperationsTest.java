@@ -0,0 +1,144 @@
+package org.ekstep.graph.service.operation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.ekstep.graph.dac.enums.SystemProperties;
+import org.ekstep.graph.dac.model.Node;
+import org.ekstep.graph.dac.model.Relation;
+import org.ekstep.graph.service.operation.Neo4JBoltImportOperations.RelationDiff;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class Neo4JBoltImportOperationsTest {
+
+	private static final String SEQUENCE = "hasSequenceMember";
+	private static final String ASSOCIATED = "associatedTo";
+
+	@Test
+	public void testDiffCreatesUpdatesAndDeletesRelations() {
+		Map<String, Node> nodes = getNodes(getNode("do_1", relation("do_1", SEQUENCE, "do_2", 1),
+				relation("do_1", ASSOCIATED, "do_3", null), relation("do_1", ASSOCIATED, "do_5", null)));
+		Map<String, Map<String, Set<String>>> existing = new HashMap<String, Map<String, Set<String>>>();
+		addExisting(existing, "do_1", SEQUENCE, "do_2", "do_4");
+		addExisting(existing, "do_1", ASSOCIATED, "do_3");
+
+		RelationDiff diff = Neo4JBoltImportOperations.diffRelations(nodes, existing);
+		Assert.assertEquals(Arrays.asList("do_2"), getEndNodeIds(diff.updateRows, SEQUENCE));
+		Assert.assertEquals(Arrays.asList("do_4"), getEndNodeIds(diff.deleteRows, SEQUENCE));
+		Assert.assertEquals(Arrays.asList("do_5"), getEndNodeIds(diff.createRows, ASSOCIATED));
+		// unchanged relation without metadata is neither updated nor created.
+		Assert.assertNull(diff.updateRows.get(ASSOCIATED));
+		Assert.assertNull(diff.createRows.get(SEQUENCE));
+		Assert.assertEquals(1, Neo4JBoltImportOperations.countRows(diff.deleteRows));
+	}
+
+	@Test
+	public void testDiffOfNodesWithoutRelationsList() {
+		Node cleared = getNode("do_1");
+		Node untouched = getNode("do_2");
+		untouched.setOutRelations(null);
+		Map<String, Map<String, Set<String>>> existing = new HashMap<String, Map<String, Set<String>>>();
+		addExisting(existing, "do_1", ASSOCIATED, "do_3", "do_4");
+		addExisting(existing, "do_2", ASSOCIATED, "do_3");
+
+		RelationDiff diff = Neo4JBoltImportOperations.diffRelations(getNodes(cleared, untouched), existing);
+		Assert.assertEquals(Arrays.asList("do_1"), Neo4JBoltImportOperations.getStartNodeIds(getNodes(cleared, untouched)));
+		Assert.assertEquals(2, Neo4JBoltImportOperations.countRows(diff.deleteRows));
+		Assert.assertTrue(diff.createRows.isEmpty());
+		Assert.assertTrue(diff.updateRows.isEmpty());
+	}
+
+	@Test
+	public void testDiffKeepsTheLastRelationToAnEndNode() {
+		Map<String, Node> nodes = getNodes(getNode("do_1", relation("do_1", SEQUENCE, "do_2", 1),
+				relation("do_1", SEQUENCE, "do_2", 2)));
+		RelationDiff diff = Neo4JBoltImportOperations.diffRelations(nodes,
+				new HashMap<String, Map<String, Set<String>>>());
+		List<Map<String, Object>> rows = diff.createRows.get(SEQUENCE);
+		Assert.assertEquals(1, rows.size());
+		Assert.assertEquals(2, getMetadata(rows.get(0)).get(SystemProperties.IL_SEQUENCE_INDEX.name()));
+	}
+
+	@Test
+	public void testRelationsToMissingNodesAreRemovedWithMessage() {
+		Map<String, Node> nodes = getNodes(getNode("do_1", relation("do_1", ASSOCIATED, "do_2", null),
+				relation("do_1", ASSOCIATED, "do_3", null), relation("do_1", ASSOCIATED, "do_4", null)),
+				getNode("do_2"));
+		RelationDiff diff = Neo4JBoltImportOperations.diffRelations(nodes,
+				new HashMap<String, Map<String, Set<String>>>());
+		Set<String> unknown = Neo4JBoltImportOperations.getUnknownEndNodeIds(nodes, diff.createRows);
+		Assert.assertEquals(new HashSet<String>(Arrays.asList("do_3", "do_4")), unknown);
+
+		// do_3 exists in the graph, do_4 does not.
+		Map<String, List<String>> messages = new HashMap<String, List<String>>();
+		Neo4JBoltImportOperations.removeMissingEndNodes(diff.createRows, new HashSet<String>(Arrays.asList("do_4")),
+				messages);
+		Assert.assertEquals(Arrays.asList("do_2", "do_3"), getEndNodeIds(diff.createRows, ASSOCIATED));
+		Assert.assertEquals(1, messages.get("do_1").size());
+		Assert.assertTrue(messages.get("do_1").get(0).contains("do_4"));
+	}
+
+	@Test
+	public void testSequenceRowsWithoutIndexAreTakenOutOfTheBatch() {
+		Map<String, Node> nodes = getNodes(getNode("do_1", relation("do_1", SEQUENCE, "do_2", 1),
+				relation("do_1", SEQUENCE, "do_3", null), relation("do_1", ASSOCIATED, "do_4", null)));
+		RelationDiff diff = Neo4JBoltImportOperations.diffRelations(nodes,
+				new HashMap<String, Map<String, Set<String>>>());
+
+		Map<String, List<Map<String, Object>>> sequenceRows = Neo4JBoltImportOperations
+				.takeSequenceRows(diff.createRows);
+		Assert.assertEquals(Arrays.asList("do_3"), getEndNodeIds(sequenceRows, SEQUENCE));
+		Assert.assertEquals(Arrays.asList("do_2"), getEndNodeIds(diff.createRows, SEQUENCE));
+		Assert.assertEquals(Arrays.asList("do_4"), getEndNodeIds(diff.createRows, ASSOCIATED));
+	}
+
+	private Node getNode(String identifier, Relation... relations) {
+		Node node = new Node(identifier, "DATA_NODE", "Content");
+		node.setOutRelations(new ArrayList<Relation>(Arrays.asList(relations)));
+		return node;
+	}
+
+	private Map<String, Node> getNodes(Node... nodes) {
+		Map<String, Node> map = new LinkedHashMap<String, Node>();
+		for (Node node : nodes)
+			map.put(node.getIdentifier(), node);
+		return map;
+	}
+
+	private Relation relation(String startNodeId, String relationType, String endNodeId, Integer index) {
+		Relation relation = new Relation(startNodeId, relationType, endNodeId);
+		if (null != index) {
+			Map<String, Object> metadata = new HashMap<String, Object>();
+			metadata.put(SystemProperties.IL_SEQUENCE_INDEX.name(), index);
+			relation.setMetadata(metadata);
+		}
+		return relation;
+	}
+
+	private void addExisting(Map<String, Map<String, Set<String>>> existing, String startNodeId,
+			String relationType, String... endNodeIds) {
+		existing.computeIfAbsent(startNodeId, k -> new HashMap<String, Set<String>>())
+				.computeIfAbsent(relationType, k -> new HashSet<String>()).addAll(Arrays.asList(endNodeIds));
+	}
+
+	private List<String> getEndNodeIds(Map<String, List<Map<String, Object>>> rows, String relationType) {
+		List<String> ids = new ArrayList<String>();
+		if (null != rows.get(relationType)) {
+			for (Map<String, Object> row : rows.get(relationType))
+				ids.add((String) row.get("endNodeId"));
+		}
+		return ids;
+	}
+
+	@SuppressWarnings("unchecked")
+	private Map<String, Object> getMetadata(Map<String, Object> row) {
+		return (Map<String, Object>) row.get("metadata");
+	}
+}
@@ -0,0 +1,47 @@
+package org.ekstep.graph.service.util;
+
+import java.util.Collections;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.neo4j.driver.v1.Session;
+
+public class CypherTemplateTest {
+
+	private CypherTemplate template = new CypherTemplate("getNodeByUniqueId",
+			"MATCH (ee:" + CypherTemplate.GRAPH_ID + " {IL_UNIQUE_ID: {nodeId}}) RETURN ee");
+
+	@Before
+	public void reset() {
+		QueryPlanStats.reset();
+	}
+
+	@Test
+	public void testOnlyTheGraphLabelIsSubstituted() {
+		Assert.assertEquals("MATCH (ee:domain {IL_UNIQUE_ID: {nodeId}}) RETURN ee", template.getQuery("domain"));
+		Assert.assertEquals("MATCH (ee:en {IL_UNIQUE_ID: {nodeId}}) RETURN ee", template.getQuery("en"));
+	}
+
+	@Test
+	public void testQueryTextIsConstantPerGraph() {
+		Assert.assertSame(template.getQuery("domain"), template.getQuery("domain"));
+	}
+
+	@Test
+	public void testRunPassesTheParametersAndRecordsTheQuery() {
+		Session session = Mockito.mock(Session.class);
+		Map<String, Object> params = Collections.<String, Object>singletonMap("nodeId", "do_1");
+		template.run(session, "domain", params);
+		template.run(session, "domain", Collections.<String, Object>singletonMap("nodeId", "do_2"));
+
+		Mockito.verify(session).run("MATCH (ee:domain {IL_UNIQUE_ID: {nodeId}}) RETURN ee", params);
+		Map<String, Object> stats = QueryPlanStats.getStats();
+		Assert.assertEquals(2L, stats.get("executions"));
+		// the second id reuses the text, and so the plan, of the first one.
+		Assert.assertEquals(1L, stats.get("estimatedPlanCacheHits"));
+		Assert.assertTrue(((Map<?, ?>) stats.get("queries")).containsKey("getNodeByUniqueId"));
+	}
+}
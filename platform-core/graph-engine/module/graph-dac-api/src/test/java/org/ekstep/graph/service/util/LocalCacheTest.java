@@ -0,0 +1,51 @@
+package org.ekstep.graph.service.util;
+
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class LocalCacheTest {
+
+	@Before
+	public void setUp() {
+		LocalCache.init();
+	}
+
+	@Test
+	public void testSetAndGet() {
+		LocalCache.set("key_1", "value_1");
+		Assert.assertEquals("value_1", LocalCache.get("key_1"));
+		Assert.assertNull(LocalCache.get("key_2"));
+	}
+
+	@Test
+	public void testSetAndGetDefNodeProperty() {
+		LocalCache.setDefNodeProperty("domain", "Content", "versionCheckMode", "STRICT");
+		Assert.assertEquals("STRICT", LocalCache.getDefNodeProperty("domain", "Content", "versionCheckMode"));
+		Assert.assertNull(LocalCache.getDefNodeProperty("domain", "Content", "unknown"));
+		Assert.assertNull(LocalCache.getDefNodeProperty("domain", "Concept", "versionCheckMode"));
+	}
+
+	@Test
+	public void testDeleteDefNodeProperties() {
+		LocalCache.setDefNodeProperty("domain", "Content", "versionCheckMode", "STRICT");
+		LocalCache.setDefNodeProperty("domain", "Asset", "versionCheckMode", "OFF");
+		LocalCache.deleteDefNodeProperties("domain", "Content");
+		Assert.assertNull(LocalCache.getDefNodeProperty("domain", "Content", "versionCheckMode"));
+		Assert.assertEquals("OFF", LocalCache.getDefNodeProperty("domain", "Asset", "versionCheckMode"));
+	}
+
+	@Test
+	public void testStatsCountHitsAndMisses() {
+		LocalCache.setDefNodeProperty("domain", "Content", "versionCheckMode", "STRICT");
+		Map<String, Object> before = LocalCache.getStats();
+		LocalCache.getDefNodeProperty("domain", "Content", "versionCheckMode");
+		LocalCache.getDefNodeProperty("domain", "Asset", "versionCheckMode");
+		Map<String, Object> after = LocalCache.getStats();
+		Assert.assertEquals(1L, (long) after.get("hits") - (long) before.get("hits"));
+		Assert.assertEquals(1L, (long) after.get("misses") - (long) before.get("misses"));
+		Assert.assertEquals(1, after.get("size"));
+	}
+}
@@ -0,0 +1,69 @@
+package org.ekstep.graph.service.util;
+
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class QueryPlanStatsTest {
+
+	@Before
+	public void reset() {
+		QueryPlanStats.reset();
+	}
+
+	@Test
+	public void testFirstExecutionOfAQueryIsAMiss() {
+		QueryPlanStats.record("getNodeById", "MATCH (ee:domain) WHERE id(ee) = {nodeId} RETURN ee");
+		QueryPlanStats.record("getNodeById", "MATCH (ee:domain) WHERE id(ee) = {nodeId} RETURN ee");
+		QueryPlanStats.record("getNodeById", "MATCH (ee:domain) WHERE id(ee) = {nodeId} RETURN ee");
+		QueryPlanStats.record(QueryPlanStats.ADHOC_QUERY, "MATCH (ee:domain) WHERE id(ee) = 1 RETURN ee");
+
+		Map<String, Object> stats = QueryPlanStats.getStats();
+		Assert.assertEquals(true, stats.get("estimated"));
+		Assert.assertEquals(4L, stats.get("executions"));
+		Assert.assertEquals(2L, stats.get("estimatedPlanCacheHits"));
+		Assert.assertEquals(2L, stats.get("estimatedPlanCacheMisses"));
+		Assert.assertEquals(0.5, (double) stats.get("estimatedPlanCacheHitRatio"), 0.0001);
+
+		Map<String, Object> template = getQueryStats(stats, "getNodeById");
+		Assert.assertEquals(3L, template.get("executions"));
+		Assert.assertEquals(1L, template.get("estimatedPlanCacheMisses"));
+		Assert.assertEquals(2.0 / 3, (double) template.get("estimatedPlanCacheHitRatio"), 0.0001);
+		Map<String, Object> adhoc = getQueryStats(stats, QueryPlanStats.ADHOC_QUERY);
+		Assert.assertEquals(1L, adhoc.get("estimatedPlanCacheMisses"));
+		Assert.assertEquals(0.0, (double) adhoc.get("estimatedPlanCacheHitRatio"), 0.0001);
+	}
+
+	@Test
+	public void testLeastRecentlyUsedQueryIsEvicted() {
+		QueryPlanStats.record(QueryPlanStats.ADHOC_QUERY, "query-0");
+		QueryPlanStats.record(QueryPlanStats.ADHOC_QUERY, "query-1");
+		// query-0 is used again, query-1 becomes the eldest entry.
+		QueryPlanStats.record(QueryPlanStats.ADHOC_QUERY, "query-0");
+		for (int i = 2; i <= QueryPlanStats.PLAN_CACHE_SIZE; i++)
+			QueryPlanStats.record(QueryPlanStats.ADHOC_QUERY, "query-" + i);
+
+		long hits = (long) QueryPlanStats.getStats().get("estimatedPlanCacheHits");
+		QueryPlanStats.record(QueryPlanStats.ADHOC_QUERY, "query-0");
+		Assert.assertEquals(hits + 1, QueryPlanStats.getStats().get("estimatedPlanCacheHits"));
+		QueryPlanStats.record(QueryPlanStats.ADHOC_QUERY, "query-1");
+		Assert.assertEquals(hits + 1, QueryPlanStats.getStats().get("estimatedPlanCacheHits"));
+	}
+
+	@Test
+	public void testEmptyStats() {
+		QueryPlanStats.record("getNodeById", "MATCH (ee:domain) RETURN ee");
+		QueryPlanStats.reset();
+		Map<String, Object> stats = QueryPlanStats.getStats();
+		Assert.assertEquals(0L, stats.get("executions"));
+		Assert.assertEquals(0.0, (double) stats.get("estimatedPlanCacheHitRatio"), 0.0001);
+		Assert.assertTrue(((Map<?, ?>) stats.get("queries")).isEmpty());
+	}
+
+	@SuppressWarnings("unchecked")
+	private Map<String, Object> getQueryStats(Map<String, Object> stats, String name) {
+		return (Map<String, Object>) ((Map<String, Object>) stats.get("queries")).get(name);
+	}
+}
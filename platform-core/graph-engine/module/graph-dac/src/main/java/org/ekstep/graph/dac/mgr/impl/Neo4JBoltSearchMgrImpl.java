@@ -1,6 +1,7 @@
 package org.ekstep.graph.dac.mgr.impl;
 
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -63,12 +64,13 @@ public class Neo4JBoltSearchMgrImpl extends BaseDACMgr implements IGraphDACSearc
     		String graphId = (String) request.getContext().get(GraphHeaderParams.graph_id.name());
     		String query = (String) request.get(GraphDACParams.query.name());
     		List<String> propKeys = (List<String>) request.get(GraphDACParams.property_keys.name());
+    		Map<String, Object> params = (Map<String, Object>) request.get(GraphDACParams.params.name());
     		if (!validateRequired(graphId, query, propKeys)) {
     			throw new ClientException(GraphDACErrorCodes.ERR_GRAPH_QUERY_NOT_FOUND.name(), "Query is missing");
     		} else {
     			try {
 				List<Map<String, Object>> nodes = Neo4JBoltSearchOperations.executeQueryForProps(graphId, query,
-						propKeys);
+						null == params ? new HashMap<String, Object>() : params, propKeys);
 				return OK(GraphDACParams.properties.name(), nodes);
             } catch (Exception e) {
 				return ERROR(e);
@@ -160,6 +162,36 @@ public class Neo4JBoltSearchMgrImpl extends BaseDACMgr implements IGraphDACSearc
         }
     }
 
+    @Override
+	public Response getNodesPage(Request request) {
+        String graphId = (String) request.getContext().get(GraphHeaderParams.graph_id.name());
+        Long afterId = (Long) request.get(GraphDACParams.after_id.name());
+        Integer pageSize = (Integer) request.get(GraphDACParams.page_size.name());
+        if (!validateRequired(afterId, pageSize))
+            throw new ClientException(GraphDACErrorCodes.ERR_GET_NODE_MISSING_REQ_PARAMS.name(), "Required parameters are missing");
+        try {
+			List<Node> nodes = Neo4JBoltSearchOperations.getNodesPage(graphId, afterId, pageSize, request);
+			return OK(GraphDACParams.node_list.name(), nodes);
+        } catch (Exception e) {
+			return ERROR(e);
+        }
+    }
+
+    @Override
+	public Response getRelationsPage(Request request) {
+        String graphId = (String) request.getContext().get(GraphHeaderParams.graph_id.name());
+        Long afterId = (Long) request.get(GraphDACParams.after_id.name());
+        Integer pageSize = (Integer) request.get(GraphDACParams.page_size.name());
+        if (!validateRequired(afterId, pageSize))
+            throw new ClientException(GraphDACErrorCodes.ERR_GET_NODE_MISSING_REQ_PARAMS.name(), "Required parameters are missing");
+        try {
+			List<Relation> relations = Neo4JBoltSearchOperations.getRelationsPage(graphId, afterId, pageSize, request);
+			return OK(GraphDACParams.relations.name(), relations);
+        } catch (Exception e) {
+			return ERROR(e);
+        }
+    }
+
     @Override
 	public Response getRelationProperty(Request request) {
         String graphId = (String) request.getContext().get(GraphHeaderParams.graph_id.name());
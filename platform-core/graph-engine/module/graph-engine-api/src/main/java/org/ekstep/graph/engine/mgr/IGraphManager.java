@@ -85,6 +85,28 @@ public interface IGraphManager {
      * @response - STATUS API call status 
      */
     void exportGraph(Request request);
+
+    /**
+     * Reads a chunk of a graph export file written by this actor. The file is
+     * deleted with its last chunk.
+     * 
+     * @request - GRAPH_ID as request context variable
+     * @request - EXPORT_FILE path of the export file
+     * @request - EXPORT_OFFSET offset of the chunk in the file
+     * @response - EXPORT_CHUNK bytes of the chunk
+     * @response - EXPORT_COMPLETE true if it is the last chunk
+     * @response - STATUS API call status
+     */
+    void readExportChunk(Request request);
+
+    /**
+     * Deletes a graph export file written by this actor.
+     * 
+     * @request - GRAPH_ID as request context variable
+     * @request - EXPORT_FILE path of the export file
+     * @response - STATUS API call status
+     */
+    void deleteExportFile(Request request);
     
     /**
      * Creates the specified relation between two given nodes. Relation
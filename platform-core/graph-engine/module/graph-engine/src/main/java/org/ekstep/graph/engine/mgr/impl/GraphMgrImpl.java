@@ -149,6 +149,28 @@ public class GraphMgrImpl extends BaseGraphManager implements IGraphManager {
         }
     }
 
+    @Override
+    public void readExportChunk(Request request) {
+        String graphId = (String) request.getContext().get(GraphHeaderParams.graph_id.name());
+        try {
+            Graph graph = new Graph(this, graphId);
+            graph.readExportChunk(request);
+        } catch (Exception e) {
+            handleException(e, getSender());
+        }
+    }
+
+    @Override
+    public void deleteExportFile(Request request) {
+        String graphId = (String) request.getContext().get(GraphHeaderParams.graph_id.name());
+        try {
+            Graph graph = new Graph(this, graphId);
+            graph.deleteExportFile(request);
+        } catch (Exception e) {
+            handleException(e, getSender());
+        }
+    }
+
 	@SuppressWarnings("unchecked")
 	@Override
     public void createRelation(Request request) {
@@ -0,0 +1,104 @@
+package org.ekstep.graph.reader;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.codehaus.jackson.map.ObjectMapper;
+import org.ekstep.graph.common.mgr.BaseGraphManager;
+import org.ekstep.graph.dac.model.Node;
+import org.ekstep.graph.model.node.DefinitionDTO;
+import org.ekstep.graph.model.node.MetadataDefinition;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class CSVGraphStreamReaderTest {
+
+	private static final String HEADER = "identifier,objectType,name,rel:associatedTo\n";
+
+	private List<List<String>> batches = new ArrayList<List<String>>();
+
+	@Test
+	public void testForwardReferenceIsReadAgain() throws Exception {
+		String csv = HEADER + "do_1,Content,Node 1,do_3\n" + "do_2,Content,Node 2,do_9\n"
+				+ "do_3,Content,Node 3,do_1\n";
+		CSVGraphStreamReader reader = getReader(10);
+		reader.scan(getInput(csv));
+		reader.read(getInput(csv), this::handle);
+		Assert.assertEquals(Arrays.asList(Arrays.asList("do_1", "do_2", "do_3")), batches);
+
+		// do_3 is defined after do_1, do_9 is not in the file and do_1 is
+		// defined before do_3.
+		batches.clear();
+		reader.readDeferred(getInput(csv), this::handle);
+		Assert.assertEquals(Arrays.asList(Arrays.asList("do_1")), batches);
+	}
+
+	@Test
+	public void testInvalidRowIsReportedAndSkipped() throws Exception {
+		String csv = HEADER + "do_1,Content,Node 1,\n" + "do_2,Content,,\n" + "do_3,Unknown,Node 3,\n";
+		CSVGraphStreamReader reader = getReader(10);
+		reader.scan(getInput(csv));
+		reader.read(getInput(csv), this::handle);
+
+		Assert.assertEquals(Arrays.asList(Arrays.asList("do_1")), batches);
+		Assert.assertEquals(3, reader.getRowCount());
+		Assert.assertEquals(Arrays.asList("Required Metadata name not set"), reader.getMessages().get("do_2"));
+		Assert.assertEquals(Arrays.asList("Definition node not found for Object Type: Unknown"),
+				reader.getMessages().get("do_3"));
+		Assert.assertNull(reader.getMessages().get("do_1"));
+	}
+
+	@Test
+	public void testFileLargerThanOneBatch() throws Exception {
+		StringBuilder csv = new StringBuilder(HEADER);
+		for (int i = 1; i <= 5; i++)
+			csv.append("do_" + i + ",Content,Node " + i + ",\n");
+		// later rows of an identifier are ignored.
+		csv.append("do_2,Content,Duplicate,\n");
+		CSVGraphStreamReader reader = getReader(2);
+		reader.scan(getInput(csv.toString()));
+		reader.read(getInput(csv.toString()), this::handle);
+
+		Assert.assertEquals(Arrays.asList(Arrays.asList("do_1", "do_2"), Arrays.asList("do_3", "do_4"),
+				Arrays.asList("do_5")), batches);
+		Assert.assertEquals(5, reader.getRowCount());
+		Assert.assertTrue(reader.getMessages().isEmpty());
+
+		batches.clear();
+		reader.readDeferred(getInput(csv.toString()), this::handle);
+		Assert.assertTrue(batches.isEmpty());
+	}
+
+	private void handle(List<Node> nodes) {
+		List<String> ids = new ArrayList<String>();
+		for (Node node : nodes)
+			ids.add(node.getIdentifier());
+		batches.add(ids);
+	}
+
+	private CSVGraphStreamReader getReader(int batchSize) {
+		MetadataDefinition name = new MetadataDefinition();
+		name.setPropertyName("name");
+		name.setTitle("name");
+		name.setDataType("Text");
+		name.setRequired(true);
+		DefinitionDTO definition = new DefinitionDTO();
+		definition.setObjectType("Content");
+		definition.setProperties(Arrays.asList(name));
+		Map<String, DefinitionDTO> definitions = new HashMap<String, DefinitionDTO>();
+		definitions.put("Content", definition);
+		return new CSVGraphStreamReader(Mockito.mock(BaseGraphManager.class), new ObjectMapper(), "domain",
+				null, definitions, batchSize);
+	}
+
+	private InputStream getInput(String csv) {
+		return new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8));
+	}
+}
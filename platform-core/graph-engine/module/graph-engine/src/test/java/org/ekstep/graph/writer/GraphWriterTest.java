@@ -0,0 +1,115 @@
+package org.ekstep.graph.writer;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+import org.ekstep.graph.dac.model.Node;
+import org.ekstep.graph.dac.model.Relation;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * The streamed export of paged nodes and relations must match the in-memory
+ * export of the same lists.
+ */
+public class GraphWriterTest {
+
+	private static final int PAGE_SIZE = 2;
+
+	private List<Node> nodes = getNodes();
+	private List<Relation> relations = getRelations();
+
+	@Test
+	public void testStreamedCSVMatchesInMemoryCSV() throws Exception {
+		String csv = assertStreamedMatchesInMemory("CSV");
+		String[] lines = csv.split("\n");
+		// header row and the data nodes, in the order of their ids.
+		Assert.assertEquals(5, lines.length);
+		Assert.assertTrue(lines[0].contains("rel:associatedTo"));
+		Assert.assertTrue(lines[1].startsWith("do_1,"));
+		Assert.assertTrue(lines[4].startsWith("do_5,"));
+	}
+
+	@Test
+	public void testStreamedJSONMatchesInMemoryJSON() throws Exception {
+		String json = assertStreamedMatchesInMemory("JSON");
+		Assert.assertTrue(json.contains("\"numberOfNodes\":4"));
+		Assert.assertTrue(json.contains("\"numberOfRelations\":3"));
+	}
+
+	@Test
+	public void testStreamedRDFMatchesInMemoryRDF() throws Exception {
+		String rdf = assertStreamedMatchesInMemory("RDF");
+		Assert.assertTrue(rdf.contains("do_5"));
+	}
+
+	@Test
+	public void testStreamedExportOfEmptyGraph() throws Exception {
+		nodes = new ArrayList<Node>();
+		relations = new ArrayList<Relation>();
+		for (String format : Arrays.asList("CSV", "JSON", "RDF"))
+			assertStreamedMatchesInMemory(format);
+	}
+
+	private String assertStreamedMatchesInMemory(String format) throws Exception {
+		ByteArrayOutputStream inMemory = (ByteArrayOutputStream) GraphWriterFactory.getData(format, nodes,
+				relations);
+		ByteArrayOutputStream streamed = new ByteArrayOutputStream();
+		GraphWriterFactory.write(format, getCursor(nodes, Node::getId), getCursor(relations, Relation::getId),
+				streamed);
+		String expected = new String(inMemory.toByteArray(), StandardCharsets.UTF_8);
+		Assert.assertEquals(expected, new String(streamed.toByteArray(), StandardCharsets.UTF_8));
+		return expected;
+	}
+
+	private <T> PagedCursor<T> getCursor(List<T> elements, ToLongFunction<T> idFunction) {
+		return new PagedCursor<T>((afterId, limit) -> {
+			List<T> page = new ArrayList<T>();
+			for (T element : elements) {
+				if (idFunction.applyAsLong(element) > afterId && page.size() < limit)
+					page.add(element);
+			}
+			return page;
+		}, idFunction, PAGE_SIZE);
+	}
+
+	private List<Node> getNodes() {
+		List<Node> list = new ArrayList<Node>();
+		list.add(getNode(1, "do_1", "DATA_NODE", new Relation("do_1", "associatedTo", "do_2")));
+		list.add(getNode(2, "do_2", "DATA_NODE", new Relation("do_2", "hasSequenceMember", "do_3")));
+		list.add(getNode(3, "do_3", "DATA_NODE"));
+		list.add(getNode(4, "Content", "DEFINITION_NODE"));
+		list.add(getNode(5, "do_5", "DATA_NODE", new Relation("do_5", "associatedTo", "do_1")));
+		return list;
+	}
+
+	private Node getNode(long id, String identifier, String nodeType, Relation... outRelations) {
+		Node node = new Node(identifier, nodeType, "Content");
+		node.setId(id);
+		Map<String, Object> metadata = new HashMap<String, Object>();
+		metadata.put("name", "Node " + id);
+		if (id % 2 == 1)
+			metadata.put("keywords", Arrays.asList("k" + id, "common"));
+		node.setMetadata(metadata);
+		node.setOutRelations(Arrays.asList(outRelations));
+		return node;
+	}
+
+	private List<Relation> getRelations() {
+		List<Relation> list = new ArrayList<Relation>();
+		long id = 10;
+		for (Node node : nodes) {
+			for (Relation relation : node.getOutRelations()) {
+				relation.setId(id++);
+				list.add(relation);
+			}
+		}
+		return list;
+	}
+}
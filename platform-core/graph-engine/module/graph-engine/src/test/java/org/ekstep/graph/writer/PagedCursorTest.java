@@ -0,0 +1,77 @@
+package org.ekstep.graph.writer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PagedCursorTest {
+
+	private List<Long> afterIds = new ArrayList<Long>();
+
+	@Test
+	public void testPagesStartAfterTheLastIdOfThePreviousPage() {
+		List<Long> ids = Arrays.asList(2L, 5L, 9L, 10L, 14L, 20L, 21L);
+		Assert.assertEquals(ids, toList(getCursor(ids, 3)));
+		// the last page is partial, so no further page is requested.
+		Assert.assertEquals(Arrays.asList(-1L, 9L, 20L), afterIds);
+	}
+
+	@Test
+	public void testLastFullPageIsFollowedByAnEmptyPage() {
+		List<Long> ids = Arrays.asList(1L, 2L, 3L, 4L, 5L, 6L);
+		Assert.assertEquals(ids, toList(getCursor(ids, 3)));
+		Assert.assertEquals(Arrays.asList(-1L, 3L, 6L), afterIds);
+	}
+
+	@Test
+	public void testEmptyResult() {
+		Iterator<Long> iterator = getCursor(new ArrayList<Long>(), 3).iterator();
+		Assert.assertFalse(iterator.hasNext());
+		Assert.assertFalse(iterator.hasNext());
+		Assert.assertEquals(Arrays.asList(-1L), afterIds);
+		try {
+			iterator.next();
+			Assert.fail("next() of an empty cursor must fail");
+		} catch (NoSuchElementException e) {
+		}
+	}
+
+	@Test
+	public void testEveryIterationStartsANewScan() {
+		List<Long> ids = Arrays.asList(1L, 2L, 3L);
+		PagedCursor<Long> cursor = getCursor(ids, 2);
+		Assert.assertEquals(ids, toList(cursor));
+		Assert.assertEquals(ids, toList(cursor));
+		Assert.assertEquals(Arrays.asList(-1L, 2L, -1L, 2L), afterIds);
+	}
+
+	@Test
+	public void testNullPageEndsTheScan() {
+		PagedCursor<Long> cursor = new PagedCursor<Long>((afterId, pageSize) -> null, Long::longValue, 3);
+		Assert.assertTrue(toList(cursor).isEmpty());
+	}
+
+	private PagedCursor<Long> getCursor(List<Long> ids, int pageSize) {
+		return new PagedCursor<Long>((afterId, limit) -> {
+			afterIds.add(afterId);
+			List<Long> page = new ArrayList<Long>();
+			for (Long id : ids) {
+				if (id > afterId && page.size() < limit)
+					page.add(id);
+			}
+			return page;
+		}, Long::longValue, pageSize);
+	}
+
+	private List<Long> toList(Iterable<Long> iterable) {
+		List<Long> list = new ArrayList<Long>();
+		for (Long id : iterable)
+			list.add(id);
+		return list;
+	}
+}
@@ -1,5 +1,6 @@
 package org.ekstep.telemetry;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.commons.lang3.StringUtils;
 import org.ekstep.common.Platform;
@@ -9,11 +10,14 @@ import org.ekstep.telemetry.dto.Producer;
 import org.ekstep.telemetry.dto.Target;
 import org.ekstep.telemetry.dto.Telemetry;
 
+import java.io.IOException;
+import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.UUID;
 
 /**
  * {@link TelemetryGenerator} uses context and other parameters to generate
@@ -30,6 +34,8 @@ public class TelemetryGenerator {
 	private static final String DEFAULT_PRODUCER_ID = ENVIRONMENT + "." + INSTALLATION_ID + ".learning.platform";
 	private static final String PRODUCER_VERSION = "1.0";
 	private static String PRODUCER_PID = "";
+	private static final int MAX_BUFFER_SIZE = 64 * 1024;
+	private static final ThreadLocal<StringWriter> buffers = ThreadLocal.withInitial(() -> new StringWriter(1024));
 
 	public static void setComponent(String component) {
 		PRODUCER_PID = component;
@@ -55,7 +61,8 @@ public class TelemetryGenerator {
 	}
 
 	/**
-	 * To generate normal LOG telemetry JSON string with all params.
+	 * To generate normal LOG telemetry JSON string with all params. The event
+	 * is written with a streaming generator into a buffer reused by the thread.
 	 * 
 	 * @param context
 	 * @param type
@@ -67,18 +74,39 @@ public class TelemetryGenerator {
 	 */
 	public static String log(Map<String, String> context, String type, String level, String message, String pageid,
 			Map<String, Object> params) {
-		Actor actor = getActor(context);
-		Context eventContext = getContext(context);
-		Map<String, Object> edata = new HashMap<String, Object>();
-		edata.put("type", type);
-		edata.put("level", level);
-		edata.put("message", message);
-		if (StringUtils.isNotBlank(pageid))
-			edata.put("pageid", pageid);
-		if (null != params && !params.isEmpty())
-			edata.put("params", getParamsList(params));
-		Telemetry telemetry = new Telemetry("LOG", actor, eventContext, edata);
-		return getTelemetry(telemetry);
+		StringWriter writer = buffers.get();
+		writer.getBuffer().setLength(0);
+		try (JsonGenerator generator = mapper.getFactory().createGenerator(writer)) {
+			long ets = System.currentTimeMillis();
+			generator.writeStartObject();
+			writeEnvelope(generator, "LOG", ets, context);
+			generator.writeObjectFieldStart("edata");
+			generator.writeStringField("type", type);
+			generator.writeStringField("level", level);
+			generator.writeStringField("message", message);
+			if (StringUtils.isNotBlank(pageid))
+				generator.writeStringField("pageid", pageid);
+			if (null != params && !params.isEmpty()) {
+				generator.writeArrayFieldStart("params");
+				for (Entry<String, Object> entry : params.entrySet()) {
+					generator.writeStartObject();
+					generator.writeObjectField(entry.getKey(), entry.getValue());
+					generator.writeEndObject();
+				}
+				generator.writeEndArray();
+			}
+			generator.writeEndObject();
+			generator.writeNumberField("syncts", ets);
+			generator.writeEndObject();
+		} catch (Exception e) {
+			e.printStackTrace();
+			return "";
+		}
+		String event = writer.toString();
+		// a buffer grown by a large event is not kept.
+		if (writer.getBuffer().capacity() > MAX_BUFFER_SIZE)
+			buffers.remove();
+		return event;
 	}
 
 	/**
@@ -262,6 +290,41 @@ public class TelemetryGenerator {
 		return paramsList;
 	}
 
+	/**
+	 * Writes the fields of a {@link Telemetry} event before its edata, as the
+	 * event would be serialised.
+	 */
+	private static void writeEnvelope(JsonGenerator generator, String eid, long ets, Map<String, String> context)
+			throws IOException {
+		generator.writeStringField("eid", eid);
+		generator.writeNumberField("ets", ets);
+		generator.writeStringField("ver", "3.0");
+		generator.writeStringField("mid", "LP." + ets + "." + UUID.randomUUID());
+		Actor actor = getActor(context);
+		generator.writeObjectFieldStart("actor");
+		generator.writeStringField("id", actor.getId());
+		generator.writeStringField("type", actor.getType());
+		generator.writeEndObject();
+		Context eventContext = getContext(context);
+		generator.writeObjectFieldStart("context");
+		writeNonNullField(generator, "channel", eventContext.getChannel());
+		Producer producer = eventContext.getPdata();
+		generator.writeObjectFieldStart("pdata");
+		writeNonNullField(generator, "id", producer.getId());
+		writeNonNullField(generator, "pid", producer.getPid());
+		writeNonNullField(generator, "ver", producer.getVer());
+		generator.writeEndObject();
+		writeNonNullField(generator, "env", eventContext.getEnv());
+		writeNonNullField(generator, "sid", eventContext.getSid());
+		writeNonNullField(generator, "did", eventContext.getDid());
+		generator.writeEndObject();
+	}
+
+	private static void writeNonNullField(JsonGenerator generator, String name, String value) throws IOException {
+		if (null != value)
+			generator.writeStringField(name, value);
+	}
+
 	private static String getTelemetry(Telemetry telemetry) {
 		String event = "";
 		try {
@@ -0,0 +1,40 @@
+package org.ekstep.telemetry.handler;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.ekstep.common.Platform;
+import org.ekstep.telemetry.util.KafkaEventSink;
+
+/**
+ * Handler which sends the telemetry events to the Kafka topic
+ * <code>telemetry.kafka.topic</code> with the {@link KafkaEventSink}, instead
+ * of writing them to the telemetry log file. The telemetry events which can
+ * not be sent are written to the telemetry log file. The log events are
+ * handled by the {@link TelemetryLoggingHandler}.
+ */
+public class KafkaTelemetryHandler implements TelemetryHandler {
+
+	private static final Logger telemetryLogger = LogManager.getLogger("TelemetryEventLogger");
+	private static final String TOPIC = Platform.config.hasPath("telemetry.kafka.topic")
+			? Platform.config.getString("telemetry.kafka.topic") : "dev.telemetry.raw";
+
+	private final TelemetryLoggingHandler loggingHandler = new TelemetryLoggingHandler();
+	private final KafkaEventSink sink = KafkaEventSink.getInstance();
+
+	public void send(String event, Level level) {
+		send(event, level, false);
+	}
+
+	public void send(String event, Level level, boolean telemetry) {
+		if (telemetry)
+			sink.send(TOPIC, event, telemetryLogger::info);
+		else
+			loggingHandler.send(event, level);
+	}
+
+	@Override
+	public boolean isEnabled(Level level) {
+		return loggingHandler.isEnabled(level);
+	}
+
+}
@@ -21,4 +21,12 @@ public interface TelemetryHandler {
 	public void send(String event, Level level);
 	
 	public void send(String event, Level level, boolean telemetry);
+
+	/**
+	 * @return false if the events of the given level are dropped, so they need
+	 *         not be generated
+	 */
+	public default boolean isEnabled(Level level) {
+		return true;
+	}
 }
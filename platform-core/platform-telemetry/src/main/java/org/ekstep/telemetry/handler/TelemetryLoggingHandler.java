@@ -54,4 +54,24 @@ public class TelemetryLoggingHandler implements TelemetryHandler {
 		
 	}
 
+	@Override
+	public boolean isEnabled(Level level) {
+		switch (level) {
+			case INFO:
+				return rootLogger.isInfoEnabled();
+			case DEBUG:
+				return rootLogger.isDebugEnabled();
+			case ERROR:
+				return rootLogger.isErrorEnabled();
+			case WARN:
+				return rootLogger.isWarnEnabled();
+			case TRACE:
+				return rootLogger.isTraceEnabled();
+			case FATAL:
+				return rootLogger.isFatalEnabled();
+			default:
+				return true;
+		}
+	}
+
 }
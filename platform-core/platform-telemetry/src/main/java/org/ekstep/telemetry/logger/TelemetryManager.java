@@ -3,6 +3,7 @@ package org.ekstep.telemetry.logger;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.exception.ExceptionUtils;
@@ -13,9 +14,11 @@ import org.ekstep.common.exception.MiddlewareException;
 import org.ekstep.common.exception.ResponseCode;
 import org.ekstep.telemetry.TelemetryGenerator;
 import org.ekstep.telemetry.TelemetryParams;
+import org.ekstep.telemetry.handler.KafkaTelemetryHandler;
 import org.ekstep.telemetry.handler.Level;
 import org.ekstep.telemetry.handler.TelemetryHandler;
 import org.ekstep.telemetry.handler.TelemetryLoggingHandler;
+import org.ekstep.telemetry.util.KafkaEventSink;
 
 /**
  * This class is used to generate and handle telemetry. 
@@ -28,7 +31,8 @@ public class TelemetryManager {
 	/**
 	 * 
 	 */
-	private static TelemetryHandler telemetryHandler = new TelemetryLoggingHandler();
+	static TelemetryHandler telemetryHandler = KafkaEventSink.isEnabled() ? new KafkaTelemetryHandler()
+			: new TelemetryLoggingHandler();
 
 	private static final String DEFAULT_CHANNEL_ID = Platform.config.hasPath("channel.default") ? Platform.config.getString("channel.default") : "in.ekstep";
 
@@ -50,7 +54,7 @@ public class TelemetryManager {
 	 * @param message
 	 */
 	public static void log(String message) {
-		log(message, null, Level.DEBUG.name());
+		log(message, null, Level.DEBUG);
 	}
 
 	/**
@@ -60,7 +64,7 @@ public class TelemetryManager {
 	 * @param data
 	 */
 	public static void log(String message, Map<String, Object> params) {
-		log(message, params, Level.DEBUG.name());
+		log(message, params, Level.DEBUG);
 	}
 	
 	/**
@@ -69,7 +73,7 @@ public class TelemetryManager {
 	 * @param message
 	 */
 	public static void info(String message) {
-		log(message, null, Level.INFO.name());
+		log(message, null, Level.INFO);
 	}
 
 	/**
@@ -79,7 +83,7 @@ public class TelemetryManager {
 	 * @param data
 	 */
 	public static void info(String message, Map<String, Object> params) {
-		log(message, params, Level.INFO.name());
+		log(message, params, Level.INFO);
 	}
 	
 	/**
@@ -88,7 +92,7 @@ public class TelemetryManager {
 	 */
 	
 	public static void warn(String message) {
-		log(message, null, Level.WARN.name());
+		log(message, null, Level.WARN);
 	}
 	
 	/**
@@ -98,15 +102,80 @@ public class TelemetryManager {
 	 */
 	
 	public static void warn(String message, Map<String, Object> params) {
-		log(message, params, Level.WARN.name());
+		log(message, params, Level.WARN);
 	}
 	
+	/**
+	 * To log a message built only if DEBUG is enabled, for messages which are
+	 * costly to build on hot paths.
+	 * 
+	 * @param message
+	 */
+	public static void log(Supplier<String> message) {
+		if (isEnabled(Level.DEBUG))
+			log(message.get(), null, Level.DEBUG);
+	}
+
+	/**
+	 * To log a message with params built only if DEBUG is enabled.
+	 * 
+	 * @param message
+	 * @param params
+	 */
+	public static void log(Supplier<String> message, Supplier<Map<String, Object>> params) {
+		if (isEnabled(Level.DEBUG))
+			log(message.get(), params.get(), Level.DEBUG);
+	}
+
+	/**
+	 * To log a message built only if INFO is enabled.
+	 * 
+	 * @param message
+	 */
+	public static void info(Supplier<String> message) {
+		if (isEnabled(Level.INFO))
+			log(message.get(), null, Level.INFO);
+	}
+
+	/**
+	 * To log a message with params built only if INFO is enabled.
+	 * 
+	 * @param message
+	 * @param params
+	 */
+	public static void info(Supplier<String> message, Supplier<Map<String, Object>> params) {
+		if (isEnabled(Level.INFO))
+			log(message.get(), params.get(), Level.INFO);
+	}
+
+	/**
+	 * To log a message built only if WARN is enabled.
+	 * 
+	 * @param message
+	 */
+	public static void warn(Supplier<String> message) {
+		if (isEnabled(Level.WARN))
+			log(message.get(), null, Level.WARN);
+	}
+
+	/**
+	 * @param level
+	 * @return true if the log events of the given level are logged
+	 */
+	public static boolean isEnabled(Level level) {
+		return telemetryHandler.isEnabled(level);
+	}
+
+	public static boolean isDebugEnabled() {
+		return isEnabled(Level.DEBUG);
+	}
+
 	/**
 	 * 
 	 * @param message
 	 */
 	public static void error(String message) {
-		log(message, null, Level.ERROR.name());
+		log(message, null, Level.ERROR);
 	}
 	
 	/**
@@ -115,7 +184,7 @@ public class TelemetryManager {
 	 * @param params
 	 */
 	public static void error(String message, Map<String, Object> params) {
-		log(message, params, Level.ERROR.name());
+		log(message, params, Level.ERROR);
 	}
 
 	/**
@@ -135,6 +204,8 @@ public class TelemetryManager {
 	 * @param object
 	 */
 	public static void error(String message, Throwable e, Object object) {
+		if (!isEnabled(Level.ERROR))
+			return;
 		Map<String, String> context = getContext();
 		String stacktrace = ExceptionUtils.getStackTrace(e);
 		String code = ResponseCode.SERVER_ERROR.name();
@@ -215,15 +286,17 @@ public class TelemetryManager {
 
 	/**
 	 * To log exception with message and params for user specified log level as a
-	 * telemetry event.
+	 * telemetry event. The event is not generated if the level is disabled.
 	 * @param message
 	 * @param params
-	 * @param logLevel
+	 * @param level
 	 */
-	private static void log(String message, Map<String, Object> params, String logLevel) {
+	private static void log(String message, Map<String, Object> params, Level level) {
+		if (!isEnabled(level))
+			return;
 		Map<String, String> context = getContext();
-		String event = TelemetryGenerator.log(context, "system", logLevel, message, null, params);
-		telemetryHandler.send(event, Level.getLevel(logLevel));
+		String event = TelemetryGenerator.log(context, "system", level.name(), message, null, params);
+		telemetryHandler.send(event, level);
 	}
 
 	private static Map<String, String> getContext() {
@@ -0,0 +1,190 @@
+package org.ekstep.telemetry.util;
+
+import java.util.Properties;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.ekstep.common.Platform;
+
+/**
+ * Sends the telemetry and graph events to Kafka from a background thread.
+ *
+ * The events are put in a bounded lock-free queue and the sending thread
+ * drains it into a Kafka producer, which batches the records per topic
+ * (<code>telemetry.kafka.linger.ms</code>, <code>telemetry.kafka.batch.size</code>,
+ * <code>telemetry.kafka.compression.type</code>). When the queue is full the
+ * <code>telemetry.kafka.overflow.policy</code> applies: <code>drop_oldest</code>
+ * drops the oldest event, <code>block</code> waits for space and
+ * <code>file</code> (the default) writes the event with its fallback, i.e. to
+ * the log file of the event. The events the producer fails to send are
+ * written with their fallback as well. The sending thread parks while the
+ * queue is empty and is woken up by the next event.
+ *
+ * Enabled with <code>telemetry.kafka.enable</code>.
+ */
+public class KafkaEventSink {
+
+	public enum OverflowPolicy {
+		DROP_OLDEST, BLOCK, FILE
+	}
+
+	private static final boolean ENABLED = Platform.config.hasPath("telemetry.kafka.enable")
+			&& Platform.config.getBoolean("telemetry.kafka.enable");
+	private static final int QUEUE_SIZE = Platform.config.hasPath("telemetry.kafka.queue.size")
+			? Platform.config.getInt("telemetry.kafka.queue.size") : 100000;
+	private static final int DRAIN_SIZE = 1000;
+	private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+	private static final OverflowPolicy OVERFLOW_POLICY = Platform.config.hasPath("telemetry.kafka.overflow.policy")
+			? OverflowPolicy.valueOf(Platform.config.getString("telemetry.kafka.overflow.policy").toUpperCase())
+			: OverflowPolicy.FILE;
+
+	private static KafkaEventSink instance = null;
+
+	private final Queue<Event> queue = new ConcurrentLinkedQueue<Event>();
+	private final AtomicInteger size = new AtomicInteger();
+	private final AtomicLong dropped = new AtomicLong();
+	private final Producer<String, String> producer;
+	private final int queueSize;
+	private final OverflowPolicy overflowPolicy;
+	private final Thread sender;
+	private volatile boolean running = true;
+	private volatile boolean idle = false;
+
+	private KafkaEventSink() {
+		this(new KafkaProducer<String, String>(getProps()), QUEUE_SIZE, OVERFLOW_POLICY);
+		Runtime.getRuntime().addShutdownHook(new Thread(this::close));
+	}
+
+	KafkaEventSink(Producer<String, String> producer, int queueSize, OverflowPolicy overflowPolicy) {
+		this.producer = producer;
+		this.queueSize = queueSize;
+		this.overflowPolicy = overflowPolicy;
+		sender = new Thread(this::drain, "kafka-event-sink");
+		sender.setDaemon(true);
+		sender.start();
+	}
+
+	public static boolean isEnabled() {
+		return ENABLED;
+	}
+
+	public static synchronized KafkaEventSink getInstance() {
+		if (null == instance)
+			instance = new KafkaEventSink();
+		return instance;
+	}
+
+	/**
+	 * Queues the event to be sent to the topic, without any I/O on the calling
+	 * thread unless the queue is full.
+	 *
+	 * @param fallback
+	 *            writes the event if it can not be sent to Kafka
+	 */
+	public void send(String topic, String event, Consumer<String> fallback) {
+		Event entry = new Event(topic, event, fallback);
+		while (size.incrementAndGet() > queueSize) {
+			size.decrementAndGet();
+			switch (overflowPolicy) {
+			case DROP_OLDEST:
+				if (null != queue.poll()) {
+					size.decrementAndGet();
+					dropped.incrementAndGet();
+				}
+				break;
+			case BLOCK:
+				LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+				break;
+			default:
+				fallback.accept(event);
+				return;
+			}
+		}
+		queue.offer(entry);
+		if (idle)
+			LockSupport.unpark(sender);
+	}
+
+	/**
+	 * @return the number of events dropped because the queue was full
+	 */
+	public long getDropped() {
+		return dropped.get();
+	}
+
+	private void drain() {
+		while (running || !queue.isEmpty()) {
+			int count = 0;
+			Event event;
+			while (count < DRAIN_SIZE && null != (event = queue.poll())) {
+				size.decrementAndGet();
+				count++;
+				final Event record = event;
+				try {
+					producer.send(new ProducerRecord<String, String>(record.topic, record.event), (metadata, e) -> {
+						if (null != e)
+							record.fallback.accept(record.event);
+					});
+				} catch (Exception e) {
+					record.fallback.accept(record.event);
+				}
+			}
+			if (count == 0) {
+				// send() unparks the thread when it sees the flag, the queue is
+				// checked again after setting it so no event is missed.
+				idle = true;
+				if (running && queue.isEmpty())
+					LockSupport.parkNanos(IDLE_PARK_NANOS);
+				idle = false;
+			}
+		}
+	}
+
+	void close() {
+		running = false;
+		LockSupport.unpark(sender);
+		try {
+			sender.join(TimeUnit.SECONDS.toMillis(5));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		producer.close(5, TimeUnit.SECONDS);
+	}
+
+	private static Properties getProps() {
+		Properties props = new Properties();
+		props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, Platform.config.getString("kafka.urls"));
+		props.put(ProducerConfig.CLIENT_ID_CONFIG, "KafkaEventSink");
+		props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class.getName());
+		props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class.getName());
+		props.put(ProducerConfig.LINGER_MS_CONFIG, Platform.config.hasPath("telemetry.kafka.linger.ms")
+				? Platform.config.getInt("telemetry.kafka.linger.ms") : 50);
+		props.put(ProducerConfig.BATCH_SIZE_CONFIG, Platform.config.hasPath("telemetry.kafka.batch.size")
+				? Platform.config.getInt("telemetry.kafka.batch.size") : 65536);
+		props.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, Platform.config.hasPath("telemetry.kafka.compression.type")
+				? Platform.config.getString("telemetry.kafka.compression.type") : "lz4");
+		return props;
+	}
+
+	private static class Event {
+		final String topic;
+		final String event;
+		final Consumer<String> fallback;
+
+		Event(String topic, String event, Consumer<String> fallback) {
+			this.topic = topic;
+			this.event = event;
+			this.fallback = fallback;
+		}
+	}
+}
@@ -6,12 +6,15 @@ import java.util.Map;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.ekstep.common.Platform;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 public class LogAsyncGraphEvent {
 
 	private static final Logger graphEventLogger = LogManager.getLogger("GraphEventLogger");
+	private static final String TOPIC = Platform.config.hasPath("telemetry.kafka.graph_event.topic")
+			? Platform.config.getString("telemetry.kafka.graph_event.topic") : "dev.learning.graph.events";
 	private static ObjectMapper mapper = new ObjectMapper();
 	
 	
@@ -20,7 +23,11 @@ public class LogAsyncGraphEvent {
 		for (Map<String, Object> message : messages) {
 			try{
 				String jsonMessage = mapper.writeValueAsString(message);
-				if (StringUtils.isNotBlank(jsonMessage))
+				if (StringUtils.isBlank(jsonMessage))
+					continue;
+				if (KafkaEventSink.isEnabled())
+					KafkaEventSink.getInstance().send(TOPIC, jsonMessage, graphEventLogger::info);
+				else
 					graphEventLogger.info(jsonMessage);
 			}catch(Exception e){
 				e.printStackTrace();
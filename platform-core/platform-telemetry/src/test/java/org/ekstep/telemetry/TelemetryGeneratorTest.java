@@ -0,0 +1,127 @@
+package org.ekstep.telemetry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.ekstep.telemetry.dto.Actor;
+import org.ekstep.telemetry.dto.Context;
+import org.ekstep.telemetry.dto.Producer;
+import org.ekstep.telemetry.dto.Telemetry;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Compares the LOG events written by {@link TelemetryGenerator#log} with the
+ * serialisation of the {@link Telemetry} DTO they used to be built from.
+ */
+public class TelemetryGeneratorTest {
+
+	private static final String COMPONENT = "test-component";
+
+	private ObjectMapper mapper = new ObjectMapper();
+	private Map<String, String> context = new HashMap<String, String>();
+
+	@Before
+	public void init() {
+		TelemetryGenerator.setComponent(COMPONENT);
+		context.put(TelemetryParams.ACTOR.name(), "user_1");
+		context.put(TelemetryParams.CHANNEL.name(), "in.ekstep");
+		context.put(TelemetryParams.ENV.name(), "system");
+		context.put(TelemetryParams.APP_ID.name(), "test.app");
+	}
+
+	@Test
+	public void testLogWithNullMessage() throws Exception {
+		assertSameEvent(null, null, null);
+	}
+
+	@Test
+	public void testLogWithEmptyParams() throws Exception {
+		assertSameEvent("Node created", "page_1", new HashMap<String, Object>());
+	}
+
+	@Test
+	public void testLogWithNonStringParams() throws Exception {
+		Map<String, Object> nested = new LinkedHashMap<String, Object>();
+		nested.put("count", 2);
+		nested.put("ids", Arrays.asList("do_1", "do_2"));
+		Map<String, Object> params = new LinkedHashMap<String, Object>();
+		params.put("size", 10);
+		params.put("duration", 12.5);
+		params.put("cached", true);
+		params.put("missing", null);
+		params.put("ids", Arrays.asList("do_1", "do_2"));
+		params.put("node", nested);
+		assertSameEvent("Nodes fetched", null, params);
+	}
+
+	@Test
+	public void testLogWithoutActorAndAppId() throws Exception {
+		context.remove(TelemetryParams.ACTOR.name());
+		context.remove(TelemetryParams.APP_ID.name());
+		context.put("sid", "session_1");
+		context.put("did", "device_1");
+		ObjectNode event = (ObjectNode) mapper.readTree(TelemetryGenerator.log(context, "system", "INFO", "message"));
+		assertEquals("org.ekstep.learning.platform", event.path("actor").path("id").asText());
+		assertEquals("System", event.path("actor").path("type").asText());
+		assertEquals("session_1", event.path("context").path("sid").asText());
+		assertEquals("device_1", event.path("context").path("did").asText());
+		assertTrue(event.path("context").path("pdata").path("id").asText().endsWith(".learning.platform"));
+	}
+
+	private void assertSameEvent(String message, String pageid, Map<String, Object> params) throws Exception {
+		ObjectNode expected = (ObjectNode) mapper
+				.readTree(getDtoEvent("system", "DEBUG", message, pageid, params));
+		ObjectNode actual = (ObjectNode) mapper
+				.readTree(TelemetryGenerator.log(context, "system", "DEBUG", message, pageid, params));
+
+		assertEquals(actual.get("ets"), actual.get("syncts"));
+		assertTrue(actual.get("mid").asText().startsWith("LP." + actual.get("ets").asLong() + "."));
+		// the time and the message id differ between two events.
+		for (String field : Arrays.asList("ets", "mid", "syncts")) {
+			assertTrue(field, actual.has(field));
+			expected.remove(field);
+			actual.remove(field);
+		}
+		assertEquals(expected, actual);
+	}
+
+	/**
+	 * Builds the event as {@link TelemetryGenerator#log} did with the
+	 * {@link Telemetry} DTO.
+	 */
+	private String getDtoEvent(String type, String level, String message, String pageid, Map<String, Object> params)
+			throws Exception {
+		Actor actor = new Actor(context.get(TelemetryParams.ACTOR.name()), "User");
+		Producer producer = new Producer(context.get(TelemetryParams.APP_ID.name()), COMPONENT, "1.0");
+		Context eventContext = new Context(context.get(TelemetryParams.CHANNEL.name()),
+				context.get(TelemetryParams.ENV.name()), producer);
+		Map<String, Object> edata = new HashMap<String, Object>();
+		edata.put("type", type);
+		edata.put("level", level);
+		edata.put("message", message);
+		if (null != pageid)
+			edata.put("pageid", pageid);
+		if (null != params && !params.isEmpty()) {
+			List<Map<String, Object>> paramsList = new ArrayList<Map<String, Object>>();
+			for (Entry<String, Object> entry : params.entrySet()) {
+				Map<String, Object> param = new HashMap<String, Object>();
+				param.put(entry.getKey(), entry.getValue());
+				paramsList.add(param);
+			}
+			edata.put("params", paramsList);
+		}
+		return mapper.writeValueAsString(new Telemetry("LOG", actor, eventContext, edata));
+	}
+}
@@ -0,0 +1,84 @@
+package org.ekstep.telemetry.logger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.ekstep.telemetry.handler.Level;
+import org.ekstep.telemetry.handler.TelemetryHandler;
+import org.junit.After;
+import org.junit.Test;
+
+public class TelemetryManagerTest {
+
+	private TelemetryHandler defaultHandler = TelemetryManager.telemetryHandler;
+	private TestHandler handler = new TestHandler();
+	private AtomicInteger calls = new AtomicInteger();
+
+	@After
+	public void restore() {
+		TelemetryManager.telemetryHandler = defaultHandler;
+	}
+
+	@Test
+	public void testSupplierIsNotCalledWithDebugDisabled() {
+		handler.enabled.remove(Level.DEBUG);
+		TelemetryManager.telemetryHandler = handler;
+
+		TelemetryManager.log(() -> message("debug message"));
+		TelemetryManager.log(() -> message("debug message"), () -> {
+			calls.incrementAndGet();
+			return Collections.<String, Object>singletonMap("size", 10);
+		});
+		assertEquals(0, calls.get());
+		assertTrue(handler.events.isEmpty());
+
+		TelemetryManager.info(() -> message("info message"));
+		assertEquals(1, calls.get());
+		assertEquals(1, handler.events.size());
+		assertTrue(handler.events.get(0).contains("\"info message\""));
+	}
+
+	@Test
+	public void testSupplierIsCalledOnceWithDebugEnabled() {
+		TelemetryManager.telemetryHandler = handler;
+
+		TelemetryManager.log(() -> message("debug message"));
+		assertEquals(1, calls.get());
+		assertEquals(1, handler.events.size());
+		assertTrue(handler.events.get(0).contains("\"level\":\"DEBUG\""));
+		assertTrue(handler.events.get(0).contains("\"debug message\""));
+	}
+
+	private String message(String message) {
+		calls.incrementAndGet();
+		return message;
+	}
+
+	private static class TestHandler implements TelemetryHandler {
+
+		private Set<Level> enabled = EnumSet.allOf(Level.class);
+		private List<String> events = new ArrayList<String>();
+
+		@Override
+		public void send(String event, Level level) {
+			send(event, level, false);
+		}
+
+		@Override
+		public void send(String event, Level level, boolean telemetry) {
+			events.add(event);
+		}
+
+		@Override
+		public boolean isEnabled(Level level) {
+			return enabled.contains(level);
+		}
+	}
+}
@@ -0,0 +1,150 @@
+package org.ekstep.telemetry.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.clients.producer.Callback;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.ekstep.telemetry.util.KafkaEventSink.OverflowPolicy;
+import org.junit.After;
+import org.junit.Test;
+
+public class KafkaEventSinkTest {
+
+	private static final String TOPIC = "test.telemetry";
+
+	private BlockingProducer producer = new BlockingProducer();
+	private List<String> fallback = Collections.synchronizedList(new ArrayList<String>());
+	private KafkaEventSink sink;
+
+	@After
+	public void close() {
+		producer.release();
+		if (null != sink)
+			sink.close();
+	}
+
+	@Test
+	public void testDropOldestPolicyDropsTheOldestEvent() throws Exception {
+		sink = new KafkaEventSink(producer, 2, OverflowPolicy.DROP_OLDEST);
+		fillQueue();
+		sink.send(TOPIC, "e4", fallback::add);
+		assertEquals(1, sink.getDropped());
+
+		producer.release();
+		assertEquals(sent("e1", "e3", "e4"), waitForSent(3));
+		assertTrue(fallback.isEmpty());
+	}
+
+	@Test
+	public void testBlockPolicyWaitsForSpace() throws Exception {
+		sink = new KafkaEventSink(producer, 2, OverflowPolicy.BLOCK);
+		fillQueue();
+		Thread sending = new Thread(() -> sink.send(TOPIC, "e4", fallback::add));
+		sending.start();
+		sending.join(200);
+		assertTrue(sending.isAlive());
+
+		producer.release();
+		sending.join(5000);
+		assertEquals(sent("e1", "e2", "e3", "e4"), waitForSent(4));
+		assertEquals(0, sink.getDropped());
+		assertTrue(fallback.isEmpty());
+	}
+
+	@Test
+	public void testFilePolicyWritesTheEventWithItsFallback() throws Exception {
+		sink = new KafkaEventSink(producer, 2, OverflowPolicy.FILE);
+		fillQueue();
+		sink.send(TOPIC, "e4", fallback::add);
+		assertEquals(sent("e4"), fallback);
+
+		producer.release();
+		assertEquals(sent("e1", "e2", "e3"), waitForSent(3));
+		assertEquals(0, sink.getDropped());
+	}
+
+	@Test
+	public void testFailedEventIsWrittenWithItsFallback() throws Exception {
+		producer.release();
+		sink = new KafkaEventSink(producer, 2, OverflowPolicy.FILE);
+		sink.send(TOPIC, "e1", fallback::add);
+		waitForSent(1);
+		assertTrue(producer.errorNext(new RuntimeException("broker not available")));
+		assertEquals(sent("e1"), fallback);
+	}
+
+	@Test
+	public void testEventSentAfterIdleIsDelivered() throws Exception {
+		producer.release();
+		sink = new KafkaEventSink(producer, 2, OverflowPolicy.FILE);
+		Thread.sleep(200);
+		sink.send(TOPIC, "e1", fallback::add);
+		assertEquals(sent("e1"), waitForSent(1));
+	}
+
+	/**
+	 * Sends e1, which the sending thread takes and blocks on, and e2 and e3,
+	 * which fill the queue of size 2.
+	 */
+	private void fillQueue() throws InterruptedException {
+		sink.send(TOPIC, "e1", fallback::add);
+		assertTrue(producer.sending.await(5, TimeUnit.SECONDS));
+		sink.send(TOPIC, "e2", fallback::add);
+		sink.send(TOPIC, "e3", fallback::add);
+	}
+
+	private List<String> waitForSent(int count) throws InterruptedException {
+		long end = System.currentTimeMillis() + 5000;
+		while (producer.history().size() < count && System.currentTimeMillis() < end)
+			Thread.sleep(5);
+		List<String> events = new ArrayList<String>();
+		for (ProducerRecord<String, String> record : producer.history())
+			events.add(record.value());
+		return events;
+	}
+
+	private List<String> sent(String... events) {
+		List<String> list = new ArrayList<String>();
+		Collections.addAll(list, events);
+		return list;
+	}
+
+	/**
+	 * Blocks the sending thread on the first event until released, the
+	 * completion of the sends is left to the test.
+	 */
+	private static class BlockingProducer extends MockProducer<String, String> {
+		final CountDownLatch sending = new CountDownLatch(1);
+		final CountDownLatch released = new CountDownLatch(1);
+
+		BlockingProducer() {
+			super(false, new StringSerializer(), new StringSerializer());
+		}
+
+		void release() {
+			released.countDown();
+		}
+
+		@Override
+		public Future<RecordMetadata> send(ProducerRecord<String, String> record, Callback callback) {
+			sending.countDown();
+			try {
+				released.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return super.send(record, callback);
+		}
+	}
+}
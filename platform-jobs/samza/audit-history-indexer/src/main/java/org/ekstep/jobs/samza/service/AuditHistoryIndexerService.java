@@ -7,16 +7,21 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
 
 import org.apache.commons.lang3.BooleanUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.samza.config.Config;
+import org.apache.samza.system.SystemStream;
 import org.apache.samza.task.MessageCollector;
 import org.codehaus.jackson.map.ObjectMapper;
 import org.ekstep.common.Platform;
 import org.ekstep.dac.dto.AuditHistoryRecord;
 import org.ekstep.dac.enums.AuditHistoryConstants;
+import org.ekstep.jobs.samza.exception.PlatformErrorCodes;
+import org.ekstep.jobs.samza.exception.PlatformException;
 import org.ekstep.jobs.samza.service.task.JobMetrics;
+import org.ekstep.jobs.samza.util.FailedEventsUtil;
 import org.ekstep.jobs.samza.util.JSONUtils;
 import org.ekstep.jobs.samza.util.JobLogger;
 import org.ekstep.searchindex.elasticsearch.ElasticSearchUtil;
@@ -34,6 +39,19 @@ public class AuditHistoryIndexerService implements ISamzaService {
 	static JobLogger LOGGER = new JobLogger(AuditHistoryIndexerService.class);
 	private ObjectMapper mapper = new ObjectMapper();
 	DateFormat df = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss");
+
+	private SystemStream systemStream = null;
+	private boolean batchEnabled = false;
+	private int batchSize;
+	private long batchMaxBytes;
+	private long batchWindow;
+	private int batchMaxRetries;
+	private long batchRetryBackoff;
+	private List<Map<String, Object>> batchMessages = new ArrayList<Map<String, Object>>();
+	private List<String> batchIds = new ArrayList<String>();
+	private List<Map<String, Object>> batchDocuments = new ArrayList<Map<String, Object>>();
+	private long batchBytes = 0;
+	private long batchStartTime = 0;
 	
 	/** The constructor */
 	public AuditHistoryIndexerService() {
@@ -43,6 +61,14 @@ public class AuditHistoryIndexerService implements ISamzaService {
 
 	public void initialize(Config config) throws Exception {
 		JSONUtils.loadProperties(config);
+		batchEnabled = config.getBoolean("audit.batch.enable", false);
+		batchSize = config.getInt("audit.batch.size", 1000);
+		batchMaxBytes = config.getLong("audit.batch.max_bytes", 5242880);
+		batchWindow = config.getLong("audit.batch.window.ms", 1000);
+		batchMaxRetries = config.getInt("audit.batch.max_retries", 3);
+		batchRetryBackoff = config.getLong("audit.batch.retry_backoff", 1000);
+		if (batchEnabled)
+			systemStream = new SystemStream("kafka", config.get("output.failed.events.topic.name"));
 		ElasticSearchUtil.initialiseESClient(AuditHistoryConstants.AUDIT_HISTORY_INDEX,
 				Platform.config.getString("search.es_conn_info"));
 		// Create index if not found
@@ -67,9 +93,19 @@ public class AuditHistoryIndexerService implements ISamzaService {
 				LOGGER.info("Audit record created for " + identifier);
 				Map<String, Object> entity_map = mapper.convertValue(record, Map.class);
 				String document = mapper.writeValueAsString(entity_map);
+				String documentId = getDocumentId(message);
+				if (batchEnabled) {
+					if (batchMessages.isEmpty())
+						batchStartTime = System.currentTimeMillis();
+					batchMessages.add(message);
+					batchIds.add(documentId);
+					batchDocuments.add(entity_map);
+					batchBytes += document.length();
+					return;
+				}
 				LOGGER.debug("Saving the record into ES");
-				ElasticSearchUtil.addDocument(AuditHistoryConstants.AUDIT_HISTORY_INDEX,
-						AuditHistoryConstants.AUDIT_HISTORY_INDEX_TYPE, document);
+				ElasticSearchUtil.addDocumentWithId(AuditHistoryConstants.AUDIT_HISTORY_INDEX,
+						AuditHistoryConstants.AUDIT_HISTORY_INDEX_TYPE, documentId, document);
 				metrics.incSuccessCounter();
 			} catch (Exception ex) {
 				LOGGER.error("Error while processing message", message, ex);
@@ -80,6 +116,96 @@ public class AuditHistoryIndexerService implements ISamzaService {
 		}
 	}
 
+	public boolean isBatchEnabled() {
+		return batchEnabled;
+	}
+
+	/**
+	 * @return true if the buffered records reached the size, the byte size or
+	 *         the age of a batch
+	 */
+	public boolean isFlushRequired() {
+		return !batchMessages.isEmpty() && (batchMessages.size() >= batchSize || batchBytes >= batchMaxBytes
+				|| System.currentTimeMillis() - batchStartTime >= batchWindow);
+	}
+
+	/**
+	 * Writes the buffered records with a bulk request. The records which fail,
+	 * e.g. when the bulk queue of ES is full, are written again after a backoff
+	 * up to <code>audit.batch.max_retries</code> times, blocking the task until
+	 * ES catches up, and the events of the records which still fail are pushed
+	 * to the failed events topic. The records are written with the id of their
+	 * event, so a retried or redelivered event overwrites its record.
+	 */
+	public void flush(JobMetrics metrics, MessageCollector collector) {
+		if (batchMessages.isEmpty())
+			return;
+		List<Map<String, Object>> messages = batchMessages;
+		List<String> ids = batchIds;
+		List<Map<String, Object>> documents = batchDocuments;
+		batchMessages = new ArrayList<Map<String, Object>>();
+		batchIds = new ArrayList<String>();
+		batchDocuments = new ArrayList<Map<String, Object>>();
+		batchBytes = 0;
+
+		List<Integer> pending = new ArrayList<Integer>();
+		for (int i = 0; i < documents.size(); i++)
+			pending.add(i);
+		String error = null;
+		for (int attempt = 0; attempt <= batchMaxRetries && !pending.isEmpty(); attempt++) {
+			try {
+				if (attempt > 0) {
+					LOGGER.info("Retrying " + pending.size() + " audit records in bulk, attempt: " + attempt);
+					Thread.sleep(batchRetryBackoff << (attempt - 1));
+				}
+				List<String> requestIds = new ArrayList<String>();
+				List<Map<String, Object>> request = new ArrayList<Map<String, Object>>();
+				for (Integer index : pending) {
+					requestIds.add(ids.get(index));
+					request.add(documents.get(index));
+				}
+				Map<Integer, String> failures = ElasticSearchUtil.bulkAddDocuments(
+						AuditHistoryConstants.AUDIT_HISTORY_INDEX, AuditHistoryConstants.AUDIT_HISTORY_INDEX_TYPE,
+						requestIds, request);
+				List<Integer> failed = new ArrayList<Integer>();
+				for (int i = 0; i < pending.size(); i++) {
+					if (failures.containsKey(i)) {
+						failed.add(pending.get(i));
+						error = failures.get(i);
+					} else {
+						metrics.incSuccessCounter();
+					}
+				}
+				pending = failed;
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				error = e.getMessage();
+				break;
+			} catch (Exception e) {
+				LOGGER.error("Error while saving " + pending.size() + " audit records into ES", e);
+				error = e.getMessage();
+			}
+		}
+		for (Integer index : pending) {
+			metrics.incFailedCounter();
+			FailedEventsUtil.pushEventForRetry(systemStream, messages.get(index), metrics, collector,
+					PlatformErrorCodes.SYSTEM_ERROR.name(),
+					new PlatformException(PlatformErrorCodes.SYSTEM_ERROR.name(), "Unable to save the audit record: " + error));
+		}
+		LOGGER.info("Saved " + (messages.size() - pending.size()) + " audit records into ES, failed: " + pending.size());
+	}
+
+	/**
+	 * @return the message id of the event, or a name based UUID of the event
+	 *         if it has none, so the same event always gets the same record id
+	 */
+	private String getDocumentId(Map<String, Object> message) throws Exception {
+		String mid = (String) message.get("mid");
+		if (StringUtils.isNotBlank(mid))
+			return mid;
+		return UUID.nameUUIDFromBytes(mapper.writeValueAsBytes(message)).toString();
+	}
+
 	/**
 	 * This method getAuditHistory sets the required data from the transaction message that can be saved to elastic
 	 * search
@@ -4,6 +4,7 @@ import java.util.HashMap;
 import java.util.Map;
 
 import org.apache.samza.config.Config;
+import org.apache.samza.config.ConfigException;
 import org.apache.samza.system.IncomingMessageEnvelope;
 import org.apache.samza.system.OutgoingMessageEnvelope;
 import org.apache.samza.system.SystemStream;
@@ -12,9 +13,9 @@ import org.apache.samza.task.MessageCollector;
 import org.apache.samza.task.StreamTask;
 import org.apache.samza.task.TaskContext;
 import org.apache.samza.task.TaskCoordinator;
+import org.apache.samza.task.TaskCoordinator.RequestScope;
 import org.apache.samza.task.WindowableTask;
 import org.ekstep.jobs.samza.service.AuditHistoryIndexerService;
-import org.ekstep.jobs.samza.service.ISamzaService;
 import org.ekstep.jobs.samza.service.task.JobMetrics;
 import org.ekstep.jobs.samza.util.JobLogger;
 
@@ -23,7 +24,9 @@ public class AuditHistoryIndexerTask extends BaseTask {
 	private static JobLogger LOGGER = new JobLogger(AuditHistoryIndexerTask.class);
 
 	private JobMetrics metrics;
-	private ISamzaService auditHistoryMsgProcessor = new AuditHistoryIndexerService();
+	private AuditHistoryIndexerService auditHistoryMsgProcessor = new AuditHistoryIndexerService();
+	private long metricsWindow;
+	private long lastMetricsTime = System.currentTimeMillis();
 
 	@Override
 	public void init(Config config, TaskContext context) throws Exception {
@@ -31,6 +34,10 @@ public class AuditHistoryIndexerTask extends BaseTask {
 		try {
 			metrics = new JobMetrics(context, config.get("output.metrics.job.name"), config.get("output.metrics.topic.name"));
 			auditHistoryMsgProcessor.initialize(config);
+			metricsWindow = config.getLong("output.metrics.window.ms", 300000);
+			// the offsets of a batch must not be committed before it is saved.
+			if (auditHistoryMsgProcessor.isBatchEnabled() && config.getLong("task.commit.ms", 60000) != -1)
+				throw new ConfigException("audit.batch.enable requires task.commit.ms=-1, the offsets are committed after each batch");
 			LOGGER.info("Task initialized");
 		} catch (Exception ex) {
 			LOGGER.error("Task initialization failed", ex);
@@ -48,6 +55,19 @@ public class AuditHistoryIndexerTask extends BaseTask {
 			metrics.incErrorCounter();
 			LOGGER.error("Message processing Error", outgoingMap, e);
 		}
+		if (auditHistoryMsgProcessor.isFlushRequired())
+			flush(collector, coordinator);
+	}
+
+	/**
+	 * Writes the buffered audit records and commits the offsets of the task,
+	 * so the offset of an event is committed only after its record is saved
+	 * (or the event is pushed to the failed events topic). The batch mode runs
+	 * with <code>task.commit.ms=-1</code>.
+	 */
+	private void flush(MessageCollector collector, TaskCoordinator coordinator) {
+		auditHistoryMsgProcessor.flush(metrics, collector);
+		coordinator.commit(RequestScope.CURRENT_TASK);
 	}
 
 	@SuppressWarnings("unchecked")
@@ -63,6 +83,13 @@ public class AuditHistoryIndexerTask extends BaseTask {
 
 	@Override
 	public void window(MessageCollector collector, TaskCoordinator coordinator) throws Exception {
+		if (auditHistoryMsgProcessor.isBatchEnabled()) {
+			flush(collector, coordinator);
+			// the window of the batch mode is shorter than the metrics window.
+			if (System.currentTimeMillis() - lastMetricsTime < metricsWindow)
+				return;
+			lastMetricsTime = System.currentTimeMillis();
+		}
 		Map<String, Object> event = metrics.collect();
 		collector.send(new OutgoingMessageEnvelope(new SystemStream("kafka", metrics.getTopic()), event));
 		metrics.clear();
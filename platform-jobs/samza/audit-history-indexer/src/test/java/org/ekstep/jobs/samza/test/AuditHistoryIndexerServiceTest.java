@@ -1,6 +1,8 @@
 package org.ekstep.jobs.samza.test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 
 import java.io.File;
@@ -94,6 +96,69 @@ public class AuditHistoryIndexerServiceTest {
 		assertEquals(null, (String)map.get("objectId"));
 	}
 	
+	@Test
+	public void testBatchSavesRecordsOnFlush() throws Exception {
+		initBatch(10);
+		JobMetrics metrics = mock(JobMetrics.class);
+		service.processMessage(getMessage("flushgraph", "batch_flush_1"), metrics, collector);
+		service.processMessage(getMessage("flushgraph", "batch_flush_2"), metrics, collector);
+		assertFalse(service.isFlushRequired());
+
+		service.flush(metrics, collector);
+		Thread.sleep(2000);
+		assertEquals(2, countByGraphId("flushgraph"));
+	}
+
+	@Test
+	public void testBatchFlushRequiredAtBatchSize() throws Exception {
+		initBatch(2);
+		JobMetrics metrics = mock(JobMetrics.class);
+		service.processMessage(getMessage("sizegraph", "batch_size_1"), metrics, collector);
+		assertFalse(service.isFlushRequired());
+		service.processMessage(getMessage("sizegraph", "batch_size_2"), metrics, collector);
+		assertTrue(service.isFlushRequired());
+
+		service.flush(metrics, collector);
+		assertFalse(service.isFlushRequired());
+	}
+
+	@Test
+	public void testBatchRedeliveredEventSavedOnce() throws Exception {
+		initBatch(10);
+		JobMetrics metrics = mock(JobMetrics.class);
+		service.processMessage(getMessage("retrygraph", "batch_retry_1"), metrics, collector);
+		service.flush(metrics, collector);
+		// the same event delivered again, e.g. after a restart before the commit.
+		service.processMessage(getMessage("retrygraph", "batch_retry_1"), metrics, collector);
+		service.processMessage(getMessage("retrygraph", "batch_retry_1"), metrics, collector);
+		service.flush(metrics, collector);
+		Thread.sleep(2000);
+		assertEquals(1, countByGraphId("retrygraph"));
+	}
+
+	private void initBatch(int batchSize) throws Exception {
+		Map<String, String> props = new HashMap<String, String>();
+		props.put("search.es_conn_info", "localhost:9200");
+		props.put("output.failed.events.topic.name", "test.learning.events.failed");
+		props.put("audit.batch.enable", "true");
+		props.put("audit.batch.size", String.valueOf(batchSize));
+		props.put("audit.batch.window.ms", "60000");
+		service.initialize(new MapConfig(props));
+	}
+
+	private Map<String, Object> getMessage(String graphId, String mid) throws Exception {
+		Map<String, Object> message = mapper.readValue(validMessage, new TypeReference<Map<String, Object>>() {});
+		message.put("graphId", graphId);
+		message.put("mid", mid);
+		return message;
+	}
+
+	private long countByGraphId(String graphId) throws IOException {
+		SearchResponse response = client.search(new SearchRequest(AuditHistoryConstants.AUDIT_HISTORY_INDEX)
+				.source(new SearchSourceBuilder().query(QueryBuilders.termQuery("graphId", graphId))));
+		return response.getHits().getTotalHits();
+	}
+
 	public Map<String, Object> findById(String graphId) throws IOException {
 		SearchResponse response = client.search(new SearchRequest(AuditHistoryConstants.AUDIT_HISTORY_INDEX)
 				.source(new SearchSourceBuilder().query(QueryBuilders.termQuery("graphId", graphId))));
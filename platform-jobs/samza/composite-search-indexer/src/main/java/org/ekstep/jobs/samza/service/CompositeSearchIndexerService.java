@@ -17,6 +17,9 @@ import org.ekstep.learning.router.LearningRequestRouterPool;
 import org.ekstep.searchindex.util.CompositeSearchConstants;
 import org.elasticsearch.client.transport.NoNodeAvailableException;
 
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
 
 public class CompositeSearchIndexerService implements ISamzaService {
@@ -66,26 +69,78 @@ public class CompositeSearchIndexerService implements ISamzaService {
 				processMessage(message, metrics);
 				LOGGER.debug("Composite record added/updated");
 				metrics.incSuccessCounter();
-			} catch (PlatformException ex) {
-				LOGGER.error("Error while processing message:", message, ex);
-				metrics.incFailedCounter();
-				FailedEventsUtil.pushEventForRetry(systemStream, message, metrics, collector,
-						PlatformErrorCodes.SYSTEM_ERROR.name(), ex);
 			} catch (Exception ex) {
-				LOGGER.error("Error while processing message:", message, ex);
-				metrics.incErrorCounter();
-				if (null != message) {
-					String errorCode = ex instanceof NoNodeAvailableException ? PlatformErrorCodes.SYSTEM_ERROR.name()
-							: PlatformErrorCodes.PROCESSING_ERROR.name();
-					FailedEventsUtil.pushEventForRetry(systemStream, message, metrics, collector,
-							errorCode, ex);
-				}
+				handleFailure(message, ex, metrics, collector);
 			}
 		} else {
 			LOGGER.info("Learning event not qualified for indexing");
 		}
 	}
 
+	/**
+	 * Processes a batch of messages. The data and set node events are indexed
+	 * together into compositesearch, see
+	 * {@link CompositeSearchIndexer#processESMessages(List)}, the other
+	 * messages are processed one by one.
+	 */
+	public void processMessages(List<Map<String, Object>> messages, JobMetrics metrics, MessageCollector collector)
+			throws Exception {
+		List<Map<String, Object>> compositeMessages = new ArrayList<Map<String, Object>>();
+		for (Map<String, Object> message : messages) {
+			if (isCompositeSearchMessage(message))
+				compositeMessages.add(message);
+			else
+				processMessage(message, metrics, collector);
+		}
+		if (compositeMessages.isEmpty())
+			return;
+		Map<Map<String, Object>, Exception> failures;
+		try {
+			failures = csIndexer.processESMessages(compositeMessages);
+		} catch (Exception ex) {
+			LOGGER.error("Error while indexing a batch of " + compositeMessages.size() + " messages", ex);
+			failures = new IdentityHashMap<Map<String, Object>, Exception>();
+			for (Map<String, Object> message : compositeMessages)
+				failures.put(message, ex);
+		}
+		for (Map<String, Object> message : compositeMessages) {
+			Exception ex = failures.get(message);
+			if (null == ex)
+				metrics.incSuccessCounter();
+			else
+				handleFailure(message, ex, metrics, collector);
+		}
+	}
+
+	private boolean isCompositeSearchMessage(Map<String, Object> message) {
+		if (null == message || null == message.get("operationType"))
+			return false;
+		Object index = message.get("index");
+		if (BooleanUtils.isFalse(BooleanUtils.toBoolean(null == index ? "true" : index.toString())))
+			return false;
+		String nodeType = (String) message.get("nodeType");
+		return CompositeSearchConstants.NODE_TYPE_SET.equals(nodeType)
+				|| CompositeSearchConstants.NODE_TYPE_DATA.equals(nodeType);
+	}
+
+	private void handleFailure(Map<String, Object> message, Exception ex, JobMetrics metrics,
+			MessageCollector collector) {
+		LOGGER.error("Error while processing message:", message, ex);
+		if (ex instanceof PlatformException) {
+			metrics.incFailedCounter();
+			FailedEventsUtil.pushEventForRetry(systemStream, message, metrics, collector,
+					PlatformErrorCodes.SYSTEM_ERROR.name(), ex);
+		} else {
+			metrics.incErrorCounter();
+			if (null != message) {
+				String errorCode = ex instanceof NoNodeAvailableException
+						? PlatformErrorCodes.SYSTEM_ERROR.name() : PlatformErrorCodes.PROCESSING_ERROR.name();
+				FailedEventsUtil.pushEventForRetry(systemStream, message, metrics, collector,
+						errorCode, ex);
+			}
+		}
+	}
+
 	public void processMessage(Map<String, Object> message, JobMetrics metrics) throws Exception {
 		if (message != null && message.get("operationType") != null) {
 			String nodeType = (String) message.get("nodeType");
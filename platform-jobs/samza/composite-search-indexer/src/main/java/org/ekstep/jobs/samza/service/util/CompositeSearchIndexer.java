@@ -20,8 +20,13 @@ import org.ekstep.searchindex.util.CompositeSearchConstants;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.Arrays;
 import java.util.Collections;
 
@@ -35,6 +40,10 @@ public class CompositeSearchIndexer extends AbstractESIndexer {
 	private ObjectMapper mapper = new ObjectMapper();
 	private List<String> nestedFields = new ArrayList<String>();
 	private ControllerUtil util = new ControllerUtil();
+	private int batchMaxRetries = Platform.config.hasPath("indexer.batch.max_retries")
+			? Platform.config.getInt("indexer.batch.max_retries") : 3;
+	private long batchRetryBackoff = Platform.config.hasPath("indexer.batch.retry_backoff")
+			? Platform.config.getLong("indexer.batch.retry_backoff") : 1000;
 
 	public CompositeSearchIndexer() {
 		setNestedFields();
@@ -91,6 +100,12 @@ public class CompositeSearchIndexer extends AbstractESIndexer {
 				});
 			}
 		}
+		return updateIndexDocument(indexDocument, message, relationMap, indexableProps);
+	}
+
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private Map<String, Object> updateIndexDocument(Map<String, Object> indexDocument, Map<String, Object> message,
+			Map<String, String> relationMap, List<String> indexableProps) throws Exception {
 		Map transactionData = (Map) message.get("transactionData");
 		if (transactionData != null) {
 			Map<String, Object> addedProperties = (Map<String, Object>) transactionData.get("properties");
@@ -187,6 +202,123 @@ public class CompositeSearchIndexer extends AbstractESIndexer {
 
 	public void processESMessage(String graphId, String objectType, String uniqueId, String messageId,
 			 Map<String, Object> message, JobMetrics metrics) throws Exception {
+		LOGGER.info("Message Id: " + messageId + ", " + "Unique Id: " + uniqueId + " is indexing into compositesearch.");
+		DefinitionContext context = getDefinitionContext(graphId, objectType);
+		upsertDocument(uniqueId, message, context.relationMap, context.indexableProps);
+	}
+
+	/**
+	 * Indexes a batch of events with a single multi-get and a single bulk
+	 * request. The events of a node are applied in their order to one copy of
+	 * its document, fetched only if its first event is not a create. The
+	 * documents which fail in the bulk request are retried up to
+	 * <code>indexer.batch.max_retries</code> times.
+	 *
+	 * @return the events which could not be indexed, with their error
+	 */
+	public Map<Map<String, Object>, Exception> processESMessages(List<Map<String, Object>> messages) throws Exception {
+		Map<Map<String, Object>, Exception> failures = new IdentityHashMap<Map<String, Object>, Exception>();
+		Map<String, DefinitionContext> contexts = new HashMap<String, DefinitionContext>();
+		Map<String, List<Map<String, Object>>> nodeMessages = new LinkedHashMap<String, List<Map<String, Object>>>();
+		List<String> fetchIds = new ArrayList<String>();
+		for (Map<String, Object> message : messages) {
+			String graphId = (String) message.get("graphId");
+			String objectType = (String) message.get("objectType");
+			try {
+				if (!contexts.containsKey(graphId + ":" + objectType))
+					contexts.put(graphId + ":" + objectType, getDefinitionContext(graphId, objectType));
+			} catch (Exception e) {
+				failures.put(message, e);
+				continue;
+			}
+			String uniqueId = (String) message.get("nodeUniqueId");
+			List<Map<String, Object>> events = nodeMessages.get(uniqueId);
+			if (null == events) {
+				events = new ArrayList<Map<String, Object>>();
+				nodeMessages.put(uniqueId, events);
+				if (!CompositeSearchConstants.OPERATION_CREATE.equals(message.get("operationType")))
+					fetchIds.add(uniqueId);
+			}
+			events.add(message);
+		}
+
+		Map<String, String> currentDocuments = ElasticSearchUtil.getDocumentsAsStringById(
+				CompositeSearchConstants.COMPOSITE_SEARCH_INDEX, CompositeSearchConstants.COMPOSITE_SEARCH_INDEX_TYPE,
+				fetchIds);
+		Map<String, Map<String, Object>> documents = new LinkedHashMap<String, Map<String, Object>>();
+		Set<String> deletedIds = new LinkedHashSet<String>();
+		for (Map.Entry<String, List<Map<String, Object>>> entry : nodeMessages.entrySet()) {
+			String uniqueId = entry.getKey();
+			Map<String, Object> indexDocument = new HashMap<String, Object>();
+			String documentJson = currentDocuments.get(uniqueId);
+			if (StringUtils.isNotBlank(documentJson))
+				indexDocument = mapper.readValue(documentJson, new TypeReference<Map<String, Object>>() {
+				});
+			boolean deleted = false;
+			for (Map<String, Object> message : entry.getValue()) {
+				DefinitionContext context = contexts.get(message.get("graphId") + ":" + message.get("objectType"));
+				String operationType = (String) message.get("operationType");
+				try {
+					if (CompositeSearchConstants.OPERATION_CREATE.equals(operationType)) {
+						indexDocument = updateIndexDocument(new HashMap<String, Object>(), message, context.relationMap,
+								context.indexableProps);
+						deleted = false;
+					} else if (CompositeSearchConstants.OPERATION_UPDATE.equals(operationType)) {
+						indexDocument = updateIndexDocument(indexDocument, message, context.relationMap,
+								context.indexableProps);
+						deleted = false;
+					} else if (CompositeSearchConstants.OPERATION_DELETE.equals(operationType)) {
+						if (StringUtils.equalsIgnoreCase("Parent", (String) indexDocument.get("visibility"))) {
+							LOGGER.info("Not deleting the document (visibility: Parent) with ID:" + uniqueId);
+						} else {
+							indexDocument = new HashMap<String, Object>();
+							deleted = true;
+						}
+					}
+				} catch (Exception e) {
+					failures.put(message, e);
+				}
+			}
+			if (deleted)
+				deletedIds.add(uniqueId);
+			else if (!indexDocument.isEmpty())
+				documents.put(uniqueId, indexDocument);
+		}
+
+		Map<String, String> bulkFailures = writeDocuments(documents, deletedIds);
+		for (Map.Entry<String, String> failure : bulkFailures.entrySet()) {
+			for (Map<String, Object> message : nodeMessages.get(failure.getKey()))
+				failures.put(message, new PlatformException(PlatformErrorCodes.SYSTEM_ERROR.name(),
+						"Unable to index " + failure.getKey() + ": " + failure.getValue()));
+		}
+		LOGGER.info("Indexed " + messages.size() + " events of " + nodeMessages.size()
+				+ " nodes into compositesearch, failed events: " + failures.size());
+		return failures;
+	}
+
+	private Map<String, String> writeDocuments(Map<String, Map<String, Object>> documents, Set<String> deletedIds)
+			throws Exception {
+		Map<String, String> failures = ElasticSearchUtil.bulkIndexAndDelete(
+				CompositeSearchConstants.COMPOSITE_SEARCH_INDEX, CompositeSearchConstants.COMPOSITE_SEARCH_INDEX_TYPE,
+				documents, deletedIds);
+		for (int attempt = 1; attempt <= batchMaxRetries && !failures.isEmpty(); attempt++) {
+			LOGGER.info("Retrying " + failures.size() + " failed documents in bulk, attempt: " + attempt);
+			Thread.sleep(batchRetryBackoff << (attempt - 1));
+			Map<String, Map<String, Object>> retryDocuments = new HashMap<String, Map<String, Object>>();
+			Set<String> retryDeletedIds = new HashSet<String>();
+			for (String id : failures.keySet()) {
+				if (deletedIds.contains(id))
+					retryDeletedIds.add(id);
+				else
+					retryDocuments.put(id, documents.get(id));
+			}
+			failures = ElasticSearchUtil.bulkIndexAndDelete(CompositeSearchConstants.COMPOSITE_SEARCH_INDEX,
+					CompositeSearchConstants.COMPOSITE_SEARCH_INDEX_TYPE, retryDocuments, retryDeletedIds);
+		}
+		return failures;
+	}
+
+	private DefinitionContext getDefinitionContext(String graphId, String objectType) throws Exception {
 		List<String> indexablePropslist = new ArrayList<String>();
 		DefinitionDTO definitionNode = util.getDefinition(graphId, objectType);
 		if (null == definitionNode) {
@@ -204,9 +336,7 @@ public class CompositeSearchIndexer extends AbstractESIndexer {
 		if (objectTypeList.contains(objectType))
 			indexablePropslist = getIndexableProperties(definition);
 
-		LOGGER.info("Message Id: " + messageId + ", " + "Unique Id: " + uniqueId + " is indexing into compositesearch.");
-		Map<String, String> relationMap = getRelationMap(objectType, definition);
-		upsertDocument(uniqueId, message, relationMap, indexablePropslist);
+		return new DefinitionContext(getRelationMap(objectType, definition), indexablePropslist);
 	}
 
 	private void upsertDocument(String uniqueId, Map<String, Object> message, Map<String, String> relationMap, List<String> indexableProps)
@@ -267,4 +397,14 @@ public class CompositeSearchIndexer extends AbstractESIndexer {
 		}
 	}
 
+	private static class DefinitionContext {
+		final Map<String, String> relationMap;
+		final List<String> indexableProps;
+
+		DefinitionContext(Map<String, String> relationMap, List<String> indexableProps) {
+			this.relationMap = relationMap;
+			this.indexableProps = indexableProps;
+		}
+	}
+
 }
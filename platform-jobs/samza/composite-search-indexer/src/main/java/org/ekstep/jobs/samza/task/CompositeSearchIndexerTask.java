@@ -3,6 +3,7 @@ package org.ekstep.jobs.samza.task;
 import org.apache.commons.collections.MapUtils;
 import org.apache.commons.lang.StringUtils;
 import org.apache.samza.config.Config;
+import org.apache.samza.config.ConfigException;
 import org.apache.samza.system.IncomingMessageEnvelope;
 import org.apache.samza.system.OutgoingMessageEnvelope;
 import org.apache.samza.system.SystemStream;
@@ -11,6 +12,7 @@ import org.apache.samza.task.MessageCollector;
 import org.apache.samza.task.StreamTask;
 import org.apache.samza.task.TaskContext;
 import org.apache.samza.task.TaskCoordinator;
+import org.apache.samza.task.TaskCoordinator.RequestScope;
 import org.apache.samza.task.WindowableTask;
 import org.ekstep.jobs.samza.service.CompositeSearchIndexerService;
 import org.ekstep.jobs.samza.service.ISamzaService;
@@ -19,7 +21,9 @@ import org.ekstep.jobs.samza.util.JobLogger;
 import org.ekstep.jobs.samza.util.SamzaCommonParams;
 import org.ekstep.learning.util.ControllerUtil;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 
@@ -31,6 +35,14 @@ public class CompositeSearchIndexerTask extends BaseTask {
 	private ISamzaService service;
 	private JobMetrics metrics;
 
+	private boolean batchEnabled = false;
+	private int batchSize;
+	private long batchWindow;
+	private long metricsWindow;
+	private List<Map<String, Object>> batch = new ArrayList<Map<String, Object>>();
+	private long batchStartTime = 0;
+	private long lastMetricsTime = System.currentTimeMillis();
+
 	public ISamzaService getService() {
 		return service;
 	}
@@ -48,7 +60,15 @@ public class CompositeSearchIndexerTask extends BaseTask {
 			metrics = new JobMetrics(context, config.get("output.metrics.job.name"), config.get("output.metrics.topic.name"));
 			this.service = (service == null ? new CompositeSearchIndexerService() : service);
 			this.service.initialize(config);
-			LOGGER.info("Task initialized");
+			batchEnabled = config.getBoolean("indexer.batch.enable", false)
+					&& this.service instanceof CompositeSearchIndexerService;
+			batchSize = config.getInt("indexer.batch.size", 500);
+			batchWindow = config.getLong("indexer.batch.window.ms", 1000);
+			metricsWindow = config.getLong("output.metrics.window.ms", 300000);
+			// the offsets of a batch must not be committed before it is indexed.
+			if (batchEnabled && config.getLong("task.commit.ms", 60000) != -1)
+				throw new ConfigException("indexer.batch.enable requires task.commit.ms=-1, the offsets are committed after each batch");
+			LOGGER.info("Task initialized, batch indexing: " + batchEnabled);
 		} catch (Exception ex) {
 			LOGGER.error("Task initialization failed", ex);
 			throw ex;
@@ -71,8 +91,15 @@ public class CompositeSearchIndexerTask extends BaseTask {
 					LOGGER.info("definition_update event received for objectType: " + edata.getOrDefault("objectType", "").toString());
 					String graphId = edata.getOrDefault("graphId", "").toString();
 					String objectType = edata.getOrDefault("objectType", "").toString();
+					flush(collector, coordinator);
 					controllerUtil.updateDefinitionCache(graphId, objectType);
 				}
+			} else if (batchEnabled) {
+				if (batch.isEmpty())
+					batchStartTime = System.currentTimeMillis();
+				batch.add(outgoingMap);
+				if (batch.size() >= batchSize || System.currentTimeMillis() - batchStartTime >= batchWindow)
+					flush(collector, coordinator);
 			} else {
 				service.processMessage(outgoingMap, metrics, collector);
 			}
@@ -93,8 +120,35 @@ public class CompositeSearchIndexerTask extends BaseTask {
 		}
 	}
 	
+	/**
+	 * Indexes the buffered messages and commits the offsets of the task, so
+	 * the offset of a message is committed only after it is indexed (or pushed
+	 * to the failed events topic). The batch mode runs with
+	 * <code>task.commit.ms=-1</code>.
+	 */
+	private void flush(MessageCollector collector, TaskCoordinator coordinator) {
+		if (batch.isEmpty())
+			return;
+		List<Map<String, Object>> messages = batch;
+		batch = new ArrayList<Map<String, Object>>();
+		try {
+			((CompositeSearchIndexerService) service).processMessages(messages, metrics, collector);
+		} catch (Exception e) {
+			metrics.incErrorCounter();
+			LOGGER.error("Error while processing a batch of " + messages.size() + " messages", e);
+		}
+		coordinator.commit(RequestScope.CURRENT_TASK);
+	}
+
 	@Override
 	public void window(MessageCollector collector, TaskCoordinator coordinator) {
+		if (batchEnabled) {
+			flush(collector, coordinator);
+			// the window of the batch mode is shorter than the metrics window.
+			if (System.currentTimeMillis() - lastMetricsTime < metricsWindow)
+				return;
+			lastMetricsTime = System.currentTimeMillis();
+		}
 		Map<String, Object> event = metrics.collect();
 		collector.send(new OutgoingMessageEnvelope(new SystemStream("kafka", metrics.getTopic()), event));
 		metrics.clear();
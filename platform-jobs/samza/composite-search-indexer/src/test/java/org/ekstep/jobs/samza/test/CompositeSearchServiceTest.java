@@ -2,13 +2,18 @@ package org.ekstep.jobs.samza.test;
 
 import static org.junit.Assert.assertEquals;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
 import org.apache.samza.config.Config;
 import org.apache.samza.config.MapConfig;
+import org.apache.samza.system.OutgoingMessageEnvelope;
 import org.apache.samza.task.MessageCollector;
 import org.codehaus.jackson.map.ObjectMapper;
 import org.codehaus.jackson.type.TypeReference;
@@ -22,6 +27,7 @@ import org.elasticsearch.search.SearchHit;
 import org.elasticsearch.search.SearchHits;
 import org.elasticsearch.search.builder.SearchSourceBuilder;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 
 public class CompositeSearchServiceTest extends BaseTest {
 
@@ -88,6 +94,109 @@ public class CompositeSearchServiceTest extends BaseTest {
 		assertEquals(false, map.containsKey("collections"));
 	}
 	
+	@Test
+	public void testBatchAppliesEventsOfANodeInOrder() throws Exception {
+		initService();
+		JobMetrics metrics = mock(JobMetrics.class);
+		service.processMessages(Arrays.asList(
+				getMessage("do_batch_test_01", CompositeSearchConstants.OPERATION_CREATE, "subject", "literacy"),
+				getMessage("do_batch_test_01", CompositeSearchConstants.OPERATION_UPDATE, "subject", "numeracy"),
+				getMessage("do_batch_test_01", CompositeSearchConstants.OPERATION_UPDATE, "medium", "English")),
+				metrics, mock(MessageCollector.class));
+		Thread.sleep(2000);
+		Map<String, Object> map = findById("do_batch_test_01");
+		assertEquals(true, null != map);
+		assertEquals("numeracy", map.get("subject"));
+		assertEquals("English", map.get("medium"));
+		verify(metrics, times(3)).incSuccessCounter();
+	}
+
+	@Test
+	public void testBatchDeletesANodeCreatedInTheBatch() throws Exception {
+		initService();
+		JobMetrics metrics = mock(JobMetrics.class);
+		service.processMessages(Arrays.asList(
+				getMessage("do_batch_test_02", CompositeSearchConstants.OPERATION_CREATE, "subject", "literacy"),
+				getMessage("do_batch_test_02", CompositeSearchConstants.OPERATION_UPDATE, "subject", "numeracy"),
+				getMessage("do_batch_test_02", CompositeSearchConstants.OPERATION_DELETE, null, null)),
+				metrics, mock(MessageCollector.class));
+		Thread.sleep(2000);
+		assertEquals(null, findById("do_batch_test_02"));
+		verify(metrics, times(3)).incSuccessCounter();
+	}
+
+	@Test
+	public void testBatchDoesNotDeleteParentVisibilityNode() throws Exception {
+		initService();
+		JobMetrics metrics = mock(JobMetrics.class);
+		service.processMessages(Arrays.asList(
+				getMessage("do_batch_test_03", CompositeSearchConstants.OPERATION_CREATE, "visibility", "Parent"),
+				getMessage("do_batch_test_03", CompositeSearchConstants.OPERATION_DELETE, null, null)),
+				metrics, mock(MessageCollector.class));
+		Thread.sleep(2000);
+		Map<String, Object> map = findById("do_batch_test_03");
+		assertEquals(true, null != map);
+		assertEquals("Parent", map.get("visibility"));
+	}
+
+	@Test
+	public void testBatchRoutesOnlyFailedItemsToFailedTopic() throws Exception {
+		initService();
+		// maps batchTestCount as a number.
+		service.processMessages(Arrays.asList(
+				getMessage("do_batch_test_04", CompositeSearchConstants.OPERATION_CREATE, "batchTestCount", 10)),
+				mock(JobMetrics.class), mock(MessageCollector.class));
+		Thread.sleep(2000);
+
+		JobMetrics metrics = mock(JobMetrics.class);
+		MessageCollector collector = mock(MessageCollector.class);
+		Map<String, Object> invalid = getMessage("do_batch_test_05", CompositeSearchConstants.OPERATION_CREATE,
+				"batchTestCount", "ten");
+		service.processMessages(Arrays.asList(invalid,
+				getMessage("do_batch_test_06", CompositeSearchConstants.OPERATION_CREATE, "subject", "literacy")),
+				metrics, collector);
+		Thread.sleep(2000);
+		ArgumentCaptor<OutgoingMessageEnvelope> envelope = ArgumentCaptor.forClass(OutgoingMessageEnvelope.class);
+		verify(collector, times(1)).send(envelope.capture());
+		assertEquals("do_batch_test_05", ((Map<?, ?>) envelope.getValue().getMessage()).get("nodeUniqueId"));
+		verify(metrics, times(1)).incFailedCounter();
+		verify(metrics, times(1)).incSuccessCounter();
+		assertEquals(null, findById("do_batch_test_05"));
+		assertEquals(true, null != findById("do_batch_test_06"));
+	}
+
+	private void initService() throws Exception {
+		Map<String, String> props = new HashMap<String, String>();
+		props.put("search.es_conn_info", "localhost:9200");
+		props.put("platform-api-url", "http://localhost:8080/learning-service");
+		props.put("ekstepPlatformApiUserId", "ilimi");
+		props.put("output.failed.events.topic.name", "test.learning.events.failed");
+		service.initialize(new MapConfig(props));
+	}
+
+	private Map<String, Object> getMessage(String identifier, String operationType, String property, Object value) {
+		Map<String, Object> properties = new HashMap<String, Object>();
+		if (null != property) {
+			Map<String, Object> change = new HashMap<String, Object>();
+			change.put("ov", null);
+			change.put("nv", value);
+			properties.put(property, change);
+		}
+		Map<String, Object> transactionData = new HashMap<String, Object>();
+		transactionData.put("properties", properties);
+		transactionData.put("addedRelations", new ArrayList<Map<String, Object>>());
+		transactionData.put("removedRelations", new ArrayList<Map<String, Object>>());
+		Map<String, Object> message = new HashMap<String, Object>();
+		message.put("nodeUniqueId", identifier);
+		message.put("operationType", operationType);
+		message.put("nodeGraphId", 1);
+		message.put("graphId", "domain");
+		message.put("nodeType", CompositeSearchConstants.NODE_TYPE_DATA);
+		message.put("objectType", "Content");
+		message.put("transactionData", transactionData);
+		return message;
+	}
+
 	public Map<String, Object> findById(String identifier) throws IOException {
 		SearchResponse response = client.search(new SearchRequest(CompositeSearchConstants.COMPOSITE_SEARCH_INDEX)
 				.source(new SearchSourceBuilder().query(QueryBuilders.termQuery("_id", identifier))));
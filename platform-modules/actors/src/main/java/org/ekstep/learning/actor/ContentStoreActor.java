@@ -17,6 +17,9 @@ import org.ekstep.telemetry.logger.TelemetryManager;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
 
 /**
  * The Class ContentStoreActor, provides akka actor functionality to access the
@@ -32,72 +35,84 @@ public class ContentStoreActor extends BaseGraphManager {
 	@SuppressWarnings("unchecked")
 	@Override
 	public void onReceive(Object msg) throws Exception {
+		// store calls are asynchronous: the reply is sent from the completion
+		// of the store future, to the sender captured here.
+		final ActorRef parent = sender();
 		try {
 			Request request = (Request) msg;
 			String operation = request.getOperation();
 			if (StringUtils.equalsIgnoreCase(ContentStoreOperations.updateContentBody.name(), operation)) {
 				String contentId = (String) request.get(ContentStoreParams.content_id.name());
 				String body = (String) request.get(ContentStoreParams.body.name());
-				contentStore.updateContentBody(contentId, body);
-				OK(sender());
+				reply(contentStore.updateContentBodyAsync(contentId, body), parent, result -> OK(parent));
 			}else if (StringUtils.equalsIgnoreCase(ContentStoreOperations.updateContentOldBody.name(), operation)) {
 				String contentId = (String) request.get(ContentStoreParams.content_id.name());
 				String body = (String) request.get(ContentStoreParams.body.name());
-				contentStore.updateContentOldBody(contentId, body);
-				OK(sender());
+				reply(contentStore.updateContentOldBodyAsync(contentId, body), parent, result -> OK(parent));
 			} else if (StringUtils.equalsIgnoreCase(ContentStoreOperations.getContentBody.name(), operation)) {
 				String contentId = (String) request.get(ContentStoreParams.content_id.name());
-				String body = contentStore.getContentBody(contentId);
-				OK(ContentStoreParams.body.name(), body, sender());
+				reply(contentStore.getContentBodyAsync(contentId), parent,
+						body -> OK(ContentStoreParams.body.name(), body, parent));
 			} else if (StringUtils.equalsIgnoreCase(ContentStoreOperations.getContentProperty.name(), operation)) {
 				String contentId = (String) request.get(ContentStoreParams.content_id.name());
 				String property = (String) request.get(ContentStoreParams.property.name());
-				String value = contentStore.getContentProperty(contentId, property);
-				OK(ContentStoreParams.value.name(), value, sender());
+				reply(contentStore.getContentPropertyAsync(contentId, property), parent,
+						value -> OK(ContentStoreParams.value.name(), value, parent));
 			} else if (StringUtils.equalsIgnoreCase(ContentStoreOperations.getContentProperties.name(), operation)) {
 				String contentId = (String) request.get(ContentStoreParams.content_id.name());
 				List<String> properties = (List<String>) request.get(ContentStoreParams.properties.name());
-				Map<String, Object> value = contentStore.getContentProperties(contentId, properties);
-				OK(ContentStoreParams.values.name(), value, sender());
+				reply(contentStore.getContentPropertiesAsync(contentId, properties), parent,
+						value -> OK(ContentStoreParams.values.name(), value, parent));
 			} else if (StringUtils.equalsIgnoreCase(ContentStoreOperations.updateContentProperty.name(), operation)) {
 				String contentId = (String) request.get(ContentStoreParams.content_id.name());
 				String property = (String) request.get(ContentStoreParams.property.name());
 				String value = (String) request.get(ContentStoreParams.value.name());
-				contentStore.updateContentProperty(contentId, property, value);
-				OK(sender());
+				reply(contentStore.updateContentPropertyAsync(contentId, property, value), parent,
+						result -> OK(parent));
 			} else if (StringUtils.equalsIgnoreCase(ContentStoreOperations.updateContentProperties.name(), operation)) {
 				String contentId = (String) request.get(ContentStoreParams.content_id.name());
 				Map<String, Object> map = (Map<String, Object>) request.get(ContentStoreParams.properties.name());
-				contentStore.updateContentProperties(contentId, map);
-				OK(sender());
+				reply(contentStore.updateContentPropertiesAsync(contentId, map), parent, result -> OK(parent));
 			} else if (StringUtils.equalsIgnoreCase(ContentStoreOperations.getCollectionHierarchy.name(), operation)) {
 				String contentId = (String) request.get(ContentStoreParams.content_id.name());
-				Map<String, Object> hierarchy = hierarchyStore.getHierarchy(contentId);
-				if(MapUtils.isEmpty(hierarchy)) {
-					throw new ResourceNotFoundException(ResponseCode.RESOURCE_NOT_FOUND.name(), "Resource not found : " + contentId);
-				}
-				OK(ContentStoreParams.hierarchy.name(), hierarchy, sender());
+				reply(hierarchyStore.getHierarchyAsync(contentId), parent, hierarchy -> {
+					if (MapUtils.isEmpty(hierarchy)) {
+						handleException(new ResourceNotFoundException(ResponseCode.RESOURCE_NOT_FOUND.name(),
+								"Resource not found : " + contentId), parent);
+					} else {
+						OK(ContentStoreParams.hierarchy.name(), hierarchy, parent);
+					}
+				});
 			} else if (StringUtils.equalsIgnoreCase(ContentStoreOperations.deleteHierarchy.name(), operation)) {
 				List<String> identifiers = (List<String>) request.get(ContentStoreParams.content_id.name());
-				hierarchyStore.deleteHierarchy(identifiers);
-				OK(sender());
+				reply(hierarchyStore.deleteHierarchyAsync(identifiers), parent, result -> OK(parent));
 			} else if (StringUtils.equalsIgnoreCase(ContentStoreOperations.saveOrUpdateHierarchy.name(), operation)) {
 				String contentId = (String) request.get(ContentStoreParams.content_id.name());
 				Map<String, Object> hierarchy = (Map<String, Object>) request.get(ContentStoreParams.hierarchy.name());
-				hierarchyStore.saveOrUpdateHierarchy(contentId, hierarchy);
-				OK(sender());
+				reply(hierarchyStore.saveOrUpdateHierarchyAsync(contentId, hierarchy), parent, result -> OK(parent));
 			} else {
 				TelemetryManager.log("Unsupported operation: " + operation);
 				throw new ClientException(LearningErrorCodes.ERR_INVALID_OPERATION.name(),
 						"Unsupported operation: " + operation);
 			}
 		} catch (Exception e) {
-			System.out.println("Error: " + e.getMessage());
 			TelemetryManager.error("Error in ContentStoreActor: "+ e.getMessage(), e);
-			handleException(e, getSender());
+			handleException(e, parent);
 		}
 	}
 
+	private <T> void reply(CompletableFuture<T> future, ActorRef parent, Consumer<T> onSuccess) {
+		future.whenComplete((result, e) -> {
+			if (null == e) {
+				onSuccess.accept(result);
+			} else {
+				Throwable cause = (e instanceof CompletionException && null != e.getCause()) ? e.getCause() : e;
+				TelemetryManager.error("Error in ContentStoreActor: " + cause.getMessage(), cause);
+				handleException(cause, parent);
+			}
+		});
+	}
+
 	@Override
 	protected void invokeMethod(Request request, ActorRef parent) {
 		// TODO Auto-generated method stub
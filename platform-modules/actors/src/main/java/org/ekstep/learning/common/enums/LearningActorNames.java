@@ -1,5 +1,5 @@
 package org.ekstep.learning.common.enums;
 
 public enum LearningActorNames {
-	OPTIMIZER_ACTOR, CONTENT_STORE_ACTOR, FRAMEWORK_HIERARCHY_ACTOR, CACHE_UPDATE_ACTOR;
+	OPTIMIZER_ACTOR, CONTENT_STORE_ACTOR, FRAMEWORK_HIERARCHY_ACTOR;
 }
@@ -5,9 +5,12 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
 
 import org.apache.commons.lang3.StringUtils;
 import org.ekstep.cassandra.connector.util.CassandraConnector;
+import org.ekstep.cassandra.connector.util.PreparedStatementCache;
 import org.ekstep.cassandra.store.CassandraStore;
 import org.ekstep.common.Platform;
 import org.ekstep.common.exception.ClientException;
@@ -58,7 +61,7 @@ public class ContentStore extends CassandraStore {
 		if (StringUtils.isBlank(query))
 			throw new ClientException(ContentStoreParams.ERR_INVALID_PROPERTY_NAME.name(),
 					"Invalid property name. Please specify a valid property name");
-		PreparedStatement ps = session.prepare(query);
+		PreparedStatement ps = PreparedStatementCache.get(session, query);
 		BoundStatement bound = ps.bind(contentId);
 		try {
 			ResultSet rs = session.execute(bound);
@@ -84,7 +87,7 @@ public class ContentStore extends CassandraStore {
 		if (StringUtils.isBlank(query))
 			throw new ClientException(ContentStoreParams.ERR_INVALID_PROPERTY_NAME.name(),
 					"Invalid properties list. Please specify a valid list of property names");
-		PreparedStatement ps = session.prepare(query);
+		PreparedStatement ps = PreparedStatementCache.get(session, query);
 		BoundStatement bound = ps.bind(contentId);
 		try {
 			ResultSet rs = session.execute(bound);
@@ -115,7 +118,7 @@ public class ContentStore extends CassandraStore {
 		if (StringUtils.isBlank(query))
 			throw new ClientException(ContentStoreParams.ERR_INVALID_PROPERTY_NAME.name(),
 					"Invalid property name. Please specify a valid property name");
-		PreparedStatement ps = session.prepare(query);
+		PreparedStatement ps = PreparedStatementCache.get(session, query);
 		BoundStatement bound = ps.bind(value, contentId);
 		try {
 			session.execute(bound);
@@ -135,8 +138,10 @@ public class ContentStore extends CassandraStore {
 		if (null == map || map.isEmpty())
 			throw new ClientException(ContentStoreParams.ERR_INVALID_PROPERTY_VALUES.name(),
 					"Invalid property values. Please specify valid property values");
+		// properties in a stable order, so that the statement is shared.
+		map = new TreeMap<String, Object>(map);
 		String query = getUpdateQuery(map.keySet());
-		PreparedStatement ps = session.prepare(query);
+		PreparedStatement ps = PreparedStatementCache.get(session, query);
 		Object[] values = new Object[map.size() + 1];
 		try {
 			int i = 0;
@@ -164,6 +169,121 @@ public class ContentStore extends CassandraStore {
 		}
 	}
 
+	public CompletableFuture<Void> updateContentBodyAsync(String contentId, String body) {
+		return updateContentPropertyAsync(contentId, "body", body);
+	}
+
+	public CompletableFuture<Void> updateContentOldBodyAsync(String contentId, String body) {
+		return updateContentPropertyAsync(contentId, "oldBody", body);
+	}
+
+	public CompletableFuture<String> getContentBodyAsync(String contentId) {
+		return getContentPropertyAsync(contentId, "body");
+	}
+
+	public CompletableFuture<String> getContentPropertyAsync(String contentId, String property) {
+		TelemetryManager.log("GetContentProperty | Content: " + contentId + " | Property: " + property);
+		String query = getSelectQuery(property);
+		if (StringUtils.isBlank(query))
+			return getFailedFuture(new ClientException(ContentStoreParams.ERR_INVALID_PROPERTY_NAME.name(),
+					"Invalid property name. Please specify a valid property name"));
+		return executeQueryAsync(query, contentId).handle((rs, e) -> {
+			if (null != e) {
+				TelemetryManager.error("Error! Executing get content property: " + e.getMessage(), e);
+				throw new ServerException(ContentStoreParams.ERR_SERVER_ERROR.name(),
+						"Error fetching property from Content Store.");
+			}
+			Row row = rs.one();
+			return null == row ? null : row.getString(property + PROPERTY_SUFFIX);
+		});
+	}
+
+	public CompletableFuture<Map<String, Object>> getContentPropertiesAsync(String contentId, List<String> properties) {
+		TelemetryManager.log("GetContentProperties | Content: " + contentId + " | Properties: " + properties);
+		String query;
+		try {
+			query = getSelectQuery(properties);
+		} catch (ClientException e) {
+			return getFailedFuture(e);
+		}
+		if (StringUtils.isBlank(query))
+			return getFailedFuture(new ClientException(ContentStoreParams.ERR_INVALID_PROPERTY_NAME.name(),
+					"Invalid properties list. Please specify a valid list of property names"));
+		return executeQueryAsync(query, contentId).handle((rs, e) -> {
+			if (null != e) {
+				TelemetryManager.error("Error! Executing get content property: " + e.getMessage(), e);
+				throw new ServerException(ContentStoreParams.ERR_SERVER_ERROR.name(),
+						"Error fetching property from Content Store.");
+			}
+			Row row = rs.one();
+			if (null == row)
+				return null;
+			Map<String, Object> map = new HashMap<String, Object>();
+			for (String prop : properties)
+				map.put(prop, row.getString(prop + PROPERTY_SUFFIX));
+			return map;
+		});
+	}
+
+	public CompletableFuture<Void> updateContentPropertyAsync(String contentId, String property, String value) {
+		TelemetryManager.log(
+				"UpdateContentProperty | Content: " + contentId + " | Property: " + property + " - Value: " + value);
+		String query = getUpdateQuery(property);
+		if (StringUtils.isBlank(query))
+			return getFailedFuture(new ClientException(ContentStoreParams.ERR_INVALID_PROPERTY_NAME.name(),
+					"Invalid property name. Please specify a valid property name"));
+		return executeQueryAsync(query, value, contentId).handle((rs, e) -> {
+			if (null != e) {
+				TelemetryManager.error("Error! Executing update content property:" + e.getMessage(), e);
+				throw new ServerException(ContentStoreParams.ERR_SERVER_ERROR.name(),
+						"Error updating property in Content Store.");
+			}
+			Map<String, Object> map = new HashMap<String, Object>();
+			map.put(property, value);
+			logTransactionEvent("UPDATE", contentId, map);
+			return null;
+		});
+	}
+
+	public CompletableFuture<Void> updateContentPropertiesAsync(String contentId, Map<String, Object> map) {
+		TelemetryManager.log("UpdateContentProperties | Content: " + contentId + " | Properties: " + map);
+		if (null == map || map.isEmpty())
+			return getFailedFuture(new ClientException(ContentStoreParams.ERR_INVALID_PROPERTY_VALUES.name(),
+					"Invalid property values. Please specify valid property values"));
+		Map<String, Object> properties = new TreeMap<String, Object>(map);
+		Object[] values = new Object[properties.size() + 1];
+		String query;
+		try {
+			query = getUpdateQuery(properties.keySet());
+			int i = 0;
+			for (Entry<String, Object> entry : properties.entrySet()) {
+				if (null == entry.getValue())
+					values[i] = "";
+				else if (entry.getValue() instanceof String)
+					values[i] = entry.getValue();
+				else
+					values[i] = mapper.writeValueAsString(entry.getValue());
+				i += 1;
+			}
+			values[i] = contentId;
+		} catch (ClientException e) {
+			return getFailedFuture(e);
+		} catch (Exception e) {
+			TelemetryManager.error("Error! Executing update content property: " + e.getMessage(), e);
+			return getFailedFuture(new ServerException(ContentStoreParams.ERR_SERVER_ERROR.name(),
+					"Error updating property in Content Store."));
+		}
+		return executeQueryAsync(query, values).handle((rs, e) -> {
+			if (null != e) {
+				TelemetryManager.error("Error! Executing update content property: " + e.getMessage(), e);
+				throw new ServerException(ContentStoreParams.ERR_SERVER_ERROR.name(),
+						"Error updating property in Content Store.");
+			}
+			logTransactionEvent("UPDATE", contentId, map);
+			return null;
+		});
+	}
+
 	private String getSelectQuery(String property) {
 		StringBuilder sb = new StringBuilder();
 		if (StringUtils.isNotBlank(property)) {
@@ -4,6 +4,7 @@ import com.datastax.driver.core.BoundStatement;
 import com.datastax.driver.core.Session;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.ekstep.cassandra.connector.util.CassandraConnector;
+import org.ekstep.cassandra.connector.util.PreparedStatementCache;
 import org.ekstep.cassandra.store.CassandraStore;
 import org.ekstep.common.Platform;
 import org.ekstep.common.exception.ServerException;
@@ -43,7 +44,7 @@ public class VideoStreamingJobRequest extends CassandraStore {
         String requestData = mapper.writeValueAsString(requestMap);
 
         Session session = CassandraConnector.getSession("lpa");
-        com.datastax.driver.core.PreparedStatement statement = session.prepare(query);
+        com.datastax.driver.core.PreparedStatement statement = PreparedStatementCache.get(session, query);
         BoundStatement boundStatement = new BoundStatement(statement);
         session.execute(boundStatement.bind(requestId, requestData, artifactUrl));
         } catch (Exception e) {
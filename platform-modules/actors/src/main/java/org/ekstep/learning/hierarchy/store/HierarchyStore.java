@@ -1,12 +1,16 @@
 package org.ekstep.learning.hierarchy.store;
 
 import com.datastax.driver.core.BoundStatement;
+import com.datastax.driver.core.KeyspaceMetadata;
 import com.datastax.driver.core.PreparedStatement;
 import com.datastax.driver.core.ResultSet;
 import com.datastax.driver.core.Row;
 import com.datastax.driver.core.Session;
+import com.datastax.driver.core.TableMetadata;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import org.apache.commons.lang3.StringUtils;
 import org.ekstep.cassandra.connector.util.CassandraConnector;
+import org.ekstep.cassandra.connector.util.PreparedStatementCache;
 import org.ekstep.cassandra.store.CassandraStore;
 import org.ekstep.common.Platform;
 import org.ekstep.common.exception.ServerException;
@@ -16,9 +20,18 @@ import org.ekstep.telemetry.logger.TelemetryManager;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 public class HierarchyStore extends CassandraStore {
 
+    private static final String IMAGE_SUFFIX = ".img";
+
+    private static final String BOOKMARKS_COLUMN = "bookmarks";
+
+    // content hierarchies are stored with the bookmark index of their units,
+    // once the bookmarks column is added to the table.
+    private boolean indexBookmarks = false;
+
     public HierarchyStore() {
         super();
         String keyspace = Platform.config.hasPath("hierarchy.keyspace.name")
@@ -30,6 +43,7 @@ public class HierarchyStore extends CassandraStore {
         String objectType = "Content";
         initialise(keyspace, table, objectType, false);
         nodeType = CompositeSearchConstants.NODE_TYPE_DATA;
+        indexBookmarks = true;
     }
 
     public HierarchyStore(String keyspace, String table, String objectType, boolean index) {
@@ -40,23 +54,49 @@ public class HierarchyStore extends CassandraStore {
 
     public void saveOrUpdateHierarchy(String contentId, Map<String, Object> hierarchy) {
         try {
-            String query = "UPDATE " + getKeyspace() + "." + getTable() + " SET hierarchy = ? WHERE identifier = ?";
             String hierarchyData = mapper.writeValueAsString(hierarchy);
+            String bookmarks = getBookmarks(contentId, hierarchyData);
             Session session = CassandraConnector.getSession();
-            PreparedStatement statement = session.prepare(query);
+            PreparedStatement statement = PreparedStatementCache.get(session, getUpdateQuery(bookmarks));
             BoundStatement boundStatement = new BoundStatement(statement);
-            session.execute(boundStatement.bind(hierarchyData, contentId));
+            session.execute(boundStatement.bind(getUpdateValues(contentId, hierarchyData, bookmarks)));
         } catch (JsonProcessingException e) {
             TelemetryManager.error("Error while updating collection hierarchy for ID" + contentId, e);
         }
 
     }
 
+    /**
+     * Returns the stored hierarchy text of the content along with its bookmark
+     * index, without parsing it.
+     *
+     * @param contentId
+     * @return null if there is no hierarchy for the content
+     */
+    public PublishedHierarchy getPublishedHierarchy(String contentId) {
+        boolean bookmarks = hasBookmarksColumn();
+        String query = "SELECT hierarchy" + (bookmarks ? ", " + BOOKMARKS_COLUMN : "") + " FROM " + getKeyspace()
+                + "." + getTable() + " WHERE identifier=?";
+        Session session = CassandraConnector.getSession();
+        PreparedStatement ps = PreparedStatementCache.get(session, query);
+        try {
+            Row row = session.execute(ps.bind(contentId)).one();
+            if (null == row || StringUtils.isBlank(row.getString("hierarchy")))
+                return null;
+            return new PublishedHierarchy(row.getString("hierarchy"),
+                    bookmarks ? row.getString(BOOKMARKS_COLUMN) : null);
+        } catch (Exception e) {
+            TelemetryManager.error("Error! Executing get collection hierarchy: " + e.getMessage(), e);
+            throw new ServerException(ContentStoreParams.ERR_SERVER_ERROR.name(),
+                    "Error fetching hierarchy from hierarchy Store.", e);
+        }
+    }
+
     public Map<String, Object> getHierarchy(String contentId) {
         String query = "SELECT hierarchy FROM " + getKeyspace() + "." + getTable() + " WHERE identifier=?";
 
         Session session = CassandraConnector.getSession();
-        PreparedStatement ps = session.prepare(query);
+        PreparedStatement ps = PreparedStatementCache.get(session, query);
         BoundStatement bound = ps.bind(contentId);
         try {
             ResultSet rs = session.execute(bound);
@@ -78,8 +118,89 @@ public class HierarchyStore extends CassandraStore {
         String query = "DELETE FROM " + getKeyspace() + "." + getTable() + " WHERE identifier IN :ids";
 
         Session session = CassandraConnector.getSession();
-        PreparedStatement ps = session.prepare(query);
+        PreparedStatement ps = PreparedStatementCache.get(session, query);
         BoundStatement bs = ps.bind();
         session.execute(bs.setList("ids", identifiers));
     }
+
+    public CompletableFuture<Void> saveOrUpdateHierarchyAsync(String contentId, Map<String, Object> hierarchy) {
+        String hierarchyData;
+        try {
+            hierarchyData = mapper.writeValueAsString(hierarchy);
+        } catch (JsonProcessingException e) {
+            TelemetryManager.error("Error while updating collection hierarchy for ID" + contentId, e);
+            return CompletableFuture.completedFuture(null);
+        }
+        String bookmarks = getBookmarks(contentId, hierarchyData);
+        return executeQueryAsync(getUpdateQuery(bookmarks), getUpdateValues(contentId, hierarchyData, bookmarks))
+                .thenApply(rs -> null);
+    }
+
+    @SuppressWarnings("unchecked")
+    public CompletableFuture<Map<String, Object>> getHierarchyAsync(String contentId) {
+        String query = "SELECT hierarchy FROM " + getKeyspace() + "." + getTable() + " WHERE identifier=?";
+        return executeQueryAsync(query, contentId).handle((rs, e) -> {
+            try {
+                if (null != e)
+                    throw e;
+                Row row = rs.one();
+                return null == row ? null : mapper.readValue(row.getString("hierarchy"), Map.class);
+            } catch (Throwable t) {
+                TelemetryManager.error("Error! Executing get collection hierarchy: " + t.getMessage(), t);
+                throw new ServerException(ContentStoreParams.ERR_SERVER_ERROR.name(),
+                        "Error fetching hierarchy from hierarchy Store.", t);
+            }
+        });
+    }
+
+    public CompletableFuture<Void> deleteHierarchyAsync(List<String> identifiers) {
+        String query = "DELETE FROM " + getKeyspace() + "." + getTable() + " WHERE identifier IN :ids";
+        return executeQueryAsync(query, identifiers).thenApply(rs -> null);
+    }
+
+    /**
+     * The bookmarks column is only written when there is an index to store,
+     * so that an image hierarchy or a table without the column is updated
+     * with the hierarchy alone.
+     */
+    private String getUpdateQuery(String bookmarks) {
+        if (null != bookmarks)
+            return "UPDATE " + getKeyspace() + "." + getTable() + " SET hierarchy = ?, " + BOOKMARKS_COLUMN
+                    + " = ? WHERE identifier = ?";
+        return "UPDATE " + getKeyspace() + "." + getTable() + " SET hierarchy = ? WHERE identifier = ?";
+    }
+
+    private Object[] getUpdateValues(String contentId, String hierarchyData, String bookmarks) {
+        if (null != bookmarks)
+            return new Object[] { hierarchyData, bookmarks, contentId };
+        return new Object[] { hierarchyData, contentId };
+    }
+
+    /**
+     * @return the bookmark index of the hierarchy, null if it is not indexed.
+     *         Image hierarchies are only read as a whole for editing.
+     */
+    private String getBookmarks(String contentId, String hierarchyData) {
+        if (!indexBookmarks || StringUtils.endsWith(contentId, IMAGE_SUFFIX) || !hasBookmarksColumn())
+            return null;
+        try {
+            return PublishedHierarchy.buildBookmarkIndex(hierarchyData);
+        } catch (Exception e) {
+            TelemetryManager.error("Error while indexing bookmarks of collection hierarchy for ID" + contentId, e);
+            return null;
+        }
+    }
+
+    /**
+     * Checks the schema metadata kept by the driver, so the store keeps
+     * working on tables which are not migrated yet.
+     */
+    private boolean hasBookmarksColumn() {
+        if (!indexBookmarks)
+            return false;
+        KeyspaceMetadata keyspace = CassandraConnector.getSession().getCluster().getMetadata()
+                .getKeyspace(getKeyspace());
+        TableMetadata table = null == keyspace ? null : keyspace.getTable(getTable());
+        return null != table && null != table.getColumn(BOOKMARKS_COLUMN);
+    }
 }
@@ -0,0 +1,167 @@
+package org.ekstep.learning.hierarchy.store;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * A collection hierarchy as stored in the hierarchy store: the JSON text and
+ * its bookmark index.
+ *
+ * The bookmark index maps the identifier of every unit (a child with
+ * <code>Parent</code> visibility) to the character range of its sub-tree in
+ * the JSON text, so the hierarchy of a unit is served by slicing the stored
+ * text instead of parsing it. A unit is looked up the same way as the bookmark
+ * filter of the hierarchy API: level by level, the first child with the
+ * identifier (ignoring case) wins, and it is only returned if it is a unit.
+ * The index also records the length and hash of the text it was built from and
+ * is ignored if the text does not match.
+ */
+public class PublishedHierarchy {
+
+	private static final String CHILDREN = "children";
+	private static final String IDENTIFIER = "identifier";
+	private static final String VISIBILITY = "visibility";
+	private static final String UNIT_VISIBILITY = "Parent";
+
+	private static final JsonFactory factory = new JsonFactory();
+	private static final ObjectMapper mapper = new ObjectMapper();
+
+	private final String hierarchy;
+	private final String bookmarkIndex;
+	private Map<String, List<Number>> bookmarks;
+
+	@SuppressWarnings("unchecked")
+	public PublishedHierarchy(String hierarchy, String bookmarkIndex) {
+		this.hierarchy = hierarchy;
+		this.bookmarkIndex = bookmarkIndex;
+		if (StringUtils.isNotBlank(bookmarkIndex)) {
+			try {
+				Map<String, Object> index = mapper.readValue(bookmarkIndex, Map.class);
+				if (null != index.get("length") && null != index.get("hash")
+						&& ((Number) index.get("length")).intValue() == hierarchy.length()
+						&& ((Number) index.get("hash")).intValue() == hierarchy.hashCode())
+					bookmarks = (Map<String, List<Number>>) index.get("units");
+			} catch (Exception e) {
+				bookmarks = null;
+			}
+		}
+	}
+
+	public String getHierarchy() {
+		return hierarchy;
+	}
+
+	public String getBookmarkIndex() {
+		return bookmarkIndex;
+	}
+
+	public boolean hasBookmarkIndex() {
+		return null != bookmarks;
+	}
+
+	/**
+	 * @return the JSON text of the unit, null if the hierarchy has no unit with
+	 *         the given identifier
+	 */
+	public String getBookmark(String bookmarkId) {
+		if (null == bookmarks || StringUtils.isBlank(bookmarkId))
+			return null;
+		List<Number> range = bookmarks.get(bookmarkId.toLowerCase());
+		if (null == range || range.size() != 2)
+			return null;
+		int start = range.get(0).intValue();
+		int end = range.get(1).intValue();
+		if (start < 0 || end > hierarchy.length() || start >= end || hierarchy.charAt(start) != '{'
+				|| hierarchy.charAt(end - 1) != '}')
+			return null;
+		return hierarchy.substring(start, end);
+	}
+
+	/**
+	 * Builds the bookmark index of the given hierarchy JSON with a single
+	 * streaming pass over the text.
+	 */
+	public static String buildBookmarkIndex(String hierarchy) throws IOException {
+		Map<String, Frame> units = new HashMap<String, Frame>();
+		Deque<Frame> frames = new ArrayDeque<Frame>();
+		try (JsonParser parser = factory.createParser(hierarchy)) {
+			JsonToken token;
+			while (null != (token = parser.nextToken())) {
+				if (token == JsonToken.START_OBJECT) {
+					Frame owner = frames.peek();
+					Frame frame = new Frame();
+					frame.start = (int) parser.getTokenLocation().getCharOffset();
+					frame.node = null == owner || (owner.node && isChild(parser.getParsingContext()));
+					frame.depth = null == owner ? 0 : (frame.node ? owner.depth + 1 : owner.depth);
+					frames.push(frame);
+				} else if (token == JsonToken.END_OBJECT) {
+					Frame frame = frames.pop();
+					if (frame.depth > 0 && frame.node && null != frame.identifier) {
+						frame.end = (int) parser.getCurrentLocation().getCharOffset();
+						String key = frame.identifier.toLowerCase();
+						Frame existing = units.get(key);
+						// nodes of a level end in their order in the level.
+						if (null == existing || existing.depth > frame.depth)
+							units.put(key, frame);
+					}
+				} else if (token == JsonToken.FIELD_NAME) {
+					Frame frame = frames.peek();
+					String name = parser.getCurrentName();
+					if (frame.node && (IDENTIFIER.equals(name) || VISIBILITY.equals(name))) {
+						JsonToken value = parser.nextToken();
+						if (value == JsonToken.VALUE_STRING) {
+							if (IDENTIFIER.equals(name))
+								frame.identifier = parser.getText();
+							else
+								frame.visibility = parser.getText();
+						} else {
+							parser.skipChildren();
+						}
+					}
+				}
+			}
+		}
+		Map<String, Object> unitRanges = new HashMap<String, Object>();
+		for (Map.Entry<String, Frame> entry : units.entrySet()) {
+			Frame frame = entry.getValue();
+			if (StringUtils.equalsIgnoreCase(UNIT_VISIBILITY, frame.visibility))
+				unitRanges.put(entry.getKey(), new int[] { frame.start, frame.end });
+		}
+		Map<String, Object> index = new HashMap<String, Object>();
+		index.put("length", hierarchy.length());
+		index.put("hash", hierarchy.hashCode());
+		index.put("units", unitRanges);
+		return mapper.writeValueAsString(index);
+	}
+
+	/**
+	 * @return true if the object just started is an element of a
+	 *         <code>children</code> array
+	 */
+	private static boolean isChild(JsonStreamContext objectContext) {
+		JsonStreamContext array = objectContext.getParent();
+		return null != array && array.inArray() && null != array.getParent()
+				&& CHILDREN.equals(array.getParent().getCurrentName());
+	}
+
+	private static class Frame {
+		boolean node;
+		int depth;
+		int start;
+		int end;
+		String identifier;
+		String visibility;
+	}
+}
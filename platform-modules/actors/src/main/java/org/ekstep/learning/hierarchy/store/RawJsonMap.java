@@ -0,0 +1,106 @@
+package org.ekstep.learning.hierarchy.store;
+
+import java.io.IOException;
+import java.util.AbstractMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.ekstep.common.exception.ServerException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+/**
+ * A map backed by a JSON object text.
+ *
+ * The text is parsed only when the map is accessed; as long as it is not, the
+ * map is serialized by writing the text as it is, which lets API responses
+ * return stored JSON without a parse and serialize round trip.
+ */
+@JsonSerialize(using = RawJsonMap.Serializer.class)
+public class RawJsonMap extends AbstractMap<String, Object> {
+
+	private static final ObjectMapper mapper = new ObjectMapper();
+
+	private final String json;
+	private Map<String, Object> map;
+
+	public RawJsonMap(String json) {
+		this.json = json;
+	}
+
+	/**
+	 * @return the JSON text of the map, including the changes made to it
+	 */
+	public String getJson() {
+		if (null == map)
+			return json;
+		try {
+			return mapper.writeValueAsString(map);
+		} catch (IOException e) {
+			throw new ServerException("ERR_CONTENT_HIERARCHY_PARSE",
+					"Something Went Wrong While Processing the Content. ", e);
+		}
+	}
+
+	@Override
+	public Set<Entry<String, Object>> entrySet() {
+		return getMap().entrySet();
+	}
+
+	@Override
+	public Object get(Object key) {
+		return getMap().get(key);
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return getMap().containsKey(key);
+	}
+
+	@Override
+	public Object put(String key, Object value) {
+		return getMap().put(key, value);
+	}
+
+	@Override
+	public Object remove(Object key) {
+		return getMap().remove(key);
+	}
+
+	@Override
+	public int size() {
+		return getMap().size();
+	}
+
+	private synchronized Map<String, Object> getMap() {
+		if (null == map) {
+			try {
+				map = mapper.readValue(json, new TypeReference<LinkedHashMap<String, Object>>() {
+				});
+			} catch (IOException e) {
+				throw new ServerException("ERR_CONTENT_HIERARCHY_PARSE",
+						"Something Went Wrong While Processing the Content. ", e);
+			}
+		}
+		return map;
+	}
+
+	public static class Serializer extends JsonSerializer<RawJsonMap> {
+
+		@Override
+		public void serialize(RawJsonMap value, JsonGenerator gen, SerializerProvider serializers)
+				throws IOException {
+			// once the map was read it might have been modified.
+			if (null == value.map)
+				gen.writeRawValue(value.json);
+			else
+				serializers.defaultSerializeValue(value.map, gen);
+		}
+	}
+}
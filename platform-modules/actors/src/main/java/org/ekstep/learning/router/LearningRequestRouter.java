@@ -17,7 +17,6 @@ import org.ekstep.common.router.RequestRouterPool;
 import org.ekstep.graph.common.enums.GraphHeaderParams;
 import org.ekstep.learning.actor.ContentStoreActor;
 import org.ekstep.learning.actor.FrameworkHierarchyActor;
-import org.ekstep.learning.actor.LocalCacheUpdateActor;
 import org.ekstep.learning.common.enums.LearningActorNames;
 import org.ekstep.learning.common.enums.LearningErrorCodes;
 import org.ekstep.telemetry.logger.TelemetryManager;
@@ -88,13 +87,10 @@ public class LearningRequestRouter extends UntypedActor {
 
 		Props contentStoreProps = Props.create(ContentStoreActor.class);
 		Props fwhierarchyProps = Props.create(FrameworkHierarchyActor.class);
-		Props localCacheUpdaterProps = Props.create(LocalCacheUpdateActor.class);
 		ActorRef contentStoreActor = system.actorOf(new SmallestMailboxPool(poolSize).props(contentStoreProps));
 		ActorRef fwHierarchyActor = system.actorOf(new SmallestMailboxPool(poolSize).props(fwhierarchyProps));
-		ActorRef localCacheUpdaterActor = system.actorOf(new SmallestMailboxPool(poolSize).props(localCacheUpdaterProps));
 		LearningActorPool.addActorRefToPool(LearningActorNames.CONTENT_STORE_ACTOR.name(), contentStoreActor);
 		LearningActorPool.addActorRefToPool(LearningActorNames.FRAMEWORK_HIERARCHY_ACTOR.name(), fwHierarchyActor);
-		LearningActorPool.addActorRefToPool(LearningActorNames.CACHE_UPDATE_ACTOR.name(), localCacheUpdaterActor);
 	}
 
 	/**
@@ -18,6 +18,7 @@ import org.ekstep.graph.dac.model.Node;
 import org.ekstep.graph.dac.model.SearchCriteria;
 import org.ekstep.graph.engine.router.GraphEngineManagers;
 import org.ekstep.graph.model.node.DefinitionDTO;
+import org.ekstep.graph.service.util.CypherTemplate;
 import org.ekstep.learning.common.enums.ContentAPIParams;
 import org.ekstep.learning.common.enums.ContentErrorCodes;
 import org.ekstep.learning.common.enums.LearningActorNames;
@@ -46,6 +47,18 @@ public class ControllerUtil extends BaseLearningManager {
 
     private static ObjectMapper mapper = new ObjectMapper();
     private static final String DEFAULT_CONTENT_IMAGE_OBJECT_SUFFIX = ".img";
+    private static final String GRAPH_ID = CypherTemplate.GRAPH_ID;
+    private static final CypherTemplate HIERARCHY_QUERY = new CypherTemplate("contentHierarchy", "MATCH p=(n:" + GRAPH_ID + ")-[r:hasSequenceMember*0..10]->(s:" + GRAPH_ID + ") WHERE n.IL_UNIQUE_ID={identifier} RETURN s.IL_UNIQUE_ID as identifier, s.IL_FUNC_OBJECT_TYPE as objectType, s.visibility as visibility, s.status as status, length(p) as depth, (nodes(p)[length(p)-1]).IL_UNIQUE_ID as parent, (rels(p)[length(p)-1]).IL_SEQUENCE_INDEX as index order by depth,index;");
+    private static final String PUBLISHED_COLLECTIONS = "MATCH (n:" + GRAPH_ID + ") WHERE n.IL_FUNC_OBJECT_TYPE=\"Content\" AND n.mimeType=\"application/vnd.ekstep.content-collection\" AND n.status IN [\"Live\", \"Unlisted\", \"Flagged\"] RETURN n.IL_UNIQUE_ID as identifier SKIP {offset}";
+    private static final CypherTemplate PUBLISHED_COLLECTIONS_QUERY = new CypherTemplate("publishedCollections", PUBLISHED_COLLECTIONS);
+    private static final CypherTemplate PUBLISHED_COLLECTIONS_PAGE_QUERY = new CypherTemplate("publishedCollectionsPage", PUBLISHED_COLLECTIONS + " LIMIT {limit}");
+    private static final String DATE_RANGE = " WITH split(left(n.lastUpdatedOn, 10), '-') AS dd, n where toInt({endDate})>=toInt(dd[0]+dd[1]+dd[2])>=toInt({startDate}) and NOT n.IL_SYS_NODE_TYPE in [\"TAG\", \"DEFINITION_NODE\", \"ROOT_NODE\"] return n.IL_UNIQUE_ID as identifier";
+    private static final CypherTemplate DATE_RANGE_QUERY = new CypherTemplate("nodesInDateRange", "MATCH (n:" + GRAPH_ID + ")" + DATE_RANGE);
+    private static final CypherTemplate OBJECT_TYPE_DATE_RANGE_QUERY = new CypherTemplate("objectTypeNodesInDateRange", "MATCH (n:" + GRAPH_ID + " {IL_FUNC_OBJECT_TYPE: {objectType}})" + DATE_RANGE);
+    private static final String COLLECTION_MEMBERS = "MATCH p=(n:domain{IL_UNIQUE_ID:{%s}})-[r:hasSequenceMember*0..10]->(s:domain) RETURN s.IL_UNIQUE_ID as identifier, s.name as name, length(p) as depth, s.status as status, s.mimeType as mimeType, s.visibility as visibility, s.compatibilityLevel as compatibilityLevel";
+    private static final String COLLECTION_MEMBERS_QUERY = String.format(COLLECTION_MEMBERS, "nodeId") + " UNION " + String.format(COLLECTION_MEMBERS, "imageNodeId") + " ORDER BY depth DESC;";
+    private static final int HIERARCHY_MAX_FAN_OUT = Platform.config.hasPath("content.hierarchy.max_fan_out")
+            ? Platform.config.getInt("content.hierarchy.max_fan_out") : 500;
 
     /**
      * Gets the node.
@@ -329,9 +342,11 @@ public class ControllerUtil extends BaseLearningManager {
             imageNodeId = nodeId + ".img";
         }
         Request request = getRequest(node.getGraphId(), GraphEngineManagers.SEARCH_MANAGER, "executeQueryForProps");
-        String queryString = "MATCH p=(n:domain'{'IL_UNIQUE_ID:\"{0}\"'}')-[r:hasSequenceMember*0..10]->(s:domain) RETURN s.IL_UNIQUE_ID as identifier, s.name as name, length(p) as depth, s.status as status, s.mimeType as mimeType, s.visibility as visibility, s.compatibilityLevel as compatibilityLevel";
-        String query = MessageFormat.format(queryString, nodeId) + " UNION " + MessageFormat.format(queryString, imageNodeId) + " ORDER BY depth DESC;";
-        request.put(GraphDACParams.query.name(), query);
+        request.put(GraphDACParams.query.name(), COLLECTION_MEMBERS_QUERY);
+        Map<String, Object> params = new HashMap<>();
+        params.put("nodeId", nodeId);
+        params.put("imageNodeId", imageNodeId);
+        request.put(GraphDACParams.params.name(), params);
         List<String> props = new ArrayList<String>();
         props.add("identifier");
         props.add("name");
@@ -387,13 +402,17 @@ public class ControllerUtil extends BaseLearningManager {
     public List<String> getNodesWithInDateRange(String graphId, String objectType, String startDate, String endDate) {
 
         List<String> nodeIds = new ArrayList<>();
-        String objectTypeQuery = "";
-        if (StringUtils.isNotBlank(objectType))
-            objectTypeQuery = "{IL_FUNC_OBJECT_TYPE:'" + objectType + "'}";
         Request request = getRequest(graphId, GraphEngineManagers.SEARCH_MANAGER, "executeQueryForProps");
-        String queryString = "MATCH (n:{0}{1})  WITH split(left(n.lastUpdatedOn, 10), {2}) AS dd, n where {4}>=toInt(dd[0]+dd[1]+dd[2])>={3} and NOT n.IL_SYS_NODE_TYPE in [\"TAG\", \"DEFINITION_NODE\", \"ROOT_NODE\"] return n.IL_UNIQUE_ID as identifier";
-        String query = MessageFormat.format(queryString, graphId, objectTypeQuery, "'-'", startDate, endDate);
-        request.put(GraphDACParams.query.name(), query);
+        Map<String, Object> params = new HashMap<>();
+        params.put("startDate", startDate);
+        params.put("endDate", endDate);
+        if (StringUtils.isNotBlank(objectType)) {
+            params.put("objectType", objectType);
+            request.put(GraphDACParams.query.name(), OBJECT_TYPE_DATE_RANGE_QUERY.getQuery(graphId));
+        } else {
+            request.put(GraphDACParams.query.name(), DATE_RANGE_QUERY.getQuery(graphId));
+        }
+        request.put(GraphDACParams.params.name(), params);
         List<String> props = new ArrayList<String>();
         props.add("identifier");
         request.put(GraphDACParams.property_keys.name(), props);
@@ -436,43 +455,66 @@ public class ControllerUtil extends BaseLearningManager {
 
 
     /**
+     * Reads the hierarchy of the given node level by level: the children of
+     * all the nodes of a level are fetched together (their images as well in
+     * edit mode), in requests of at most <code>content.hierarchy.max_fan_out</code>
+     * identifiers, so the number of graph calls grows with the depth of the
+     * hierarchy rather than with its size.
+     *
      * @param graphId
      * @param node
      * @param definition
      * @param mode
      * @return
      */
+    @SuppressWarnings("unchecked")
     public Map<String, Object> getContentHierarchyRecursive(String graphId, Node node, DefinitionDTO definition,
                                                             String mode, boolean fetchAll) {
-        Map<String, Object> contentMap = ConvertGraphNode.convertGraphNode(node, graphId, definition, null);
-        List<NodeDTO> children = (List<NodeDTO>) contentMap.get("children");
-
-        // Collections sort method is used to sort the child content list on the
-        // basis of index.
-        if (null != children && !children.isEmpty()) {
-            Collections.sort(children, new Comparator<NodeDTO>() {
-                @Override
-                public int compare(NodeDTO o1, NodeDTO o2) {
-                    return o1.getIndex() - o2.getIndex();
+        boolean editMode = org.apache.commons.lang3.StringUtils.equalsIgnoreCase("edit", mode);
+        Map<String, Object> contentMap = getHierarchyContentMap(graphId, node, definition);
+        List<Map<String, Object>> level = Arrays.asList(contentMap);
+        while (!level.isEmpty()) {
+            Set<String> ids = new LinkedHashSet<>();
+            for (Map<String, Object> content : level) {
+                for (NodeDTO dto : getSortedChildren(content)) {
+                    if (editMode)
+                        ids.add(getImageId(dto.getIdentifier()));
+                    ids.add(dto.getIdentifier());
                 }
-            });
-        }
-
-        if (null != children && !children.isEmpty()) {
-            List<Map<String, Object>> childList = new ArrayList<Map<String, Object>>();
-            for (NodeDTO dto : children) {
-                Node childNode = getContentNode(graphId, dto.getIdentifier(), mode);
-                String nodeStatus = (String) childNode.getMetadata().get("status");
-                if ((!org.apache.commons.lang3.StringUtils.equalsIgnoreCase(nodeStatus, "Retired")) &&
-                        (fetchAll || (org.apache.commons.lang3.StringUtils.equalsIgnoreCase(nodeStatus, "Live") || org.apache.commons.lang3.StringUtils.equalsIgnoreCase(nodeStatus, "Unlisted")))) {
-                    Map<String, Object> childMap = getContentHierarchyRecursive(graphId, childNode, definition, mode, fetchAll);
-                    childMap.put("index", dto.getIndex());
-                    Map<String, Object> childData = contentCleanUp(childMap);
-                    childList.add(childData);
+            }
+            Map<String, Node> nodes = getContentNodes(graphId, new ArrayList<>(ids));
+
+            List<Map<String, Object>> nextLevel = new ArrayList<>();
+            for (Map<String, Object> content : level) {
+                List<NodeDTO> children = getSortedChildren(content);
+                if (children.isEmpty())
+                    continue;
+                List<Map<String, Object>> childList = new ArrayList<Map<String, Object>>();
+                for (NodeDTO dto : children) {
+                    Node childNode = editMode ? nodes.get(getImageId(dto.getIdentifier())) : null;
+                    if (null == childNode)
+                        childNode = nodes.get(dto.getIdentifier());
+                    if (null == childNode)
+                        throw new ResourceNotFoundException(ContentErrorCodes.ERR_CONTENT_NOT_FOUND.name(),
+                                "Content not found with id: " + dto.getIdentifier());
+                    String nodeStatus = (String) childNode.getMetadata().get("status");
+                    if ((!org.apache.commons.lang3.StringUtils.equalsIgnoreCase(nodeStatus, "Retired")) &&
+                            (fetchAll || (org.apache.commons.lang3.StringUtils.equalsIgnoreCase(nodeStatus, "Live") || org.apache.commons.lang3.StringUtils.equalsIgnoreCase(nodeStatus, "Unlisted")))) {
+                        Map<String, Object> childMap = getHierarchyContentMap(graphId, childNode, definition);
+                        nextLevel.add(childMap);
+                        childMap.put("index", dto.getIndex());
+                        childList.add(contentCleanUp(childMap));
+                    }
                 }
+                content.put("children", childList);
             }
-            contentMap.put("children", childList);
+            level = nextLevel;
         }
+        return contentMap;
+    }
+
+    private Map<String, Object> getHierarchyContentMap(String graphId, Node node, DefinitionDTO definition) {
+        Map<String, Object> contentMap = ConvertGraphNode.convertGraphNode(node, graphId, definition, null);
         // TODO: Not the best Solution, need to optimize
         contentMap.remove("collections");
         contentMap.remove("usedByContent");
@@ -482,6 +524,54 @@ public class ControllerUtil extends BaseLearningManager {
         return contentMap;
     }
 
+    /**
+     * Children of a content map which are not read yet, sorted by index.
+     */
+    @SuppressWarnings("unchecked")
+    private List<NodeDTO> getSortedChildren(Map<String, Object> contentMap) {
+        Object children = contentMap.get("children");
+        if (!(children instanceof List) || ((List<Object>) children).isEmpty()
+                || !(((List<Object>) children).get(0) instanceof NodeDTO))
+            return new ArrayList<>();
+        List<NodeDTO> sorted = new ArrayList<>((List<NodeDTO>) children);
+        // Collections sort method is used to sort the child content list on the
+        // basis of index.
+        Collections.sort(sorted, new Comparator<NodeDTO>() {
+            @Override
+            public int compare(NodeDTO o1, NodeDTO o2) {
+                return o1.getIndex() - o2.getIndex();
+            }
+        });
+        return sorted;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Node> getContentNodes(String graphId, List<String> ids) {
+        Map<String, Node> nodes = new HashMap<>();
+        for (int start = 0; start < ids.size(); start += HIERARCHY_MAX_FAN_OUT) {
+            List<String> batch = ids.subList(start, Math.min(start + HIERARCHY_MAX_FAN_OUT, ids.size()));
+            Request request = getRequest(graphId, GraphEngineManagers.SEARCH_MANAGER, "getDataNodes",
+                    GraphDACParams.node_ids.name(), new ArrayList<>(batch));
+            Response response = getResponse(request);
+            if (checkError(response)) {
+                switch (response.getResponseCode()) {
+                    case RESOURCE_NOT_FOUND:
+                        throw new ResourceNotFoundException(response.getParams().getErr(), response.getParams().getErrmsg());
+                    case CLIENT_ERROR:
+                        throw new ClientException(response.getParams().getErr(), response.getParams().getErrmsg());
+                    default:
+                        throw new ServerException(response.getParams().getErr(), response.getParams().getErrmsg());
+                }
+            }
+            List<Node> nodeList = (List<Node>) response.get(GraphDACParams.node_list.name());
+            if (null != nodeList) {
+                for (Node node : nodeList)
+                    nodes.put(node.getIdentifier(), node);
+            }
+        }
+        return nodes;
+    }
+
     private Map<String, Object> contentCleanUp(Map<String, Object> map) {
         if (map.containsKey("identifier")) {
             String identifier = (String) map.get("identifier");
@@ -494,25 +584,6 @@ public class ControllerUtil extends BaseLearningManager {
         return map;
     }
 
-    private Node getContentNode(String graphId, String contentId, String mode) {
-
-        if (org.apache.commons.lang3.StringUtils.equalsIgnoreCase("edit", mode)) {
-            String contentImageId = getImageId(contentId);
-            Response responseNode = getDataNode(graphId, contentImageId);
-            if (!checkError(responseNode)) {
-                Node content = (Node) responseNode.get(GraphDACParams.node.name());
-                return content;
-            }
-        }
-        Response responseNode = getDataNode(graphId, contentId);
-        if (checkError(responseNode))
-            throw new ResourceNotFoundException(ContentErrorCodes.ERR_CONTENT_NOT_FOUND.name(),
-                    "Content not found with id: " + contentId);
-
-        Node content = (Node) responseNode.get(GraphDACParams.node.name());
-        return content;
-    }
-
     protected String getImageId(String identifier) {
         String imageId = "";
         if (org.apache.commons.lang3.StringUtils.isNotBlank(identifier))
@@ -521,55 +592,15 @@ public class ControllerUtil extends BaseLearningManager {
     }
 
     public Map<String, Object> constructHierarchy(List<Map<String, Object>> list) {
-
-        Map<String, Object> hierarchy = list.stream().filter(e -> ((Number) e.get("depth")).intValue() == 0).findFirst().get();
-        if (MapUtils.isNotEmpty(hierarchy)) {
-            int max = list.stream().map(e -> ((Number) e.get("depth")).intValue()).max(Comparator.naturalOrder()).orElse(1);
-
-            for (int i = 0; i <= max; i++) {
-                final int depth = i;
-                Map<String, List<Map<String, Object>>> currentLevelNodes = new HashMap<>();
-                list.stream().filter(e -> ((Number) e.get("depth")).intValue() == depth)
-                        .collect(Collectors.toList()).forEach(e -> {
-                    String id = (String) e.get("identifier");
-                    List<Map<String, Object>> nodes = currentLevelNodes.get(id);
-                    if (CollectionUtils.isEmpty(nodes)) {
-                        nodes = new ArrayList<>();
-                        currentLevelNodes.put((String) e.get("identifier"), nodes);
-                    }
-                    nodes.add(e);
-
-                });
-
-                List<Map<String, Object>> nextLevelNodes = list.stream().filter(e -> ((Number) e.get("depth")).intValue() == depth + 1)
-                        .collect(Collectors.toList());
-                if (MapUtils.isNotEmpty(currentLevelNodes) && CollectionUtils.isNotEmpty(nextLevelNodes)) {
-                    nextLevelNodes.forEach(e -> {
-                                String parentId = (String) e.get("parent");
-                                List<Map<String, Object>> parents = currentLevelNodes.get(parentId);
-                                if (CollectionUtils.isNotEmpty(parents)) {
-                                    for (Map<String, Object> parent : parents) {
-                                        List<Object> children = (List<Object>) parent.get("children");
-                                        if (CollectionUtils.isEmpty(children)) {
-                                            children = new ArrayList<>();
-                                            parent.put("children", children);
-                                        }
-                                        //contentCleanUp(e);
-                                        children.add(e);
-                                    }
-                                }
-                            }
-                    );
-                }
-            }
-        }
-        return hierarchy;
+        return HierarchyBuilder.build(list);
     }
 
     public List<Map<String, Object>> getContentHierarchy(String graphId, String contentId, String mode) {
         Request request = getRequest(graphId, GraphEngineManagers.SEARCH_MANAGER, "executeQueryForProps");
-        String query = "MATCH p=(n:{0})-[r:hasSequenceMember*0..10]->(s:{0}) WHERE n.IL_UNIQUE_ID=\"{1}\" RETURN s.IL_UNIQUE_ID as identifier, s.IL_FUNC_OBJECT_TYPE as objectType, s.visibility as visibility, s.status as status, length(p) as depth, (nodes(p)[length(p)-1]).IL_UNIQUE_ID as parent, (rels(p)[length(p)-1]).IL_SEQUENCE_INDEX as index order by depth,index;";
-        request.put(GraphDACParams.query.name(), MessageFormat.format(query, graphId, contentId));
+        request.put(GraphDACParams.query.name(), HIERARCHY_QUERY.getQuery(graphId));
+        Map<String, Object> params = new HashMap<>();
+        params.put("identifier", contentId);
+        request.put(GraphDACParams.params.name(), params);
         List<String> props = Arrays.asList("identifier", "objectType", "visibility", "status", "depth", "parent", "index");
         request.put(GraphDACParams.property_keys.name(), props);
         Response response = getResponse(request);
@@ -579,43 +610,18 @@ public class ControllerUtil extends BaseLearningManager {
             if (CollectionUtils.isEmpty(list)) {
                 throw new ResourceNotFoundException(ContentErrorCodes.ERR_INVALID_INPUT.name(), "No data find for the given identifier: " + contentId.replace(".img", ""));
             }
-            List<String> invalidStatus = Arrays.asList("Flagged", "Retired");
-            list = list.stream().filter(e -> !invalidStatus.contains(e.get("status"))).distinct().collect
-                    (Collectors.toList());
-
-            // Get leaf nodes(image) from the hierarchy (graph) and remove them.
-            List<String> resourceImgIds = list.stream()
-                    .filter(e -> StringUtils.equals((String) e.get("objectType"), "ContentImage") && StringUtils.equalsIgnoreCase((String) e.get("visibility"), "default") && ((Number) e.get("depth")).intValue() > 0)
-                    .map(e -> (String) e.get("identifier"))
-                    .map(id -> id.endsWith(".img") ? id : id + ".img")
-                    .distinct().collect(Collectors.toList());
-//			Stream<Map<String, Object>> listStream = list.stream().filter(e -> !resourceImgIds.contains((String) e.get("identifier")));
-
-            // Get image nodes from the hierarchy (graph) other than root.
-//			Stream<Map<String,Object>> imgList = list.stream().filter(e -> !resourceImgIds.contains((String) e.get("identifier")))
-//					.filter(e -> StringUtils.equals((String) e.get("objectType"), "ContentImage") && ((Number) e.get("depth")).intValue() > 0);
-
+            list = HierarchyBuilder.getValidRows(list);
             if (StringUtils.equalsIgnoreCase("edit", mode)) {
                 // mode=edit - remove the Content which have Image Nodes.
-                List<String> removeIds = list.stream().filter(e -> !resourceImgIds.contains((String) e.get("identifier")))
-                        .filter(e -> StringUtils.equals((String) e.get("objectType"), "ContentImage") && ((Number) e.get("depth")).intValue() > 0).map(e -> ((String) e.get("identifier")).replace(".img", "")).collect(Collectors.toList());
-                List<Map<String, Object>> contentList = list.stream().filter(e -> !resourceImgIds.contains((String) e.get("identifier")))
-                        .filter(e -> !removeIds.contains(e.get("identifier")))
-                        .collect(Collectors.toList());
-
-                return contentList;
+                return HierarchyBuilder.getEditRows(list);
             } else {
                 List<String> publicStatus = Arrays.asList("Live", "Unlisted");
-                Map<String, Object> root = list.stream().filter(e -> ((Number) e.get("depth")).intValue() == 0).findFirst().get();
+                Map<String, Object> root = HierarchyBuilder.getRoot(list);
                 if (MapUtils.isEmpty(root) || !publicStatus.contains(root.get("status"))) {
                     throw new ResourceNotFoundException(ContentErrorCodes.ERR_INVALID_INPUT.name(), "No data find for the given identifier: " + contentId.replace(".img", ""));
                 }
                 // mode!=edit - remove Image Nodes.
-                List<String> removeIds = list.stream().filter(e -> !resourceImgIds.contains((String) e.get("identifier")))
-                        .filter(e -> (!publicStatus.contains(e.get("status")) || StringUtils.equals((String) e.get("objectType"), "ContentImage")) && ((Number) e.get("depth")).intValue() > 0).map(e -> ((String) e.get("identifier"))).collect(Collectors.toList());
-                List<Map<String, Object>> contentList = list.stream().filter(e -> !resourceImgIds.contains((String) e.get("identifier")))
-                        .filter(e -> !removeIds.contains(e.get("identifier"))).collect(Collectors.toList());
-                return contentList;
+                return HierarchyBuilder.getPublishedRows(list);
             }
 
         } else {
@@ -677,14 +683,15 @@ public class ControllerUtil extends BaseLearningManager {
     public List<String> getPublishedCollections(String graphId, int offset, int limit) {
         List<String> identifiers = new ArrayList<>();
         Request request = getRequest(graphId, GraphEngineManagers.SEARCH_MANAGER, "executeQueryForProps");
-        String query = "MATCH (n:{0}) WHERE n.IL_FUNC_OBJECT_TYPE=\"Content\" AND n.mimeType=\"application/vnd.ekstep.content-collection\" AND n.status IN [\"Live\", \"Unlisted\", \"Flagged\"] RETURN n.IL_UNIQUE_ID as identifier";
-        if (offset > 0) {
-            query += " SKIP " + offset;
-        }
+        Map<String, Object> params = new HashMap<>();
+        params.put("offset", Math.max(offset, 0));
         if (limit > 0) {
-            query += " LIMIT " + limit;
+            params.put("limit", limit);
+            request.put(GraphDACParams.query.name(), PUBLISHED_COLLECTIONS_PAGE_QUERY.getQuery(graphId));
+        } else {
+            request.put(GraphDACParams.query.name(), PUBLISHED_COLLECTIONS_QUERY.getQuery(graphId));
         }
-        request.put(GraphDACParams.query.name(), MessageFormat.format(query, graphId));
+        request.put(GraphDACParams.params.name(), params);
         List<String> props = new ArrayList<String>();
         props.add("identifier");
         request.put(GraphDACParams.property_keys.name(), props);
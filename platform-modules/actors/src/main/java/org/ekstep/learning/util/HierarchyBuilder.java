@@ -0,0 +1,167 @@
+package org.ekstep.learning.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.apache.commons.lang.StringUtils;
+
+/**
+ * Builds collection hierarchies from the flat list of hierarchy rows (
+ * <code>identifier, objectType, visibility, status, depth, parent, index</code>
+ * ) returned by the hierarchy query.
+ *
+ * Both the filtering of the rows and the assembly of the tree take a constant
+ * number of passes over the rows, using hash lookups instead of list scans, so
+ * their cost grows linearly with the size of the collection.
+ */
+public class HierarchyBuilder {
+
+	private static final String IMAGE_SUFFIX = ".img";
+	private static final List<String> INVALID_STATUS = Arrays.asList("Flagged", "Retired");
+	private static final List<String> PUBLIC_STATUS = Arrays.asList("Live", "Unlisted");
+
+	private static final Comparator<Number> NUMBER_ORDER = Comparator.comparingInt(Number::intValue);
+	private static final Comparator<Map<String, Object>> INDEX_ORDER = Comparator
+			.comparing((Map<String, Object> row) -> (Number) row.get("index"), Comparator.nullsLast(NUMBER_ORDER));
+
+	/**
+	 * Removes the flagged and retired rows and the duplicates.
+	 */
+	public static List<Map<String, Object>> getValidRows(List<Map<String, Object>> rows) {
+		Set<Map<String, Object>> validRows = new LinkedHashSet<>();
+		for (Map<String, Object> row : rows) {
+			if (!INVALID_STATUS.contains(row.get("status")))
+				validRows.add(row);
+		}
+		return new ArrayList<>(validRows);
+	}
+
+	/**
+	 * Returns the root row (depth 0) of the hierarchy, if any.
+	 */
+	public static Map<String, Object> getRoot(List<Map<String, Object>> rows) {
+		for (Map<String, Object> row : rows) {
+			if (getDepth(row) == 0)
+				return row;
+		}
+		return null;
+	}
+
+	/**
+	 * Selects the rows of the edit mode hierarchy: the image of a resource
+	 * (default visibility) is dropped in favour of the resource, while a unit
+	 * with an image is replaced by its image.
+	 */
+	public static List<Map<String, Object>> getEditRows(List<Map<String, Object>> rows) {
+		Set<String> resourceImgIds = getResourceImageIds(rows);
+		Set<String> removeIds = new HashSet<>();
+		for (Map<String, Object> row : rows) {
+			String id = (String) row.get("identifier");
+			if (!resourceImgIds.contains(id) && isImage(row) && getDepth(row) > 0)
+				removeIds.add(id.replace(IMAGE_SUFFIX, ""));
+		}
+		return getRows(rows, resourceImgIds, removeIds);
+	}
+
+	/**
+	 * Selects the rows of the published hierarchy: only the live and unlisted
+	 * contents, without image nodes.
+	 */
+	public static List<Map<String, Object>> getPublishedRows(List<Map<String, Object>> rows) {
+		Set<String> resourceImgIds = getResourceImageIds(rows);
+		Set<String> removeIds = new HashSet<>();
+		for (Map<String, Object> row : rows) {
+			String id = (String) row.get("identifier");
+			if (!resourceImgIds.contains(id) && (!PUBLIC_STATUS.contains(row.get("status")) || isImage(row))
+					&& getDepth(row) > 0)
+				removeIds.add(id);
+		}
+		return getRows(rows, resourceImgIds, removeIds);
+	}
+
+	/**
+	 * Assembles the rows into a tree and returns its root. Every row is added
+	 * to the <code>children</code> of the rows one level up with its parent
+	 * identifier, ordered by <code>index</code>.
+	 */
+	@SuppressWarnings("unchecked")
+	public static Map<String, Object> build(List<Map<String, Object>> rows) {
+		Map<String, Object> root = getRoot(rows);
+		if (null == root)
+			throw new NoSuchElementException("No root found in the hierarchy");
+
+		// rows by depth and identifier, a content can be part of the
+		// hierarchy at more than one place.
+		Map<String, List<Map<String, Object>>> rowsById = new HashMap<>();
+		for (Map<String, Object> row : rows) {
+			rowsById.computeIfAbsent(getKey(getDepth(row), (String) row.get("identifier")), key -> new ArrayList<>())
+					.add(row);
+		}
+		Map<String, List<Map<String, Object>>> childrenByParent = new HashMap<>();
+		for (Map<String, Object> row : rows) {
+			int depth = getDepth(row);
+			if (depth > 0)
+				childrenByParent.computeIfAbsent(getKey(depth - 1, (String) row.get("parent")), key -> new ArrayList<>())
+						.add(row);
+		}
+		for (Map.Entry<String, List<Map<String, Object>>> entry : childrenByParent.entrySet()) {
+			List<Map<String, Object>> parents = rowsById.get(entry.getKey());
+			if (null == parents)
+				continue;
+			List<Map<String, Object>> children = entry.getValue();
+			children.sort(INDEX_ORDER);
+			for (Map<String, Object> parent : parents) {
+				List<Object> parentChildren = (List<Object>) parent.get("children");
+				if (null == parentChildren || parentChildren.isEmpty()) {
+					parentChildren = new ArrayList<>();
+					parent.put("children", parentChildren);
+				}
+				parentChildren.addAll(children);
+			}
+		}
+		return root;
+	}
+
+	private static List<Map<String, Object>> getRows(List<Map<String, Object>> rows, Set<String> resourceImgIds,
+			Set<String> removeIds) {
+		List<Map<String, Object>> selected = new ArrayList<>();
+		for (Map<String, Object> row : rows) {
+			String id = (String) row.get("identifier");
+			if (!resourceImgIds.contains(id) && !removeIds.contains(id))
+				selected.add(row);
+		}
+		return selected;
+	}
+
+	private static Set<String> getResourceImageIds(List<Map<String, Object>> rows) {
+		Set<String> resourceImgIds = new HashSet<>();
+		for (Map<String, Object> row : rows) {
+			if (isImage(row) && StringUtils.equalsIgnoreCase((String) row.get("visibility"), "default")
+					&& getDepth(row) > 0) {
+				String id = (String) row.get("identifier");
+				resourceImgIds.add(id.endsWith(IMAGE_SUFFIX) ? id : id + IMAGE_SUFFIX);
+			}
+		}
+		return resourceImgIds;
+	}
+
+	private static boolean isImage(Map<String, Object> row) {
+		return StringUtils.equals((String) row.get("objectType"), "ContentImage");
+	}
+
+	private static int getDepth(Map<String, Object> row) {
+		return ((Number) row.get("depth")).intValue();
+	}
+
+	private static String getKey(int depth, String identifier) {
+		return depth + ":" + identifier;
+	}
+}
@@ -0,0 +1,85 @@
+package org.ekstep.learning.contentstore;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.ekstep.cassandra.CassandraTestSetup;
+import org.ekstep.cassandra.connector.util.PreparedStatementCache;
+import org.ekstep.learning.hierarchy.store.HierarchyStore;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.datastax.driver.core.PreparedStatement;
+
+/**
+ * Checks that the hierarchy read and the content properties update prepare
+ * their statements once and reuse them afterwards.
+ */
+public class PreparedStatementCacheTest extends CassandraTestSetup {
+
+	private static final int CALLS = 10;
+
+	private static final String contentKeyspace = "content_store";
+	private static final String hierarchyKeyspace = "hierarchy_store";
+	private static final String createContentKeyspace = "CREATE KEYSPACE IF NOT EXISTS " + contentKeyspace
+			+ " WITH replication = {'class': 'SimpleStrategy', 'replication_factor': '1'}";
+	private static final String createContentTable = "CREATE TABLE IF NOT EXISTS " + contentKeyspace
+			+ ".content_data (content_id text, last_updated_on timestamp, body blob, oldBody blob, stageIcons blob, screenshots blob, PRIMARY KEY (content_id));";
+	private static final String createHierarchyKeyspace = "CREATE KEYSPACE IF NOT EXISTS " + hierarchyKeyspace
+			+ " WITH replication = {'class': 'SimpleStrategy', 'replication_factor': '1'}";
+	private static final String createHierarchyTable = "CREATE TABLE IF NOT EXISTS " + hierarchyKeyspace
+			+ ".content_hierarchy (identifier text, hierarchy text, bookmarks text, PRIMARY KEY (identifier));";
+
+	private HierarchyStore hierarchyStore = new HierarchyStore(hierarchyKeyspace, "content_hierarchy", "Content",
+			false);
+	private ContentStore contentStore = new ContentStore();
+
+	@BeforeClass
+	public static void setup() throws Exception {
+		executeScript(createContentKeyspace, createContentTable, createHierarchyKeyspace, createHierarchyTable);
+	}
+
+	@Test
+	public void testGetHierarchyPreparesOnce() {
+		String identifier = "do_prepared_hierarchy";
+		Map<String, Object> hierarchy = new HashMap<>();
+		hierarchy.put("identifier", identifier);
+		hierarchy.put("children", new Object[] {});
+		hierarchyStore.saveOrUpdateHierarchy(identifier, hierarchy);
+
+		hierarchyStore.getHierarchy(identifier);
+		long misses = getStat("misses");
+		long hits = getStat("hits");
+		for (int i = 0; i < CALLS; i++)
+			Assert.assertEquals(identifier, hierarchyStore.getHierarchy(identifier).get("identifier"));
+		Assert.assertEquals(misses, getStat("misses"));
+		Assert.assertEquals(hits + CALLS, getStat("hits"));
+	}
+
+	@Test
+	public void testUpdateContentPropertiesPreparesOnce() {
+		String identifier = "do_prepared_content";
+		Map<String, Object> properties = new HashMap<>();
+		properties.put("body", "prepared_body");
+		properties.put("oldBody", "prepared_old_body");
+
+		contentStore.updateContentProperties(identifier, properties);
+		long misses = getStat("misses");
+		for (int i = 0; i < CALLS; i++)
+			contentStore.updateContentProperties(identifier, properties);
+		Assert.assertEquals(misses, getStat("misses"));
+		Assert.assertEquals("prepared_body", contentStore.getContentBody(identifier));
+	}
+
+	@Test
+	public void testStatementIsPreparedOnce() {
+		String query = "SELECT hierarchy FROM " + hierarchyKeyspace + ".content_hierarchy WHERE identifier=?";
+		PreparedStatement statement = PreparedStatementCache.get(getSession(), query);
+		Assert.assertSame(statement, PreparedStatementCache.get(getSession(), query));
+	}
+
+	private long getStat(String name) {
+		return (long) PreparedStatementCache.getStats().get(name);
+	}
+}
@@ -0,0 +1,92 @@
+package org.ekstep.learning.hierarchy.store;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class PublishedHierarchyTest {
+
+	private static ObjectMapper mapper = new ObjectMapper();
+
+	@Test
+	public void testBookmarkIsSlicedFromHierarchy() throws Exception {
+		Map<String, Object> unit = node("do_unit_2", "Parent", node("do_resource", "Default"));
+		Map<String, Object> hierarchy = node("do_root", "Default", node("do_unit_1", "Parent"), unit);
+		PublishedHierarchy published = getPublishedHierarchy(hierarchy);
+
+		Assert.assertTrue(published.hasBookmarkIndex());
+		Assert.assertEquals(unit, mapper.readValue(published.getBookmark("do_unit_2"), Map.class));
+		Assert.assertEquals(unit, mapper.readValue(published.getBookmark("DO_UNIT_2"), Map.class));
+	}
+
+	@Test
+	public void testOnlyUnitsAreBookmarks() throws Exception {
+		Map<String, Object> hierarchy = node("do_root", "Default",
+				node("do_unit", "Parent", node("do_resource", "Default")));
+		PublishedHierarchy published = getPublishedHierarchy(hierarchy);
+
+		Assert.assertNull(published.getBookmark("do_root"));
+		Assert.assertNull(published.getBookmark("do_resource"));
+		Assert.assertNull(published.getBookmark("do_invalid"));
+	}
+
+	@Test
+	public void testBookmarkAtLowestLevelWins() throws Exception {
+		Map<String, Object> nested = node("do_unit", "Parent", node("do_resource", "Default"));
+		Map<String, Object> unit = node("do_unit", "Parent");
+		Map<String, Object> hierarchy = node("do_root", "Default", node("do_unit_1", "Parent", nested), unit);
+		PublishedHierarchy published = getPublishedHierarchy(hierarchy);
+
+		Assert.assertEquals(unit, mapper.readValue(published.getBookmark("do_unit"), Map.class));
+	}
+
+	@Test
+	public void testIndexOfOtherHierarchyIsIgnored() throws Exception {
+		String json = mapper.writeValueAsString(node("do_root", "Default", node("do_unit", "Parent")));
+		String otherJson = mapper.writeValueAsString(node("do_root", "Default", node("do_unit_1", "Parent")));
+		PublishedHierarchy published = new PublishedHierarchy(json, PublishedHierarchy.buildBookmarkIndex(otherJson));
+
+		Assert.assertFalse(published.hasBookmarkIndex());
+		Assert.assertFalse(new PublishedHierarchy(json, null).hasBookmarkIndex());
+	}
+
+	@Test
+	public void testRawJsonMapIsSerializedAsIs() throws Exception {
+		String json = "{\"identifier\":\"do_root\",   \"children\":[]}";
+		Assert.assertEquals(json, mapper.writeValueAsString(new RawJsonMap(json)));
+
+		RawJsonMap map = new RawJsonMap(json);
+		map.put("status", "Live");
+		Map<String, Object> expected = new HashMap<>();
+		expected.put("identifier", "do_root");
+		expected.put("children", new ArrayList<>());
+		expected.put("status", "Live");
+		Assert.assertEquals(expected, mapper.readValue(mapper.writeValueAsString(map), Map.class));
+	}
+
+	private PublishedHierarchy getPublishedHierarchy(Map<String, Object> hierarchy) throws Exception {
+		String json = mapper.writeValueAsString(hierarchy);
+		return new PublishedHierarchy(json, PublishedHierarchy.buildBookmarkIndex(json));
+	}
+
+	@SafeVarargs
+	private final Map<String, Object> node(String identifier, String visibility, Map<String, Object>... children) {
+		Map<String, Object> node = new HashMap<>();
+		node.put("identifier", identifier);
+		node.put("visibility", visibility);
+		node.put("name", identifier);
+		Map<String, Object> metadata = new HashMap<>();
+		metadata.put("identifier", identifier + "_metadata");
+		node.put("metadata", metadata);
+		List<Map<String, Object>> childList = new ArrayList<>(Arrays.asList(children));
+		node.put("children", childList);
+		return node;
+	}
+}
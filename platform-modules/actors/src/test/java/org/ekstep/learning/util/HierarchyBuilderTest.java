@@ -0,0 +1,164 @@
+package org.ekstep.learning.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Checks the rows selected and the tree built by the {@link HierarchyBuilder}.
+ */
+public class HierarchyBuilderTest {
+
+	private static final int SIZE = 1000;
+	private static final int FAN_OUT = 10;
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testBuildOrdersChildrenByIndex() {
+		List<Map<String, Object>> rows = new ArrayList<>();
+		rows.add(row("do_root", "Content", "Live", 0, null, null));
+		rows.add(row("do_unit_2", "Content", "Live", 1, "do_root", 2));
+		rows.add(row("do_unit_1", "Content", "Live", 1, "do_root", 1));
+		rows.add(row("do_resource", "Content", "Live", 2, "do_unit_1", 1));
+		Map<String, Object> root = HierarchyBuilder.build(rows);
+		List<Map<String, Object>> children = (List<Map<String, Object>>) root.get("children");
+		Assert.assertEquals(2, children.size());
+		Assert.assertEquals("do_unit_1", children.get(0).get("identifier"));
+		Assert.assertEquals("do_unit_2", children.get(1).get("identifier"));
+		Assert.assertEquals(1, ((List<Object>) children.get(0).get("children")).size());
+		Assert.assertNull(children.get(1).get("children"));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testBuildAddsChildToEveryParentRow() {
+		List<Map<String, Object>> rows = new ArrayList<>();
+		rows.add(row("do_root", "Content", "Live", 0, null, null));
+		rows.add(row("do_unit_1", "Content", "Live", 1, "do_root", 1));
+		rows.add(row("do_unit_1", "Content", "Live", 1, "do_root", 2));
+		rows.add(row("do_resource", "Content", "Live", 2, "do_unit_1", 1));
+		HierarchyBuilder.build(rows);
+		Assert.assertEquals(1, ((List<Object>) rows.get(1).get("children")).size());
+		Assert.assertEquals(1, ((List<Object>) rows.get(2).get("children")).size());
+	}
+
+	@Test
+	public void testEditRowsReplaceUnitWithImage() {
+		List<Map<String, Object>> rows = new ArrayList<>();
+		rows.add(row("do_root", "Content", "Draft", 0, null, null));
+		rows.add(row("do_unit", "Content", "Live", 1, "do_root", 1));
+		rows.add(row("do_unit.img", "ContentImage", "Draft", 1, "do_root", 1));
+		rows.add(row("do_resource", "Content", "Live", 2, "do_unit.img", 1));
+		rows.add(resource(row("do_resource.img", "ContentImage", "Draft", 2, "do_unit.img", 1)));
+		rows.add(row("do_retired", "Content", "Retired", 2, "do_unit.img", 2));
+		List<String> ids = getIds(HierarchyBuilder.getEditRows(HierarchyBuilder.getValidRows(rows)));
+		Assert.assertEquals(3, ids.size());
+		Assert.assertTrue(ids.contains("do_unit.img"));
+		Assert.assertTrue(ids.contains("do_resource"));
+		Assert.assertFalse(ids.contains("do_unit"));
+		Assert.assertFalse(ids.contains("do_resource.img"));
+	}
+
+	@Test
+	public void testPublishedRowsKeepOnlyPublicContent() {
+		List<Map<String, Object>> rows = new ArrayList<>();
+		rows.add(row("do_root", "Content", "Live", 0, null, null));
+		rows.add(row("do_unit", "Content", "Live", 1, "do_root", 1));
+		rows.add(row("do_unit.img", "ContentImage", "Draft", 1, "do_root", 1));
+		rows.add(row("do_draft", "Content", "Draft", 2, "do_unit", 1));
+		rows.add(row("do_unlisted", "Content", "Unlisted", 2, "do_unit", 2));
+		rows.add(row("do_unlisted", "Content", "Unlisted", 2, "do_unit", 2));
+		List<String> ids = getIds(HierarchyBuilder.getPublishedRows(HierarchyBuilder.getValidRows(rows)));
+		Assert.assertEquals(3, ids.size());
+		Assert.assertTrue(ids.contains("do_root"));
+		Assert.assertTrue(ids.contains("do_unit"));
+		Assert.assertTrue(ids.contains("do_unlisted"));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testEditModeReadOfGeneratedCollection() {
+		Map<String, Object> root = read(getRows(SIZE), HierarchyBuilder::getEditRows);
+		Assert.assertEquals("do_root", root.get("identifier"));
+		List<String> ids = getIds((List<Map<String, Object>>) root.get("children"));
+		Assert.assertEquals(FAN_OUT, ids.size());
+		for (int i = 0; i < FAN_OUT; i++)
+			Assert.assertEquals("do_" + (i + 1), ids.get(i));
+		Map<String, Object> unit = ((List<Map<String, Object>>) root.get("children")).get(0);
+		Assert.assertEquals("do_11.img", getIds((List<Map<String, Object>>) unit.get("children")).get(0));
+	}
+
+	@Test
+	public void testPublishedModeReadOfGeneratedCollection() {
+		Map<String, Object> root = read(getRows(SIZE), HierarchyBuilder::getPublishedRows);
+		Assert.assertEquals("do_root", root.get("identifier"));
+		Assert.assertEquals(SIZE, countNodes(root));
+	}
+
+	private Map<String, Object> read(List<Map<String, Object>> rows,
+			Function<List<Map<String, Object>>, List<Map<String, Object>>> select) {
+		return HierarchyBuilder.build(select.apply(HierarchyBuilder.getValidRows(rows)));
+	}
+
+	/**
+	 * A collection of the given size where every node has FAN_OUT children,
+	 * with a draft image for every tenth unit and resource.
+	 */
+	private List<Map<String, Object>> getRows(int size) {
+		List<Map<String, Object>> rows = new ArrayList<>(size + size / 10);
+		rows.add(row("do_root", "Content", "Live", 0, null, null));
+		for (int i = 1; i < size; i++) {
+			int parent = (i - 1) / FAN_OUT;
+			String parentId = parent == 0 ? "do_root" : "do_" + parent;
+			int depth = (int) rows.get(parent).get("depth") + 1;
+			rows.add(row("do_" + i, "Content", "Live", depth, parentId, (i - 1) % FAN_OUT + 1));
+		}
+		for (int i = 1; i < size; i += 10) {
+			Map<String, Object> node = rows.get(i);
+			Map<String, Object> image = row(node.get("identifier") + ".img", "ContentImage", "Draft",
+					(int) node.get("depth"), (String) node.get("parent"), (Integer) node.get("index"));
+			rows.add(i % 20 == 1 ? resource(image) : image);
+		}
+		return rows;
+	}
+
+	private Map<String, Object> row(String identifier, String objectType, String status, int depth, String parent,
+			Integer index) {
+		Map<String, Object> row = new HashMap<>();
+		row.put("identifier", identifier);
+		row.put("objectType", objectType);
+		row.put("visibility", "Parent");
+		row.put("status", status);
+		row.put("depth", depth);
+		row.put("parent", parent);
+		row.put("index", index);
+		return row;
+	}
+
+	private Map<String, Object> resource(Map<String, Object> row) {
+		row.put("visibility", "Default");
+		return row;
+	}
+
+	@SuppressWarnings("unchecked")
+	private int countNodes(Map<String, Object> node) {
+		int count = 1;
+		List<Map<String, Object>> children = (List<Map<String, Object>>) node.get("children");
+		if (null != children)
+			for (Map<String, Object> child : children)
+				count += countNodes(child);
+		return count;
+	}
+
+	private List<String> getIds(List<Map<String, Object>> rows) {
+		List<String> ids = new ArrayList<>();
+		for (Map<String, Object> row : rows)
+			ids.add((String) row.get("identifier"));
+		return ids;
+	}
+}
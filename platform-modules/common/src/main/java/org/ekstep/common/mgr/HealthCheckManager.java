@@ -6,7 +6,11 @@ import java.util.Map;
 import org.ekstep.common.dto.Request;
 import org.ekstep.common.dto.Response;
 import org.ekstep.graph.cache.factory.JedisFactory;
+import org.ekstep.graph.cache.mgr.impl.NodeCacheManager;
 import org.ekstep.graph.engine.router.GraphEngineManagers;
+import org.ekstep.graph.service.util.DriverUtil;
+import org.ekstep.graph.service.util.LocalCache;
+import org.ekstep.graph.service.util.QueryPlanStats;
 
 import redis.clients.jedis.Jedis;
 public abstract class HealthCheckManager extends BaseManager{
@@ -54,4 +58,19 @@ public abstract class HealthCheckManager extends BaseManager{
 		return check;
 	}
 
+	protected static Map<String, Object> getCacheMetrics() {
+		Map<String, Object> metrics = new HashMap<String, Object>();
+		metrics.put("localCache", LocalCache.getStats());
+		metrics.putAll(NodeCacheManager.getStats());
+		return metrics;
+	}
+
+	protected static Map<String, Object> getGraphPoolMetrics() {
+		return DriverUtil.getPoolMetrics();
+	}
+
+	protected static Map<String, Object> getQueryPlanMetrics() {
+		return QueryPlanStats.getStats();
+	}
+
 }
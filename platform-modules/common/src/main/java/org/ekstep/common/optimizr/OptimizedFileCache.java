@@ -0,0 +1,139 @@
+package org.ekstep.common.optimizr;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.ekstep.telemetry.logger.TelemetryManager;
+
+/**
+ * Persistent cache of the files optimised by a chain of processors, keyed by
+ * the content hash of the input file.
+ *
+ * The hashes of the optimised outputs are recorded as well, so an asset which
+ * is itself the output of a previous optimisation (e.g. an asset of an ECAR
+ * which was already optimised) is not optimised again.
+ *
+ * The cache is bounded: {@link #cleanup()} removes the entries not used for
+ * more than the max age and then the least recently used ones until the cache
+ * fits in its max size.
+ */
+public class OptimizedFileCache {
+
+	private static final String OUTPUT_MARKER = ".optimized";
+
+	private final File dir;
+	private final String prefix;
+	private final long maxSize;
+	private final long maxAge;
+
+	/**
+	 * @param path
+	 *            the folder of the cache
+	 * @param processorsKey
+	 *            identifies the chain of processors and their settings, the
+	 *            cache entries of different chains are kept apart
+	 * @param maxSize
+	 *            the max size of the cache in bytes
+	 * @param maxAge
+	 *            the max time in seconds an entry is kept without being used
+	 */
+	public OptimizedFileCache(String path, String processorsKey, long maxSize, long maxAge) {
+		this.dir = new File(path);
+		this.prefix = Integer.toHexString(processorsKey.hashCode()) + "_";
+		this.maxSize = maxSize;
+		this.maxAge = TimeUnit.SECONDS.toMillis(maxAge);
+		if (!dir.exists())
+			dir.mkdirs();
+	}
+
+	public String getHash(File file) throws IOException {
+		try (DigestInputStream inputStream = new DigestInputStream(new FileInputStream(file),
+				MessageDigest.getInstance("SHA-256"))) {
+			byte[] buffer = new byte[64 * 1024];
+			while (inputStream.read(buffer) != -1)
+				;
+			StringBuilder hash = new StringBuilder();
+			for (byte b : inputStream.getMessageDigest().digest())
+				hash.append(String.format("%02x", b));
+			return hash.toString();
+		} catch (NoSuchAlgorithmException e) {
+			throw new IOException(e);
+		}
+	}
+
+	/**
+	 * @return true if the file with the given hash is the output of an
+	 *         optimisation
+	 */
+	public boolean isOptimized(String hash) {
+		return touch(new File(dir, prefix + hash + OUTPUT_MARKER));
+	}
+
+	/**
+	 * Replaces the file with its cached optimised output, if any.
+	 *
+	 * @return true if the file was replaced
+	 */
+	public boolean restore(String hash, File file) {
+		File cached = new File(dir, prefix + hash);
+		if (!touch(cached))
+			return false;
+		try {
+			Files.copy(cached.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			return true;
+		} catch (IOException e) {
+			TelemetryManager.warn("Unable to restore the optimised file of " + file.getName() + ": " + e.getMessage());
+			return false;
+		}
+	}
+
+	/**
+	 * Stores the optimised output of the input with the given hash.
+	 */
+	public void store(String hash, File output) {
+		try {
+			File temp = new File(dir, UUID.randomUUID().toString() + ".tmp");
+			Files.copy(output.toPath(), temp.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			Files.move(temp.toPath(), new File(dir, prefix + hash).toPath(), StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+			new File(dir, prefix + getHash(output) + OUTPUT_MARKER).createNewFile();
+		} catch (IOException e) {
+			TelemetryManager.warn("Unable to cache the optimised file of " + output.getName() + ": " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Removes the expired entries, then the least recently used ones while the
+	 * cache is larger than its max size.
+	 */
+	public void cleanup() {
+		File[] files = dir.listFiles();
+		if (null == files)
+			return;
+		long expiry = System.currentTimeMillis() - maxAge;
+		long size = 0;
+		Arrays.sort(files, Comparator.comparingLong(File::lastModified).reversed());
+		for (File file : files) {
+			if (!file.isFile())
+				continue;
+			if (file.lastModified() < expiry || size + file.length() > maxSize)
+				file.delete();
+			else
+				size += file.length();
+		}
+	}
+
+	private boolean touch(File file) {
+		return file.exists() && file.setLastModified(System.currentTimeMillis());
+	}
+}
@@ -13,4 +13,12 @@ import java.io.File;
 public interface Processor {
     public boolean isApplicable(FileType type);
     public File process(File file);
+
+    /**
+     * Identifies the processor along with the settings which change its
+     * output, the optimised files are cached by it.
+     */
+    public default String getSettings() {
+        return getClass().getName();
+    }
 }
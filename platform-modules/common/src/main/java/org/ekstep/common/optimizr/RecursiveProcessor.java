@@ -7,17 +7,41 @@ package org.ekstep.common.optimizr;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
+import org.ekstep.common.Platform;
 import org.ekstep.telemetry.logger.TelemetryManager;
 
 /**
+ * Applies the processors to all the files of a folder tree. The files are
+ * independent of each other and are processed in parallel on a fork-join pool
+ * bounded by the number of cores. With <code>optimizr.cache.enable</code> the
+ * optimised outputs are cached by the content hash of the input and the
+ * settings of the processors, see {@link OptimizedFileCache}.
  *
  * @author feroz
  */
 public class RecursiveProcessor implements Processor {
 
+    private static final int PARALLELISM = Platform.config.hasPath("optimizr.parallelism")
+            ? Platform.config.getInt("optimizr.parallelism") : Runtime.getRuntime().availableProcessors();
+    private static final boolean CACHE_ENABLED = Platform.config.hasPath("optimizr.cache.enable")
+            && Platform.config.getBoolean("optimizr.cache.enable");
+    private static final String CACHE_PATH = Platform.config.hasPath("optimizr.cache.path")
+            ? Platform.config.getString("optimizr.cache.path") : "/data/contentBundle/optimizr_cache";
+    // 1 GB
+    private static final long CACHE_MAX_SIZE = Platform.config.hasPath("optimizr.cache.max_size")
+            ? Platform.config.getLong("optimizr.cache.max_size") : 1073741824L;
+    // 7 days
+    private static final long CACHE_MAX_AGE = Platform.config.hasPath("optimizr.cache.max_age")
+            ? Platform.config.getLong("optimizr.cache.max_age") : 604800L;
+
+    private static final ForkJoinPool pool = new ForkJoinPool(PARALLELISM);
+
     protected List<Processor> processors = new ArrayList<Processor>();
     protected Statistics stats = null;
+    private OptimizedFileCache cache = null;
     
     public RecursiveProcessor(Statistics stats) {
         this.stats = stats;
@@ -25,42 +49,113 @@ public class RecursiveProcessor implements Processor {
     
     public void addProcessor(Processor proc) {
         this.processors.add(proc);
+        this.cache = null;
     }
     
     //@Override
     public File process(File dir) {
         if (dir.isDirectory()) {
-            File[] files = dir.listFiles();
-            for (int i = 0; i < files.length; i++) {
-                if (files[i].isDirectory()) {
-                    process(files[i]);
-                    continue;
-                }
-                
-                File file = files[i];
-                FileType type = FileUtils.getFileType(file);
-                long rawSize = file.length();
-                long redSize = 0;
-                
-                for (Processor proc : processors) {
-                    if (proc.isApplicable(type)) {
-                        try {
-                        	TelemetryManager.log("Processing file: " + file.getName());
-                            File output = proc.process(file);
-                            if (output != null) redSize = output.length();
-                            stats.update(type, rawSize, redSize);
-                        }
-                        catch (Exception ex) {
-                        	TelemetryManager.warn("Failed to apply processor: " + proc.getClass() + " on file: " + file.getName());
-                        }
-                    }
-                }
+            if (CACHE_ENABLED && cache == null) {
+                StringBuilder processorsKey = new StringBuilder();
+                for (Processor proc : processors)
+                    processorsKey.append(proc.getSettings()).append(";");
+                cache = new OptimizedFileCache(CACHE_PATH, processorsKey.toString(), CACHE_MAX_SIZE, CACHE_MAX_AGE);
             }
+            pool.invoke(new DirectoryTask(dir));
+            if (cache != null)
+                cache.cleanup();
             return dir;
         }
         return null;
     }
 
+    private void processFile(File file) {
+        FileType type = FileUtils.getFileType(file);
+        List<Processor> applicable = new ArrayList<Processor>();
+        for (Processor proc : processors) {
+            if (proc.isApplicable(type))
+                applicable.add(proc);
+        }
+        if (applicable.isEmpty())
+            return;
+
+        long rawSize = file.length();
+        String hash = null;
+        if (cache != null) {
+            try {
+                hash = cache.getHash(file);
+                if (cache.isOptimized(hash) || cache.restore(hash, file)) {
+                    stats.updateCached(type, rawSize, file.length());
+                    return;
+                }
+            } catch (Exception ex) {
+                TelemetryManager.warn("Unable to read the optimised file cache for file: " + file.getName());
+            }
+        }
+
+        long redSize = 0;
+        boolean optimized = false;
+        for (Processor proc : applicable) {
+            try {
+                TelemetryManager.log("Processing file: " + file.getName());
+                long size = file.length();
+                long startTime = System.currentTimeMillis();
+                File output = proc.process(file);
+                stats.updateProcessor(proc.getClass().getSimpleName(), size, System.currentTimeMillis() - startTime);
+                if (output != null) {
+                    redSize = output.length();
+                    optimized = true;
+                }
+                stats.update(type, rawSize, redSize);
+            }
+            catch (Exception ex) {
+                TelemetryManager.warn("Failed to apply processor: " + proc.getClass() + " on file: " + file.getName());
+            }
+        }
+        if (optimized && hash != null)
+            cache.store(hash, file);
+    }
+
+    private class DirectoryTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+        private final File dir;
+
+        DirectoryTask(File dir) {
+            this.dir = dir;
+        }
+
+        @Override
+        protected void compute() {
+            File[] files = dir.listFiles();
+            if (files == null)
+                return;
+            List<RecursiveAction> tasks = new ArrayList<RecursiveAction>();
+            for (File file : files) {
+                if (file.isDirectory())
+                    tasks.add(new DirectoryTask(file));
+                else
+                    tasks.add(new FileTask(file));
+            }
+            invokeAll(tasks);
+        }
+    }
+
+    private class FileTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+        private final File file;
+
+        FileTask(File file) {
+            this.file = file;
+        }
+
+        @Override
+        protected void compute() {
+            processFile(file);
+        }
+    }
+
     public boolean isApplicable(FileType type) {
         return (type == FileType.Directory);
     }
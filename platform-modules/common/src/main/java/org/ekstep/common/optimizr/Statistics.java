@@ -5,6 +5,8 @@
 package org.ekstep.common.optimizr;
 
 import java.text.DecimalFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import org.ekstep.telemetry.logger.TelemetryManager;
 
@@ -28,8 +30,11 @@ public class Statistics {
     private long redSize = 0;
     private long begin = 0;
     private long end = 0;
+    private int cachedAssets = 0;
+    // files, bytes and time in ms per processor
+    private Map<String, long[]> processors = new LinkedHashMap<String, long[]>();
 
-    public void print() {
+    public synchronized void print() {
         System.out.println("---- Summary ----");
         TelemetryManager.log("    Compressed Zip: before - " + toMB(rawSize) + ", after - " + toMB(redSize) + " %n");
         TelemetryManager.log("    Audio Files: " +audioAssets + ", before - " + toMB(audioSizeRaw) + ", after - " + toMB(audioSizeRed) + ", %n");
@@ -42,6 +47,15 @@ public class Statistics {
         System.out.printf("    Image Files: %d, before - %s, after - %s, %n", imageAssets, toMB(imageSizeRaw), toMB(imageSizeRed));
         System.out.printf("    Video Files: %d, before - %s, after - %s, %n", videoAssets, toMB(videoSizeRaw), toMB(videoSizeRed));
         System.out.printf("    Optimized in %d ms %n", (end - begin));
+        System.out.printf("    Cached Files: %d %n", cachedAssets);
+        for (Map.Entry<String, long[]> entry : processors.entrySet()) {
+            long[] counts = entry.getValue();
+            String throughput = counts[2] == 0 ? "-" : toMB(counts[1] * 1000 / counts[2]) + "/s";
+            TelemetryManager.log("    " + entry.getKey() + ": " + counts[0] + " files, " + toMB(counts[1]) + " in "
+                    + counts[2] + " ms, " + throughput);
+            System.out.printf("    %s: %d files, %s in %d ms, %s %n", entry.getKey(), counts[0], toMB(counts[1]),
+                    counts[2], throughput);
+        }
     }
 
     public void start(long rawSize) {
@@ -54,7 +68,31 @@ public class Statistics {
         this.redSize = redSize;
     }
 
-    public void update(FileType type, long rawSize, long reducedSize) {
+    /**
+     * Records a run of the processor on a file of the given size, the time is
+     * the processing time of the file, i.e. the sum of the times of all the
+     * threads for parallel runs.
+     */
+    public synchronized void updateProcessor(String processor, long size, long time) {
+        long[] counts = processors.get(processor);
+        if (counts == null) {
+            counts = new long[3];
+            processors.put(processor, counts);
+        }
+        counts[0]++;
+        counts[1] += size;
+        counts[2] += time;
+    }
+
+    /**
+     * Records a file whose optimised output was taken from the cache.
+     */
+    public synchronized void updateCached(FileType type, long rawSize, long reducedSize) {
+        cachedAssets++;
+        update(type, rawSize, reducedSize);
+    }
+
+    public synchronized void update(FileType type, long rawSize, long reducedSize) {
         switch (type) {
             case Audio: {
                 audioAssets++;
@@ -19,6 +19,11 @@ import net.bramp.ffmpeg.builder.FFmpegBuilder;
  */
 public class MonoChannelProcessor extends AudioProcessor {
 
+    private static final String FORMAT = "mp3";
+    private static final int CHANNELS = 1;
+    private static final int SAMPLE_RATE = 22050;
+    private static final long BIT_RATE = 16384;
+
     @Override
     public File process(File file) {
         
@@ -34,11 +39,11 @@ public class MonoChannelProcessor extends AudioProcessor {
                     .overrideOutputFiles(true) // Override the output if it exists
 
                     .addOutput(outputF) // Filename for the destination
-                    .setFormat("mp3") // Format is inferred from filename, or can be set
+                    .setFormat(FORMAT) // Format is inferred from filename, or can be set
 
-                    .setAudioChannels(1) // Mono audio
-                    .setAudioSampleRate(22050) // at 48KHz
-                    .setAudioBitRate(16384) // at 32 kbit/s
+                    .setAudioChannels(CHANNELS) // Mono audio
+                    .setAudioSampleRate(SAMPLE_RATE) // at 48KHz
+                    .setAudioBitRate(BIT_RATE) // at 32 kbit/s
 
                     .done();
 
@@ -57,4 +62,9 @@ public class MonoChannelProcessor extends AudioProcessor {
         
         return null;
     }
+
+    @Override
+    public String getSettings() {
+        return getClass().getName() + ":" + FORMAT + "," + CHANNELS + "," + SAMPLE_RATE + "," + BIT_RATE;
+    }
 }
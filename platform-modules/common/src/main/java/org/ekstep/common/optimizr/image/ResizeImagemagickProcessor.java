@@ -18,6 +18,10 @@ import org.im4java.core.Info;
  */
 public class ResizeImagemagickProcessor extends ImageProcessor {
 
+    // the size and the resolution of the images are divided by it
+    private static final int REDUCTION = 2;
+    private static final double DEFAULT_RESOLUTION = 150;
+
 	
 	public File process(File file, double targetResolution, int width, int height, String outputFileNameSuffix){
 
@@ -26,6 +30,10 @@ public class ResizeImagemagickProcessor extends ImageProcessor {
             String inputFileName = file.getAbsolutePath();
             String outputFileName = file.getAbsolutePath().replaceAll("\\.", "\\."+outputFileNameSuffix+"\\.");
             outputFileName = FilenameUtils.getName(outputFileName);
+            // the file is replaced in place, write the output next to it so
+            // that files with the same name can be processed in parallel
+            if(outputFileNameSuffix.equalsIgnoreCase("out"))
+            	outputFileName = file.getAbsoluteFile().getParent() + File.separator + outputFileName;
 
             // set optimize width and height
             int ow = width;
@@ -72,19 +80,19 @@ public class ResizeImagemagickProcessor extends ImageProcessor {
 	        int height = imageInfo.getImageHeight();
 	        
 	        String resString = imageInfo.getProperty("Resolution");
-	        double xresd = 150; // Assume default 150 ppi
+	        double xresd = DEFAULT_RESOLUTION; // Assume default 150 ppi
             if (resString != null) {
                 String res[] = resString.split("x");
-                String xres = (res.length > 0 ? res[0] : "150");
+                String xres = (res.length > 0 ? res[0] : String.valueOf(DEFAULT_RESOLUTION));
                 xresd = Double.parseDouble(xres);
             }
             
             // Resize 50%
-            int ow = width/2;
-            int oh = height/2;
+            int ow = width/REDUCTION;
+            int oh = height/REDUCTION;
 	        
 	        // Target resolution - reduce to half
-            double targetResolution = xresd/2;
+            double targetResolution = xresd/REDUCTION;
 
             return process(file, targetResolution, ow, oh, "out");
         } catch (Exception ex) {
@@ -94,4 +102,9 @@ public class ResizeImagemagickProcessor extends ImageProcessor {
 		return null;
     }
 
+    @Override
+    public String getSettings() {
+        return getClass().getName() + ":" + REDUCTION + "," + DEFAULT_RESOLUTION;
+    }
+
 }
@@ -10,48 +10,264 @@ import org.ekstep.common.Platform;
 import org.ekstep.graph.cache.util.RedisStoreUtil;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
+/**
+ * Cache of the framework hierarchies.
+ *
+ * A framework is cached as one entry with the framework metadata and the codes
+ * of its categories (<code>fw:&lt;id&gt;</code>) and one entry per category
+ * (<code>fw:&lt;id&gt;:&lt;code&gt;</code>), so any combination of categories is
+ * assembled from the same entries with a single MGET. The decoded entries are
+ * also kept in memory for <code>framework.cache.l1.ttl</code> seconds, at most
+ * <code>framework.cache.l1.size</code> of them, the oldest entry being evicted
+ * first. The in memory entries are not invalidated across instances: after
+ * {@link #delete(String)} the other instances keep serving the framework they
+ * hold in memory until its l1 ttl expires.
+ */
 public class FrameworkCache {
 
     private static final int cacheTtl = Platform.config.hasPath("framework.cache.ttl") ? Platform.config.getInt("framework.cache.ttl") : 86400;
     protected static boolean cacheEnabled = Platform.config.hasPath("framework.cache.read") ? Platform.config.getBoolean("framework.cache.read") : false;
-    private static final String CACHE_PREFIX = "fw_";
+    private static final long l1Ttl = (Platform.config.hasPath("framework.cache.l1.ttl") ? Platform.config.getLong("framework.cache.l1.ttl") : 60) * 1000;
+    private static final int l1Size = Platform.config.hasPath("framework.cache.l1.size") ? Platform.config.getInt("framework.cache.l1.size") : 1000;
+    private static final String CACHE_PREFIX = "fw:";
+    private static final String FRAMEWORK = "framework";
+    private static final String CATEGORIES = "categories";
     protected static ObjectMapper mapper = new ObjectMapper();
 
+    // entries in insertion order, which is also their expiry order.
+    private static final Map<String, Object[]> l1 = Collections.synchronizedMap(new LinkedHashMap<String, Object[]>() {
+        private static final long serialVersionUID = 1L;
 
-    protected static String getFwCacheKey(String identifier, List<String> categoryNames) {
-        Collections.sort(categoryNames);
-        return CACHE_PREFIX + identifier.toLowerCase() + "_" + categoryNames.stream().map(cat -> cat.toLowerCase()).collect(Collectors.joining("_"));
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Object[]> eldest) {
+            return size() > l1Size;
+        }
+    });
+
+
+    protected static String getFwCacheKey(String identifier) {
+        return CACHE_PREFIX + identifier.toLowerCase();
+    }
+
+    protected static String getCategoryCacheKey(String identifier, String categoryCode) {
+        return getFwCacheKey(identifier) + ":" + categoryCode.toLowerCase();
     }
 
 
+    /**
+     * Returns the framework with the given categories, all the categories if
+     * none is given, null if the framework is not cached. The associations of
+     * the terms are filtered to the given categories. The returned framework is
+     * a copy, the cached entries are not modified by the callers.
+     */
+    @SuppressWarnings("unchecked")
     public static Map<String, Object> get(String id, List<String> returnCategories) throws IOException {
-        if(CollectionUtils.isNotEmpty(returnCategories) && cacheEnabled) {
-            Collections.sort(returnCategories);
-            String cachedCategories = RedisStoreUtil.get(getFwCacheKey(id, returnCategories));
-            if(StringUtils.isNotBlank(cachedCategories)) {
-               return mapper.readValue(cachedCategories, new TypeReference<Map<String, Object>>(){});
-            }
+        if (!cacheEnabled || StringUtils.isBlank(id))
+            return null;
+        String fwKey = getFwCacheKey(id);
+        Map<String, Object> cached = (Map<String, Object>) getFromL1(fwKey);
+        if (null == cached) {
+            String value = RedisStoreUtil.get(fwKey);
+            if (StringUtils.isBlank(value))
+                return null;
+            cached = mapper.readValue(value, new TypeReference<Map<String, Object>>(){});
+            putInL1(fwKey, cached);
+        }
+
+        List<String> codes = new ArrayList<>();
+        for (String code : (List<String>) cached.get(CATEGORIES)) {
+            if (CollectionUtils.isEmpty(returnCategories) || returnCategories.contains(code))
+                codes.add(code);
+        }
+        List<Map<String, Object>> categories = getCategories(id, codes);
+        if (null == categories)
+            return null;
+
+        Map<String, Object> framework = (Map<String, Object>) copy(cached.get(FRAMEWORK));
+        List<Map<String, Object>> copies = new ArrayList<>();
+        for (Map<String, Object> category : categories) {
+            Map<String, Object> copy = (Map<String, Object>) copy(category);
+            copies.add(CollectionUtils.isEmpty(returnCategories) ? copy : filterAssociations(copy, returnCategories));
         }
-        return null;
+        framework.put(CATEGORIES, copies);
+        return framework;
     }
 
 
-    public static void save(Map<String, Object> framework, List<String> categoryNames) throws JsonProcessingException {
+    /**
+     * Caches the framework with all its categories. To be called with the
+     * framework before its categories are filtered.
+     */
+    @SuppressWarnings("unchecked")
+    public static void save(Map<String, Object> framework) throws JsonProcessingException {
         if(cacheEnabled && MapUtils.isNotEmpty(framework) && StringUtils.isNotBlank((String) framework.get("identifier"))) {
-            Collections.sort(categoryNames);
-            String key = getFwCacheKey((String) framework.get("identifier"), categoryNames);
-            RedisStoreUtil.save(key, mapper.writeValueAsString(framework), cacheTtl);
+            String id = (String) framework.get("identifier");
+            Map<String, String> data = new HashMap<>();
+            List<String> codes = new ArrayList<>();
+            List<Map<String, Object>> categories = (List<Map<String, Object>>) framework.get(CATEGORIES);
+            if (null != categories) {
+                for (Map<String, Object> category : categories) {
+                    String code = (String) category.get("code");
+                    if (StringUtils.isBlank(code) || codes.contains(code))
+                        continue;
+                    codes.add(code);
+                    data.put(getCategoryCacheKey(id, code), mapper.writeValueAsString(category));
+                }
+            }
+            Map<String, Object> metadata = new HashMap<>(framework);
+            metadata.remove(CATEGORIES);
+            Map<String, Object> cached = new HashMap<>();
+            cached.put(FRAMEWORK, metadata);
+            cached.put(CATEGORIES, codes);
+            data.put(getFwCacheKey(id), mapper.writeValueAsString(cached));
+            RedisStoreUtil.saveMultiple(data, cacheTtl);
         }
     }
 
+    /**
+     * Deletes the framework from Redis and from the memory of this instance.
+     * The other instances serve the framework from their memory for up to
+     * <code>framework.cache.l1.ttl</code> seconds.
+     */
+    @SuppressWarnings("unchecked")
     public static void delete(String id) {
-        if(StringUtils.isNotBlank(id))
-            RedisStoreUtil.deleteByPattern(CACHE_PREFIX + id + "_*");
+        if(StringUtils.isNotBlank(id)) {
+            String fwKey = getFwCacheKey(id);
+            List<String> keys = new ArrayList<>();
+            keys.add(fwKey);
+            try {
+                String value = RedisStoreUtil.get(fwKey);
+                if (StringUtils.isNotBlank(value)) {
+                    Map<String, Object> cached = mapper.readValue(value, new TypeReference<Map<String, Object>>(){});
+                    for (String code : (List<String>) cached.get(CATEGORIES))
+                        keys.add(getCategoryCacheKey(id, code));
+                }
+            } catch (IOException e) {
+                // the category entries expire with their ttl.
+            }
+            RedisStoreUtil.delete(keys.toArray(new String[keys.size()]));
+            l1.keySet().removeIf(key -> key.equals(fwKey) || key.startsWith(fwKey + ":"));
+        }
+    }
+
+    /**
+     * @return the categories with the given codes, null if any of them is not
+     *         cached
+     */
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> getCategories(String id, List<String> codes) throws IOException {
+        Map<String, Map<String, Object>> categories = new HashMap<>();
+        List<String> missingKeys = new ArrayList<>();
+        for (String code : codes) {
+            String key = getCategoryCacheKey(id, code);
+            Map<String, Object> category = (Map<String, Object>) getFromL1(key);
+            if (null != category)
+                categories.put(key, category);
+            else
+                missingKeys.add(key);
+        }
+        if (!missingKeys.isEmpty()) {
+            List<String> values = RedisStoreUtil.mget(missingKeys.toArray(new String[missingKeys.size()]));
+            for (int i = 0; i < missingKeys.size(); i++) {
+                String value = values.get(i);
+                if (StringUtils.isBlank(value))
+                    return null;
+                Map<String, Object> category = mapper.readValue(value, new TypeReference<Map<String, Object>>(){});
+                putInL1(missingKeys.get(i), category);
+                categories.put(missingKeys.get(i), category);
+            }
+        }
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (String code : codes)
+            result.add(categories.get(getCategoryCacheKey(id, code)));
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object copy(Object value) {
+        if (value instanceof Map) {
+            Map<String, Object> copy = new HashMap<>();
+            for (Map.Entry<String, Object> entry : ((Map<String, Object>) value).entrySet())
+                copy.put(entry.getKey(), copy(entry.getValue()));
+            return copy;
+        }
+        if (value instanceof List) {
+            List<Object> copy = new ArrayList<>();
+            for (Object item : (List<Object>) value)
+                copy.add(copy(item));
+            return copy;
+        }
+        return value;
+    }
+
+    /**
+     * Copies the category with only the associations of its terms to the given
+     * categories, the cached category is not modified.
+     */
+    private static Map<String, Object> filterAssociations(Map<String, Object> category, List<String> returnCategories) {
+        Map<String, Object> copy = new HashMap<>(category);
+        if (null != category.get("terms"))
+            copy.put("terms", filterTermAssociations(category.get("terms"), returnCategories));
+        return copy;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object filterTermAssociations(Object terms, List<String> returnCategories) {
+        if (!(terms instanceof List) || CollectionUtils.isEmpty((List<Object>) terms))
+            return terms;
+        List<Object> copies = new ArrayList<>();
+        for (Object obj : (List<Object>) terms) {
+            if (!(obj instanceof Map)) {
+                copies.add(obj);
+                continue;
+            }
+            Map<String, Object> term = (Map<String, Object>) obj;
+            List<Map<String, Object>> associations = (List<Map<String, Object>>) term.get("associations");
+            if (CollectionUtils.isEmpty(associations)) {
+                copies.add(term);
+                continue;
+            }
+            Map<String, Object> copy = new HashMap<>(term);
+            List<Map<String, Object>> filtered = new ArrayList<>();
+            for (Map<String, Object> association : associations) {
+                if (null != association && returnCategories.contains(association.get("category")))
+                    filtered.add(association);
+            }
+            if (filtered.isEmpty())
+                copy.remove("associations");
+            else
+                copy.put("associations", filtered);
+            if (null != term.get("children"))
+                copy.put("children", filterTermAssociations(term.get("children"), returnCategories));
+            copies.add(copy);
+        }
+        return copies;
+    }
+
+    private static Object getFromL1(String key) {
+        Object[] entry = l1.get(key);
+        if (null == entry)
+            return null;
+        if ((long) entry[1] < System.currentTimeMillis()) {
+            l1.remove(key);
+            return null;
+        }
+        return entry[0];
+    }
+
+    private static void putInL1(String key, Object value) {
+        if (l1Ttl <= 0)
+            return;
+        // a new entry goes to the end of the insertion order.
+        l1.remove(key);
+        l1.put(key, new Object[] { value, System.currentTimeMillis() + l1Ttl });
     }
 
 }
@@ -298,8 +298,12 @@ public class BaseMimeTypeManager extends BaseLearningManager {
 				+ node.getMetadata().get(ContentWorkflowPipelineParams.pkgVersion.name()) + ".ecar";
 		ContentBundle contentBundle = new ContentBundle();
 		Map<Object, List<String>> downloadUrls = contentBundle.createContentManifestData(ctnts, childrenIds, null, EcarPackageType.FULL);
-		String[] urlArray = contentBundle.createContentBundle(ctnts, bundleFileName, "1.1", downloadUrls,
-				node,null);
+		String[] urlArray = null;
+		try {
+			urlArray = contentBundle.createContentBundle(ctnts, bundleFileName, "1.1", downloadUrls, node, null);
+		} finally {
+			contentBundle.cleanup();
+		}
 		node.getMetadata().put(ContentAPIParams.s3Key.name(), urlArray[0]);
 		node.getMetadata().put("downloadUrl", urlArray[1]);
 		node.getMetadata().put("status", "Live");
@@ -57,9 +57,15 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 import static java.util.stream.Collectors.toList;
@@ -113,6 +119,17 @@ public class PublishFinalizer extends BaseFinalizer {
 			: 259200;
 	private static final String COLLECTION_CACHE_KEY_PREFIX = "hierarchy_";
 
+	/** Generates the ECAR variants of a content concurrently */
+	private static final boolean PARALLEL_ECAR_GENERATION = Platform.config.hasPath("publish.ecar.parallel.enable")
+			&& Platform.config.getBoolean("publish.ecar.parallel.enable");
+	private static final int ECAR_POOL_SIZE = Platform.config.hasPath("publish.ecar.parallel.pool_size")
+			? Platform.config.getInt("publish.ecar.parallel.pool_size") : 6;
+	private static final ExecutorService ecarPool = Executors.newFixedThreadPool(ECAR_POOL_SIZE, runnable -> {
+		Thread thread = new Thread(runnable, "ecar-generation");
+		thread.setDaemon(true);
+		return thread;
+	});
+
 	/**
 	 * Instantiates a new PublishFinalizer and sets the base path and current
 	 * content id for further processing.
@@ -841,17 +858,97 @@ public class PublishFinalizer extends BaseFinalizer {
 		List<String> ecarUrl = Arrays.asList(contentBundle.createContentBundle(ecarContents, bundleFileName,
 				ContentConfigurationConstants.DEFAULT_CONTENT_MANIFEST_VERSION, downloadUrls, node, children));
 		TelemetryManager.log(pkgType.toString() + " ECAR created For Content Id: " + node.getIdentifier());
+		return ecarUrl;
+	}
 
-		if (!EcarPackageType.FULL.name().equalsIgnoreCase(pkgType.toString())) {
-			Map<String, Object> ecarMap = new HashMap<>();
-			ecarMap.put(ContentWorkflowPipelineParams.ecarUrl.name(), ecarUrl.get(IDX_S3_URL));
-			ecarMap.put(ContentWorkflowPipelineParams.size.name(), getCloudStorageFileSize(ecarUrl.get(IDX_S3_KEY)));
-
-			TelemetryManager.log("Adding " + pkgType.toString() + " Ecar Information to Variants Map For Content Id: " + node.getIdentifier());
-			((Map<String, Object>) node.getMetadata().get(ContentWorkflowPipelineParams.variants.name())).put(pkgType.toString().toLowerCase(), ecarMap);
+	/**
+	 * Generates the ECARs of the given package types in their order. The
+	 * variant of a package is added to the node as soon as its ECAR is created,
+	 * as the ECARs generated after it carry the node with its variants (e.g.
+	 * the ONLINE ECAR refers to the SPINE one). With
+	 * <code>publish.ecar.parallel.enable</code> the ECARs which do not depend on
+	 * each other (the FULL and SPINE ECARs) are created concurrently on the
+	 * ECAR pool and the later ones once the variant they depend on is added.
+	 *
+	 * @return the ECAR URLs by package type
+	 */
+	private Map<EcarPackageType, List<String>> generateEcars(Map<EcarPackageType, List<Map<String, Object>>> packages,
+			Node node, ContentBundle contentBundle, List<String> childrenIds, List<Map<String, Object>> children) {
+		Map<EcarPackageType, List<String>> ecarUrls = new LinkedHashMap<EcarPackageType, List<String>>();
+		Map<String, Object> timings = new ConcurrentHashMap<String, Object>();
+		long startTime = System.currentTimeMillis();
+		if (PARALLEL_ECAR_GENERATION && packages.size() > 1) {
+			// every stage ends with the package adding a variant.
+			Map<EcarPackageType, List<Map<String, Object>>> stage = new LinkedHashMap<EcarPackageType, List<Map<String, Object>>>();
+			for (Map.Entry<EcarPackageType, List<Map<String, Object>>> entry : packages.entrySet()) {
+				stage.put(entry.getKey(), entry.getValue());
+				if (EcarPackageType.FULL != entry.getKey()) {
+					ecarUrls.putAll(generateEcarsConcurrently(stage, node, contentBundle, childrenIds, children, timings));
+					addEcarVariant(entry.getKey(), node, ecarUrls.get(entry.getKey()));
+					stage = new LinkedHashMap<EcarPackageType, List<Map<String, Object>>>();
+				}
+			}
+			if (!stage.isEmpty())
+				ecarUrls.putAll(generateEcarsConcurrently(stage, node, contentBundle, childrenIds, children, timings));
+		} else {
+			for (Map.Entry<EcarPackageType, List<Map<String, Object>>> entry : packages.entrySet()) {
+				long time = System.currentTimeMillis();
+				List<String> ecarUrl = generateEcar(entry.getKey(), node, contentBundle, entry.getValue(), childrenIds,
+						getEcarChildren(entry.getKey(), children));
+				timings.put(entry.getKey().name(), System.currentTimeMillis() - time);
+				ecarUrls.put(entry.getKey(), ecarUrl);
+				if (EcarPackageType.FULL != entry.getKey())
+					addEcarVariant(entry.getKey(), node, ecarUrl);
+			}
+		}
+		timings.put("total", System.currentTimeMillis() - startTime);
+		timings.put("parallel", PARALLEL_ECAR_GENERATION);
+		TelemetryManager.info("ECAR generation time in ms for content id: " + node.getIdentifier(), timings);
+		return ecarUrls;
+	}
 
+	private Map<EcarPackageType, List<String>> generateEcarsConcurrently(
+			Map<EcarPackageType, List<Map<String, Object>>> packages, Node node, ContentBundle contentBundle,
+			List<String> childrenIds, List<Map<String, Object>> children, Map<String, Object> timings) {
+		Map<EcarPackageType, List<String>> ecarUrls = new LinkedHashMap<EcarPackageType, List<String>>();
+		Map<EcarPackageType, Future<List<String>>> futures = new LinkedHashMap<EcarPackageType, Future<List<String>>>();
+		for (Map.Entry<EcarPackageType, List<Map<String, Object>>> entry : packages.entrySet()) {
+			EcarPackageType pkgType = entry.getKey();
+			futures.put(pkgType, ecarPool.submit(() -> {
+				long time = System.currentTimeMillis();
+				List<String> ecarUrl = generateEcar(pkgType, node, contentBundle, entry.getValue(), childrenIds,
+						getEcarChildren(pkgType, children));
+				timings.put(pkgType.name(), System.currentTimeMillis() - time);
+				return ecarUrl;
+			}));
 		}
-		return ecarUrl;
+		try {
+			for (Map.Entry<EcarPackageType, Future<List<String>>> entry : futures.entrySet())
+				ecarUrls.put(entry.getKey(), entry.getValue().get());
+		} catch (InterruptedException | ExecutionException e) {
+			for (Future<List<String>> future : futures.values())
+				future.cancel(true);
+			Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+			if (cause instanceof RuntimeException)
+				throw (RuntimeException) cause;
+			throw new ServerException(ContentErrorCodes.ERR_ECAR_BUNDLE_FAILED.name(),
+					"[Error! something went wrong while bundling ECAR]", cause);
+		}
+		return ecarUrls;
+	}
+
+	private List<Map<String, Object>> getEcarChildren(EcarPackageType pkgType, List<Map<String, Object>> children) {
+		return EcarPackageType.FULL == pkgType ? null : children;
+	}
+
+	@SuppressWarnings("unchecked")
+	private void addEcarVariant(EcarPackageType pkgType, Node node, List<String> ecarUrl) {
+		Map<String, Object> ecarMap = new HashMap<>();
+		ecarMap.put(ContentWorkflowPipelineParams.ecarUrl.name(), ecarUrl.get(IDX_S3_URL));
+		ecarMap.put(ContentWorkflowPipelineParams.size.name(), getCloudStorageFileSize(ecarUrl.get(IDX_S3_KEY)));
+
+		TelemetryManager.log("Adding " + pkgType.toString() + " Ecar Information to Variants Map For Content Id: " + node.getIdentifier());
+		((Map<String, Object>) node.getMetadata().get(ContentWorkflowPipelineParams.variants.name())).put(pkgType.toString().toLowerCase(), ecarMap);
 	}
 
 	private void setCompatibilityLevel(Node node) {
@@ -909,6 +1006,7 @@ public class PublishFinalizer extends BaseFinalizer {
 		ContentBundle contentBundle = new ContentBundle();
 		// ECARs Generation - START
 		node.getMetadata().put(ContentWorkflowPipelineParams.variants.name(), new HashMap<String, Object>());
+		Map<EcarPackageType, List<Map<String, Object>>> packages = new LinkedHashMap<EcarPackageType, List<Map<String, Object>>>();
 		if (COLLECTION_MIMETYPE.equalsIgnoreCase(mimeType) && disableCollectionFullECAR()) {
 			TelemetryManager.log("Disabled full ECAR generation for collections. So not generating for collection id: " + node.getIdentifier());
 			// TODO: START : Remove the below when mobile app is ready to accept Resources as Default in manifest
@@ -916,24 +1014,27 @@ public class PublishFinalizer extends BaseFinalizer {
 			if(CollectionUtils.isNotEmpty(nodeChildList))
 				childrenIds = nodeChildList;
 		} else {
-			List<String> fullECARURL = generateEcar(EcarPackageType.FULL, node, contentBundle, contents, childrenIds, null);
-			downloadUrl = fullECARURL.get(IDX_S3_URL);
-			s3Key = fullECARURL.get(IDX_S3_KEY);
+			packages.put(EcarPackageType.FULL, contents);
 		}
 		// Generate spine ECAR.
-		List<String> spineECARUrl = generateEcar(EcarPackageType.SPINE, node, contentBundle, spineContents, childrenIds, children);
+		packages.put(EcarPackageType.SPINE, spineContents);
+		// generate online ECAR for Collection
+		if (COLLECTION_MIMETYPE.equalsIgnoreCase(mimeType))
+			packages.put(EcarPackageType.ONLINE, onlineContents);
 
-		// if collection full ECAR creation disabled set spine as download url.
-		if (COLLECTION_MIMETYPE.equalsIgnoreCase(mimeType) && disableCollectionFullECAR()) {
-			downloadUrl = spineECARUrl.get(IDX_S3_URL);
-			s3Key = spineECARUrl.get(IDX_S3_KEY);
+		Map<EcarPackageType, List<String>> ecarUrls = null;
+		try {
+			ecarUrls = generateEcars(packages, node, contentBundle, childrenIds, children);
+		} finally {
+			contentBundle.cleanup();
 		}
-
-		// generate online ECAR for Collection
-		if (COLLECTION_MIMETYPE.equalsIgnoreCase(mimeType)) {
-			generateEcar(EcarPackageType.ONLINE, node, contentBundle, onlineContents, childrenIds, children);
+		// if collection full ECAR creation disabled set spine as download url.
+		List<String> downloadECARUrl = ecarUrls.containsKey(EcarPackageType.FULL) ? ecarUrls.get(EcarPackageType.FULL)
+				: ecarUrls.get(EcarPackageType.SPINE);
+		downloadUrl = downloadECARUrl.get(IDX_S3_URL);
+		s3Key = downloadECARUrl.get(IDX_S3_KEY);
+		if (COLLECTION_MIMETYPE.equalsIgnoreCase(mimeType))
 			node.getMetadata().remove("children");
-		}
 		// ECAR generation - END
 		
 		// Populate Fields and Update Node
@@ -0,0 +1,110 @@
+package org.ekstep.content.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+import org.apache.commons.io.FileUtils;
+import org.ekstep.common.Platform;
+import org.ekstep.common.util.HttpDownloadUtility;
+import org.ekstep.telemetry.logger.TelemetryManager;
+
+/**
+ * Downloads the artifacts of the contents bundled in the ECARs of a publish.
+ *
+ * The downloads run in parallel on a bounded pool shared by all publishes,
+ * with a limit on the concurrent downloads from a single host, and are
+ * retried with an exponential backoff. Every URL is downloaded only once per
+ * downloader, into a local cache keyed by the URL, so the ECARs of the
+ * different package types of a publish reuse the artifacts downloaded for the
+ * first one. The cache is deleted by {@link #close()}.
+ */
+public class ArtifactDownloader {
+
+	private static final int POOL_SIZE = Platform.config.hasPath("content.bundle.download.pool_size")
+			? Platform.config.getInt("content.bundle.download.pool_size") : 10;
+	private static final int HOST_CONCURRENCY = Platform.config.hasPath("content.bundle.download.host_concurrency")
+			? Platform.config.getInt("content.bundle.download.host_concurrency") : 4;
+	private static final int MAX_RETRIES = Platform.config.hasPath("content.bundle.download.max_retries")
+			? Platform.config.getInt("content.bundle.download.max_retries") : 3;
+	private static final long RETRY_BACKOFF = Platform.config.hasPath("content.bundle.download.retry_backoff")
+			? Platform.config.getLong("content.bundle.download.retry_backoff") : 1000;
+
+	private static final ExecutorService pool = Executors.newFixedThreadPool(POOL_SIZE, runnable -> {
+		Thread thread = new Thread(runnable, "ecar-artifact-download");
+		thread.setDaemon(true);
+		return thread;
+	});
+	private static final Map<String, Semaphore> hosts = new ConcurrentHashMap<String, Semaphore>();
+
+	private final String cachePath;
+	private final Map<String, Future<File>> downloads = new ConcurrentHashMap<String, Future<File>>();
+
+	public ArtifactDownloader(String basePath) {
+		this.cachePath = basePath + File.separator + System.currentTimeMillis() + "_" + UUID.randomUUID()
+				+ "_artifacts";
+	}
+
+	/**
+	 * Starts the download of the URL unless it was already started.
+	 *
+	 * @return the downloaded file, null if the download failed after all the
+	 *         retries
+	 */
+	public Future<File> download(String url) {
+		return downloads.computeIfAbsent(url, key -> pool.submit(() -> fetch(key)));
+	}
+
+	/**
+	 * Cancels the pending downloads and deletes the cache.
+	 */
+	public void close() {
+		for (Future<File> download : downloads.values())
+			download.cancel(true);
+		downloads.clear();
+		try {
+			FileUtils.deleteDirectory(new File(cachePath));
+		} catch (IOException e) {
+			TelemetryManager.error("Error while deleting the artifact cache: " + cachePath, e);
+		}
+	}
+
+	private File fetch(String url) throws Exception {
+		String saveDir = cachePath + File.separator
+				+ UUID.nameUUIDFromBytes(url.getBytes(StandardCharsets.UTF_8)).toString();
+		Semaphore host = hosts.computeIfAbsent(getHost(url), key -> new Semaphore(HOST_CONCURRENCY));
+		for (int attempt = 0; attempt <= MAX_RETRIES; attempt++) {
+			if (attempt > 0) {
+				long backoff = RETRY_BACKOFF << (attempt - 1);
+				TelemetryManager.warn("Retrying the download of " + url + " in " + backoff + " ms, attempt: " + attempt);
+				Thread.sleep(backoff);
+			}
+			host.acquire();
+			try {
+				File file = HttpDownloadUtility.downloadFile(url, saveDir);
+				if (null != file)
+					return file;
+			} finally {
+				host.release();
+			}
+		}
+		TelemetryManager.error("Unable to download " + url + " after " + (MAX_RETRIES + 1) + " attempts.");
+		return null;
+	}
+
+	private String getHost(String url) {
+		try {
+			return new URL(url).getHost();
+		} catch (Exception e) {
+			return "";
+		}
+	}
+}
@@ -1,11 +1,11 @@
 package org.ekstep.content.util;
 
 import java.io.BufferedOutputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -15,6 +15,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.*;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.Deflater;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
@@ -60,6 +63,7 @@ public class ContentBundle {
 	private static ObjectMapper mapper = new ObjectMapper();
 	public final String TAXONOMY_ID = "domain";
 	public final ControllerUtil util = new ControllerUtil();
+	private final ArtifactDownloader downloader = new ArtifactDownloader(BUNDLE_PATH);
 
 	/** The Constant BUNDLE_PATH. */
 	protected static final String BUNDLE_PATH = "/tmp";
@@ -77,6 +81,21 @@ public class ContentBundle {
 	private static final List<String> EXCLUDE_ECAR_METADATA_FIELDS=Arrays.asList("screenshots","posterImage");
 	private static final String COLLECTION_MIMETYPE = "application/vnd.ekstep.content-collection";
 
+	/** The compression level of the ECAR entries, -1 for the default level */
+	private static final int ECAR_COMPRESSION_LEVEL = Platform.config.hasPath("content.ecar.compression_level")
+			? Platform.config.getInt("content.ecar.compression_level") : Deflater.DEFAULT_COMPRESSION;
+
+	/** The extensions of the files which are already compressed */
+	private static final List<String> ECAR_STORED_EXTENSIONS = Platform.config.hasPath("content.ecar.stored_extensions")
+			? Platform.config.getStringList("content.ecar.stored_extensions")
+			: Arrays.asList("mp4", "mp3", "png", "jpg", "jpeg", "gif", "webm", "ogg", "zip", "apk", "ecar", "pdf");
+
+	private static final int ECAR_BUFFER_SIZE = 64 * 1024;
+
+	/** The time in seconds to wait for the download of an artifact */
+	private static final long DOWNLOAD_TIMEOUT = Platform.config.hasPath("content.bundle.download.timeout")
+			? Platform.config.getLong("content.bundle.download.timeout") : 600;
+
 
 	/**
 	 * Creates the content manifest data.
@@ -194,7 +213,7 @@ public class ContentBundle {
 										List<Map<String, Object>> children) {
 		String contentId = node.getIdentifier();
         String bundleFileName = BUNDLE_PATH + File.separator + fileName;
-		String bundlePath = BUNDLE_PATH + File.separator + System.currentTimeMillis() + "_temp";
+		String bundlePath = BUNDLE_PATH + File.separator + System.currentTimeMillis() + "_" + getUUID() + "_temp";
 		List<File> downloadedFiles = getContentBundle(downloadUrls, bundlePath);
 		try {
 			File manifestFile = new File(
@@ -257,9 +276,7 @@ public class ContentBundle {
 			if (StringUtils.isBlank(bundleFileName))
 				throw new ClientException(ContentErrorCodeConstants.BUNDLE_FILE_WRITE.name(),
 						ContentErrorMessageConstants.INVALID_BUNDLE_FILE_NAME + " | [Bundle File Name is Required.]");
-			try (FileOutputStream stream = new FileOutputStream(bundleFileName)) {
-				stream.write(createECAR(files));
-			}
+			createECAR(files, bundleFile);
 		} catch (Throwable e) {
 			throw new ServerException(ContentErrorCodeConstants.BUNDLE_FILE_WRITE.name(),
 					ContentErrorMessageConstants.BUNDLE_FILE_WRITE_ERROR + " | [Unable to Bundle File.]", e);
@@ -356,7 +373,9 @@ public class ContentBundle {
 	}
 
 	/**
-	 * Gets the content bundle.
+	 * Gets the content bundle. The artifacts are downloaded in parallel by the
+	 * {@link ArtifactDownloader} of the bundle, which downloads every URL only
+	 * once for all the ECARs created by this bundle.
 	 *
 	 * @param downloadUrls
 	 *            the download urls
@@ -367,70 +386,64 @@ public class ContentBundle {
 	private List<File> getContentBundle(final Map<Object, List<String>> downloadUrls, final String bundlePath) {
 		List<File> files = new ArrayList<File>();
 		try {
-			ExecutorService pool = Executors.newFixedThreadPool(1);
-			List<Callable<List<File>>> tasks = new ArrayList<Callable<List<File>>>(downloadUrls.size());
-
-			for (final Object val : downloadUrls.keySet()) {
-				tasks.add(new Callable<List<File>>() {
-					public List<File> call() throws Exception {
-						List<String> ids = downloadUrls.get(val);
-						List<File> files = new ArrayList<File>();
-						for (String id : ids) {
-							String destPath = bundlePath + File.separator + id;
-							createDirectoryIfNeeded(destPath);
-							if (val instanceof File) {
-								File file = (File) val;
-								File newFile = new File(destPath + File.separator + file.getName());
-								FileUtils.copyFile(file, newFile);
-								files.add(newFile);
-							} else {
-								String url = val.toString();
-								if (url.endsWith(".ecar")) {
-									File ecarFile = HttpDownloadUtility.downloadFile(url, destPath + "_ecar");
-									UnzipUtility unzipper = new UnzipUtility();
-									unzipper.unzip(ecarFile.getPath(), destPath + "_ecar");
-									File ecarFolder = new File(destPath + "_ecar" + File.separator + id);
-									File[] fileList = ecarFolder.listFiles();
-									File zipFile = null;
-									if (null != fileList && fileList.length > 0) {
-										for (File f : fileList) {
-											if (f.getName().endsWith(".zip")) {
-												zipFile = f;
-											}
-										}
-									}
-									if (null != zipFile) {
-										String newFileName = id + ".zip";
-										File contentDir = new File(destPath);
-										if (!contentDir.exists())
-											contentDir.mkdirs();
-										zipFile.renameTo(new File(contentDir + File.separator + newFileName));
-										File ecarTemp = new File(destPath + "_ecar");
-										FileUtils.deleteDirectory(ecarTemp);
-										File newFile = new File(contentDir + File.separator + newFileName);
-										files.add(newFile);
-									} else {
-										// do nothing
-									}
-								} else {
-									File newFile = HttpDownloadUtility.downloadFile(url, destPath);
-									if (null != newFile)
-										files.add(newFile);
+			Map<Object, Future<File>> downloads = new HashMap<Object, Future<File>>();
+			for (Object val : downloadUrls.keySet()) {
+				if (!(val instanceof File))
+					downloads.put(val, downloader.download(val.toString()));
+			}
+			for (Map.Entry<Object, List<String>> entry : downloadUrls.entrySet()) {
+				Object val = entry.getKey();
+				File downloadedFile = null;
+				if (downloads.containsKey(val)) {
+					downloadedFile = downloads.get(val).get(DOWNLOAD_TIMEOUT, TimeUnit.SECONDS);
+					if (null == downloadedFile && val.toString().endsWith(".ecar"))
+						throw new ServerException(ContentErrorCodeConstants.MANIFEST_FILE_WRITE.name(),
+								ContentErrorMessageConstants.MANIFEST_FILE_WRITE_ERROR + "Unable to download " + val);
+					if (null == downloadedFile)
+						continue;
+				}
+				for (String id : entry.getValue()) {
+					String destPath = bundlePath + File.separator + id;
+					createDirectoryIfNeeded(destPath);
+					if (val instanceof File) {
+						File file = (File) val;
+						File newFile = new File(destPath + File.separator + file.getName());
+						FileUtils.copyFile(file, newFile);
+						files.add(newFile);
+					} else if (val.toString().endsWith(".ecar")) {
+						UnzipUtility unzipper = new UnzipUtility();
+						unzipper.unzip(downloadedFile.getPath(), destPath + "_ecar");
+						File ecarFolder = new File(destPath + "_ecar" + File.separator + id);
+						File[] fileList = ecarFolder.listFiles();
+						File zipFile = null;
+						if (null != fileList && fileList.length > 0) {
+							for (File f : fileList) {
+								if (f.getName().endsWith(".zip")) {
+									zipFile = f;
 								}
 							}
 						}
-						return files;
+						if (null != zipFile) {
+							String newFileName = id + ".zip";
+							File contentDir = new File(destPath);
+							if (!contentDir.exists())
+								contentDir.mkdirs();
+							zipFile.renameTo(new File(contentDir + File.separator + newFileName));
+							File ecarTemp = new File(destPath + "_ecar");
+							FileUtils.deleteDirectory(ecarTemp);
+							File newFile = new File(contentDir + File.separator + newFileName);
+							files.add(newFile);
+						} else {
+							// do nothing
+						}
+					} else {
+						files.add(linkOrCopy(downloadedFile, new File(destPath + File.separator + downloadedFile.getName())));
 					}
-				});
-			}
-			List<Future<List<File>>> results = pool.invokeAll(tasks);
-			for (Future<List<File>> ff : results) {
-				List<File> f = ff.get(60, TimeUnit.SECONDS);
-				if (null != f && !f.isEmpty())
-					files.addAll(f);
+				}
 			}
-			pool.shutdown();
-		} catch (InterruptedException | ExecutionException | TimeoutException e ) {
+		} catch (ServerException e) {
+			throw e;
+		} catch (Exception e) {
 			e.printStackTrace();
 			throw new ServerException(ContentErrorCodeConstants.MANIFEST_FILE_WRITE.name(),
 					ContentErrorMessageConstants.MANIFEST_FILE_WRITE_ERROR + "Error while creating contentBundle", e);
@@ -438,21 +451,46 @@ public class ContentBundle {
 		return files;
 	}
 
+	/**
+	 * Links the file downloaded to the artifact cache into the bundle folder,
+	 * copying it when the file system does not support hard links.
+	 */
+	private File linkOrCopy(File cachedFile, File newFile) throws IOException {
+		try {
+			Files.createLink(newFile.toPath(), cachedFile.toPath());
+		} catch (UnsupportedOperationException | IOException e) {
+			FileUtils.copyFile(cachedFile, newFile);
+		}
+		return newFile;
+	}
+
+	/**
+	 * Deletes the artifacts downloaded for the ECARs of this bundle. To be
+	 * called once all the ECARs are created.
+	 */
+	public void cleanup() {
+		downloader.close();
+	}
+
 	/**
 	 * Creates the ECAR.
 	 *
+	 * The zip entries are streamed to the bundle file, so the memory used does
+	 * not depend on the size of the ECAR. Files which are already compressed
+	 * are stored as they are instead of being deflated again.
+	 *
 	 * @param files
 	 *            the files
-	 * @return the byte[]
+	 * @param bundleFile
+	 *            the bundle file
 	 * @throws IOException
 	 *             Signals that an I/O exception has occurred.
 	 */
-	private byte[] createECAR(List<File> files) throws IOException {
-		// creating byteArray stream, make it bufforable and passing this buffor
-		// to ZipOutputStream
-		try (ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-				BufferedOutputStream bufferedOutputStream = new BufferedOutputStream(byteArrayOutputStream);
+	private void createECAR(List<File> files, File bundleFile) throws IOException {
+		try (FileOutputStream fileOutputStream = new FileOutputStream(bundleFile);
+				BufferedOutputStream bufferedOutputStream = new BufferedOutputStream(fileOutputStream, ECAR_BUFFER_SIZE);
 				ZipOutputStream zipOutputStream = new ZipOutputStream(bufferedOutputStream)) {
+			zipOutputStream.setLevel(ECAR_COMPRESSION_LEVEL);
 			// packing files
 			for (File file : files) {
 				if (null != file) {
@@ -468,25 +506,42 @@ public class ContentBundle {
 						fileName = file.getParent().substring(file.getParent().lastIndexOf(File.separator) + 1)
 								+ File.separator + file.getName();
 					}
-					// new zip entry and copying inputstream with file to
-					// zipOutputStream, after all closing streams
-					zipOutputStream.putNextEntry(new ZipEntry(fileName));
+					zipOutputStream.putNextEntry(getZipEntry(fileName, file));
 					try (FileInputStream fileInputStream = new FileInputStream(file)) {
-						IOUtils.copy(fileInputStream, zipOutputStream);
-						zipOutputStream.closeEntry();
+						IOUtils.copyLarge(fileInputStream, zipOutputStream, new byte[ECAR_BUFFER_SIZE]);
 					}
+					zipOutputStream.closeEntry();
 				}
 			}
+			zipOutputStream.finish();
+		}
+	}
 
-			if (zipOutputStream != null) {
-				zipOutputStream.finish();
-				zipOutputStream.flush();
-				IOUtils.closeQuietly(zipOutputStream);
+	/**
+	 * Gets the zip entry of the file. Stored entries need their size and CRC
+	 * upfront, which are read from the file with a separate pass.
+	 *
+	 * @param fileName
+	 *            the name of the entry
+	 * @param file
+	 *            the file
+	 * @return the zip entry
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred.
+	 */
+	private ZipEntry getZipEntry(String fileName, File file) throws IOException {
+		ZipEntry entry = new ZipEntry(fileName);
+		if (ECAR_STORED_EXTENSIONS.contains(FilenameUtils.getExtension(file.getName()).toLowerCase())) {
+			CRC32 crc = new CRC32();
+			try (CheckedInputStream inputStream = new CheckedInputStream(new FileInputStream(file), crc)) {
+				IOUtils.skip(inputStream, Long.MAX_VALUE);
 			}
-			IOUtils.closeQuietly(bufferedOutputStream);
-			IOUtils.closeQuietly(byteArrayOutputStream);
-			return byteArrayOutputStream.toByteArray();
+			entry.setMethod(ZipEntry.STORED);
+			entry.setSize(file.length());
+			entry.setCompressedSize(file.length());
+			entry.setCrc(crc.getValue());
 		}
+		return entry;
 	}
 
 	/**
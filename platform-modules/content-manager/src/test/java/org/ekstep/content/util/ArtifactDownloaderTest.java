@@ -0,0 +1,121 @@
+package org.ekstep.content.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Downloads from a local HTTP server, the retries are configured in the test
+ * application.conf: 2 retries with a backoff of 10 ms.
+ */
+public class ArtifactDownloaderTest {
+
+	private static final String CONTENT = "artifact content";
+
+	private HttpServer server;
+	private Map<String, AtomicInteger> requests = new ConcurrentHashMap<String, AtomicInteger>();
+	private File basePath;
+	private ArtifactDownloader downloader;
+
+	@Before
+	public void start() throws Exception {
+		server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.createContext("/", this::handle);
+		server.start();
+		basePath = Files.createTempDirectory("artifact_downloader_test").toFile();
+		downloader = new ArtifactDownloader(basePath.getAbsolutePath());
+	}
+
+	@After
+	public void stop() throws Exception {
+		downloader.close();
+		server.stop(0);
+		FileUtils.deleteDirectory(basePath);
+	}
+
+	@Test
+	public void testUrlIsDownloadedOnce() throws Exception {
+		String url = getUrl("/assets/image.png");
+		Future<File> first = downloader.download(url);
+		Future<File> second = downloader.download(url);
+		Assert.assertSame(first, second);
+
+		File file = first.get(10, TimeUnit.SECONDS);
+		Assert.assertEquals(CONTENT, FileUtils.readFileToString(file, StandardCharsets.UTF_8));
+		Assert.assertEquals(1, getRequests("/assets/image.png"));
+	}
+
+	@Test
+	public void testFailedDownloadIsRetried() throws Exception {
+		File file = downloader.download(getUrl("/flaky/image.png")).get(10, TimeUnit.SECONDS);
+		Assert.assertNotNull(file);
+		Assert.assertEquals(2, getRequests("/flaky/image.png"));
+	}
+
+	@Test
+	public void testDownloadFailsAfterTheRetries() throws Exception {
+		Assert.assertNull(downloader.download(getUrl("/missing/image.png")).get(10, TimeUnit.SECONDS));
+		// the first attempt and the 2 retries.
+		Assert.assertEquals(3, getRequests("/missing/image.png"));
+	}
+
+	@Test
+	public void testCloseDeletesTheCache() throws Exception {
+		File file = downloader.download(getUrl("/assets/image.png")).get(10, TimeUnit.SECONDS);
+		Assert.assertTrue(file.exists());
+		downloader.close();
+		Assert.assertFalse(file.exists());
+		Assert.assertEquals(0, basePath.list().length);
+
+		// a new downloader does not reuse the deleted cache.
+		downloader = new ArtifactDownloader(basePath.getAbsolutePath());
+		Assert.assertNotNull(downloader.download(getUrl("/assets/image.png")).get(10, TimeUnit.SECONDS));
+		Assert.assertEquals(2, getRequests("/assets/image.png"));
+	}
+
+	/**
+	 * Serves the paths under /assets, fails the first request of the paths
+	 * under /flaky and fails all the other paths.
+	 */
+	private void handle(HttpExchange exchange) throws IOException {
+		String path = exchange.getRequestURI().getPath();
+		int count = requests.computeIfAbsent(path, key -> new AtomicInteger()).incrementAndGet();
+		boolean found = path.startsWith("/assets/") || (path.startsWith("/flaky/") && count > 1);
+		if (found) {
+			byte[] body = CONTENT.getBytes(StandardCharsets.UTF_8);
+			exchange.sendResponseHeaders(200, body.length);
+			try (OutputStream output = exchange.getResponseBody()) {
+				output.write(body);
+			}
+		} else {
+			exchange.sendResponseHeaders(path.startsWith("/flaky/") ? 503 : 404, -1);
+			exchange.close();
+		}
+	}
+
+	private String getUrl(String path) {
+		return "http://localhost:" + server.getAddress().getPort() + path;
+	}
+
+	private int getRequests(String path) {
+		AtomicInteger count = requests.get(path);
+		return null == count ? 0 : count.get();
+	}
+}
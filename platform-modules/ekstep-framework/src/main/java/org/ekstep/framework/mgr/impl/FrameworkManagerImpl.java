@@ -83,8 +83,8 @@ public class FrameworkManagerImpl extends BaseFrameworkManager implements IFrame
 		}
 
 		if (MapUtils.isNotEmpty(framework)) {
+			FrameworkCache.save(framework);
 			filterFrameworkCategories(framework, returnCategories);
-			FrameworkCache.save(framework, returnCategories);
 			Response response = OK();
 			response.put(FrameworkEnum.framework.name(), framework);
 			return response;
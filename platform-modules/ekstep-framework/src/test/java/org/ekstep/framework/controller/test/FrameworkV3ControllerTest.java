@@ -795,7 +795,9 @@ public class FrameworkV3ControllerTest extends CommonTestSetup {
 		Map<String,Object> framework=(Map<String, Object>) resp.getResult().get("framework");
 		Assert.assertEquals(200, actions.andReturn().getResponse().getStatus());
 		Assert.assertNotNull(framework);
-		Assert.assertNotNull(RedisStoreUtil.get("fw_tests_board_subject"));
+		Assert.assertNotNull(RedisStoreUtil.get("fw:tests"));
+		Assert.assertNotNull(RedisStoreUtil.get("fw:tests:board"));
+		Assert.assertNotNull(RedisStoreUtil.get("fw:tests:subject"));
 		FrameworkCache.delete("tests");
 	}
 
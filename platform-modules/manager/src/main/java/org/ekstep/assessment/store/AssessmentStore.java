@@ -7,11 +7,13 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.commons.lang3.StringUtils;
 import org.ekstep.cassandra.connector.util.CassandraConnector;
 import org.ekstep.cassandra.connector.util.CassandraConnectorStoreParam;
+import org.ekstep.cassandra.connector.util.PreparedStatementCache;
 import org.ekstep.cassandra.store.Constants;
 import org.ekstep.common.Platform;
 import org.ekstep.common.exception.ClientException;
@@ -72,7 +74,7 @@ public class AssessmentStore {
 		if (StringUtils.isBlank(query))
 			throw new ClientException(ContentStoreParams.ERR_INVALID_PROPERTY_NAME.name(),
 					"Invalid properties list. Please specify a valid list of property names");
-		PreparedStatement ps = session.prepare(query);
+		PreparedStatement ps = PreparedStatementCache.get(session, query);
 		BoundStatement bound = ps.bind(questionId);
 		try {
 			ResultSet rs = session.execute(bound);
@@ -119,8 +121,9 @@ public class AssessmentStore {
 		if (null == map || map.isEmpty())
 			throw new ClientException(ContentStoreParams.ERR_INVALID_PROPERTY_VALUES.name(),
 					"Invalid property values. Please specify valid property values");
+		map = new TreeMap<String, Object>(map);
 		String query = getUpdateQuery(map.keySet());
-		PreparedStatement ps = session.prepare(query);
+		PreparedStatement ps = PreparedStatementCache.get(session, query);
 		Object[] values = new Object[map.size() + 1];
 		try {
 			int i = 0;
@@ -155,7 +158,7 @@ public class AssessmentStore {
 			}
 			String selectQuery = getSelectStatement(identifier, properties);
 			Session session = CassandraConnector.getSession();
-			PreparedStatement statement = session.prepare(selectQuery);
+			PreparedStatement statement = PreparedStatementCache.get(session, selectQuery);
 			BoundStatement boundStatement = new BoundStatement(statement);
 			ResultSet results = CassandraConnector.getSession().execute(boundStatement.bind(idValue));
 			return results.all();
@@ -193,7 +196,7 @@ public class AssessmentStore {
 
 	private ResultSet executeQuery(String query, Object... objects) {
 		Session session = CassandraConnector.getSession();
-		PreparedStatement statement = session.prepare(query);
+		PreparedStatement statement = PreparedStatementCache.get(session, query);
 		BoundStatement boundStatement = new BoundStatement(statement);
 		return session.execute(boundStatement.bind(objects));
 	}
@@ -22,6 +22,8 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import static java.util.stream.Collectors.toList;
 
@@ -56,16 +58,21 @@ public class ReleaseDialcodesOperation extends BaseContentManager {
 
         assignedDialCodes.addAll(getDialCodes(node.getMetadata(), "Parent"));
 
-        Map<String, Object> imageHierarchy = hierarchyStore.getHierarchy(contentId + ".img");
+        isLive = (StringUtils.equalsIgnoreCase("Live", (String) node.getMetadata().get("status")) ||
+                  StringUtils.equalsIgnoreCase("Unlisted", (String) node.getMetadata().get("status"))) ? true : isLive;
+
+        // both hierarchies are read concurrently.
+        CompletableFuture<Map<String, Object>> imageHierarchyFuture = hierarchyStore.getHierarchyAsync(contentId + ".img");
+        CompletableFuture<Map<String, Object>> liveHierarchyFuture = isLive ? hierarchyStore.getHierarchyAsync(contentId)
+                : CompletableFuture.completedFuture(null);
+
+        Map<String, Object> imageHierarchy = getHierarchy(imageHierarchyFuture);
         if (MapUtils.isEmpty(imageHierarchy)) {
             throw new ClientException(ContentErrorCodes.ERR_CONTENT_BLANK_OBJECT.name(), "Hierarchy is null for :" + contentId);
         }
 
         populateAssignedDialCodes(imageHierarchy,assignedDialCodes);
 
-        isLive = (StringUtils.equalsIgnoreCase("Live", (String) node.getMetadata().get("status")) ||
-                  StringUtils.equalsIgnoreCase("Unlisted", (String) node.getMetadata().get("status"))) ? true : isLive;
-
         if (isLive) {
             Response response = getDataNode(TAXONOMY_ID, contentId + ".img");
             if (!checkError(response)) {
@@ -73,7 +80,7 @@ public class ReleaseDialcodesOperation extends BaseContentManager {
                 assignedDialCodes.addAll(getDialCodes(imageNode.getMetadata(), "Parent"));
 
             }
-            Map<String, Object> liveHierarchy = hierarchyStore.getHierarchy(contentId);
+            Map<String, Object> liveHierarchy = getHierarchy(liveHierarchyFuture);
             if (MapUtils.isEmpty(liveHierarchy)) {
                 throw new ClientException(ContentErrorCodes.ERR_CONTENT_BLANK_OBJECT.name(), "Hierarchy is null for :" + contentId);
             }
@@ -96,6 +103,16 @@ public class ReleaseDialcodesOperation extends BaseContentManager {
         return getResponse(contentId, updateMap, releasedDialcodes);
     }
 
+    private Map<String, Object> getHierarchy(CompletableFuture<Map<String, Object>> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            throw e;
+        }
+    }
+
     private Response getResponse(String contentId, Map<String, Object> updateMap, Set releasedDialcodes) throws Exception {
         Response response = updateAllContents(contentId, updateMap);
         if (checkError(response)) {
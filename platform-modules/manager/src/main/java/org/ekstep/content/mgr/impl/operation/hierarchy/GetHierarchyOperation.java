@@ -17,6 +17,9 @@ import org.ekstep.graph.model.node.DefinitionDTO;
 import org.ekstep.kafka.KafkaClient;
 import org.ekstep.learning.common.enums.ContentAPIParams;
 import org.ekstep.learning.common.enums.ContentErrorCodes;
+import org.ekstep.learning.hierarchy.store.HierarchyStore;
+import org.ekstep.learning.hierarchy.store.PublishedHierarchy;
+import org.ekstep.learning.hierarchy.store.RawJsonMap;
 import org.ekstep.searchindex.dto.SearchDTO;
 import org.ekstep.searchindex.elasticsearch.ElasticSearchUtil;
 import org.ekstep.searchindex.processor.SearchProcessor;
@@ -39,7 +42,10 @@ public class GetHierarchyOperation extends BaseContentManager {
 
     private SearchProcessor processor = new SearchProcessor();
 
+    private HierarchyStore hierarchyStore = new HierarchyStore();
+
     private static final String IMAGE_SUFFIX = ".img";
+    private static final String BOOKMARKS_KEY_SUFFIX = "_bookmarks";
 
     private static final Boolean CONTENT_CACHE_ENABLED = Platform.config.hasPath("content.cache.hierarchy") ? Platform.config.getBoolean("content.cache.hierarchy") : false;
 
@@ -164,54 +170,54 @@ public class GetHierarchyOperation extends BaseContentManager {
      * @return
      */
     private Response getPublishedHierarchy(String rootId, String bookmarkId) {
-        Response response = getSuccessResponse();
-        Map<String, Object> rootHierarchy = null;
         String cacheKey = COLLECTION_CACHE_KEY_PREFIX + rootId;
-        String hierarchy = "";
-        if(CONTENT_CACHE_ENABLED)
-            hierarchy =  RedisStoreUtil.get(cacheKey);
-
-        if (StringUtils.isNotBlank(hierarchy)) {
-            try {
-                rootHierarchy = objectMapper.readValue(hierarchy, new TypeReference<Map<String, Object>>() {
-                });
-            } catch (Exception e) {
-                TelemetryManager.error("Error Occurred While Parsing Hierarchy for Content Id : " + rootId + " | Error is: ", e);
-                throw new ServerException("ERR_CONTENT_HIERARCHY_PARSE", "Something Went Wrong While Processing the Content. ", e);
-            }
-            response.getResult().put("content", rootHierarchy);
-            return getHierarchyResponse(rootHierarchy, bookmarkId);
+        if (CONTENT_CACHE_ENABLED) {
+            List<String> cached = RedisStoreUtil.mget(cacheKey, cacheKey + BOOKMARKS_KEY_SUFFIX);
+            if (StringUtils.isNotBlank(cached.get(0)))
+                return getHierarchyResponse(new PublishedHierarchy(cached.get(0), cached.get(1)), bookmarkId);
+        }
+        PublishedHierarchy hierarchy = hierarchyStore.getPublishedHierarchy(rootId);
+        if (null != hierarchy) {
+            if (CONTENT_CACHE_ENABLED)
+                cacheHierarchy(cacheKey, hierarchy);
+            return getHierarchyResponse(hierarchy, bookmarkId);
         } else {
-            response = getCollectionHierarchy(rootId);
-            if (!checkError(response)) {
-                rootHierarchy = (Map<String, Object>) response.getResult().get("hierarchy");
-                if (CONTENT_CACHE_ENABLED && MapUtils.isNotEmpty(rootHierarchy))
-                    RedisStoreUtil.saveData(cacheKey, rootHierarchy, CONTENT_CACHE_TTL);
-                return getHierarchyResponse(rootHierarchy, bookmarkId);
-            } else {
-                if (StringUtils.isBlank(bookmarkId)) {
-                    bookmarkId = rootId;
-                    rootId = searchRootId(bookmarkId);
-                    if (StringUtils.isNotBlank(rootId)) {
-                        response = getCollectionHierarchy(rootId);
-                        rootHierarchy = (Map<String, Object>) response.getResult().get("hierarchy");
-                        if (CONTENT_CACHE_ENABLED && MapUtils.isNotEmpty(rootHierarchy)){
-                            List<Map<String, Object>> rootChildren = (List<Map<String, Object>>) rootHierarchy.get("children");
-                            Map<String, Object> bookmarkHierarchy = filterBookmark(rootChildren, bookmarkId);
-                            if(MapUtils.isNotEmpty(bookmarkHierarchy))
-                                RedisStoreUtil.saveData(cacheKey, bookmarkHierarchy, CONTENT_CACHE_TTL);
-                        }
-                        return getHierarchyResponse(rootHierarchy, bookmarkId);
-                    } else {
-                        throw new ResourceNotFoundException(ContentErrorCodes.ERR_CONTENT_NOT_FOUND.name(), "Content not found with id: " + bookmarkId);
-                    }
+            if (StringUtils.isBlank(bookmarkId)) {
+                bookmarkId = rootId;
+                rootId = searchRootId(bookmarkId);
+                hierarchy = StringUtils.isNotBlank(rootId) ? hierarchyStore.getPublishedHierarchy(rootId) : null;
+                if (null != hierarchy) {
+                    Response response = getHierarchyResponse(hierarchy, bookmarkId);
+                    if (CONTENT_CACHE_ENABLED)
+                        RedisStoreUtil.save(cacheKey, getJson(response.getResult().get("content")), CONTENT_CACHE_TTL);
+                    return response;
                 } else {
-                    throw new ClientException(ContentErrorCodes.ERR_INVALID_INPUT.name(), "Given collection root object ID is invalid: " + rootId);
+                    throw new ResourceNotFoundException(ContentErrorCodes.ERR_CONTENT_NOT_FOUND.name(), "Content not found with id: " + bookmarkId);
                 }
+            } else {
+                throw new ClientException(ContentErrorCodes.ERR_INVALID_INPUT.name(), "Given collection root object ID is invalid: " + rootId);
             }
         }
     }
 
+    private void cacheHierarchy(String cacheKey, PublishedHierarchy hierarchy) {
+        Map<String, String> data = new HashMap<>();
+        data.put(cacheKey, hierarchy.getHierarchy());
+        if (hierarchy.hasBookmarkIndex())
+            data.put(cacheKey + BOOKMARKS_KEY_SUFFIX, hierarchy.getBookmarkIndex());
+        RedisStoreUtil.saveMultiple(data, CONTENT_CACHE_TTL);
+    }
+
+    private String getJson(Object content) {
+        if (content instanceof RawJsonMap)
+            return ((RawJsonMap) content).getJson();
+        try {
+            return objectMapper.writeValueAsString(content);
+        } catch (Exception e) {
+            throw new ServerException("ERR_CONTENT_HIERARCHY_PARSE", "Something Went Wrong While Processing the Content. ", e);
+        }
+    }
+
     /**
      * Search Root Id for a bookMarkID from ES
      *
@@ -257,10 +263,30 @@ public class GetHierarchyOperation extends BaseContentManager {
 
     }
 
-    private Response getHierarchyResponse(Map<String, Object> hierarchy, String bookmarkId) {
+    /**
+     * The stored hierarchy text is returned as it is, a bookmark is sliced out
+     * of it using the bookmark index. Hierarchies stored without an index are
+     * parsed to look up the bookmark.
+     */
+    private Response getHierarchyResponse(PublishedHierarchy publishedHierarchy, String bookmarkId) {
         if (StringUtils.isBlank(bookmarkId)) {
-            return OK("content", hierarchy);
+            return OK("content", new RawJsonMap(publishedHierarchy.getHierarchy()));
+        } else if (publishedHierarchy.hasBookmarkIndex()) {
+            String bookmark = publishedHierarchy.getBookmark(bookmarkId);
+            if (null != bookmark) {
+                return OK("content", new RawJsonMap(bookmark));
+            } else {
+                throw new ResourceNotFoundException(ContentErrorCodes.ERR_CONTENT_NOT_FOUND.name(), "Content not found with id: " + bookmarkId);
+            }
         } else {
+            Map<String, Object> hierarchy;
+            try {
+                hierarchy = objectMapper.readValue(publishedHierarchy.getHierarchy(), new TypeReference<Map<String, Object>>() {
+                });
+            } catch (Exception e) {
+                TelemetryManager.error("Error Occurred While Parsing Hierarchy for Bookmark Id : " + bookmarkId + " | Error is: ", e);
+                throw new ServerException("ERR_CONTENT_HIERARCHY_PARSE", "Something Went Wrong While Processing the Content. ", e);
+            }
             List<Map<String, Object>> rootChildren = (List<Map<String, Object>>) hierarchy.get("children");
             hierarchy = filterBookmark(rootChildren, bookmarkId);
             if (MapUtils.isNotEmpty(hierarchy)) {
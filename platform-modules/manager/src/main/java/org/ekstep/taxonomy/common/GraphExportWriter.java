@@ -0,0 +1,119 @@
+package org.ekstep.taxonomy.common;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.commons.lang3.StringUtils;
+import org.ekstep.common.dto.Request;
+import org.ekstep.common.dto.Response;
+import org.ekstep.common.dto.ResponseParams.StatusType;
+import org.ekstep.common.exception.ServerException;
+import org.ekstep.graph.common.enums.GraphEngineParams;
+import org.ekstep.graph.exception.GraphEngineErrorCodes;
+import org.ekstep.graph.importer.OutputStreamValue;
+import org.ekstep.taxonomy.mgr.ITaxonomyManager;
+import org.ekstep.telemetry.logger.TelemetryManager;
+
+import akka.actor.ActorRef;
+
+/**
+ * Exports a graph as CSV to the http response.
+ *
+ * A full export is written by the graph actor to a file and its path is
+ * returned; the file is copied to the response and deleted. If the file can
+ * not be read here (the actor runs on another host) it is read from the actor
+ * which wrote it in chunks of <code>graph.export.chunk_size</code> bytes, each
+ * written to the response before the next one is requested. The file is
+ * deleted with the last chunk, or when the response fails.
+ */
+public class GraphExportWriter {
+
+	public static Response export(ITaxonomyManager taxonomyManager, String id, Request req, HttpServletResponse resp)
+			throws IOException {
+		Response response = taxonomyManager.export(id, req);
+		if (checkError(response))
+			return response;
+		String exportFile = (String) response.get(GraphEngineParams.export_file.name());
+		// the actor reference is not part of the result returned to the caller.
+		ActorRef exportActor = (ActorRef) response.getResult().remove(GraphEngineParams.export_actor.name());
+		if (StringUtils.isNotBlank(exportFile)) {
+			Path path = Paths.get(exportFile);
+			if (Files.isReadable(path)) {
+				try {
+					setHeaders(resp);
+					Files.copy(path, resp.getOutputStream());
+					resp.getOutputStream().close();
+				} finally {
+					Files.deleteIfExists(path);
+				}
+				return response;
+			}
+			TelemetryManager.log("Export file " + exportFile + " is not local, reading it from " + exportActor);
+			Response chunkResponse = writeChunks(taxonomyManager, id, exportActor, exportFile, resp);
+			return null == chunkResponse ? response : chunkResponse;
+		}
+		OutputStreamValue graphOutputStream = (OutputStreamValue) response
+				.get(GraphEngineParams.output_stream.name());
+		try (OutputStream os = graphOutputStream.getOutputStream();
+				ByteArrayOutputStream bos = (ByteArrayOutputStream) os) {
+			byte[] bytes = bos.toByteArray();
+			setHeaders(resp);
+			resp.getOutputStream().write(bytes);
+			resp.getOutputStream().close();
+		}
+		return response;
+	}
+
+	/**
+	 * @return the error response if the first chunk can not be read, null if
+	 *         the file was written to the response
+	 */
+	private static Response writeChunks(ITaxonomyManager taxonomyManager, String id, ActorRef exportActor,
+			String exportFile, HttpServletResponse resp) throws IOException {
+		boolean complete = false;
+		try {
+			long offset = 0;
+			while (!complete) {
+				Response chunkResponse = taxonomyManager.readExportChunk(id, exportActor, exportFile, offset);
+				if (checkError(chunkResponse)) {
+					if (offset == 0)
+						return chunkResponse;
+					throw new ServerException(GraphEngineErrorCodes.ERR_GRAPH_EXPORT_UNKNOWN_ERROR.name(),
+							"Failed to read the export file at " + offset + ": " + chunkResponse.getParams().getErrmsg());
+				}
+				byte[] chunk = (byte[]) chunkResponse.get(GraphEngineParams.export_chunk.name());
+				complete = (boolean) chunkResponse.get(GraphEngineParams.export_complete.name());
+				if (offset == 0)
+					setHeaders(resp);
+				resp.getOutputStream().write(chunk);
+				offset += chunk.length;
+			}
+			resp.getOutputStream().close();
+			return null;
+		} finally {
+			if (!complete) {
+				try {
+					taxonomyManager.deleteExportFile(id, exportActor, exportFile);
+				} catch (Exception e) {
+					TelemetryManager.error("Failed to delete the export file " + exportFile, e);
+				}
+			}
+		}
+	}
+
+	private static boolean checkError(Response response) {
+		return null != response.getParams()
+				&& StringUtils.equals(StatusType.failed.name(), response.getParams().getStatus());
+	}
+
+	private static void setHeaders(HttpServletResponse resp) {
+		resp.setContentType("text/csv");
+		resp.setHeader("Content-Disposition", "attachment; filename=graph.csv");
+	}
+}
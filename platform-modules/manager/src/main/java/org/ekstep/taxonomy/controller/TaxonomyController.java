@@ -1,9 +1,7 @@
 package org.ekstep.taxonomy.controller;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
 import java.util.List;
 import java.util.Map;
 
@@ -17,7 +15,7 @@ import org.ekstep.common.dto.Response;
 import org.ekstep.graph.common.enums.GraphEngineParams;
 import org.ekstep.graph.dac.model.SearchCriteria;
 import org.ekstep.graph.enums.ImportType;
-import org.ekstep.graph.importer.OutputStreamValue;
+import org.ekstep.taxonomy.common.GraphExportWriter;
 import org.ekstep.taxonomy.enums.TaxonomyAPIParams;
 import org.ekstep.taxonomy.mgr.ITaxonomyManager;
 import org.ekstep.telemetry.logger.TelemetryManager;
@@ -119,19 +117,7 @@ public class TaxonomyController extends BaseController {
 			} catch (Exception e) {
 			}
 			req.put(GraphEngineParams.format.name(), format);
-			Response response = taxonomyManager.export(id, req);
-			if (!checkError(response)) {
-				OutputStreamValue graphOutputStream = (OutputStreamValue) response
-						.get(GraphEngineParams.output_stream.name());
-				try (OutputStream os = graphOutputStream.getOutputStream();
-						ByteArrayOutputStream bos = (ByteArrayOutputStream) os) {
-					byte[] bytes = bos.toByteArray();
-					resp.setContentType("text/csv");
-					resp.setHeader("Content-Disposition", "attachment; filename=graph.csv");
-					resp.getOutputStream().write(bytes);
-					resp.getOutputStream().close();
-				}
-			}
+			Response response = GraphExportWriter.export(taxonomyManager, id, req, resp);
 			TelemetryManager.log("Export | Response: ", response.getResult());
 		} catch (Exception e) {
 			TelemetryManager.error("Create | Exception: " + e.getMessage(), e);
@@ -6,12 +6,18 @@ import java.util.List;
 import org.ekstep.common.dto.Request;
 import org.ekstep.common.dto.Response;
 
+import akka.actor.ActorRef;
+
 public interface ITaxonomyManager {
 
     Response create(String id, InputStream stream);
     
     Response export(String id, Request req);
 
+    Response readExportChunk(String id, ActorRef exportActor, String exportFile, long offset);
+
+    Response deleteExportFile(String id, ActorRef exportActor, String exportFile);
+
     Response delete(String id);
 
     Response updateDefinition(String id, String json);
@@ -26,6 +26,8 @@ import org.ekstep.taxonomy.mgr.ITaxonomyManager;
 import org.ekstep.telemetry.logger.TelemetryManager;
 import org.springframework.stereotype.Component;
 
+import akka.actor.ActorRef;
+
 @Component
 public class TaxonomyManagerImpl extends BaseManager implements ITaxonomyManager {
 
@@ -85,10 +87,32 @@ public class TaxonomyManagerImpl extends BaseManager implements ITaxonomyManager
 		setContext(request, id, GraphEngineManagers.GRAPH_MANAGER, "exportGraph");
 		request.put(GraphEngineParams.format.name(), format);
 		request.put(GraphEngineParams.search_criteria.name(), req.get(TaxonomyAPIParams.search_criteria.name()));
+		if (null != req.get(GraphEngineParams.export_streaming.name()))
+			request.put(GraphEngineParams.export_streaming.name(), req.get(GraphEngineParams.export_streaming.name()));
 		Response exportRes = getResponse(request);
 		return exportRes;
 	}
 
+	/**
+	 * Reads a chunk of an export file from the actor which wrote it, the
+	 * request does not go through the router as the file is on the host of
+	 * that actor.
+	 */
+	@Override
+	public Response readExportChunk(String id, ActorRef exportActor, String exportFile, long offset) {
+		Request request = getRequest(id, GraphEngineManagers.GRAPH_MANAGER, "readExportChunk");
+		request.put(GraphEngineParams.export_file.name(), exportFile);
+		request.put(GraphEngineParams.export_offset.name(), offset);
+		return getResponse(request, exportActor);
+	}
+
+	@Override
+	public Response deleteExportFile(String id, ActorRef exportActor, String exportFile) {
+		Request request = getRequest(id, GraphEngineManagers.GRAPH_MANAGER, "deleteExportFile");
+		request.put(GraphEngineParams.export_file.name(), exportFile);
+		return getResponse(request, exportActor);
+	}
+
 	@Override
 	public Response delete(String id) {
 		if (StringUtils.isBlank(id))
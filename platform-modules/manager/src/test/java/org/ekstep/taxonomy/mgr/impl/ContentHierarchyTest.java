@@ -34,7 +34,7 @@ import static org.ekstep.taxonomy.mgr.impl.ContentManagerImplCreateContentTest.c
 public class ContentHierarchyTest extends CommonTestSetup {
 
     private static final String SCRIPT_1 = "CREATE KEYSPACE IF NOT EXISTS hierarchy_store_test WITH replication = {'class':'SimpleStrategy','replication_factor':'1'};";
-    private static final String SCRIPT_2 = "CREATE TABLE IF NOT EXISTS hierarchy_store_test.content_hierarchy_test(identifier text, hierarchy text,PRIMARY KEY (identifier));";
+    private static final String SCRIPT_2 = "CREATE TABLE IF NOT EXISTS hierarchy_store_test.content_hierarchy_test(identifier text, hierarchy text, bookmarks text, PRIMARY KEY (identifier));";
 
     private HierarchyManager manager = new HierarchyManager();
     private static ObjectMapper mapper = new ObjectMapper();
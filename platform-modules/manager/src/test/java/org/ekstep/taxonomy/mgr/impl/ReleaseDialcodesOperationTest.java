@@ -2,6 +2,8 @@ package org.ekstep.taxonomy.mgr.impl;
 
 import static org.junit.Assert.assertEquals;
 
+import java.util.concurrent.CompletableFuture;
+
 
 import org.ekstep.common.dto.Response;
 import org.ekstep.common.exception.ResponseCode;
@@ -37,7 +39,7 @@ public class ReleaseDialcodesOperationTest {
     @Ignore
     @Test
     public void testReleaseDialCode2() throws Exception {
-        Mockito.when(hierarchyStoreMock.getHierarchy(Mockito.anyString())).thenReturn(DialCodeTestInputUtil.getMap(DialCodeTestInputUtil.HIERARCHY_WITH_RESERVED_DC_2));
+        Mockito.when(hierarchyStoreMock.getHierarchyAsync(Mockito.anyString())).thenReturn(CompletableFuture.completedFuture(DialCodeTestInputUtil.getMap(DialCodeTestInputUtil.HIERARCHY_WITH_RESERVED_DC_2)));
         Response response = operation.releaseDialCodes(DialCodeTestInputUtil.CONTENT_ID, DialCodeTestInputUtil.CHANNEL_ID);
         assertEquals(response.getResponseCode(), ResponseCode.OK);
     }
@@ -45,7 +47,7 @@ public class ReleaseDialcodesOperationTest {
     @Ignore
     @Test
     public void testReleaseDialCode1() throws Exception {
-        Mockito.when(hierarchyStoreMock.getHierarchy(Mockito.anyString())).thenReturn(DialCodeTestInputUtil.getMap(DialCodeTestInputUtil.HIERARCHY_WITH_RESERVED_DC_1));
+        Mockito.when(hierarchyStoreMock.getHierarchyAsync(Mockito.anyString())).thenReturn(CompletableFuture.completedFuture(DialCodeTestInputUtil.getMap(DialCodeTestInputUtil.HIERARCHY_WITH_RESERVED_DC_1)));
         Response response = operation.releaseDialCodes(DialCodeTestInputUtil.CONTENT_ID, DialCodeTestInputUtil.CHANNEL_ID);
         assertEquals(response.getResponseCode(), ResponseCode.OK);
 
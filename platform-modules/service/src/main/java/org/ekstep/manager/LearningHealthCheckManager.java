@@ -14,6 +14,7 @@ import org.ekstep.cassandra.connector.util.CassandraConnector;
 import org.ekstep.common.dto.Response;
 import org.ekstep.common.mgr.HealthCheckManager;
 import org.ekstep.telemetry.logger.TelemetryManager;
+import org.ekstep.util.LocalCacheUpdater;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -75,6 +76,11 @@ public class LearningHealthCheckManager extends HealthCheckManager {
 
 		Response response = OK("checks", checks);
 		response.put("healthy", overallHealthy);
+		Map<String, Object> cache = getCacheMetrics();
+		cache.put("localCacheUpdater", LocalCacheUpdater.getMetrics());
+		response.put("cache", cache);
+		response.put("graphPools", getGraphPoolMetrics());
+		response.put("queryPlans", getQueryPlanMetrics());
 
 		return response;
 	}
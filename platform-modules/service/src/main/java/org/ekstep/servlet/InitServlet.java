@@ -27,4 +27,11 @@ public class InitServlet extends HttpServlet {
         TelemetryManager.log("Initialising Local Cache Updater");
         LocalCacheUpdater.init();
     }
+
+    @Override
+    public void destroy() {
+        TelemetryManager.log("Stopping Local Cache Updater");
+        LocalCacheUpdater.shutdown();
+        super.destroy();
+    }
 }
@@ -1,7 +1,5 @@
 package org.ekstep.util;
 
-import akka.actor.ActorRef;
-import akka.pattern.Patterns;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.commons.lang3.StringUtils;
@@ -9,55 +7,197 @@ import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
 import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.WakeupException;
 import org.apache.kafka.common.serialization.LongDeserializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.ekstep.common.Platform;
-import org.ekstep.common.dto.Request;
-import org.ekstep.common.dto.Response;
-import org.ekstep.common.enums.TaxonomyErrorCodes;
-import org.ekstep.common.exception.ResponseCode;
-import org.ekstep.common.exception.ServerException;
-import org.ekstep.common.router.RequestRouterPool;
-import org.ekstep.learning.common.enums.LearningActorNames;
-import org.ekstep.learning.contentstore.ContentStoreOperations;
-import org.ekstep.learning.contentstore.ContentStoreParams;
-import org.ekstep.learning.router.LearningRequestRouterPool;
 import org.ekstep.learning.util.ControllerUtil;
 import org.ekstep.telemetry.logger.TelemetryManager;
-import scala.concurrent.Await;
-import scala.concurrent.Future;
 
 import java.net.InetAddress;
 import java.net.UnknownHostException;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * This Class Will Listen to the Kafka Topic and Update the local cache
  *
+ * The topic is consumed by a dedicated thread with short polls, so a
+ * definition update is applied to the definition caches as soon as its event
+ * is received. The events of a poll are de-duplicated by graph and object type
+ * before the definitions are reloaded. An error while consuming is logged and
+ * the updater keeps polling after a back off, doubled on every consecutive
+ * error up to <code>local.cache.consumer.backoff.max.ms</code>; it only stops
+ * on {@link #shutdown()}. The consumer lag is exposed with the other metrics of
+ * the updater by {@link #getMetrics()}.
+ *
  * @author Kumar Gauraw
  */
 public class LocalCacheUpdater {
 
     private static final String BOOTSTRAP_SERVERS = Platform.config.getString("kafka.urls");
     private static final String TOPIC_ID = Platform.config.hasPath("kafka.topic.system.command") ? Platform.config.getString("kafka.topic.system.command") : "dev.system.command";
-    private static KafkaConsumer<Long, String> consumer = null;
+    private static final long POLL_TIMEOUT = Platform.config.hasPath("local.cache.consumer.poll.ms") ? Platform.config.getLong("local.cache.consumer.poll.ms") : 500;
+    private static final long LAG_INTERVAL = Platform.config.hasPath("local.cache.consumer.lag.interval.ms") ? Platform.config.getLong("local.cache.consumer.lag.interval.ms") : 10000;
+    private static final long BACKOFF = Platform.config.hasPath("local.cache.consumer.backoff.ms") ? Platform.config.getLong("local.cache.consumer.backoff.ms") : 1000;
+    private static final long MAX_BACKOFF = Platform.config.hasPath("local.cache.consumer.backoff.max.ms") ? Platform.config.getLong("local.cache.consumer.backoff.max.ms") : 60000;
+    private static ObjectMapper mapper = new ObjectMapper();
+    private static ControllerUtil controllerUtil = new ControllerUtil();
 
-    public static void init() {
-        startConsumer();
-    }
+    private static KafkaConsumer<Long, String> consumer = null;
+    private static Thread thread = null;
+    private static volatile boolean running = false;
+    private static volatile long lag = -1;
+    private static volatile long lastEventTime = 0;
+    private static final AtomicLong eventsProcessed = new AtomicLong();
+    private static final AtomicLong refreshes = new AtomicLong();
+    private static final AtomicLong errors = new AtomicLong();
 
-    private static void startConsumer() {
+    public static synchronized void init() {
+        if (running)
+            return;
         try {
             consumer = new KafkaConsumer<>(getProps());
             consumer.subscribe(Arrays.asList(TOPIC_ID));
-            // actor call, scheduled every 1 minute
-            makeLearningRequest(getRequest(consumer));
         } catch (Exception ex) {
-            ex.printStackTrace();
-            TelemetryManager.error("Exception Occured While Subscribing to kafka topic : " + TOPIC_ID + ". Exception is : " + ex);
+            TelemetryManager.error("Exception Occured While Subscribing to kafka topic : " + TOPIC_ID + ". Exception is : " + ex, ex);
+            return;
+        }
+        running = true;
+        thread = new Thread(LocalCacheUpdater::consume, "local-cache-updater");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public static synchronized void shutdown() {
+        if (!running)
+            return;
+        running = false;
+        consumer.wakeup();
+        try {
+            thread.join(POLL_TIMEOUT * 4);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        thread = null;
+    }
+
+    public static Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("running", running);
+        metrics.put("lag", lag);
+        metrics.put("eventsProcessed", eventsProcessed.get());
+        metrics.put("refreshes", refreshes.get());
+        metrics.put("errors", errors.get());
+        metrics.put("lastEventTime", lastEventTime);
+        return metrics;
+    }
+
+    private static void consume() {
+        long lastLagCheck = 0;
+        long backoff = 0;
+        try {
+            while (running) {
+                try {
+                    ConsumerRecords<Long, String> records = consumer.poll(POLL_TIMEOUT);
+                    if (!records.isEmpty()) {
+                        processEventData(records);
+                        consumer.commitAsync();
+                    }
+                    if (System.currentTimeMillis() - lastLagCheck >= LAG_INTERVAL) {
+                        updateLag();
+                        lastLagCheck = System.currentTimeMillis();
+                    }
+                    backoff = 0;
+                } catch (WakeupException e) {
+                    throw e;
+                } catch (Exception e) {
+                    errors.incrementAndGet();
+                    backoff = Math.min(Math.max(backoff * 2, BACKOFF), MAX_BACKOFF);
+                    TelemetryManager.error("Exception Occured While Reading event from kafka topic : " + TOPIC_ID + ". Retrying in " + backoff + " ms. Exception is : " + e, e);
+                    backOff(backoff);
+                }
+            }
+        } catch (WakeupException e) {
+            // shutdown.
         } finally {
-            if (null != consumer)
-                consumer.close();
+            running = false;
+            try {
+                consumer.commitSync();
+            } catch (Exception e) {
+                // offsets are committed again by the next consumer of the group.
+            }
+            consumer.close();
+        }
+    }
+
+    /**
+     * Waits for the given time in steps of the poll timeout, so that a
+     * shutdown is not delayed by the back off.
+     */
+    private static void backOff(long time) {
+        long end = System.currentTimeMillis() + time;
+        try {
+            for (long remaining = time; running && remaining > 0; remaining = end - System.currentTimeMillis())
+                Thread.sleep(Math.min(remaining, POLL_TIMEOUT));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    private static void processEventData(ConsumerRecords<Long, String> records) {
+        Set<List<String>> definitions = new LinkedHashSet<>();
+        for (ConsumerRecord<Long, String> record : records) {
+            eventsProcessed.incrementAndGet();
+            Map<String, Object> event = getEventData(record);
+            if (null == event || event.isEmpty()) {
+                TelemetryManager.log("Skipping Update Local Cache Event as event is Blank.");
+                continue;
+            }
+            Map<String, Object> edata = (Map<String, Object>) event.getOrDefault("edata", new HashMap<>());
+            String graphId = (String) edata.get("graphId");
+            String objectType = (String) edata.get("objectType");
+            if (StringUtils.isNotBlank(graphId) && StringUtils.isNotBlank(objectType))
+                definitions.add(Arrays.asList(graphId, objectType));
+            else
+                TelemetryManager.log("Skipping Definition Update in Local Cache as graphId or objectType is Blank. Event Data :" + event);
+        }
+        for (List<String> definition : definitions) {
+            try {
+                controllerUtil.updateDefinitionCache(definition.get(0), definition.get(1));
+                refreshes.incrementAndGet();
+            } catch (Exception e) {
+                TelemetryManager.error("Error Occured While Updating Local Definition Cache : " + e, e);
+            }
+        }
+        lastEventTime = System.currentTimeMillis();
+    }
+
+    private static Map<String, Object> getEventData(ConsumerRecord<Long, String> record) {
+        try {
+            return mapper.readValue(record.value(), new TypeReference<Map<String, Object>>() {
+            });
+        } catch (Exception e) {
+            TelemetryManager.error("Exception Occured While Parsing event data from kafka topic : " + TOPIC_ID + ". Exception is : " + e);
+        }
+        return null;
+    }
+
+    private static void updateLag() {
+        try {
+            Set<TopicPartition> partitions = consumer.assignment();
+            if (partitions.isEmpty())
+                return;
+            long total = 0;
+            for (Map.Entry<TopicPartition, Long> entry : consumer.endOffsets(partitions).entrySet())
+                total += Math.max(0, entry.getValue() - consumer.position(entry.getKey()));
+            lag = total;
+        } catch (WakeupException e) {
+            throw e;
+        } catch (Exception e) {
+            TelemetryManager.warn("Unable to compute the lag of the local cache updater: " + e.getMessage());
         }
     }
 
@@ -68,6 +208,7 @@ public class LocalCacheUpdater {
         props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class.getName());
         props.put(ConsumerConfig.CLIENT_ID_CONFIG, "LocalCacheUpdater");
         props.put(ConsumerConfig.GROUP_ID_CONFIG, getGroupId());
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false");
         return props;
     }
 
@@ -81,22 +222,4 @@ public class LocalCacheUpdater {
         return groupId;
     }
 
-    private static Request getRequest(KafkaConsumer<Long, String> consumer) {
-        Request request = new Request();
-        request.setManagerName(LearningActorNames.CACHE_UPDATE_ACTOR.name());
-        request.setOperation("update-local-cache");
-        request.put("consumer", consumer);
-        return request;
-    }
-
-    private static void makeLearningRequest(Request request) {
-        ActorRef router = LearningRequestRouterPool.getRequestRouter();
-        try {
-            router.tell(request, ActorRef.noSender());
-        } catch (Exception e) {
-            TelemetryManager.error("Error! Something went wrong: " + e.getMessage(), e);
-            throw new ServerException(TaxonomyErrorCodes.SYSTEM_ERROR.name(), "System Error", e);
-        }
-    }
-
 }
@@ -12,7 +12,6 @@ import org.ekstep.common.exception.ResponseCode;
 import org.ekstep.common.exception.ServerException;
 import org.ekstep.compositesearch.enums.CompositeSearchErrorCodes;
 import org.ekstep.compositesearch.enums.SearchActorNames;
-import org.ekstep.search.actor.DefinitionSyncScheduler;
 import org.ekstep.search.actor.HealthCheckManager;
 import org.ekstep.search.actor.SearchManager;
 import org.ekstep.telemetry.logger.TelemetryManager;
@@ -37,7 +36,6 @@ public class SearchRequestRouter extends UntypedActor{
         if (message instanceof String) {
             if (StringUtils.equalsIgnoreCase("init", message.toString())) {
                 initActorPool();
-                DefinitionSyncScheduler.init();
                 getSender().tell("initComplete", getSelf());
             } else {
                 getSender().tell(message, getSelf());
@@ -3,59 +3,139 @@ package org.ekstep.searchindex.util;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.codehaus.jackson.map.ObjectMapper;
 import org.codehaus.jackson.type.TypeReference;
 import org.ekstep.common.Platform;
 import org.ekstep.telemetry.logger.TelemetryManager;
 
+/**
+ * Cache of the object definitions fetched from the learning service.
+ *
+ * A definition is fetched on its first use, concurrent misses for the same
+ * definition share a single fetch. It is fetched again when it is resynced
+ * (on a definition update) and, in the background while the cached one keeps
+ * being served, when it is older than <code>search.definition.cache.ttl</code>
+ * seconds. At most one background refresh of a definition is queued at a
+ * time.
+ */
 @SuppressWarnings("rawtypes")
 public class ObjectDefinitionCache {
 
-	private static Map<String, Map> definitionMap = new HashMap<String, Map>();
-	private static Map<String, Map> metadataMap = new HashMap<String, Map>();
-	private static Map<String, Map<String, String>> relationMap = new HashMap<String, Map<String, String>>();
+	private static final String DEFAULT_GRAPH_ID = "domain";
+	private static final long CACHE_TTL = (Platform.config.hasPath("search.definition.cache.ttl")
+			? Platform.config.getLong("search.definition.cache.ttl") : 3600) * 1000;
+
+	private static Map<String, Definition> definitions = new ConcurrentHashMap<String, Definition>();
+	private static Map<String, CompletableFuture<Definition>> inFlight = new ConcurrentHashMap<String, CompletableFuture<Definition>>();
+	private static Set<String> refreshing = ConcurrentHashMap.newKeySet();
+	private static ExecutorService refresher = Executors.newSingleThreadExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "definition-cache-refresh");
+		thread.setDaemon(true);
+		return thread;
+	});
 	private static ObjectMapper mapper = new ObjectMapper();
 
-	@SuppressWarnings({ "unchecked" })
+	/**
+	 * Fetches a definition, replaced in the tests.
+	 */
+	interface DefinitionFetcher {
+		Definition fetch(String objectType, String graphId) throws Exception;
+	}
+
+	static DefinitionFetcher fetcher = ObjectDefinitionCache::getDefinitionFromGraph;
+
 	public static Map<String, Object> getDefinitionNode(String objectType, String graphId) throws Exception {
-		Map<String, Object> definition = null;
-		if (definition == null) {
-			getDefinitionFromGraph(objectType, graphId);
-			definition = definitionMap.get(objectType);
-		}
-		TelemetryManager.log("DefinitionMap "+ definitionMap);
-		return definition;
+		return getDefinition(objectType, graphId).properties;
 	}
-	
+
     public static Map<String, String> getRelationDefinition(String objectType, String graphId) throws Exception {
-        Map<String, String> definition = null;
-        if (definition == null) {
-            getDefinitionFromGraph(objectType, graphId);
-            definition = relationMap.get(objectType);
-        }
-        return definition;
+        return getDefinition(objectType, graphId).relations;
     }
 
-	@SuppressWarnings({ "unchecked" })
 	public static Map<String, Object> getMetaData(String objectType, String graphId) throws Exception {
-		Map<String, Object> metadata = null;
-		if (metadata == null) {
-			getDefinitionFromGraph(objectType, graphId);
-			metadata = metadataMap.get(objectType);
+		return getDefinition(objectType, graphId).metadata;
+	}
+
+	public static Map<String, Object> getMetaData(String objectType) throws Exception {
+		return getMetaData(objectType, DEFAULT_GRAPH_ID);
+	}
+
+	/**
+	 * Fetches the definition again, the cached definition is served until the
+	 * fetch completes.
+	 */
+    public static void resyncDefinition(String objectType, String graphId) throws Exception {
+		load(objectType, graphId);
+	}
+
+	static Definition getDefinition(String objectType, String graphId) throws Exception {
+		String key = getKey(objectType, graphId);
+		Definition definition = definitions.get(key);
+		if (null == definition)
+			return load(objectType, graphId);
+		// the key stays marked from the submission until the end of the
+		// refresh, so that the later stale reads do not queue another one.
+		if (System.currentTimeMillis() - definition.loadedAt > CACHE_TTL && !inFlight.containsKey(key)
+				&& refreshing.add(key)) {
+			try {
+				refresher.execute(() -> {
+					try {
+						load(objectType, graphId);
+					} catch (Exception e) {
+						TelemetryManager.warn("Unable to refresh the definition of " + objectType + ": " + e.getMessage());
+					} finally {
+						refreshing.remove(key);
+					}
+				});
+			} catch (RuntimeException e) {
+				refreshing.remove(key);
+				throw e;
+			}
+		}
+		return definition;
+	}
+
+	private static Definition load(String objectType, String graphId) throws Exception {
+		String key = getKey(objectType, graphId);
+		CompletableFuture<Definition> future = new CompletableFuture<Definition>();
+		CompletableFuture<Definition> existing = inFlight.putIfAbsent(key, future);
+		if (null != existing) {
+			try {
+				return existing.join();
+			} catch (CompletionException e) {
+				Throwable cause = e.getCause();
+				if (cause instanceof Exception)
+					throw (Exception) cause;
+				if (cause instanceof Error)
+					throw (Error) cause;
+				throw e;
+			}
+		}
+		try {
+			Definition definition = fetcher.fetch(objectType, graphId);
+			definitions.put(key, definition);
+			future.complete(definition);
+			return definition;
+		} catch (Throwable e) {
+			future.completeExceptionally(e);
+			throw e;
+		} finally {
+			inFlight.remove(key, future);
 		}
-		return metadata;
 	}
-	
-    public static void setDefinitionNode(String objectType, Map<String, Object> definition) {
-		definitionMap.put(objectType, definition);
+
+	private static String getKey(String objectType, String graphId) {
+		return graphId + ":" + objectType;
 	}
-	
-    public static void setRelationDefinition(String objectType, Map<String, String> definition) {
-            relationMap.put(objectType, definition);
-    }
-    
-	private static void getDefinitionFromGraph(String objectType, String graphId) throws Exception {
+
+	private static Definition getDefinitionFromGraph(String objectType, String graphId) throws Exception {
 		String url = Platform.config.getString("platform-api-url") + "/taxonomy/" + graphId + "/definition/"
 				+ objectType;
 		String result = HTTPUtil.makeGetRequest(url);
@@ -73,15 +153,9 @@ public class ObjectDefinitionCache {
         if (definitionNode == null) {
             throw new Exception("Definition node in result is empty");
         }
-		Map<String, Object> definition = retrieveProperties(definitionNode);
-		definitionMap.put(objectType, definition);
-
-		Map<String, Object> metadata = retrieveMetadata(definitionNode);
-		metadataMap.put(objectType, metadata);
-		
 		Map<String, String> relationDefinition = retrieveRelations(definitionNode, "IN", "inRelations");
 		relationDefinition.putAll(retrieveRelations(definitionNode, "OUT", "outRelations"));
-		relationMap.put(objectType, relationDefinition);
+		return new Definition(retrieveProperties(definitionNode), retrieveMetadata(definitionNode), relationDefinition);
 	}
 
 	@SuppressWarnings({ "unchecked" })
@@ -96,13 +170,13 @@ public class ObjectDefinitionCache {
 		}
 		return definition;
 	}
-	
+
 	@SuppressWarnings({ "unchecked" })
 	private static Map<String, Object> retrieveMetadata(Map definitionNode) throws Exception {
 		Map<String, Object> metadata = (Map) definitionNode.get("metadata");
 		return metadata;
 	}
-	
+
 	@SuppressWarnings({ "unchecked" })
     private static Map<String, String> retrieveRelations(Map definitionNode, String direction, String relationProperty) throws Exception {
         Map<String, String> definition = new HashMap<String, String>();
@@ -120,23 +194,23 @@ public class ObjectDefinitionCache {
         }
         return definition;
     }
-	
-	public static Map<String, Map> getDefinitionMap() {
-		return definitionMap;
-	}
 
-    public static void resyncDefinition(String objectType, String graphId) throws Exception {
-		getDefinitionFromGraph(objectType, graphId);
-	}
-    
-    @SuppressWarnings("unchecked")
-	public static Map<String, Object> getMetaData(String objectType) throws Exception {
-    		Map<String, Object> metadata = metadataMap.get(objectType);
-    		String graphId = "domain";
-		if(null == metadata){
-			getDefinitionFromGraph(objectType, graphId);
-			metadata = metadataMap.get(objectType);
+	static class Definition {
+		final Map<String, Object> properties;
+		final Map<String, Object> metadata;
+		final Map<String, String> relations;
+		final long loadedAt;
+
+		Definition(Map<String, Object> properties, Map<String, Object> metadata, Map<String, String> relations) {
+			this(properties, metadata, relations, System.currentTimeMillis());
+		}
+
+		Definition(Map<String, Object> properties, Map<String, Object> metadata, Map<String, String> relations,
+				long loadedAt) {
+			this.properties = properties;
+			this.metadata = metadata;
+			this.relations = relations;
+			this.loadedAt = loadedAt;
 		}
-		return metadata;
 	}
 }
@@ -0,0 +1,141 @@
+package org.ekstep.searchindex.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.ekstep.searchindex.util.ObjectDefinitionCache.Definition;
+import org.ekstep.searchindex.util.ObjectDefinitionCache.DefinitionFetcher;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Every test uses its own object types, the cache being static.
+ */
+public class ObjectDefinitionCacheTest {
+
+	private static final String GRAPH_ID = "domain";
+
+	private DefinitionFetcher defaultFetcher = ObjectDefinitionCache.fetcher;
+	private ExecutorService readers = Executors.newFixedThreadPool(5);
+	private Map<String, AtomicInteger> fetches = new HashMap<String, AtomicInteger>();
+
+	@After
+	public void restore() {
+		ObjectDefinitionCache.fetcher = defaultFetcher;
+		readers.shutdownNow();
+	}
+
+	@Test
+	public void testConcurrentMissesShareOneFetch() throws Exception {
+		CountDownLatch fetching = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		ObjectDefinitionCache.fetcher = (objectType, graphId) -> {
+			count(objectType);
+			fetching.countDown();
+			release.await(5, TimeUnit.SECONDS);
+			return getDefinition(objectType, System.currentTimeMillis());
+		};
+
+		List<Future<Definition>> results = new ArrayList<Future<Definition>>();
+		for (int i = 0; i < 5; i++)
+			results.add(readers.submit(() -> ObjectDefinitionCache.getDefinition("SingleFlight", GRAPH_ID)));
+		Assert.assertTrue(fetching.await(5, TimeUnit.SECONDS));
+		Thread.sleep(100);
+		release.countDown();
+
+		Definition first = results.get(0).get(5, TimeUnit.SECONDS);
+		for (Future<Definition> result : results)
+			Assert.assertSame(first, result.get(5, TimeUnit.SECONDS));
+		Assert.assertEquals(1, getFetches("SingleFlight"));
+	}
+
+	@Test
+	public void testStaleDefinitionIsRefreshedOnce() throws Exception {
+		CountDownLatch blocking = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		ObjectDefinitionCache.fetcher = (objectType, graphId) -> {
+			int count = count(objectType);
+			if (count == 1)
+				return getDefinition(objectType, 0);
+			if ("Blocking".equals(objectType)) {
+				blocking.countDown();
+				release.await(5, TimeUnit.SECONDS);
+			}
+			return getDefinition(objectType, System.currentTimeMillis());
+		};
+
+		// keeps the refresh thread busy, so that the refreshes of the stale
+		// definition are queued behind it.
+		ObjectDefinitionCache.getDefinition("Blocking", GRAPH_ID);
+		ObjectDefinitionCache.getDefinition("Blocking", GRAPH_ID);
+		Assert.assertTrue(blocking.await(5, TimeUnit.SECONDS));
+
+		Definition stale = ObjectDefinitionCache.getDefinition("Stale", GRAPH_ID);
+		for (int i = 0; i < 5; i++)
+			Assert.assertSame(stale, ObjectDefinitionCache.getDefinition("Stale", GRAPH_ID));
+		release.countDown();
+
+		long end = System.currentTimeMillis() + 5000;
+		while (ObjectDefinitionCache.getDefinition("Stale", GRAPH_ID) == stale && System.currentTimeMillis() < end)
+			Thread.sleep(10);
+		Assert.assertNotSame(stale, ObjectDefinitionCache.getDefinition("Stale", GRAPH_ID));
+		Thread.sleep(100);
+		Assert.assertEquals(2, getFetches("Stale"));
+	}
+
+	@Test
+	public void testErrorOfTheFetchIsRethrownToTheWaiters() throws Exception {
+		CountDownLatch fetching = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		ObjectDefinitionCache.fetcher = (objectType, graphId) -> {
+			count(objectType);
+			fetching.countDown();
+			release.await(5, TimeUnit.SECONDS);
+			throw new NoClassDefFoundError("org/ekstep/Missing");
+		};
+
+		Future<Definition> loading = readers.submit(() -> ObjectDefinitionCache.getDefinition("Failing", GRAPH_ID));
+		Assert.assertTrue(fetching.await(5, TimeUnit.SECONDS));
+		Future<Definition> waiting = readers.submit(() -> ObjectDefinitionCache.getDefinition("Failing", GRAPH_ID));
+		Thread.sleep(100);
+		release.countDown();
+
+		for (Future<Definition> result : Arrays.asList(loading, waiting)) {
+			try {
+				result.get(5, TimeUnit.SECONDS);
+				Assert.fail("Definition loaded without error");
+			} catch (ExecutionException e) {
+				Assert.assertTrue(e.getCause() instanceof NoClassDefFoundError);
+			}
+		}
+		Assert.assertEquals(1, getFetches("Failing"));
+	}
+
+	private synchronized int count(String objectType) {
+		return fetches.computeIfAbsent(objectType, key -> new AtomicInteger()).incrementAndGet();
+	}
+
+	private synchronized int getFetches(String objectType) {
+		AtomicInteger count = fetches.get(objectType);
+		return null == count ? 0 : count.get();
+	}
+
+	private Definition getDefinition(String objectType, long loadedAt) {
+		Map<String, Object> properties = new HashMap<String, Object>();
+		properties.put("name", new HashMap<String, Object>());
+		Map<String, Object> metadata = new HashMap<String, Object>();
+		metadata.put("objectType", objectType);
+		return new Definition(properties, metadata, new HashMap<String, String>(), loadedAt);
+	}
+}
@@ -6,6 +6,7 @@ package org.ekstep.searchindex.elasticsearch;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -28,6 +29,7 @@ import org.elasticsearch.action.admin.indices.create.CreateIndexRequest;
 import org.elasticsearch.action.admin.indices.create.CreateIndexResponse;
 import org.elasticsearch.action.admin.indices.delete.DeleteIndexRequest;
 import org.elasticsearch.action.admin.indices.delete.DeleteIndexResponse;
+import org.elasticsearch.action.bulk.BulkItemResponse;
 import org.elasticsearch.action.bulk.BulkRequest;
 import org.elasticsearch.action.bulk.BulkResponse;
 import org.elasticsearch.action.delete.DeleteRequest;
@@ -251,6 +253,77 @@ public class ElasticSearchUtil {
 		return finalResult;
 	}
 
+	/**
+	 * Gets the documents with the given ids with a single multi-get request.
+	 *
+	 * @return the sources of the existing documents, by id
+	 */
+	public static Map<String, String> getDocumentsAsStringById(String indexName, String documentType,
+			Collection<String> documentIds) throws IOException {
+		Map<String, String> documents = new HashMap<String, String>();
+		if (documentIds.isEmpty())
+			return documents;
+		MultiGetRequest request = new MultiGetRequest();
+		documentIds.forEach(docId -> request.add(indexName, documentType, docId));
+		for (MultiGetItemResponse itemResponse : getClient(indexName).multiGet(request)) {
+			if (itemResponse.isFailed())
+				throw new IOException("Unable to get the document " + itemResponse.getId() + " : "
+						+ itemResponse.getFailure().getMessage());
+			if (itemResponse.getResponse().isExists())
+				documents.put(itemResponse.getId(), itemResponse.getResponse().getSourceAsString());
+		}
+		return documents;
+	}
+
+	/**
+	 * Indexes and deletes the given documents with a single bulk request.
+	 *
+	 * @return the failure messages of the documents which failed, by id
+	 */
+	public static Map<String, String> bulkIndexAndDelete(String indexName, String documentType,
+			Map<String, Map<String, Object>> documents, Collection<String> deletedIds) throws IOException {
+		Map<String, String> failures = new HashMap<String, String>();
+		if (documents.isEmpty() && deletedIds.isEmpty())
+			return failures;
+		BulkRequest request = new BulkRequest();
+		documents.forEach((docId, document) -> request.add(new IndexRequest(indexName, documentType, docId).source(document)));
+		deletedIds.forEach(docId -> request.add(new DeleteRequest(indexName, documentType, docId)));
+		BulkResponse bulkResponse = getClient(indexName).bulk(request);
+		if (bulkResponse.hasFailures()) {
+			for (BulkItemResponse itemResponse : bulkResponse.getItems()) {
+				if (itemResponse.isFailed())
+					failures.put(itemResponse.getId(), itemResponse.getFailureMessage());
+			}
+		}
+		return failures;
+	}
+
+	/**
+	 * Adds the given documents with the ids at the same positions with a single
+	 * bulk request. A document added again with the same id replaces the
+	 * previous one.
+	 *
+	 * @return the failure messages of the documents which failed, by their
+	 *         position in the list
+	 */
+	public static Map<Integer, String> bulkAddDocuments(String indexName, String documentType, List<String> ids,
+			List<Map<String, Object>> documents) throws IOException {
+		Map<Integer, String> failures = new HashMap<Integer, String>();
+		if (documents.isEmpty())
+			return failures;
+		BulkRequest request = new BulkRequest();
+		for (int i = 0; i < documents.size(); i++)
+			request.add(new IndexRequest(indexName, documentType, ids.get(i)).source(documents.get(i)));
+		BulkResponse bulkResponse = getClient(indexName).bulk(request);
+		if (bulkResponse.hasFailures()) {
+			for (BulkItemResponse itemResponse : bulkResponse.getItems()) {
+				if (itemResponse.isFailed())
+					failures.put(itemResponse.getItemId(), itemResponse.getFailureMessage());
+			}
+		}
+		return failures;
+	}
+
 	@SuppressWarnings("unchecked")
 	public static void bulkIndexWithIndexId(String indexName, String documentType, Map<String, Object> jsonObjects)
 			throws Exception {